@@ -0,0 +1,4 @@
+package gov.nasa.jpl.aerie.benchmarks.jmh_generated;
+public class SimulationBenchmark_jmhType extends SimulationBenchmark_jmhType_B3 {
+}
+
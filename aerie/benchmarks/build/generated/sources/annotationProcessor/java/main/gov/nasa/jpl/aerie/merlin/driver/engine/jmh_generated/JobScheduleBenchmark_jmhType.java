@@ -0,0 +1,4 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine.jmh_generated;
+public class JobScheduleBenchmark_jmhType extends JobScheduleBenchmark_jmhType_B3 {
+}
+
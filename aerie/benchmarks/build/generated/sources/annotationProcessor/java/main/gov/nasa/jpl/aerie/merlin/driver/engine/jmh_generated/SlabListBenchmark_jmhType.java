@@ -0,0 +1,4 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine.jmh_generated;
+public class SlabListBenchmark_jmhType extends SlabListBenchmark_jmhType_B3 {
+}
+
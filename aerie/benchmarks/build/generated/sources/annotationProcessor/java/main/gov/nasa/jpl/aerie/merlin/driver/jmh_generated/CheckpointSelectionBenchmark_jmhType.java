@@ -0,0 +1,4 @@
+package gov.nasa.jpl.aerie.merlin.driver.jmh_generated;
+public class CheckpointSelectionBenchmark_jmhType extends CheckpointSelectionBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline.jmh_generated;
+public class TemporalCursorBenchmark_jmhType extends TemporalCursorBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,92 @@
+package gov.nasa.jpl.aerie.benchmarks;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end simulation throughput.
+ *
+ * {@link #stepToHorizon} isolates the engine's stepping loop, while {@link #simulateWithResults}
+ * also includes the cost of computing simulation results from the recorded timeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+  private static final Duration HORIZON = Duration.of(24, Duration.HOURS);
+
+  @Param({"banananation", "foo", "synthetic"})
+  public String model;
+
+  @Param({"100", "1000"})
+  public int activities;
+
+  @Param({"16"})
+  public int cells;
+
+  @Param({"1", "4"})
+  public int batchParallelism;
+
+  private Workloads.Workload workload;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.workload = Workloads.create(this.model, this.activities, this.cells, HORIZON);
+  }
+
+  @Benchmark
+  public Duration stepToHorizon() throws Throwable {
+    final var missionModel = this.workload.missionModel();
+    try (final var engine = new SimulationEngine(missionModel.getInitialCells(), this.batchParallelism)) {
+      engine.init(missionModel.getResources(), missionModel.getDaemon());
+      for (final var directive : this.workload.plan().values()) {
+        engine.scheduleTask(directive.startOffset(), missionModel.getTaskFactory(directive.serializedActivity()));
+      }
+
+      while (true) {
+        final var status = engine.step(HORIZON);
+        if (!(status instanceof SimulationEngine.Status.Nominal)) break;
+      }
+      return engine.getElapsedTime();
+    }
+  }
+
+  @Benchmark
+  public SimulationResults simulateWithResults() {
+    return SimulationDriver.simulate(
+        this.workload.missionModel(),
+        this.workload.plan(),
+        Instant.EPOCH,
+        HORIZON,
+        Instant.EPOCH,
+        HORIZON,
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(0), this.batchParallelism));
+  }
+}
@@ -0,0 +1,276 @@
+package gov.nasa.jpl.aerie.benchmarks;
+
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.DirectiveType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.InputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.SerializedActivity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/** Mission models and plans for the engine benchmarks to drive. */
+public final class Workloads {
+  private Workloads() {}
+
+  /** A model to simulate, together with a plan of directives for it. */
+  public record Workload(MissionModel<?> missionModel, Map<ActivityDirectiveId, ActivityDirective> plan) {}
+
+  /**
+   * Build a workload of the given kind.
+   *
+   * @param kind one of "banananation", "foo", or "synthetic"
+   * @param activities the number of directives in the plan
+   * @param cells the number of cells allocated by the synthetic model (ignored by the example models)
+   * @param horizon the span of time over which directives are spread
+   */
+  public static Workload create(final String kind, final int activities, final int cells, final Duration horizon) {
+    return switch (kind) {
+      case "banananation" -> new Workload(
+          banananation(),
+          spread(activities, horizon, i -> switch (i % 3) {
+            case 0 -> new SerializedActivity("BiteBanana", Map.of("biteSize", SerializedValue.of(1.0)));
+            case 1 -> new SerializedActivity("PeelBanana", Map.of());
+            default -> new SerializedActivity("GrowBanana", Map.of(
+                "quantity", SerializedValue.of(1),
+                "growingDuration", SerializedValue.of(Duration.SECOND.in(Duration.MICROSECONDS))));
+          }));
+      case "foo" -> new Workload(
+          foo(),
+          spread(activities, horizon, i -> (i % 2 == 0)
+              ? new SerializedActivity("foo", Map.of("z", SerializedValue.of(i)))
+              : new SerializedActivity("BasicActivity", Map.of())));
+      case "synthetic" -> new Workload(
+          synthetic(cells),
+          spread(activities, horizon, i -> new SerializedActivity(
+              SyntheticActivity.TYPE,
+              Map.of("cell", SerializedValue.of(i % cells)))));
+      default -> throw new IllegalArgumentException("Unknown workload: " + kind);
+    };
+  }
+
+  private interface DirectiveSource {
+    SerializedActivity get(int index);
+  }
+
+  // Directives are spread uniformly over the horizon, with several starting at each instant
+  //   so that the engine sees batches of concurrent jobs.
+  private static Map<ActivityDirectiveId, ActivityDirective> spread(
+      final int activities,
+      final Duration horizon,
+      final DirectiveSource directives
+  ) {
+    final var distinctStarts = Math.max(1, activities / 4);
+    final var step = horizon.dividedBy(distinctStarts + 1);
+
+    final var plan = new HashMap<ActivityDirectiveId, ActivityDirective>(activities);
+    for (var i = 0; i < activities; i++) {
+      plan.put(
+          new ActivityDirectiveId(i),
+          new ActivityDirective(step.times(i % distinctStarts), directives.get(i), null, true));
+    }
+    return plan;
+  }
+
+  public static MissionModel<?> banananation() {
+    final var config = gov.nasa.jpl.aerie.banananation.Configuration.defaultConfiguration();
+    final var factory = new gov.nasa.jpl.aerie.banananation.generated.GeneratedModelType();
+    final var builder = new MissionModelBuilder();
+    final var model = factory.instantiate(Instant.EPOCH, config, builder);
+    return builder.build(model, DirectiveTypeRegistry.extract(factory));
+  }
+
+  public static MissionModel<?> foo() {
+    final var config = new gov.nasa.jpl.aerie.foomissionmodel.Configuration();
+    final var factory = new gov.nasa.jpl.aerie.foomissionmodel.generated.GeneratedModelType();
+    final var builder = new MissionModelBuilder();
+    final var model = factory.instantiate(Instant.EPOCH, config, builder);
+    return builder.build(model, DirectiveTypeRegistry.extract(factory));
+  }
+
+  /**
+   * A model of {@code cells} independent counters, each exposed as a discrete resource.
+   * Its only activity repeatedly reads one counter and emits an increment to it.
+   */
+  public static MissionModel<?> synthetic(final int cells) {
+    final var builder = new MissionModelBuilder();
+    final var counters = new ArrayList<Counter>(cells);
+    for (var i = 0; i < cells; i++) {
+      final var topic = new Topic<Long>();
+      final CellId<long[]> cell = builder.allocate(new long[] {0}, CounterCellType.INSTANCE, $ -> $, topic);
+      builder.topic("counter/" + i, topic, LONG_OUTPUT);
+      builder.resource("counter/" + i, new CounterResource(cell));
+      counters.add(new Counter(topic, cell));
+    }
+
+    final var model = List.copyOf(counters);
+    return builder.build(model, new DirectiveTypeRegistry<>(Map.of(SyntheticActivity.TYPE, new SyntheticActivity())));
+  }
+
+  /* package-private */ record Counter(Topic<Long> topic, CellId<long[]> cell) {}
+
+  /* package-private */ static final class SyntheticActivity
+      implements DirectiveType<List<Counter>, Map<String, SerializedValue>, Unit>
+  {
+    static final String TYPE = "Synthetic";
+    private static final int STEPS = 10;
+    private static final Duration PERIOD = Duration.of(1, Duration.MINUTES);
+
+    @Override
+    public InputType<Map<String, SerializedValue>> getInputType() {
+      return new InputType<>() {
+        @Override
+        public List<Parameter> getParameters() {
+          return List.of(new Parameter("cell", ValueSchema.INT));
+        }
+
+        @Override
+        public List<String> getRequiredParameters() {
+          return List.of("cell");
+        }
+
+        @Override
+        public Map<String, SerializedValue> instantiate(final Map<String, SerializedValue> arguments) {
+          return arguments;
+        }
+
+        @Override
+        public Map<String, SerializedValue> getArguments(final Map<String, SerializedValue> value) {
+          return value;
+        }
+
+        @Override
+        public List<ValidationNotice> getValidationFailures(final Map<String, SerializedValue> value) {
+          return List.of();
+        }
+      };
+    }
+
+    @Override
+    public OutputType<Unit> getOutputType() {
+      return new OutputType<>() {
+        @Override
+        public ValueSchema getSchema() {
+          return ValueSchema.ofStruct(Map.of());
+        }
+
+        @Override
+        public SerializedValue serialize(final Unit value) {
+          return SerializedValue.of(Map.of());
+        }
+      };
+    }
+
+    @Override
+    public TaskFactory<Unit> getTaskFactory(final List<Counter> model, final Map<String, SerializedValue> arguments) {
+      final var counter = model.get((int) (long) arguments.get("cell").asInt().orElseThrow());
+      return executor -> new SyntheticTask(counter, STEPS);
+    }
+  }
+
+  private record SyntheticTask(Counter counter, int remainingSteps) implements Task<Unit> {
+    @Override
+    public TaskStatus<Unit> step(final Scheduler scheduler) {
+      final var value = scheduler.get(this.counter.cell())[0];
+      scheduler.emit(value % 7 + 1, this.counter.topic());
+
+      if (this.remainingSteps <= 1) return TaskStatus.completed(Unit.UNIT);
+      return TaskStatus.delayed(SyntheticActivity.PERIOD, new SyntheticTask(this.counter, this.remainingSteps - 1));
+    }
+
+    @Override
+    public Task<Unit> duplicate(final Executor executor) {
+      return this;
+    }
+  }
+
+  private record CounterResource(CellId<long[]> cell) implements Resource<Long> {
+    @Override
+    public String getType() {
+      return "discrete";
+    }
+
+    @Override
+    public OutputType<Long> getOutputType() {
+      return LONG_OUTPUT;
+    }
+
+    @Override
+    public Long getDynamics(final Querier querier) {
+      return querier.getState(this.cell)[0];
+    }
+  }
+
+  private static final OutputType<Long> LONG_OUTPUT = new OutputType<>() {
+    @Override
+    public ValueSchema getSchema() {
+      return ValueSchema.INT;
+    }
+
+    @Override
+    public SerializedValue serialize(final Long value) {
+      return SerializedValue.of(value);
+    }
+  };
+
+  /** A cell holding a single accumulating counter, whose concurrent and sequential effects both add. */
+  public enum CounterCellType implements CellType<Long, long[]> {
+    INSTANCE;
+
+    @Override
+    public EffectTrait<Long> getEffectType() {
+      return SumTrait.INSTANCE;
+    }
+
+    @Override
+    public long[] duplicate(final long[] state) {
+      return new long[] {state[0]};
+    }
+
+    @Override
+    public void apply(final long[] state, final Long effect) {
+      state[0] += effect;
+    }
+  }
+
+  public enum SumTrait implements EffectTrait<Long> {
+    INSTANCE;
+
+    @Override
+    public Long empty() {
+      return 0L;
+    }
+
+    @Override
+    public Long sequentially(final Long prefix, final Long suffix) {
+      return prefix + suffix;
+    }
+
+    @Override
+    public Long concurrently(final Long left, final Long right) {
+      return left + right;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Choosing which cached simulation engine to resume from, as the scheduler does before every simulation.
+ *
+ * Every cached engine simulated the same plan, checkpointed at evenly spaced times, and the plan to simulate
+ *   differs from it by a single directive halfway through the horizon.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckpointSelectionBenchmark {
+  @Param({"500", "5000"})
+  public int directives;
+
+  @Param({"20"})
+  public int engines;
+
+  private static final Duration HORIZON = Duration.of(10, Duration.HOUR);
+
+  private Map<ActivityDirectiveId, ActivityDirective> schedule;
+  private List<CachedSimulationEngine> cachedEngines;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final var step = HORIZON.dividedBy(this.directives + 1);
+
+    final var simulated = new HashMap<ActivityDirectiveId, ActivityDirective>(this.directives);
+    for (var i = 0; i < this.directives; i++) {
+      simulated.put(new ActivityDirectiveId(i), directive(step.times(i), i));
+    }
+
+    this.cachedEngines = new ArrayList<>(this.engines);
+    for (var i = 0; i < this.engines; i++) {
+      final var endsAt = HORIZON.dividedBy(this.engines + 1).times(i + 1);
+      this.cachedEngines.add(new CachedSimulationEngine(endsAt, simulated, null, null, null, null));
+    }
+
+    // The scheduler renumbers directives between simulations, so the schedule's ids match none of the cache's.
+    this.schedule = new HashMap<>(this.directives);
+    for (var i = 0; i < this.directives; i++) {
+      final var value = (i == this.directives / 2) ? -1 : i;
+      this.schedule.put(new ActivityDirectiveId(this.directives + i), directive(step.times(i), value));
+    }
+  }
+
+  @Benchmark
+  public Object bestCachedEngine() {
+    return CheckpointSimulationDriver.bestCachedEngine(this.schedule, this.cachedEngines, HORIZON);
+  }
+
+  private static ActivityDirective directive(final Duration startOffset, final long value) {
+    return new ActivityDirective(
+        startOffset,
+        "BiteBanana",
+        Map.of("biteSize", SerializedValue.of(value)),
+        null,
+        true);
+  }
+}
@@ -0,0 +1,76 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling, rescheduling, draining, and duplicating a {@link JobSchedule}.
+ *
+ * Lives in the engine package because {@link SchedulingInstant}s are built from the package-private {@link SubInstant}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobScheduleBenchmark {
+  @Param({"1000", "100000"})
+  public int jobs;
+
+  @Param({"10", "1000"})
+  public int distinctTimes;
+
+  private SchedulingInstant[] times;
+  private JobSchedule<Integer, SchedulingInstant> populated;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.times = new SchedulingInstant[this.jobs];
+    for (var i = 0; i < this.jobs; i++) {
+      this.times[i] = SubInstant.Tasks.at(Duration.of(i % this.distinctTimes, Duration.SECONDS));
+    }
+
+    this.populated = new JobSchedule<>();
+    for (var i = 0; i < this.jobs; i++) this.populated.schedule(i, this.times[i]);
+  }
+
+  @Benchmark
+  public void scheduleAndDrain(final Blackhole blackhole) {
+    final var schedule = new JobSchedule<Integer, SchedulingInstant>();
+    for (var i = 0; i < this.jobs; i++) schedule.schedule(i, this.times[i]);
+
+    while (true) {
+      final var batch = schedule.extractNextJobs(Duration.MAX_VALUE);
+      if (batch.jobs().isEmpty()) break;
+      blackhole.consume(batch);
+    }
+  }
+
+  @Benchmark
+  public JobSchedule<Integer, SchedulingInstant> reschedule() {
+    final var schedule = this.populated.duplicate();
+    // Move every job to the time slot of its successor, as condition re-evaluation tends to do.
+    for (var i = 0; i < this.jobs; i++) schedule.schedule(i, this.times[(i + 1) % this.jobs]);
+    return schedule;
+  }
+
+  @Benchmark
+  public JobSchedule<Integer, SchedulingInstant> duplicate() {
+    return this.populated.duplicate();
+  }
+}
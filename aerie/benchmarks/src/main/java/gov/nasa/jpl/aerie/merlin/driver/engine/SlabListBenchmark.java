@@ -0,0 +1,62 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterating over a {@link SlabList}, as cursors over the timeline of a simulation do.
+ *
+ * Sizes straddle the slab size, so that both iteration within a slab and hops between slabs are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlabListBenchmark {
+  @Param({"1000", "100000"})
+  public int elements;
+
+  private SlabList<Integer> populated;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.populated = new SlabList<>();
+    for (var i = 0; i < this.elements; i++) this.populated.append(i);
+  }
+
+  @Benchmark
+  public void iterate(final Blackhole blackhole) {
+    for (final var element : this.populated) blackhole.consume(element);
+  }
+
+  @Benchmark
+  public void iterateWhileAppending(final Blackhole blackhole) {
+    // The iterator is reused after running out, as a cursor following a growing timeline does.
+    final var list = new SlabList<Integer>();
+    final var iterator = list.iterator();
+    for (var i = 0; i < this.elements; i++) {
+      list.append(i);
+      while (iterator.hasNext()) blackhole.consume(iterator.next());
+    }
+  }
+
+  @Benchmark
+  public SlabList<Integer> duplicate() {
+    return this.populated.duplicate();
+  }
+}
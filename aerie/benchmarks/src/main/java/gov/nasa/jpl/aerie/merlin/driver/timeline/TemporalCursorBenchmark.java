@@ -0,0 +1,104 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.benchmarks.Workloads.CounterCellType;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catching a cell up with a timeline it is mostly uninterested in, and applying event graphs to a cell.
+ *
+ * The timeline interleaves time deltas with commits spread across {@code topics} topics,
+ *   while the cell under test subscribes to only one of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemporalCursorBenchmark {
+  @Param({"10000", "100000"})
+  public int commits;
+
+  @Param({"1", "64"})
+  public int topics;
+
+  @Param({"16"})
+  public int eventsPerCommit;
+
+  private TemporalEventSource timeline;
+  private Cell<long[]> cell;
+  private EventGraph<Event> sequentialGraph;
+  private EventGraph<Event> concurrentGraph;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final var allTopics = new ArrayList<Topic<Long>>(this.topics);
+    for (var i = 0; i < this.topics; i++) allTopics.add(new Topic<>());
+
+    final var provenance = SpanId.generate();
+    this.timeline = new TemporalEventSource();
+    for (var i = 0; i < this.commits; i++) {
+      this.timeline.add(Duration.SECOND);
+      final var topic = allTopics.get(i % this.topics);
+      final var events = new ArrayList<EventGraph<Event>>(this.eventsPerCommit);
+      for (var j = 0; j < this.eventsPerCommit; j++) {
+        events.add(EventGraph.atom(Event.create(topic, 1L, provenance)));
+      }
+      this.timeline.add(EventGraph.sequentially(events));
+    }
+    this.timeline.freeze();
+
+    this.cell = new Cell<>(
+        CounterCellType.INSTANCE,
+        new Selector<>(allTopics.getFirst(), $ -> $),
+        new RecursiveEventGraphEvaluator(),
+        new long[] {0});
+
+    final var topic = allTopics.getFirst();
+    final var atoms = new ArrayList<EventGraph<Event>>(this.eventsPerCommit);
+    for (var j = 0; j < this.eventsPerCommit; j++) {
+      atoms.add(EventGraph.atom(Event.create(topic, 1L, provenance)));
+    }
+    this.sequentialGraph = EventGraph.sequentially(atoms);
+    this.concurrentGraph = EventGraph.concurrently(List.copyOf(atoms));
+  }
+
+  @Benchmark
+  public long stepUpFromStart() {
+    final var fresh = this.cell.duplicate();
+    this.timeline.cursor().stepUp(fresh);
+    return fresh.getState()[0];
+  }
+
+  @Benchmark
+  public long applySequential() {
+    final var fresh = this.cell.duplicate();
+    fresh.apply(this.sequentialGraph);
+    return fresh.getState()[0];
+  }
+
+  @Benchmark
+  public long applyConcurrent() {
+    final var fresh = this.cell.duplicate();
+    fresh.apply(this.concurrentGraph);
+    return fresh.getState()[0];
+  }
+}
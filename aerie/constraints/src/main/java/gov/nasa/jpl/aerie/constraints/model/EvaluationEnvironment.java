@@ -3,7 +3,12 @@ package gov.nasa.jpl.aerie.constraints.model;
 import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.constraints.time.Spans;
 
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /** A container for additional context needed for Constraints AST evaluation. */
 public record EvaluationEnvironment(
@@ -20,4 +25,63 @@ public record EvaluationEnvironment(
   public EvaluationEnvironment(Map<String, LinearProfile> realExternalProfiles, Map<String, DiscreteProfile> discreteExternalProfiles) {
     this(Map.of(), Map.of(), Map.of(), realExternalProfiles, discreteExternalProfiles);
   }
+
+  /**
+   * An environment in which an alias names the given activity instance, shadowing any outer binding of that alias.
+   * The bindings of this environment are shared rather than copied, so binding costs the same at any depth.
+   */
+  public EvaluationEnvironment withActivityInstance(final String alias, final ActivityInstance activityInstance) {
+    return new EvaluationEnvironment(
+        new Scope<>(this.activityInstances, alias, activityInstance),
+        this.spansInstances,
+        this.intervals,
+        this.realExternalProfiles,
+        this.discreteExternalProfiles);
+  }
+
+  /** An environment in which an alias names the given interval, shadowing any outer binding of that alias. */
+  public EvaluationEnvironment withInterval(final String alias, final Interval interval) {
+    return new EvaluationEnvironment(
+        this.activityInstances,
+        this.spansInstances,
+        new Scope<>(this.intervals, alias, interval),
+        this.realExternalProfiles,
+        this.discreteExternalProfiles);
+  }
+
+  /**
+   * An unmodifiable map which extends an enclosing map with a single binding.
+   *
+   * Lookups walk outward through enclosing scopes, so they cost as much as the nesting is deep,
+   * which is bounded by the nesting of the constraint's expression tree.
+   */
+  private static final class Scope<V> extends AbstractMap<String, V> {
+    private final Map<String, V> enclosing;
+    private final String name;
+    private final V value;
+
+    Scope(final Map<String, V> enclosing, final String name, final V value) {
+      this.enclosing = Objects.requireNonNull(enclosing);
+      this.name = Objects.requireNonNull(name);
+      this.value = value;
+    }
+
+    @Override
+    public V get(final Object key) {
+      return (this.name.equals(key)) ? this.value : this.enclosing.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return this.name.equals(key) || this.enclosing.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+      // Rarely needed; flatten the scopes, letting inner bindings shadow outer ones.
+      final var flattened = new HashMap<>(this.enclosing);
+      flattened.put(this.name, this.value);
+      return Collections.unmodifiableMap(flattened).entrySet();
+    }
+  }
 }
@@ -27,8 +27,19 @@ public final class LinearEquation implements Comparable<LinearEquation> {
   }
 
   public double valueAt(final Duration time) {
-    final var change = this.rate*time.ratioOver(Duration.SECOND) - this.rate*this.initialTime.ratioOver(Duration.SECOND);
-    return this.initialValue + change;
+    return valueAt(this.initialTime.micros(), this.initialValue, this.rate, time.micros());
+  }
+
+  /** Evaluate the line through a point with a given rate, without boxing its parts into a {@link LinearEquation}. */
+  static double valueAt(final long initialTimeMicros, final double initialValue, final double rate, final long timeMicros) {
+    final var change = rate*seconds(timeMicros) - rate*seconds(initialTimeMicros);
+    return initialValue + change;
+  }
+
+  // Equivalent to `Duration.ratioOver(Duration.SECOND)`.
+  static double seconds(final long micros) {
+    final var microsPerSecond = Duration.SECOND.micros();
+    return (micros / microsPerSecond) + ((double) (micros % microsPerSecond)) / ((double) microsPerSecond);
   }
 
   public LinearEquation shiftInitialTime(final Duration newInitialTime) {
@@ -44,7 +55,17 @@ public final class LinearEquation implements Comparable<LinearEquation> {
   }
 
   private Optional<Duration> intersectionPointWith(final LinearEquation other) {
-    if (this.rate == other.rate) return Optional.empty();
+    return intersectionPoint(
+        this.initialTime.micros(), this.initialValue, this.rate,
+        other.initialTime.micros(), other.initialValue, other.rate);
+  }
+
+  /** The time at which two lines cross, if they cross at a representable time. */
+  static Optional<Duration> intersectionPoint(
+      final long thisInitialTimeMicros, final double thisInitialValue, final double thisRate,
+      final long otherInitialTimeMicros, final double otherInitialValue, final double otherRate
+  ) {
+    if (thisRate == otherRate) return Optional.empty();
 
     /*
     Floating point noise can cause rates to be extremely near zero, when they should
@@ -54,7 +75,9 @@ public final class LinearEquation implements Comparable<LinearEquation> {
      */
 
     // If the following causes an exception, something really has gone wrong, and we don't want to catch it.
-    final double numSeconds = (other.valueAt(this.initialTime) - this.initialValue) / (this.rate - other.rate);
+    final double numSeconds =
+        (valueAt(otherInitialTimeMicros, otherInitialValue, otherRate, thisInitialTimeMicros) - thisInitialValue)
+        / (thisRate - otherRate);
 
     // Check if numSeconds is too big before putting it in a long.
     if (Math.abs(numSeconds) > ((double) Long.MAX_VALUE) / Duration.SECOND.dividedBy(Duration.MICROSECOND)) {
@@ -62,7 +85,7 @@ public final class LinearEquation implements Comparable<LinearEquation> {
     }
 
     return Optional.of(
-        this.initialTime.plus(
+        Duration.of(thisInitialTimeMicros, Duration.MICROSECONDS).plus(
             Duration.roundNearest(
                 numSeconds,
                 Duration.SECONDS
@@ -13,19 +13,30 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Exclusive;
 import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Inclusive;
 
 public final class LinearProfile implements Profile<LinearProfile>, Iterable<Segment<LinearEquation>> {
-  public final IntervalMap<LinearEquation> profilePieces;
+  /**
+   * A profile is held as segments, as columns, or both; whichever is missing is built from the other on first use.
+   *
+   * Profiles computed from other profiles start out as columns only, so chains of arithmetic never box their
+   * intermediate segments. Both representations are immutable once built, and profiles are shared between threads
+   * evaluating constraints in parallel, so each is published through a volatile field.
+   */
+  private volatile IntervalMap<LinearEquation> profilePieces;
+  private volatile LinearProfileColumns columns;
 
   public LinearProfile(final IntervalMap<LinearEquation> profilePieces) {
     this.profilePieces = Objects.requireNonNull(profilePieces);
   }
 
+  private LinearProfile(final LinearProfileColumns columns) {
+    this.columns = Objects.requireNonNull(columns);
+  }
+
   @SafeVarargs
   public LinearProfile(final Segment<LinearEquation>... profilePieces) {
     this(IntervalMap.of(profilePieces));
@@ -35,102 +46,78 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
     this(IntervalMap.of(profilePieces));
   }
 
+  public IntervalMap<LinearEquation> profilePieces() {
+    var profilePieces = this.profilePieces;
+    if (profilePieces == null) {
+      profilePieces = this.columns.toIntervalMap();
+      this.profilePieces = profilePieces;
+    }
+    return profilePieces;
+  }
+
+  private LinearProfileColumns columns() {
+    var columns = this.columns;
+    if (columns == null) {
+      columns = LinearProfileColumns.of(this.profilePieces);
+      this.columns = columns;
+    }
+    return columns;
+  }
+
   @Override
   public Windows equalTo(final LinearProfile other) {
-    return this.getWindowsSatisfying(other, LinearEquation::equalTo);
+    return new Windows(this.columns().windowsEqualTo(other.columns(), false));
   }
 
   @Override
   public Windows notEqualTo(final LinearProfile other) {
-    return this.getWindowsSatisfying(other, LinearEquation::notEqualTo);
+    return new Windows(this.columns().windowsEqualTo(other.columns(), true));
   }
 
   public Windows lessThan(final LinearProfile other) {
-    return this.getWindowsSatisfying(other, LinearEquation::lessThan);
+    return this.getWindowsSatisfying(other, (l, r) -> l < r);
   }
 
   public Windows lessThanOrEqualTo(final LinearProfile other) {
-    return this.getWindowsSatisfying(other, LinearEquation::lessThanOrEqualTo);
+    return this.getWindowsSatisfying(other, (l, r) -> l <= r);
   }
 
   public Windows greaterThan(final LinearProfile other) {
-    return this.getWindowsSatisfying(other, LinearEquation::greaterThan);
+    return this.getWindowsSatisfying(other, (l, r) -> l > r);
   }
 
   public Windows greaterThanOrEqualTo(final LinearProfile other) {
-    return this.getWindowsSatisfying(other, LinearEquation::greaterThanOrEqualTo);
+    return this.getWindowsSatisfying(other, (l, r) -> l >= r);
   }
 
   public LinearProfile plus(final LinearProfile other) {
-    return new LinearProfile(
-        IntervalMap.map2(
-            this.profilePieces, other.profilePieces,
-            (l, r) -> {
-              if (l.isPresent() && r.isPresent()) {
-                final var left = l.get();
-                final var right = r.get();
-                final var shiftedRight = right.shiftInitialTime(left.initialTime);
-                return Optional.of(new LinearEquation(left.initialTime, left.initialValue + shiftedRight.initialValue, left.rate + right.rate));
-              } else {
-                return Optional.empty();
-              }
-            }
-        )
-    );
+    return new LinearProfile(this.columns().plus(other.columns()));
   }
 
   public LinearProfile times(final double multiplier) {
-    return new LinearProfile(this.profilePieces.map(
-        $ -> new LinearEquation($.initialTime, $.initialValue * multiplier, $.rate * multiplier)
-    ));
+    return new LinearProfile(this.columns().times(multiplier));
   }
 
   public LinearProfile rate() {
-    return new LinearProfile(this.profilePieces.map(
-        $ -> new LinearEquation($.initialTime, $.rate, 0.0)
-    ));
-  }
-
-  private Windows getWindowsSatisfying(final LinearProfile other, final BiFunction<LinearEquation, LinearEquation, Windows> condition) {
-    return new Windows(
-        IntervalMap.map2(this.profilePieces, other.profilePieces, (l, r) -> {
-          if (l.isPresent() && r.isPresent()) {
-            return Optional.of(condition.apply(l.get(), r.get()));
-          } else {
-            return Optional.empty();
-          }
-        }).flatMap((windows, interval) -> windows.select(interval).stream())
-    );
+    return new LinearProfile(this.columns().rate());
   }
 
-    @Override
-    public Windows changePoints() {
-      final var result = IntervalMap.<Boolean>builder().set(this.profilePieces.map(LinearEquation::changing));
-      for (final var segment : profilePieces) {
-        final var startTime = segment.interval().start;
-        if (segment == profilePieces.first()) {
-          if (!segment.interval().contains(Duration.MIN_VALUE)) {
-            result.unset(Interval.at(startTime));
-          }
-        } else {
-          final var previousSegment = this.profilePieces.segments().lower(segment);
-
-          if (previousSegment != null && Interval.meets(previousSegment.interval(), segment.interval())) {
-            if (previousSegment.value().valueAt(startTime) != segment.value().valueAt(startTime)) {
-              result.set(Interval.at(startTime), true);
-            }
-          } else {
-            result.unset(Interval.at(startTime));
-          }
-        }
-      }
-
-      return new Windows(result.build());
-    }
+  private Windows getWindowsSatisfying(final LinearProfile other, final LinearProfileColumns.Inequality inequality) {
+    return new Windows(this.columns().windowsSatisfying(other.columns(), inequality));
+  }
 
+  @Override
+  public Windows changePoints() {
+    return new Windows(this.columns().changePoints());
+  }
 
   @Override
   public boolean isConstant() {
+    final var profilePieces = this.profilePieces;
+    if (profilePieces == null) {
+      final var columns = this.columns;
+      return columns.size == 0 || (columns.size == 1 && columns.rates[0] == 0);
+    }
     return profilePieces.isEmpty() ||
            (profilePieces.size() == 1 && !profilePieces.first().value().changing());
   }
@@ -140,7 +127,7 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
   public LinearProfile assignGaps(final LinearProfile def) {
     return new LinearProfile(
         IntervalMap.map2(
-            this.profilePieces, def.profilePieces,
+            this.profilePieces(), def.profilePieces(),
             (original, defaultSegment) -> original.isPresent() ? original : defaultSegment
         )
     );
@@ -148,7 +135,7 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
 
   @Override
   public Optional<SerializedValue> valueAt(final Duration timepoint) {
-    return profilePieces
+    return this.profilePieces()
         .stream()
         .filter($ -> $.interval().contains(timepoint))
         .findFirst()
@@ -157,9 +144,13 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
 
   @Override
   public LinearProfile shiftBy(final Duration duration) {
+    final var shifted = this.columns().shiftBy(duration);
+    if (shifted != null) return new LinearProfile(shifted);
+
+    // Some segment runs past the bounds of time, and must be clipped as it is shifted.
     final var builder = IntervalMap.<LinearEquation>builder();
 
-    for (final var segment : this.profilePieces) {
+    for (final var segment : this.profilePieces()) {
       final var interval = segment.interval();
       final var shiftedInterval = interval.shiftBy(duration);
 
@@ -216,22 +207,22 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
 
   @Override
   public Iterator<Segment<LinearEquation>> iterator() {
-    return this.profilePieces.iterator();
+    return this.profilePieces().iterator();
   }
 
   public String toString() {
-    return this.profilePieces.toString();
+    return this.profilePieces().toString();
   }
 
   @Override
   public boolean equals(final Object obj) {
     if (!(obj instanceof final LinearProfile other)) return false;
 
-    return Objects.equals(this.profilePieces, other.profilePieces);
+    return Objects.equals(this.profilePieces(), other.profilePieces());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.profilePieces);
+    return Objects.hash(this.profilePieces());
   }
 }
@@ -0,0 +1,446 @@
+package gov.nasa.jpl.aerie.constraints.model;
+
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.constraints.time.IntervalMap;
+import gov.nasa.jpl.aerie.constraints.time.Segment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Exclusive;
+import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Inclusive;
+
+/**
+ * A columnar copy of the segments of a {@link LinearProfile}, for operations that sweep over whole profiles.
+ *
+ * Segment {@code i} covers the interval from {@code starts[i]} to {@code ends[i]} in microseconds,
+ * including each endpoint whose bit is set in {@code includesStart} or {@code includesEnd},
+ * and follows the line through {@code (initialTimes[i], initialValues[i])} rising by {@code rates[i]} per second.
+ *
+ * Like the {@link IntervalMap} it mirrors, segments are non-empty, ascending and non-overlapping,
+ * and no two segments which meet describe the same line.
+ * Every operation walks its operands once, front to back, and produces its result the same way.
+ */
+/*package-local*/ final class LinearProfileColumns {
+  final int size;
+  final long[] starts;
+  final long[] ends;
+  final BitSet includesStart;
+  final BitSet includesEnd;
+  final long[] initialTimes;
+  final double[] initialValues;
+  final double[] rates;
+
+  private LinearProfileColumns(final Builder builder) {
+    this.size = builder.size;
+    this.starts = Arrays.copyOf(builder.starts, builder.size);
+    this.ends = Arrays.copyOf(builder.ends, builder.size);
+    this.includesStart = builder.includesStart;
+    this.includesEnd = builder.includesEnd;
+    this.initialTimes = Arrays.copyOf(builder.initialTimes, builder.size);
+    this.initialValues = Arrays.copyOf(builder.initialValues, builder.size);
+    this.rates = Arrays.copyOf(builder.rates, builder.size);
+  }
+
+  static LinearProfileColumns of(final IntervalMap<LinearEquation> pieces) {
+    final var builder = new Builder(pieces.size());
+    for (final var segment : pieces) {
+      final var interval = segment.interval();
+      final var equation = segment.value();
+      builder.append(
+          interval.start.micros(), interval.includesStart(),
+          interval.end.micros(), interval.includesEnd(),
+          equation.initialTime.micros(), equation.initialValue, equation.rate,
+          false);
+    }
+    return builder.build();
+  }
+
+  IntervalMap<LinearEquation> toIntervalMap() {
+    final var segments = new ArrayList<Segment<LinearEquation>>(this.size);
+    for (var i = 0; i < this.size; i++) {
+      segments.add(Segment.of(
+          interval(this.starts[i], this.includesStart.get(i), this.ends[i], this.includesEnd.get(i)),
+          new LinearEquation(Duration.of(this.initialTimes[i], Duration.MICROSECONDS), this.initialValues[i], this.rates[i])));
+    }
+    return IntervalMap.of(segments);
+  }
+
+  private double valueAt(final int index, final long timeMicros) {
+    return LinearEquation.valueAt(this.initialTimes[index], this.initialValues[index], this.rates[index], timeMicros);
+  }
+
+  /** The sum of two profiles, defined wherever both are. */
+  LinearProfileColumns plus(final LinearProfileColumns other) {
+    final var result = new Builder(Math.max(this.size, other.size));
+    intersect(this, other, (start, includesStart, end, includesEnd, left, right) -> {
+      // Re-express the right line relative to the left line's initial time, as `LinearEquation.shiftInitialTime` does.
+      final var initialTime = this.initialTimes[left];
+      final var elapsed = LinearEquation.seconds(Math.subtractExact(initialTime, other.initialTimes[right]));
+      final var rightInitialValue = other.initialValues[right] + elapsed * other.rates[right];
+
+      result.append(
+          start, includesStart, end, includesEnd,
+          initialTime, this.initialValues[left] + rightInitialValue, this.rates[left] + other.rates[right],
+          true);
+    });
+    return result.build();
+  }
+
+  LinearProfileColumns times(final double multiplier) {
+    final var result = new Builder(this.size);
+    for (var i = 0; i < this.size; i++) {
+      result.append(
+          this.starts[i], this.includesStart.get(i), this.ends[i], this.includesEnd.get(i),
+          this.initialTimes[i], this.initialValues[i] * multiplier, this.rates[i] * multiplier,
+          true);
+    }
+    return result.build();
+  }
+
+  LinearProfileColumns rate() {
+    final var result = new Builder(this.size);
+    for (var i = 0; i < this.size; i++) {
+      result.append(
+          this.starts[i], this.includesStart.get(i), this.ends[i], this.includesEnd.get(i),
+          this.initialTimes[i], this.rates[i], 0.0,
+          true);
+    }
+    return result.build();
+  }
+
+  /**
+   * Shift every segment later in time by a given amount.
+   *
+   * @return The shifted profile, or null if some segment would be pushed past the representable bounds of time,
+   *         in which case segments would have to be clipped.
+   */
+  LinearProfileColumns shiftBy(final Duration duration) {
+    final var shift = duration.micros();
+    final var result = new Builder(this.size);
+    try {
+      for (var i = 0; i < this.size; i++) {
+        result.append(
+            shiftBound(this.starts[i], shift), this.includesStart.get(i),
+            shiftBound(this.ends[i], shift), this.includesEnd.get(i),
+            Duration.of(this.initialTimes[i], Duration.MICROSECONDS).saturatingPlus(duration).micros(),
+            this.initialValues[i],
+            this.rates[i],
+            true);
+      }
+    } catch (final ArithmeticException e) {
+      return null;
+    }
+    return result.build();
+  }
+
+  private static long shiftBound(final long bound, final long shift) throws ArithmeticException {
+    final var shifted = Math.addExact(bound, shift);
+    if (shifted < Duration.MIN_VALUE.micros() || shifted > Duration.MAX_VALUE.micros()) throw new ArithmeticException();
+    return shifted;
+  }
+
+  /** An order relation between the values of two lines. */
+  @FunctionalInterface
+  interface Inequality {
+    boolean test(double left, double right);
+  }
+
+  /**
+   * The windows where this profile is related to another by an inequality, defined wherever both profiles are.
+   * Agrees with {@link LinearEquation#lessThan} and its siblings on each overlapping pair of segments.
+   */
+  IntervalMap<Boolean> windowsSatisfying(final LinearProfileColumns other, final Inequality inequality) {
+    final var result = new WindowsBuilder();
+    intersect(this, other, (start, includesStart, end, includesEnd, left, right) -> {
+      final var intersection = LinearEquation.intersectionPoint(
+          this.initialTimes[left], this.initialValues[left], this.rates[left],
+          other.initialTimes[right], other.initialValues[right], other.rates[right]);
+
+      if (intersection.isEmpty()) {
+        final var initialTime = this.initialTimes[left];
+        final var satisfied = inequality.test(this.initialValues[left], other.valueAt(right, initialTime));
+        result.append(start, includesStart, end, includesEnd, satisfied);
+      } else {
+        final var crossing = intersection.get();
+        final var before = crossing.minus(Duration.SECOND).micros();
+        final var after = crossing.plus(Duration.SECOND).micros();
+        final var at = crossing.micros();
+
+        result.appendWithin(
+            start, includesStart, end, includesEnd,
+            Duration.MIN_VALUE.micros(), true, at, false,
+            inequality.test(this.valueAt(left, before), other.valueAt(right, before)));
+        result.appendWithin(
+            start, includesStart, end, includesEnd,
+            at, true, at, true,
+            inequality.test(this.valueAt(left, at), other.valueAt(right, at)));
+        result.appendWithin(
+            start, includesStart, end, includesEnd,
+            at, false, Duration.MAX_VALUE.micros(), true,
+            inequality.test(this.valueAt(left, after), other.valueAt(right, after)));
+      }
+    });
+    return result.build();
+  }
+
+  /**
+   * The windows where this profile equals another (or differs from it, if {@code negate} is set),
+   * defined wherever both profiles are.
+   * Agrees with {@link LinearEquation#equalTo} on each overlapping pair of segments.
+   */
+  IntervalMap<Boolean> windowsEqualTo(final LinearProfileColumns other, final boolean negate) {
+    final var result = new WindowsBuilder();
+    intersect(this, other, (start, includesStart, end, includesEnd, left, right) -> {
+      final var intersection = LinearEquation.intersectionPoint(
+          this.initialTimes[left], this.initialValues[left], this.rates[left],
+          other.initialTimes[right], other.initialValues[right], other.rates[right]);
+
+      if (intersection.isEmpty()) {
+        final var equal = this.initialValues[left] == other.valueAt(right, this.initialTimes[left]);
+        result.append(start, includesStart, end, includesEnd, equal != negate);
+      } else {
+        final var at = intersection.get().micros();
+        result.appendWithin(start, includesStart, end, includesEnd, Duration.MIN_VALUE.micros(), true, at, false, negate);
+        result.appendWithin(start, includesStart, end, includesEnd, at, true, at, true, !negate);
+        result.appendWithin(start, includesStart, end, includesEnd, at, false, Duration.MAX_VALUE.micros(), true, negate);
+      }
+    });
+    return result.build();
+  }
+
+  /**
+   * The windows where this profile is changing, or jumps from one value to another.
+   *
+   * A segment's interior is true where it has a nonzero rate.
+   * The point where two segments meet is true if they disagree on its value there,
+   * and the start of a segment which follows a gap (or starts the profile) is unknown.
+   */
+  IntervalMap<Boolean> changePoints() {
+    final var result = new WindowsBuilder();
+    for (var i = 0; i < this.size; i++) {
+      final var start = this.starts[i];
+      final var end = this.ends[i];
+      final var includesStart = this.includesStart.get(i);
+      final var includesEnd = this.includesEnd.get(i);
+      final var changing = this.rates[i] != 0;
+
+      final var meetsPrevious = (i > 0) && meets(i - 1, i);
+      final var meetsNext = (i + 1 < this.size) && meets(i, i + 1);
+      final var jumpsAtStart = meetsPrevious && this.valueAt(i - 1, start) != this.valueAt(i, start);
+      final var jumpsAtEnd = meetsNext && this.valueAt(i, end) != this.valueAt(i + 1, end);
+
+      // The value at this segment's start, if it includes its start; null if unknown.
+      final Boolean startValue;
+      if (i == 0) {
+        startValue = (start == Duration.MIN_VALUE.micros()) ? changing : null;
+      } else if (meetsPrevious) {
+        startValue = jumpsAtStart || changing;
+      } else {
+        startValue = null;
+      }
+
+      if (start == end) {
+        // A single point, which is also where the next segment may jump from.
+        final var value = jumpsAtEnd ? Boolean.TRUE : startValue;
+        if (value != null) result.append(start, true, end, true, value);
+        continue;
+      }
+
+      if (includesStart && startValue != null) result.append(start, true, start, true, startValue);
+      result.append(start, false, end, false, changing);
+      if (includesEnd) result.append(end, true, end, true, jumpsAtEnd || changing);
+    }
+    return result.build();
+  }
+
+  private boolean meets(final int earlier, final int later) {
+    return this.ends[earlier] == this.starts[later] && this.includesEnd.get(earlier) != this.includesStart.get(later);
+  }
+
+  @FunctionalInterface
+  private interface Overlap {
+    void accept(long start, boolean includesStart, long end, boolean includesEnd, int left, int right);
+  }
+
+  /** Visit the non-empty overlap of every pair of segments of two profiles, in ascending order. */
+  private static void intersect(final LinearProfileColumns left, final LinearProfileColumns right, final Overlap action) {
+    var i = 0;
+    var j = 0;
+    while (i < left.size && j < right.size) {
+      // The overlap starts at the later of the two starts...
+      final long start;
+      final boolean includesStart;
+      if (left.starts[i] != right.starts[j]) {
+        final var fromLeft = left.starts[i] > right.starts[j];
+        start = fromLeft ? left.starts[i] : right.starts[j];
+        includesStart = fromLeft ? left.includesStart.get(i) : right.includesStart.get(j);
+      } else {
+        start = left.starts[i];
+        includesStart = left.includesStart.get(i) && right.includesStart.get(j);
+      }
+
+      // ...and ends at the earlier of the two ends, where an excluded end comes before an included one.
+      final int endOrder = compareEnds(left.ends[i], left.includesEnd.get(i), right.ends[j], right.includesEnd.get(j));
+      final var end = (endOrder <= 0) ? left.ends[i] : right.ends[j];
+      final var includesEnd = (endOrder <= 0) ? left.includesEnd.get(i) : right.includesEnd.get(j);
+
+      if (isNonEmpty(start, includesStart, end, includesEnd)) action.accept(start, includesStart, end, includesEnd, i, j);
+
+      if (endOrder <= 0) i += 1;
+      if (endOrder >= 0) j += 1;
+    }
+  }
+
+  private static int compareEnds(final long left, final boolean includesLeft, final long right, final boolean includesRight) {
+    if (left != right) return Long.compare(left, right);
+    return Boolean.compare(includesLeft, includesRight);
+  }
+
+  private static boolean isNonEmpty(final long start, final boolean includesStart, final long end, final boolean includesEnd) {
+    return (start < end) || (start == end && includesStart && includesEnd);
+  }
+
+  private static Interval interval(final long start, final boolean includesStart, final long end, final boolean includesEnd) {
+    return Interval.between(
+        Duration.of(start, Duration.MICROSECONDS), includesStart ? Inclusive : Exclusive,
+        Duration.of(end, Duration.MICROSECONDS), includesEnd ? Inclusive : Exclusive);
+  }
+
+  /** Accumulates segments in ascending order, merging a segment into its predecessor if they meet and agree. */
+  private static final class Builder {
+    private int size = 0;
+    private long[] starts;
+    private long[] ends;
+    private final BitSet includesStart = new BitSet();
+    private final BitSet includesEnd = new BitSet();
+    private long[] initialTimes;
+    private double[] initialValues;
+    private double[] rates;
+
+    Builder(final int capacity) {
+      final var initialCapacity = Math.max(capacity, 1);
+      this.starts = new long[initialCapacity];
+      this.ends = new long[initialCapacity];
+      this.initialTimes = new long[initialCapacity];
+      this.initialValues = new double[initialCapacity];
+      this.rates = new double[initialCapacity];
+    }
+
+    void append(
+        final long start, final boolean includesStart, final long end, final boolean includesEnd,
+        final long initialTime, final double initialValue, final double rate,
+        final boolean merge
+    ) {
+      if (merge && this.size > 0) {
+        final var last = this.size - 1;
+        // Lines are compared as `LinearEquation.equals` compares them.
+        if (this.ends[last] == start
+            && this.includesEnd.get(last) != includesStart
+            && this.valueAt(last, 0) == LinearEquation.valueAt(initialTime, initialValue, rate, 0)
+            && this.valueAt(last, Duration.MINUTE.micros()) == LinearEquation.valueAt(initialTime, initialValue, rate, Duration.MINUTE.micros()))
+        {
+          // The later line takes over the unified segment, as when an `IntervalMap` unifies two segments.
+          this.ends[last] = end;
+          this.includesEnd.set(last, includesEnd);
+          this.initialTimes[last] = initialTime;
+          this.initialValues[last] = initialValue;
+          this.rates[last] = rate;
+          return;
+        }
+      }
+
+      if (this.size == this.starts.length) {
+        final var capacity = this.size * 2;
+        this.starts = Arrays.copyOf(this.starts, capacity);
+        this.ends = Arrays.copyOf(this.ends, capacity);
+        this.initialTimes = Arrays.copyOf(this.initialTimes, capacity);
+        this.initialValues = Arrays.copyOf(this.initialValues, capacity);
+        this.rates = Arrays.copyOf(this.rates, capacity);
+      }
+
+      this.starts[this.size] = start;
+      this.ends[this.size] = end;
+      this.includesStart.set(this.size, includesStart);
+      this.includesEnd.set(this.size, includesEnd);
+      this.initialTimes[this.size] = initialTime;
+      this.initialValues[this.size] = initialValue;
+      this.rates[this.size] = rate;
+      this.size += 1;
+    }
+
+    private double valueAt(final int index, final long timeMicros) {
+      return LinearEquation.valueAt(this.initialTimes[index], this.initialValues[index], this.rates[index], timeMicros);
+    }
+
+    LinearProfileColumns build() {
+      return new LinearProfileColumns(this);
+    }
+  }
+
+  /** Accumulates boolean segments in ascending order, merging a segment into its predecessor if they meet and agree. */
+  private static final class WindowsBuilder {
+    private final ArrayList<Segment<Boolean>> segments = new ArrayList<>();
+
+    private long lastEnd;
+    private boolean lastIncludesEnd;
+
+    void append(final long start, final boolean includesStart, final long end, final boolean includesEnd, final boolean value) {
+      if (!this.segments.isEmpty()) {
+        final var last = this.segments.getLast();
+        if (this.lastEnd == start && this.lastIncludesEnd != includesStart && last.value() == value) {
+          this.segments.set(
+              this.segments.size() - 1,
+              Segment.of(
+                  Interval.between(last.interval().start, last.interval().startInclusivity,
+                                   Duration.of(end, Duration.MICROSECONDS), includesEnd ? Inclusive : Exclusive),
+                  value));
+          this.lastEnd = end;
+          this.lastIncludesEnd = includesEnd;
+          return;
+        }
+      }
+
+      this.segments.add(Segment.of(interval(start, includesStart, end, includesEnd), value));
+      this.lastEnd = end;
+      this.lastIncludesEnd = includesEnd;
+    }
+
+    /** Append the part of one interval that lies within another, if there is any. */
+    void appendWithin(
+        final long boundsStart, final boolean boundsIncludeStart, final long boundsEnd, final boolean boundsIncludeEnd,
+        final long start, final boolean includesStart, final long end, final boolean includesEnd,
+        final boolean value
+    ) {
+      final long clippedStart;
+      final boolean clippedIncludesStart;
+      if (start != boundsStart) {
+        clippedStart = Math.max(start, boundsStart);
+        clippedIncludesStart = (start > boundsStart) ? includesStart : boundsIncludeStart;
+      } else {
+        clippedStart = start;
+        clippedIncludesStart = includesStart && boundsIncludeStart;
+      }
+
+      final long clippedEnd;
+      final boolean clippedIncludesEnd;
+      if (end != boundsEnd) {
+        clippedEnd = Math.min(end, boundsEnd);
+        clippedIncludesEnd = (end < boundsEnd) ? includesEnd : boundsIncludeEnd;
+      } else {
+        clippedEnd = end;
+        clippedIncludesEnd = includesEnd && boundsIncludeEnd;
+      }
+
+      if (isNonEmpty(clippedStart, clippedIncludesStart, clippedEnd, clippedIncludesEnd)) {
+        this.append(clippedStart, clippedIncludesStart, clippedEnd, clippedIncludesEnd, value);
+      }
+    }
+
+    IntervalMap<Boolean> build() {
+      return IntervalMap.of(this.segments);
+    }
+  }
+}
@@ -19,6 +19,14 @@ public final class SimulationResults {
   public final Map<String, LinearProfile> realProfiles;
   public final Map<String, DiscreteProfile> discreteProfiles;
 
+  /**
+   * The activities grouped by type, each group in the order of {@link #activities}; built on first use.
+   *
+   * Results are shared between threads evaluating constraints in parallel, so the index is only ever
+   * published as an immutable map through this volatile field.
+   */
+  private volatile Map<String, List<ActivityInstance>> activitiesByType;
+
   public SimulationResults(
       final Instant planStart,
       final Interval bounds,
@@ -35,19 +43,24 @@ public final class SimulationResults {
 
   public SimulationResults(
       gov.nasa.jpl.aerie.merlin.driver.SimulationResults merlinResults
+  ) {
+    this(merlinResults, convertRealProfiles(merlinResults), convertDiscreteProfiles(merlinResults));
+  }
+
+  /**
+   * Adapt Merlin's simulation results, using profiles which have already been adapted.
+   * The profile maps are not copied, so they may load or convert their profiles on demand.
+   */
+  public SimulationResults(
+      gov.nasa.jpl.aerie.merlin.driver.SimulationResults merlinResults,
+      final Map<String, LinearProfile> realProfiles,
+      final Map<String, DiscreteProfile> discreteProfiles
   ) {
     this.planStart = merlinResults.startTime;
     this.bounds = Interval.between(Duration.ZERO, merlinResults.duration);
     this.activities = new ArrayList<>();
-    this.realProfiles = new HashMap<>();
-    this.discreteProfiles = new HashMap<>();
-
-    for(final var entry : merlinResults.realProfiles.entrySet()) {
-      realProfiles.put(entry.getKey(), LinearProfile.fromSimulatedProfile(entry.getValue().segments()));
-    }
-    for(final var entry : merlinResults.discreteProfiles.entrySet()) {
-      discreteProfiles.put(entry.getKey(), DiscreteProfile.fromSimulatedProfile(entry.getValue().segments()));
-    }
+    this.realProfiles = realProfiles;
+    this.discreteProfiles = discreteProfiles;
 
     final var simulatedActivities = merlinResults.simulatedActivities;
     for (final var entry : simulatedActivities.entrySet()) {
@@ -67,6 +80,37 @@ public final class SimulationResults {
     }
   }
 
+  /** The activities of a given type, in the order they appear in {@link #activities}. */
+  public List<ActivityInstance> activitiesOfType(final String type) {
+    var activitiesByType = this.activitiesByType;
+    if (activitiesByType == null) {
+      final var groups = new HashMap<String, List<ActivityInstance>>();
+      for (final var activity : this.activities) {
+        groups.computeIfAbsent(activity.type(), $ -> new ArrayList<>()).add(activity);
+      }
+      groups.replaceAll(($, group) -> List.copyOf(group));
+      activitiesByType = Map.copyOf(groups);
+      this.activitiesByType = activitiesByType;
+    }
+    return activitiesByType.getOrDefault(type, List.of());
+  }
+
+  private static Map<String, LinearProfile> convertRealProfiles(gov.nasa.jpl.aerie.merlin.driver.SimulationResults merlinResults) {
+    final var realProfiles = new HashMap<String, LinearProfile>();
+    for(final var entry : merlinResults.realProfiles.entrySet()) {
+      realProfiles.put(entry.getKey(), LinearProfile.fromSimulatedProfile(entry.getValue().segments()));
+    }
+    return realProfiles;
+  }
+
+  private static Map<String, DiscreteProfile> convertDiscreteProfiles(gov.nasa.jpl.aerie.merlin.driver.SimulationResults merlinResults) {
+    final var discreteProfiles = new HashMap<String, DiscreteProfile>();
+    for(final var entry : merlinResults.discreteProfiles.entrySet()) {
+      discreteProfiles.put(entry.getKey(), DiscreteProfile.fromSimulatedProfile(entry.getValue().segments()));
+    }
+    return discreteProfiles;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof final SimulationResults o)) return false;
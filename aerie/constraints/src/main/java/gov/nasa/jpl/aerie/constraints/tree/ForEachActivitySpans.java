@@ -7,7 +7,6 @@ import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.constraints.time.Spans;
 import org.apache.commons.lang3.function.TriFunction;
 
-import java.util.HashMap;
 import java.util.Objects;
 import java.util.Set;
 
@@ -28,16 +27,13 @@ public record ForEachActivitySpans(
   @Override
   public Spans evaluate(final SimulationResults results, final Interval bounds, final EvaluationEnvironment environment) {
     final var spans = new Spans();
-    for (final var activity : results.activities) {
+    // Predicates which only match on type can look their candidates up directly.
+    final var candidates = (this.activityPredicate instanceof MatchType matchType)
+        ? results.activitiesOfType(matchType.type())
+        : results.activities;
+    for (final var activity : candidates) {
       if (this.activityPredicate.apply(activity, results, environment)) {
-        final var newEnvironment = new EvaluationEnvironment(
-            new HashMap<>(environment.activityInstances()),
-            environment.spansInstances(),
-            environment.intervals(),
-            environment.realExternalProfiles(),
-            environment.discreteExternalProfiles()
-        );
-        newEnvironment.activityInstances().put(this.alias, activity);
+        final var newEnvironment = environment.withActivityInstance(this.alias, activity);
 
         final var expressionSpans = this.expression.evaluate(results, bounds, newEnvironment);
         spans.addAll(expressionSpans);
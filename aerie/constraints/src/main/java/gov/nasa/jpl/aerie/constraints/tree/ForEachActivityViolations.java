@@ -5,7 +5,6 @@ import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
 import gov.nasa.jpl.aerie.constraints.model.SimulationResults;
 import gov.nasa.jpl.aerie.constraints.time.Interval;
 
-import java.util.HashMap;
 import java.util.Set;
 
 public record ForEachActivityViolations(
@@ -15,23 +14,14 @@ public record ForEachActivityViolations(
   @Override
   public EDSLConstraintResult evaluate(final SimulationResults results, final Interval bounds, final EvaluationEnvironment environment) {
     var violations = new EDSLConstraintResult();
-    for (final var activity : results.activities) {
-      if (activity.type().equals(this.activityType)) {
-        final var newEnvironment = new EvaluationEnvironment(
-            new HashMap<>(environment.activityInstances()),
-            environment.spansInstances(),
-            environment.intervals(),
-            environment.realExternalProfiles(),
-            environment.discreteExternalProfiles()
-        );
-        newEnvironment.activityInstances().put(this.alias, activity);
+    for (final var activity : results.activitiesOfType(this.activityType)) {
+      final var newEnvironment = environment.withActivityInstance(this.alias, activity);
 
-        final var newViolations = this.expression.evaluate(results, bounds, newEnvironment);
-        for (final var violation: newViolations.violations) {
-          violation.addActivityId(activity.id());
-        }
-        violations = EDSLConstraintResult.merge(violations, newViolations);
+      final var newViolations = this.expression.evaluate(results, bounds, newEnvironment);
+      for (final var violation: newViolations.violations) {
+        violation.addActivityId(activity.id());
       }
+      violations = EDSLConstraintResult.merge(violations, newViolations);
     }
     return violations;
   }
@@ -14,7 +14,10 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.TreeSet;
 
 public record RollingThreshold(
     Expression<Spans> spans,
@@ -78,19 +81,48 @@ public record RollingThreshold(
       throw new IllegalArgumentException("Algorithm not supported: " + algorithm);
     }
 
+    // The left bounds come in ascending order, so the window each one opens onto only ever moves forward.
+    // Sweep over the spans in order of start time, admitting each span once the window reaches it
+    // and retiring it (in order of end time) once the window has passed it by.
+    // Empty spans intersect nothing, so they are never reported.
+    final var spanList = new ArrayList<Segment<Optional<Spans.Metadata>>>();
+    for (final var span : reportedSpans) {
+      if (!span.interval().isEmpty()) spanList.add(span);
+    }
+    final var byStart = new ArrayList<Integer>(spanList.size());
+    for (var i = 0; i < spanList.size(); i++) byStart.add(i);
+    byStart.sort((a, b) -> Interval.compareStartToStart(spanList.get(a).interval(), spanList.get(b).interval()));
+
+    final var byEnd = new PriorityQueue<Integer>(
+        (a, b) -> Interval.compareEndToEnd(spanList.get(a).interval(), spanList.get(b).interval()));
+    // Active spans are kept in their original order, which is the order they are reported in.
+    final var active = new TreeSet<Integer>();
+    var nextSpan = 0;
+
     for (final var leftViolatingBound : leftViolatingBounds.iterateEqualTo(true)) {
       final var expandedInterval = Interval.between(
           leftViolatingBound.start,
           leftViolatingBound.startInclusivity,
           leftViolatingBound.end.plus(width),
           leftViolatingBound.endInclusivity);
+
+      while (nextSpan < byStart.size()
+             && Interval.compareEndToStart(expandedInterval, spanList.get(byStart.get(nextSpan)).interval()) > 0)
+      {
+        final var index = byStart.get(nextSpan++);
+        active.add(index);
+        byEnd.add(index);
+      }
+      while (!byEnd.isEmpty() && Interval.compareEndToStart(spanList.get(byEnd.peek()).interval(), expandedInterval) <= 0) {
+        active.remove(byEnd.poll());
+      }
+
       final var violationIntervals = new ArrayList<Interval>();
       final var violationActivityIds = new ArrayList<Long>();
-      for (final var span : reportedSpans) {
-        if (!Interval.intersect(span.interval(), expandedInterval).isEmpty()) {
-          violationIntervals.add(span.interval());
-          span.value().ifPresent(m -> violationActivityIds.add(m.activityInstance().id()));
-        }
+      for (final var index : active) {
+        final var span = spanList.get(index);
+        violationIntervals.add(span.interval());
+        span.value().ifPresent(m -> violationActivityIds.add(m.activityInstance().id()));
       }
       if (this.algorithm == RollingThresholdAlgorithm.ExcessHull || this.algorithm == RollingThresholdAlgorithm.DeficitHull) {
         var hull = violationIntervals.get(0);
@@ -22,7 +22,7 @@ public final class Assertions {
   public static void assertEquivalent(final LinearProfile expected, final LinearProfile actual) {
     assertEquals(expected, actual);
 
-    assertTrue(areEquivalent(expected.profilePieces, actual.profilePieces));
+    assertTrue(areEquivalent(expected.profilePieces(), actual.profilePieces()));
   }
 
   public static void assertEquivalent(final DiscreteProfile expected, final DiscreteProfile actual) {
@@ -0,0 +1,157 @@
+package gov.nasa.jpl.aerie.constraints.model;
+
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.constraints.time.IntervalMap;
+import gov.nasa.jpl.aerie.constraints.time.Segment;
+import gov.nasa.jpl.aerie.constraints.time.Windows;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Exclusive;
+import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Inclusive;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Checks the columnar profile operations against the segment-at-a-time operations they replace. */
+public class LinearProfileColumnsTest {
+  private static final int TRIALS = 500;
+
+  @Test
+  public void plusAgreesWithMap2() {
+    final var random = new Random(0);
+    for (var trial = 0; trial < TRIALS; trial++) {
+      final var left = randomProfile(random);
+      final var right = randomProfile(random);
+
+      final var expected = IntervalMap.map2(left.profilePieces(), right.profilePieces(), (l, r) -> {
+        if (l.isEmpty() || r.isEmpty()) return Optional.<LinearEquation>empty();
+        final var shiftedRight = r.get().shiftInitialTime(l.get().initialTime);
+        return Optional.of(new LinearEquation(l.get().initialTime, l.get().initialValue + shiftedRight.initialValue, l.get().rate + r.get().rate));
+      });
+
+      assertEquals(new LinearProfile(expected), left.plus(right));
+    }
+  }
+
+  @Test
+  public void comparisonsAgreeWithMap2() {
+    final var random = new Random(1);
+    for (var trial = 0; trial < TRIALS; trial++) {
+      final var left = randomProfile(random);
+      final var right = randomProfile(random);
+
+      assertEquals(expectedWindows(left, right, LinearEquation::lessThan), left.lessThan(right));
+      assertEquals(expectedWindows(left, right, LinearEquation::lessThanOrEqualTo), left.lessThanOrEqualTo(right));
+      assertEquals(expectedWindows(left, right, LinearEquation::greaterThan), left.greaterThan(right));
+      assertEquals(expectedWindows(left, right, LinearEquation::greaterThanOrEqualTo), left.greaterThanOrEqualTo(right));
+      assertEquals(expectedWindows(left, right, LinearEquation::equalTo), left.equalTo(right));
+      assertEquals(expectedWindows(left, right, LinearEquation::notEqualTo), left.notEqualTo(right));
+    }
+  }
+
+  @Test
+  public void changePointsAgreeWithBuilder() {
+    final var random = new Random(2);
+    for (var trial = 0; trial < TRIALS; trial++) {
+      final var profile = randomProfile(random);
+      final var pieces = profile.profilePieces();
+
+      final var expected = IntervalMap.<Boolean>builder().set(pieces.map(LinearEquation::changing));
+      for (final var segment : pieces) {
+        final var startTime = segment.interval().start;
+        if (segment == pieces.first()) {
+          if (!segment.interval().contains(Duration.MIN_VALUE)) expected.unset(Interval.at(startTime));
+        } else {
+          final var previous = pieces.segments().lower(segment);
+          if (previous != null && Interval.meets(previous.interval(), segment.interval())) {
+            if (previous.value().valueAt(startTime) != segment.value().valueAt(startTime)) {
+              expected.set(Interval.at(startTime), true);
+            }
+          } else {
+            expected.unset(Interval.at(startTime));
+          }
+        }
+      }
+
+      assertEquals(new Windows(expected.build()), profile.changePoints());
+    }
+  }
+
+  @Test
+  public void shiftByAgreesWithBuilder() {
+    final var random = new Random(3);
+    for (var trial = 0; trial < TRIALS; trial++) {
+      final var profile = randomProfile(random);
+      final var shift = Duration.of(random.nextInt(-20, 20), SECONDS);
+
+      final var expected = IntervalMap.<LinearEquation>builder();
+      for (final var segment : profile.profilePieces()) {
+        expected.set(
+            segment.interval().shiftBy(shift),
+            new LinearEquation(segment.value().initialTime.saturatingPlus(shift), segment.value().initialValue, segment.value().rate));
+      }
+
+      assertEquals(new LinearProfile(expected.build()), profile.shiftBy(shift));
+    }
+  }
+
+  @Test
+  public void shiftByClipsAtTheBoundsOfTime() {
+    final var profile = new LinearProfile(
+        Segment.of(Interval.between(Duration.MIN_VALUE, Inclusive, Duration.ZERO, Exclusive), new LinearEquation(Duration.ZERO, 1, 0)),
+        Segment.of(Interval.between(Duration.ZERO, Inclusive, Duration.MAX_VALUE, Inclusive), new LinearEquation(Duration.ZERO, 0, 1)));
+
+    final var expected = new LinearProfile(
+        Segment.of(Interval.between(Duration.MIN_VALUE.plus(Duration.SECOND), Inclusive, Duration.SECOND, Exclusive), new LinearEquation(Duration.SECOND, 1, 0)),
+        Segment.of(Interval.between(Duration.SECOND, Inclusive, Duration.MAX_VALUE, Inclusive), new LinearEquation(Duration.SECOND, 0, 1)));
+
+    assertEquals(expected, profile.shiftBy(Duration.SECOND));
+  }
+
+  private static Windows expectedWindows(
+      final LinearProfile left,
+      final LinearProfile right,
+      final BiFunction<LinearEquation, LinearEquation, Windows> condition
+  ) {
+    return new Windows(
+        IntervalMap.map2(left.profilePieces(), right.profilePieces(), (l, r) -> {
+          if (l.isPresent() && r.isPresent()) {
+            return Optional.of(condition.apply(l.get(), r.get()));
+          } else {
+            return Optional.empty();
+          }
+        }).flatMap((windows, interval) -> windows.select(interval).stream()));
+  }
+
+  /** A profile over a short span of seconds, with gaps, points, and shared endpoints to exercise every boundary. */
+  private static LinearProfile randomProfile(final Random random) {
+    final var segments = new ArrayList<Segment<LinearEquation>>();
+    var cursor = (long) random.nextInt(-5, 5);
+    var includesCursor = random.nextBoolean();
+    final var count = random.nextInt(0, 8);
+    for (var i = 0; i < count; i++) {
+      final var end = cursor + random.nextInt(0, 4);
+      final var includesEnd = (end == cursor) ? includesCursor : random.nextBoolean();
+      if (end > cursor || includesCursor) {
+        segments.add(Segment.of(
+            Interval.between(cursor, includesCursor ? Inclusive : Exclusive, end, includesEnd ? Inclusive : Exclusive, SECONDS),
+            new LinearEquation(Duration.of(random.nextInt(-5, 5), SECONDS), random.nextInt(-3, 3), random.nextInt(-2, 2))));
+      }
+
+      // Either continue right where this segment left off, or leave a gap.
+      if (random.nextBoolean()) {
+        cursor = end;
+        includesCursor = !includesEnd;
+      } else {
+        cursor = end + random.nextInt(1, 3);
+        includesCursor = random.nextBoolean();
+      }
+    }
+    return new LinearProfile(segments);
+  }
+}
@@ -337,7 +337,7 @@ public class LinearProfileTest {
     );
 
     assertIterableEquals(
-        expected.profilePieces, profile.profilePieces
+        expected.profilePieces(), profile.profilePieces()
     );
   }
 }
@@ -24,7 +24,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static gov.nasa.jpl.aerie.constraints.Assertions.assertEquivalent;
 import static gov.nasa.jpl.aerie.constraints.time.Interval.FOREVER;
@@ -758,6 +762,96 @@ public class ASTTests {
     assertEquivalent(expected, result);
   }
 
+  @Test
+  public void testNestedForEachActivitySpansBindsEachAlias() {
+    final var activityA1 = new ActivityInstance(1, "TypeA", Map.of(), Interval.between(4, 6, SECONDS));
+    final var activityB = new ActivityInstance(2, "TypeB", Map.of(), Interval.between(5, 7, SECONDS));
+    final var activityA3 = new ActivityInstance(3, "TypeA", Map.of(), Interval.between(9, 10, SECONDS));
+    final var simResults = new SimulationResults(
+        Instant.EPOCH, Interval.between(0, 20, SECONDS),
+        List.of(activityA1, activityB, activityA3),
+        Map.of(),
+        Map.of()
+    );
+
+    final var outer = new ForEachActivitySpans(
+        "TypeA",
+        "a",
+        new ForEachActivitySpans(
+            "TypeB",
+            "b",
+            new ActivitySpan("a")
+        )
+    ).evaluate(simResults, new EvaluationEnvironment());
+
+    assertIterableEquals(
+        new Spans(
+            Segment.of(activityA1.interval(), Optional.of(new Spans.Metadata(activityA1))),
+            Segment.of(activityA3.interval(), Optional.of(new Spans.Metadata(activityA3)))),
+        outer);
+
+    // An inner alias shadows an outer one of the same name.
+    final var shadowed = new ForEachActivitySpans(
+        "TypeA",
+        "act",
+        new ForEachActivitySpans(
+            "TypeB",
+            "act",
+            new ActivitySpan("act")
+        )
+    ).evaluate(simResults, new EvaluationEnvironment());
+
+    assertIterableEquals(
+        new Spans(
+            Segment.of(activityB.interval(), Optional.of(new Spans.Metadata(activityB))),
+            Segment.of(activityB.interval(), Optional.of(new Spans.Metadata(activityB)))),
+        shadowed);
+  }
+
+  @Test
+  public void testForEachActivitySpansSharedAcrossThreads() throws Exception {
+    final var activities = new ArrayList<ActivityInstance>();
+    for (var i = 0; i < 1000; i++) {
+      activities.add(new ActivityInstance(i, "Type" + (i % 10), Map.of(), Interval.between(i, i + 1, SECONDS)));
+    }
+    final var simResults = new SimulationResults(
+        Instant.EPOCH, Interval.between(0, 2000, SECONDS),
+        activities,
+        Map.of(),
+        Map.of()
+    );
+
+    final var threads = 8;
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      // Every thread races the others to the lazily built type index of the shared results.
+      final var start = new CountDownLatch(1);
+      final var futures = new ArrayList<Future<Spans>>();
+      for (var i = 0; i < threads; i++) {
+        final var type = "Type" + (i % 10);
+        futures.add(executor.submit(() -> {
+          start.await();
+          return new ForEachActivitySpans(type, "act", new ActivitySpan("act"))
+              .evaluate(simResults, new EvaluationEnvironment());
+        }));
+      }
+      start.countDown();
+
+      for (var i = 0; i < threads; i++) {
+        final var type = "Type" + (i % 10);
+        final var expected = new Spans();
+        for (final var activity : activities) {
+          if (activity.type().equals(type)) {
+            expected.add(activity.interval(), Optional.of(new Spans.Metadata(activity)));
+          }
+        }
+        assertIterableEquals(expected, futures.get(i).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void testViolationsOf() {
     final var simResults = new SimulationResults(
@@ -1331,6 +1425,153 @@ public class ASTTests {
     assertEquals(expected2, result2);
   }
 
+  @Test
+  public void testRollingThresholdMatchesIntersectionSearch() {
+    final var bounds = Interval.between(0, 20, SECONDS);
+    final var simResults = new SimulationResults(Instant.EPOCH, bounds, List.of(), Map.of(), Map.of());
+
+    // Edge cases: equal starts and ends with every inclusivity, spans meeting the window edges,
+    // and zero-length spans, both points and empty intervals.
+    final var table = List.of(
+        List.of(
+            Interval.between(2, Inclusive, 4, Exclusive, SECONDS),
+            Interval.between(2, Exclusive, 4, Inclusive, SECONDS),
+            Interval.between(2, 4, SECONDS),
+            Interval.between(2, Exclusive, 4, Exclusive, SECONDS),
+            Interval.between(4, Exclusive, 6, Exclusive, SECONDS),
+            Interval.between(4, 6, SECONDS)),
+        List.of(
+            Interval.at(3, SECONDS),
+            Interval.at(3, SECONDS),
+            Interval.between(3, Exclusive, 3, Exclusive, SECONDS),
+            Interval.between(3, Inclusive, 3, Exclusive, SECONDS),
+            Interval.between(5, 8, SECONDS),
+            Interval.at(14, SECONDS),
+            Interval.between(14, Exclusive, 14, Inclusive, SECONDS)),
+        List.of(
+            Interval.between(0, 5, SECONDS),
+            Interval.between(0, Exclusive, 5, Exclusive, SECONDS),
+            Interval.between(15, 20, SECONDS),
+            Interval.between(15, Exclusive, 20, Exclusive, SECONDS),
+            Interval.at(20, SECONDS)));
+    for (final var intervals : table) {
+      final var spans = new ArrayList<Segment<Optional<Spans.Metadata>>>();
+      for (var i = 0; i < intervals.size(); i++) {
+        spans.add(Segment.of(intervals.get(i), Optional.of(new Spans.Metadata(
+            new ActivityInstance(i, "A", Map.of(), intervals.get(i))))));
+      }
+      for (final var width : List.of(0L, 1L, 2L, 5L)) {
+        for (final var threshold : List.of(1L, 2L, 3L)) {
+          assertRollingThresholdMatchesIntersectionSearch(
+              simResults, new Spans(spans), Duration.of(width, SECONDS), Duration.of(threshold, SECONDS));
+        }
+      }
+    }
+
+    final var random = new Random(0);
+    final var inclusivities = Interval.Inclusivity.values();
+    for (var trial = 0; trial < 300; trial++) {
+      final var spans = new ArrayList<Segment<Optional<Spans.Metadata>>>();
+      final var count = random.nextInt(8);
+      for (var i = 0; i < count; i++) {
+        // A coarse grid of times makes equal endpoints common, and a zero length gives points or empty intervals.
+        final var start = random.nextInt(20);
+        final var interval = Interval.between(
+            Duration.of(start, SECONDS),
+            inclusivities[random.nextInt(2)],
+            Duration.of(start + random.nextInt(4), SECONDS),
+            inclusivities[random.nextInt(2)]);
+        final Optional<Spans.Metadata> metadata = random.nextBoolean()
+            ? Optional.of(new Spans.Metadata(new ActivityInstance(i, "A", Map.of(), interval)))
+            : Optional.empty();
+        spans.add(Segment.of(interval, metadata));
+      }
+      assertRollingThresholdMatchesIntersectionSearch(
+          simResults,
+          new Spans(spans),
+          Duration.of(random.nextInt(6), SECONDS),
+          Duration.of(1 + random.nextInt(3), SECONDS));
+    }
+  }
+
+  private static void assertRollingThresholdMatchesIntersectionSearch(
+      final SimulationResults simResults,
+      final Spans spans,
+      final Duration width,
+      final Duration threshold
+  ) {
+    for (final var algorithm : RollingThreshold.RollingThresholdAlgorithm.values()) {
+      final var rollingThreshold = new RollingThreshold(
+          Supplier.of(spans),
+          Supplier.of(width),
+          Supplier.of(threshold),
+          algorithm);
+      final var message = algorithm + " over " + spans + ", width " + width + ", threshold " + threshold;
+
+      final EDSLConstraintResult expected;
+      try {
+        expected = intersectionSearchRollingThreshold(spans, width, threshold, algorithm, simResults.bounds);
+      } catch (final IndexOutOfBoundsException e) {
+        // A hull over no spans fails the same way in both implementations.
+        assertThrows(IndexOutOfBoundsException.class, () -> rollingThreshold.evaluate(simResults), message);
+        continue;
+      }
+      assertEquals(expected, rollingThreshold.evaluate(simResults), message);
+    }
+  }
+
+  /** The original implementation of {@link RollingThreshold}, which intersects every span with every violating window. */
+  private static EDSLConstraintResult intersectionSearchRollingThreshold(
+      final Spans spans,
+      final Duration width,
+      final Duration threshold,
+      final RollingThreshold.RollingThresholdAlgorithm algorithm,
+      final Interval bounds
+  ) {
+    final var excess = algorithm == RollingThreshold.RollingThresholdAlgorithm.ExcessHull
+                       || algorithm == RollingThreshold.RollingThresholdAlgorithm.ExcessSpans;
+    final var hull = algorithm == RollingThreshold.RollingThresholdAlgorithm.ExcessHull
+                     || algorithm == RollingThreshold.RollingThresholdAlgorithm.DeficitHull;
+
+    final var reportedSpans = excess ? spans : spans.intoWindows().not().intoSpans(bounds);
+
+    final var accDuration = spans.accumulatedDuration(threshold);
+    final var localAccDuration = accDuration.shiftBy(Duration.negate(width)).plus(accDuration.times(-1));
+    final var thresholdEq = new LinearProfile(Segment.of(FOREVER, new LinearEquation(Duration.ZERO, 1, 0)));
+
+    final var leftViolatingBounds = excess
+        ? localAccDuration.greaterThan(thresholdEq)
+        : localAccDuration.lessThan(thresholdEq).select(
+            Interval.between(bounds.start, bounds.startInclusivity, bounds.end.minus(width), bounds.endInclusivity));
+
+    final var violations = new ArrayList<Violation>();
+    for (final var leftViolatingBound : leftViolatingBounds.iterateEqualTo(true)) {
+      final var expandedInterval = Interval.between(
+          leftViolatingBound.start,
+          leftViolatingBound.startInclusivity,
+          leftViolatingBound.end.plus(width),
+          leftViolatingBound.endInclusivity);
+      final var violationIntervals = new ArrayList<Interval>();
+      final var violationActivityIds = new ArrayList<Long>();
+      for (final var span : reportedSpans) {
+        if (!Interval.intersect(span.interval(), expandedInterval).isEmpty()) {
+          violationIntervals.add(span.interval());
+          span.value().ifPresent(m -> violationActivityIds.add(m.activityInstance().id()));
+        }
+      }
+      if (hull) {
+        var unified = violationIntervals.get(0);
+        for (final var interval : violationIntervals.subList(1, violationIntervals.size())) {
+          unified = Interval.unify(unified, interval);
+        }
+        violationIntervals.clear();
+        violationIntervals.add(unified);
+      }
+      violations.add(new Violation(violationIntervals, violationActivityIds));
+    }
+    return new EDSLConstraintResult(violations, List.of());
+  }
+
   @Test
   void testSpansShiftEdges() {
     final var simResults = new SimulationResults(
@@ -25,3 +25,26 @@ comment on column merlin.activity_directive_validations.last_modified_arguments_
   'The time at which these argument validations were last modified.';
 comment on column merlin.activity_directive_validations.validations is e''
   'The argument validations extracted from an activity directive.';
+
+create function merlin.notify_validation_workers()
+returns trigger
+security definer
+language plpgsql as $$
+begin
+  -- Postgres folds identical notifications raised within one transaction,
+  -- so a bulk edit of a plan wakes the validation workers once per mission model.
+  perform pg_notify('activity_directive_validation_pending', '' || p.model_id)
+    from merlin.plan p
+    where p.id = new.plan_id;
+  return null;
+end
+$$;
+
+comment on function merlin.notify_validation_workers() is e''
+  'Notifies the validation workers of the mission model whose directive has a pending validation.';
+
+create trigger notify_validation_workers
+  after insert or update of status on merlin.activity_directive_validations
+  for each row
+  when (new.status = 'pending')
+  execute function merlin.notify_validation_workers();
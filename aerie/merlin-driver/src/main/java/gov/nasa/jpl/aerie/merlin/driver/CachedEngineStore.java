@@ -9,4 +9,21 @@ public interface CachedEngineStore {
       final SimulationEngineConfiguration configuration);
 
   int capacity();
+
+  /**
+   * Record that a stored engine was chosen to resume a simulation from.
+   * Stores may use this to decide which engines are worth keeping.
+   */
+  default void registerUsed(final CachedSimulationEngine cachedSimulationEngine) {}
+
+  /** Record that no stored engine could be used to resume a simulation. */
+  default void registerMiss() {}
+
+  /**
+   * Prepare an engine returned by {@link #getCachedEngines} to resume a simulation from.
+   * Stores that keep part of an engine off the heap restore it here.
+   */
+  default CachedSimulationEngine rehydrate(final CachedSimulationEngine cachedSimulationEngine) {
+    return cachedSimulationEngine;
+  }
 }
@@ -19,12 +19,25 @@ public record CachedSimulationEngine(
       MissionModel<?> missionModel,
       InMemorySimulationResourceManager resourceManager
   ) {
+  public CachedSimulationEngine {
+    // Take a snapshot of the directives, indexed so that this engine can be quickly compared against other plans.
+    activityDirectives = IndexedActivityDirectives.of(activityDirectives);
+  }
+
   public void freeze() {
     simulationEngine.close();
   }
 
   public static CachedSimulationEngine empty(final MissionModel<?> missionModel, final Instant simulationStartTime) {
-    final SimulationEngine engine = new SimulationEngine(missionModel.getInitialCells());
+    return empty(missionModel, simulationStartTime, 1);
+  }
+
+  public static CachedSimulationEngine empty(
+      final MissionModel<?> missionModel,
+      final Instant simulationStartTime,
+      final int batchParallelism
+  ) {
+    final SimulationEngine engine = new SimulationEngine(missionModel.getInitialCells(), batchParallelism);
 
     // Specify a topic on which tasks can log the activity they're associated with.
     final var activityTopic = new Topic<ActivityDirectiveId>();
@@ -47,48 +47,56 @@ public class CheckpointSimulationDriver {
       final Duration planDuration
   ) {
     Optional<CachedSimulationEngine> bestCandidate = Optional.empty();
-    final Map<ActivityDirectiveId, ActivityDirectiveId> correspondenceMap = new HashMap<>();
-    final var minimumStartTimes = getMinimumStartTimes(schedule, planDuration);
+    Map<ActivityDirectiveId, ActivityDirectiveId> bestCorrespondence = Map.of();
+
+    final var scheduledActivities = IndexedActivityDirectives.of(schedule);
+    final var minimumStartTimes = scheduledActivities.minimumStartTimes(planDuration);
     for (final var cachedEngine : cachedEngines) {
       if (bestCandidate.isPresent() && cachedEngine.endsAt().noLongerThan(bestCandidate.get().endsAt()))
         continue;
 
-      final var activityDirectivesInCache = new HashMap<>(cachedEngine.activityDirectives());
-      // Find the invalidation time
+      final var activityDirectivesInCache = IndexedActivityDirectives.of(cachedEngine.activityDirectives());
+      final var minimumStartTimeOfActsInCache = activityDirectivesInCache.minimumStartTimes(planDuration);
+      final var cachedByFingerprint = activityDirectivesInCache.byFingerprint();
+      final var correspondenceMap = new HashMap<ActivityDirectiveId, ActivityDirectiveId>();
+
+      // Find the invalidation time: pair up identical directives between the schedule and the cache,
+      // then the earliest start time of any directive left unpaired on either side.
       var invalidationTime = Duration.MAX_VALUE;
-      final var scheduledActivities = new HashMap<>(schedule);
-      for (final var activity : scheduledActivities.entrySet()) {
-        final var entryToRemove = activityDirectivesInCache.entrySet()
-                                                           .stream()
-                                                           .filter(e -> e.getValue().equals(activity.getValue()))
-                                                           .findFirst();
-        if (entryToRemove.isPresent()) {
-          final var entry = entryToRemove.get();
-          activityDirectivesInCache.remove(entry.getKey());
-          correspondenceMap.put(activity.getKey(), entry.getKey());
-        } else {
-          invalidationTime = min(invalidationTime, minimumStartTimes.get(activity.getKey()));
+      for (final var scheduled : scheduledActivities.byFingerprint().entrySet()) {
+        final var scheduledIds = scheduled.getValue();
+        final var cachedIds = cachedByFingerprint.getOrDefault(scheduled.getKey(), List.of());
+
+        final var paired = Math.min(scheduledIds.size(), cachedIds.size());
+        for (var i = 0; i < paired; i++) correspondenceMap.put(scheduledIds.get(i), cachedIds.get(i));
+        for (var i = paired; i < scheduledIds.size(); i++) {
+          invalidationTime = min(invalidationTime, minimumStartTimes.get(scheduledIds.get(i)));
+        }
+        for (var i = paired; i < cachedIds.size(); i++) {
+          invalidationTime = min(invalidationTime, minimumStartTimeOfActsInCache.get(cachedIds.get(i)));
         }
       }
-      final var allActs = new HashMap<ActivityDirectiveId, ActivityDirective>();
-      allActs.putAll(cachedEngine.activityDirectives());
-      allActs.putAll(scheduledActivities);
-      final var minimumStartTimeOfActsInCache = getMinimumStartTimes(allActs, planDuration);
-      for (final var activity : activityDirectivesInCache.entrySet()) {
-        invalidationTime = min(invalidationTime, minimumStartTimeOfActsInCache.get(activity.getKey()));
+      for (final var cached : cachedByFingerprint.entrySet()) {
+        if (scheduledActivities.byFingerprint().containsKey(cached.getKey())) continue;
+        for (final var id : cached.getValue()) {
+          invalidationTime = min(invalidationTime, minimumStartTimeOfActsInCache.get(id));
+        }
       }
+
       // (1) cachedEngine ends strictly after bestCandidate as per first line of this loop
       // and they both end  before the invalidation time: (2) the bestCandidate has already passed its invalidation time
       // test below (3) cacheEngine is before its invalidation time too per the test below.
       // (1) + (3) -> cachedEngine is strictly better than bestCandidate
       if (cachedEngine.endsAt().shorterThan(invalidationTime)) {
         bestCandidate = Optional.of(cachedEngine);
+        bestCorrespondence = correspondenceMap;
       }
     }
 
     bestCandidate.ifPresent(cachedSimulationEngine -> LOGGER.info("Re-using simulation engine at "
                                                                   + cachedSimulationEngine.endsAt()));
-    return bestCandidate.map(cachedSimulationEngine -> Pair.of(cachedSimulationEngine, correspondenceMap));
+    final var correspondence = bestCorrespondence;
+    return bestCandidate.map(cachedSimulationEngine -> Pair.of(cachedSimulationEngine, correspondence));
   }
 
 
@@ -109,33 +117,6 @@ public class CheckpointSimulationDriver {
     return simulationState -> stoppingCondition.apply(simulationState) || simulationState.nextTime.equals(MAX_VALUE);
   }
 
-  private static Map<ActivityDirectiveId, Duration> getMinimumStartTimes(
-      final Map<ActivityDirectiveId, ActivityDirective> schedule,
-      final Duration planDuration)
-  {
-    //For an anchored activity, it's minimum invalidationTime would be the sum of all startOffsets in its anchor chain
-    // (plus or minus the plan duration depending on whether the root is anchored to plan start or plan end).
-    // If it's a start anchor chain (as in, all anchors have anchoredToStart set to true),
-    // this will give you its exact start time, but if there are any end-time anchors, this will give you the minimum time the activity could start at.
-    final var minimumStartTimes = new HashMap<ActivityDirectiveId, Duration>();
-    for (final var activity : schedule.entrySet()) {
-      var curInChain = activity;
-      var curSum = ZERO;
-      while (true) {
-        if (curInChain.getValue().anchorId() == null) {
-          curSum = curSum.plus(curInChain.getValue().startOffset());
-          curSum = !curInChain.getValue().anchoredToStart() ? curSum.plus(planDuration) : curSum;
-          minimumStartTimes.put(activity.getKey(), curSum);
-          break;
-        } else {
-          curSum = curSum.plus(curInChain.getValue().startOffset());
-          curInChain = Map.entry(curInChain.getValue().anchorId(), schedule.get(curInChain.getValue().anchorId()));
-        }
-      }
-    }
-    return minimumStartTimes;
-  }
-
   public record SimulationState(
       Duration currentTime,
       Duration nextTime,
@@ -178,6 +159,8 @@ public class CheckpointSimulationDriver {
       final SimulationEngineConfiguration configuration
   ) {
     final boolean duplicationIsOk = cachedEngineStore.capacity() > 1;
+    // Index the schedule once, so that every checkpoint taken below shares the same snapshot of it.
+    final var indexedSchedule = IndexedActivityDirectives.of(schedule);
     final var activityToSpan = new HashMap<ActivityDirectiveId, SpanId>();
     final var activityTopic = cachedEngine.activityTopic();
     var engine = duplicationIsOk ? cachedEngine.simulationEngine().duplicate() : cachedEngine.simulationEngine();
@@ -249,7 +232,7 @@ public class CheckpointSimulationDriver {
 
             final var newCachedEngine = new CachedSimulationEngine(
                 elapsedTime,
-                schedule,
+                indexedSchedule,
                 engine,
                 activityTopic,
                 missionModel,
@@ -271,7 +254,7 @@ public class CheckpointSimulationDriver {
           if (!duplicationIsOk) {
             final var newCachedEngine = new CachedSimulationEngine(
                 elapsedTime,
-                schedule,
+                indexedSchedule,
                 engine,
                 activityTopic,
                 missionModel,
@@ -0,0 +1,158 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a set of activity directives, indexed for comparison against other plans.
+ *
+ * Directives are grouped by {@link Fingerprint}, so that the directives of another plan can be matched
+ * against these ones by hashing rather than by pairwise comparison. The minimum start time of every directive
+ * is computed on first request and kept for as long as the same plan duration is asked for.
+ */
+/*package-local*/ final class IndexedActivityDirectives extends AbstractMap<ActivityDirectiveId, ActivityDirective> {
+  private final Map<ActivityDirectiveId, ActivityDirective> directives;
+  private final Map<Fingerprint, List<ActivityDirectiveId>> byFingerprint;
+  private final int hashCode;
+
+  private volatile MinimumStartTimes minimumStartTimes = null;
+
+  private IndexedActivityDirectives(final Map<ActivityDirectiveId, ActivityDirective> directives) {
+    this.directives = Collections.unmodifiableMap(new HashMap<>(directives));
+
+    final var byFingerprint = new HashMap<Fingerprint, List<ActivityDirectiveId>>(this.directives.size());
+    for (final var entry : this.directives.entrySet()) {
+      byFingerprint.computeIfAbsent(Fingerprint.of(entry.getValue()), $ -> new ArrayList<>(1)).add(entry.getKey());
+    }
+    this.byFingerprint = byFingerprint;
+
+    this.hashCode = this.directives.hashCode();
+  }
+
+  /** Index a set of directives, reusing the given index if it is one already. */
+  public static IndexedActivityDirectives of(final Map<ActivityDirectiveId, ActivityDirective> directives) {
+    if (directives instanceof IndexedActivityDirectives indexed) return indexed;
+    return new IndexedActivityDirectives(directives);
+  }
+
+  /** The directives with each distinct fingerprint, in no particular order. */
+  public Map<Fingerprint, List<ActivityDirectiveId>> byFingerprint() {
+    return Collections.unmodifiableMap(this.byFingerprint);
+  }
+
+  /** The earliest time at which each directive could start, in a plan of the given duration. */
+  public Map<ActivityDirectiveId, Duration> minimumStartTimes(final Duration planDuration) {
+    final var cached = this.minimumStartTimes;
+    if (cached != null && cached.planDuration().equals(planDuration)) return cached.startTimes();
+
+    final var startTimes = Collections.unmodifiableMap(computeMinimumStartTimes(this.directives, planDuration));
+    this.minimumStartTimes = new MinimumStartTimes(planDuration, startTimes);
+    return startTimes;
+  }
+
+  /**
+   * Compute the earliest time at which each directive could start.
+   *
+   * For an anchored activity, its minimum start time is the sum of all start offsets in its anchor chain
+   * (plus the plan duration if the root is anchored to plan end). If all anchors in the chain are start anchors,
+   * this is its exact start time; if there are any end-time anchors, this is the minimum time it could start at.
+   * Each directive's start time is computed once and shared by every directive anchored to it.
+   */
+  public static Map<ActivityDirectiveId, Duration> computeMinimumStartTimes(
+      final Map<ActivityDirectiveId, ActivityDirective> directives,
+      final Duration planDuration)
+  {
+    final var startTimes = new HashMap<ActivityDirectiveId, Duration>(directives.size());
+    final var chain = new ArrayList<ActivityDirectiveId>();
+    for (final var id : directives.keySet()) {
+      // Walk up the anchor chain until we reach a root or a directive whose start time we already know...
+      var base = Duration.ZERO;
+      var current = id;
+      while (true) {
+        final var known = startTimes.get(current);
+        if (known != null) {
+          base = known;
+          break;
+        }
+
+        final var directive = directives.get(current);
+        chain.add(current);
+        if (directive.anchorId() == null) {
+          base = directive.anchoredToStart() ? Duration.ZERO : planDuration;
+          break;
+        }
+        current = directive.anchorId();
+      }
+
+      // ...then walk back down it, accumulating offsets.
+      for (var i = chain.size() - 1; i >= 0; i -= 1) {
+        base = base.plus(directives.get(chain.get(i)).startOffset());
+        startTimes.put(chain.get(i), base);
+      }
+      chain.clear();
+    }
+    return startTimes;
+  }
+
+  @Override
+  public Set<Entry<ActivityDirectiveId, ActivityDirective>> entrySet() {
+    return this.directives.entrySet();
+  }
+
+  @Override
+  public int size() {
+    return this.directives.size();
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.directives.containsKey(key);
+  }
+
+  @Override
+  public ActivityDirective get(final Object key) {
+    return this.directives.get(key);
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) return true;
+    if (other instanceof IndexedActivityDirectives o && o.hashCode != this.hashCode) return false;
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hashCode;
+  }
+
+  /** A directive together with its precomputed hash, so that it is only hashed once however often it is looked up. */
+  public record Fingerprint(ActivityDirective directive, int hash) {
+    public static Fingerprint of(final ActivityDirective directive) {
+      return new Fingerprint(directive, directive.hashCode());
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) return true;
+      if (!(other instanceof Fingerprint o)) return false;
+      return (this.hash == o.hash) && this.directive.equals(o.directive);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  private record MinimumStartTimes(Duration planDuration, Map<ActivityDirectiveId, Duration> startTimes) {}
+}
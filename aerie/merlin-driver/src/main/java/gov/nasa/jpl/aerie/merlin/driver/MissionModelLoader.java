@@ -24,6 +24,27 @@ public final class MissionModelLoader {
         return service.getModelType();
     }
 
+    /**
+     * Load a model type along with the class loader backing it, so that the caller can release the
+     * class loader once the model type is no longer needed.
+     */
+    public static LoadedModelType openModelType(final Path path, final String name, final String version)
+    throws MissionModelLoadException
+    {
+        final var classLoader = new URLClassLoader(new URL[] {missionModelPathToUrl(path)});
+        try {
+            final var service = loadMissionModelProvider(classLoader, path, name, version);
+            return new LoadedModelType(service.getModelType(), classLoader);
+        } catch (final MissionModelLoadException | RuntimeException ex) {
+            try {
+                classLoader.close();
+            } catch (final IOException closeEx) {
+                ex.addSuppressed(closeEx);
+            }
+            throw ex;
+        }
+    }
+
     public static MissionModel<?> loadMissionModel(
         final Instant planStart,
         final SerializedValue missionModelConfig,
@@ -60,14 +81,23 @@ public final class MissionModelLoader {
 
     public static MerlinPlugin loadMissionModelProvider(final Path path, final String name, final String version)
     throws MissionModelLoadException
+    {
+        // Construct a ClassLoader with access to classes in the mission model location.
+        final var classLoader = new URLClassLoader(new URL[] {missionModelPathToUrl(path)});
+        return loadMissionModelProvider(classLoader, path, name, version);
+    }
+
+    private static MerlinPlugin loadMissionModelProvider(
+        final ClassLoader classLoader,
+        final Path path,
+        final String name,
+        final String version)
+    throws MissionModelLoadException
     {
         // Look for a MerlinPlugin implementor in the mission model. For correctness, we're assuming there's
         // only one matching MerlinMissionModel in any given mission model.
         final var className = getImplementingClassName(path, name, version);
 
-        // Construct a ClassLoader with access to classes in the mission model location.
-        final var classLoader = new URLClassLoader(new URL[] {missionModelPathToUrl(path)});
-
         try {
             final var pluginClass$ = classLoader.loadClass(className);
             if (!MerlinPlugin.class.isAssignableFrom(pluginClass$)) {
@@ -110,6 +140,14 @@ public final class MissionModelLoader {
         }
     }
 
+    /** A model type and the class loader its classes were loaded through. */
+    public record LoadedModelType(ModelType<?, ?> modelType, URLClassLoader classLoader) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            this.classLoader.close();
+        }
+    }
+
     public static class MissionModelLoadException extends Exception {
         private MissionModelLoadException(final Path path, final String name, final String version) {
             this(path, name, version, null);
@@ -57,7 +57,57 @@ public final class SimulationDriver {
       final Consumer<Duration> simulationExtentConsumer,
       final SimulationResourceManager resourceManager
   ) {
-    try (final var engine = new SimulationEngine(missionModel.getInitialCells())) {
+    return simulate(
+        missionModel,
+        schedule,
+        simulationStartTime,
+        simulationDuration,
+        planStartTime,
+        planDuration,
+        simulationCanceled,
+        simulationExtentConsumer,
+        resourceManager,
+        1);
+  }
+
+  public static <Model> SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Supplier<Boolean> simulationCanceled,
+      final Consumer<Duration> simulationExtentConsumer,
+      final SimulationResourceManager resourceManager,
+      final SimulationEngineConfiguration configuration
+  ) {
+    return simulate(
+        missionModel,
+        schedule,
+        simulationStartTime,
+        simulationDuration,
+        planStartTime,
+        planDuration,
+        simulationCanceled,
+        simulationExtentConsumer,
+        resourceManager,
+        configuration.batchParallelism());
+  }
+
+  private static <Model> SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Supplier<Boolean> simulationCanceled,
+      final Consumer<Duration> simulationExtentConsumer,
+      final SimulationResourceManager resourceManager,
+      final int batchParallelism
+  ) {
+    try (final var engine = new SimulationEngine(missionModel.getInitialCells(), batchParallelism)) {
 
       /* The current real time. */
       simulationExtentConsumer.accept(Duration.ZERO);
@@ -65,6 +115,9 @@ public final class SimulationDriver {
       // Specify a topic on which tasks can log the activity they're associated with.
       final var activityTopic = new Topic<ActivityDirectiveId>();
 
+      // Results are always computed at the end of simulation, so collect them as the simulation runs.
+      engine.trackResults(activityTopic, missionModel.getTopics());
+
       try {
         engine.init(missionModel.getResources(), missionModel.getDaemon());
 
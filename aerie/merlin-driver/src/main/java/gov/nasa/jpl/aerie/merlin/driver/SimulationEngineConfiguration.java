@@ -6,8 +6,26 @@ import gov.nasa.jpl.aerie.types.MissionModelId;
 import java.time.Instant;
 import java.util.Map;
 
+/**
+ * @param batchParallelism the maximum number of jobs from a single engine batch to perform concurrently.
+ *     A value of 1 performs every batch sequentially.
+ */
 public record SimulationEngineConfiguration(
     Map<String, SerializedValue> simulationConfiguration,
     Instant simStartTime,
-    MissionModelId missionModelId
-) {}
+    MissionModelId missionModelId,
+    int batchParallelism
+) {
+  public SimulationEngineConfiguration {
+    if (batchParallelism < 1) throw new IllegalArgumentException(
+        "Batch parallelism must be at least 1, but was %d".formatted(batchParallelism));
+  }
+
+  public SimulationEngineConfiguration(
+      final Map<String, SerializedValue> simulationConfiguration,
+      final Instant simStartTime,
+      final MissionModelId missionModelId
+  ) {
+    this(simulationConfiguration, simStartTime, missionModelId, 1);
+  }
+}
@@ -0,0 +1,60 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An append-only list that can be forked in constant time.
+ *
+ * A fork freezes the elements appended so far into a segment shared by both lists,
+ * and each list appends its later elements to a private segment on top of it.
+ * No element is ever copied, so forking a long list costs nothing.
+ *
+ * Elements are shared between forks, so they should be immutable.
+ */
+/*package-local*/ final class ForkableLog<T> implements Iterable<T> {
+  private record Segment<T>(Segment<T> parent, ArrayList<T> elements) {}
+
+  private Segment<T> parent;
+  private ArrayList<T> tail = new ArrayList<>();
+  private int size;
+
+  public ForkableLog() {
+    this(null, 0);
+  }
+
+  private ForkableLog(final Segment<T> parent, final int size) {
+    this.parent = parent;
+    this.size = size;
+  }
+
+  public void append(final T element) {
+    this.tail.add(element);
+    this.size += 1;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public ForkableLog<T> fork() {
+    if (!this.tail.isEmpty()) {
+      this.parent = new Segment<>(this.parent, this.tail);
+      this.tail = new ArrayList<>();
+    }
+    return new ForkableLog<>(this.parent, this.size);
+  }
+
+  /** Iterates over the elements in the order they were appended, starting from the oldest shared segment. */
+  @Override
+  public Iterator<T> iterator() {
+    final var segments = new ArrayDeque<List<T>>();
+    segments.push(this.tail);
+    for (var segment = this.parent; segment != null; segment = segment.parent()) {
+      segments.push(segment.elements());
+    }
+    return segments.stream().flatMap(List::stream).iterator();
+  }
+}
@@ -0,0 +1,191 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An insertion-ordered map that can be forked in constant time.
+ *
+ * A fork freezes the entries written so far into a layer shared by both maps,
+ * and each map records its later writes in a private overlay on top of it.
+ * Only the entries written after a fork are ever copied, so forking a large map that is mostly read costs nothing.
+ * Chains of layers are flattened once they grow deep, to keep lookups cheap.
+ *
+ * Null keys and values are not supported. Values are shared between forks, so they should be immutable.
+ * Iteration follows the order in which keys were first inserted, as in a {@link LinkedHashMap},
+ * except that a key removed and later reinserted keeps its original position if it was present at a fork.
+ */
+/*package-local*/ final class ForkableMap<K, V> extends AbstractMap<K, V> {
+  private static final int MAXIMUM_DEPTH = 8;
+
+  /** Marks a key present in an older layer as removed. */
+  private static final Object REMOVED = new Object();
+
+  private record Layer(Layer parent, LinkedHashMap<Object, Object> entries, int depth) {}
+
+  private Layer parent;
+  private LinkedHashMap<Object, Object> overlay = new LinkedHashMap<>();
+  private int size;
+
+  public ForkableMap() {
+    this(null, 0);
+  }
+
+  private ForkableMap(final Layer parent, final int size) {
+    this.parent = parent;
+    this.size = size;
+  }
+
+  /** Create an independent copy of this map, sharing every entry written so far. */
+  public ForkableMap<K, V> fork() {
+    if (!this.overlay.isEmpty()) {
+      final var depth = (this.parent == null) ? 1 : this.parent.depth() + 1;
+      this.parent = new Layer(this.parent, this.overlay, depth);
+      this.overlay = new LinkedHashMap<>();
+
+      if (depth > MAXIMUM_DEPTH) this.parent = this.flatten();
+    }
+    return new ForkableMap<>(this.parent, this.size);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(final Object key) {
+    final var value = this.lookup(key);
+    return (value == REMOVED) ? null : (V) value;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.get(key) != null;
+  }
+
+  @Override
+  public V put(final K key, final V value) {
+    if (key == null || value == null) throw new NullPointerException();
+
+    final var previous = this.get(key);
+    this.overlay.put(key, value);
+    if (previous == null) this.size += 1;
+    return previous;
+  }
+
+  @Override
+  public V remove(final Object key) {
+    final var previous = this.get(key);
+    if (previous == null) return null;
+
+    if (this.lookupInLayers(this.parent, key) == null) this.overlay.remove(key);
+    else this.overlay.put(key, REMOVED);
+    this.size -= 1;
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    this.parent = null;
+    this.overlay = new LinkedHashMap<>();
+    this.size = 0;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return ForkableMap.this.entryIterator();
+      }
+
+      @Override
+      public int size() {
+        return ForkableMap.this.size;
+      }
+    };
+  }
+
+  // Returns the value of the key in the newest layer that mentions it, REMOVED, or null if no layer does.
+  private Object lookup(final Object key) {
+    final var value = this.overlay.get(key);
+    if (value != null) return value;
+    return this.lookupInLayers(this.parent, key);
+  }
+
+  private Object lookupInLayers(Layer layer, final Object key) {
+    for (; layer != null; layer = layer.parent()) {
+      final var value = layer.entries().get(key);
+      if (value != null) return value;
+    }
+    return null;
+  }
+
+  private Layer flatten() {
+    final var entries = new LinkedHashMap<Object, Object>(this.size);
+    final var iterator = this.entryIterator();
+    while (iterator.hasNext()) {
+      final var entry = iterator.next();
+      entries.put(entry.getKey(), entry.getValue());
+    }
+    return new Layer(null, entries, 1);
+  }
+
+  // Visits every layer from oldest to newest, yielding each key at its first appearance with its current value.
+  private Iterator<Entry<K, V>> entryIterator() {
+    final var layers = new ArrayList<LinkedHashMap<Object, Object>>();
+    layers.add(this.overlay);
+    for (var layer = this.parent; layer != null; layer = layer.parent()) layers.add(layer.entries());
+
+    return new Iterator<>() {
+      private int layerIndex = layers.size() - 1;
+      private Iterator<Object> keys = layers.get(this.layerIndex).keySet().iterator();
+      private Entry<K, V> next = null;
+
+      @Override
+      public boolean hasNext() {
+        while (this.next == null) {
+          while (!this.keys.hasNext()) {
+            if (this.layerIndex == 0) return false;
+            this.layerIndex -= 1;
+            this.keys = layers.get(this.layerIndex).keySet().iterator();
+          }
+
+          final var key = this.keys.next();
+          if (this.appearsBefore(key)) continue;
+
+          final var value = ForkableMap.this.get(key);
+          if (value != null) {
+            @SuppressWarnings("unchecked")
+            final var typedKey = (K) key;
+            this.next = new SimpleImmutableEntry<>(typedKey, value);
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public Entry<K, V> next() {
+        if (!this.hasNext()) throw new NoSuchElementException();
+        final var entry = this.next;
+        this.next = null;
+        return entry;
+      }
+
+      private boolean appearsBefore(final Object key) {
+        for (var i = layers.size() - 1; i > this.layerIndex; i--) {
+          if (layers.get(i).containsKey(key)) return true;
+        }
+        return false;
+      }
+    };
+  }
+}
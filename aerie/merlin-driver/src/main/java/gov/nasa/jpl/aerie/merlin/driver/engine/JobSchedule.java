@@ -2,75 +2,274 @@ package gov.nasa.jpl.aerie.merlin.driver.engine;
 
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListMap;
 
+/**
+ * A time-ordered schedule of upcoming jobs.
+ *
+ * Jobs scheduled for the same instant are grouped into a bucket, and buckets are kept in an indexed binary min-heap.
+ * Each job knows its bucket and its position within it, and each bucket knows its position in the heap,
+ * so rescheduling or unscheduling a job never searches, and extracting the next batch takes a whole bucket at once.
+ *
+ * Duplicates share their storage with the original until either of them is next modified.
+ * The schedule is not thread-safe; the engine only modifies it from its own thread.
+ */
 public final class JobSchedule<JobRef, TimeRef extends SchedulingInstant> {
-  /** The scheduled time for each upcoming job. */
-  private final Map<JobRef, TimeRef> scheduledJobs = new HashMap<>();
+  private static final int INITIAL_CAPACITY = 16;
 
-  /** A time-ordered queue of all tasks whose resumption time is concretely known. */
-  @DerivedFrom("scheduledJobs")
-  private final ConcurrentSkipListMap<TimeRef, Set<JobRef>> queue = new ConcurrentSkipListMap<>();
+  private static final class Slot<JobRef, TimeRef extends SchedulingInstant> {
+    final JobRef job;
+    Bucket<JobRef, TimeRef> bucket;
+    int position;
 
-  public void schedule(final JobRef job, final TimeRef time) {
-    final var oldTime = this.scheduledJobs.put(job, time);
+    Slot(final JobRef job) {
+      this.job = job;
+    }
+  }
 
-    if (oldTime != null) removeJobFromQueue(oldTime, job);
+  private static final class Bucket<JobRef, TimeRef extends SchedulingInstant> {
+    final TimeRef time;
+    final ArrayList<Slot<JobRef, TimeRef>> slots = new ArrayList<>(1);
+    int heapIndex;
 
-    this.queue.computeIfAbsent(time, $ -> new HashSet<>()).add(job);
+    Bucket(final TimeRef time) {
+      this.time = time;
+    }
   }
 
-  public void unschedule(final JobRef job) {
-    final var oldTime = this.scheduledJobs.remove(job);
-    if (oldTime != null) removeJobFromQueue(oldTime, job);
+  private static final class Storage<JobRef, TimeRef extends SchedulingInstant> {
+    /** The slot of each upcoming job. */
+    final HashMap<JobRef, Slot<JobRef, TimeRef>> slots;
+
+    /** The bucket of jobs at each upcoming instant. */
+    @DerivedFrom("slots")
+    final HashMap<TimeRef, Bucket<JobRef, TimeRef>> buckets;
+
+    /** A min-heap of the upcoming instants. */
+    @DerivedFrom("buckets")
+    Bucket<JobRef, TimeRef>[] heap;
+
+    int size;
+
+    /** The number of schedules sharing this storage. */
+    int owners = 1;
+
+    @SuppressWarnings("unchecked")
+    Storage(final int jobs, final int instants) {
+      this.slots = new HashMap<>(jobs);
+      this.buckets = new HashMap<>(instants);
+      this.heap = (Bucket<JobRef, TimeRef>[]) new Bucket<?, ?>[Math.max(INITIAL_CAPACITY, instants)];
+    }
+
+    Storage<JobRef, TimeRef> copy() {
+      final var copy = new Storage<JobRef, TimeRef>(this.slots.size(), this.size);
+      for (var i = 0; i < this.size; i++) {
+        final var bucket = this.heap[i];
+        final var bucketCopy = new Bucket<JobRef, TimeRef>(bucket.time);
+        bucketCopy.heapIndex = i;
+        bucketCopy.slots.ensureCapacity(bucket.slots.size());
+        for (final var slot : bucket.slots) {
+          final var slotCopy = new Slot<JobRef, TimeRef>(slot.job);
+          slotCopy.bucket = bucketCopy;
+          slotCopy.position = slot.position;
+          bucketCopy.slots.add(slotCopy);
+          copy.slots.put(slot.job, slotCopy);
+        }
+        copy.heap[i] = bucketCopy;
+        copy.buckets.put(bucket.time, bucketCopy);
+      }
+      copy.size = this.size;
+      return copy;
+    }
   }
 
-  private void removeJobFromQueue(TimeRef time, JobRef job) {
-    var jobsAtOldTime = this.queue.get(time);
-    jobsAtOldTime.remove(job);
-    if (jobsAtOldTime.isEmpty()) {
-      this.queue.remove(time);
+  private Storage<JobRef, TimeRef> storage;
+
+  public JobSchedule() {
+    this(new Storage<>(INITIAL_CAPACITY, INITIAL_CAPACITY));
+  }
+
+  private JobSchedule(final Storage<JobRef, TimeRef> storage) {
+    this.storage = storage;
+  }
+
+  public void schedule(final JobRef job, final TimeRef time) {
+    final var storage = this.exclusiveStorage();
+    var slot = storage.slots.get(job);
+
+    if (slot == null) {
+      slot = new Slot<>(job);
+      storage.slots.put(job, slot);
+    } else if (slot.bucket.time.equals(time)) {
+      return;
+    } else {
+      detach(storage, slot);
     }
+
+    attach(storage, slot, time);
+  }
+
+  public void unschedule(final JobRef job) {
+    if (!this.storage.slots.containsKey(job)) return;
+
+    final var storage = this.exclusiveStorage();
+    detach(storage, storage.slots.remove(job));
   }
 
   public Batch<JobRef> extractNextJobs(final Duration maximumTime) {
-    if (this.queue.isEmpty()) return new Batch<>(maximumTime, Collections.emptySet());
+    return this.extractNextJobs(maximumTime.micros());
+  }
 
-    final var time = this.queue.firstKey();
-    if (time.project().longerThan(maximumTime)) {
-      return new Batch<>(maximumTime, Collections.emptySet());
+  public Batch<JobRef> extractNextJobs(final long maximumMicros) {
+    if (this.storage.size == 0) return new Batch<>(maximumMicros, Collections.emptyList());
+
+    final var time = this.storage.heap[0].time;
+    if (time.offsetMicros() > maximumMicros) {
+      return new Batch<>(maximumMicros, Collections.emptyList());
     }
 
     // Ready all tasks at the soonest task time.
-    final var entry = this.queue.pollFirstEntry();
-    entry.getValue().forEach(this.scheduledJobs::remove);
-    return new Batch<>(entry.getKey().project(), entry.getValue());
+    final var storage = this.exclusiveStorage();
+    final var bucket = storage.heap[0];
+    removeFromHeap(storage, 0);
+    storage.buckets.remove(bucket.time);
+
+    final var jobs = new ArrayList<JobRef>(bucket.slots.size());
+    for (final var slot : bucket.slots) {
+      storage.slots.remove(slot.job);
+      jobs.add(slot.job);
+    }
+    return new Batch<>(time.offsetMicros(), jobs);
   }
 
   public void clear() {
-    this.scheduledJobs.clear();
-    this.queue.clear();
+    if (this.storage.owners > 1) {
+      this.storage.owners -= 1;
+      this.storage = new Storage<>(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    } else {
+      Arrays.fill(this.storage.heap, 0, this.storage.size, null);
+      this.storage.slots.clear();
+      this.storage.buckets.clear();
+      this.storage.size = 0;
+    }
   }
 
   public Optional<Duration> peekNextTime() {
-    if(this.queue.isEmpty()) return Optional.empty();
-    return Optional.ofNullable(this.queue.firstKey()).map(SchedulingInstant::offsetFromStart);
+    if (this.storage.size == 0) return Optional.empty();
+    return Optional.of(this.storage.heap[0].time.offsetFromStart());
   }
 
-  public record Batch<JobRef>(Duration offsetFromStart, Set<JobRef> jobs) {}
+  /** The time of the next scheduled job in microseconds, or that of {@link Duration#MAX_VALUE} if there is none. */
+  public long peekNextMicros() {
+    if (this.storage.size == 0) return Duration.MAX_VALUE.micros();
+    return this.storage.heap[0].time.offsetMicros();
+  }
+
+  /** The jobs scheduled at the soonest instant, each appearing once. */
+  public record Batch<JobRef>(long offsetMicros, Collection<JobRef> jobs) {
+    public Duration offsetFromStart() {
+      return Duration.of(this.offsetMicros, Duration.MICROSECONDS);
+    }
+  }
 
   public JobSchedule<JobRef, TimeRef> duplicate() {
-    final JobSchedule<JobRef, TimeRef> jobSchedule = new JobSchedule<>();
-    for (final var entry : this.queue.entrySet()) {
-      jobSchedule.queue.put(entry.getKey(), new HashSet<>(entry.getValue()));
+    this.storage.owners += 1;
+    return new JobSchedule<>(this.storage);
+  }
+
+  private Storage<JobRef, TimeRef> exclusiveStorage() {
+    if (this.storage.owners > 1) {
+      this.storage.owners -= 1;
+      this.storage = this.storage.copy();
+    }
+    return this.storage;
+  }
+
+  private static <JobRef, TimeRef extends SchedulingInstant>
+  void attach(final Storage<JobRef, TimeRef> storage, final Slot<JobRef, TimeRef> slot, final TimeRef time) {
+    var bucket = storage.buckets.get(time);
+    if (bucket == null) {
+      bucket = new Bucket<>(time);
+      storage.buckets.put(time, bucket);
+
+      if (storage.size == storage.heap.length) storage.heap = Arrays.copyOf(storage.heap, storage.size * 2);
+      bucket.heapIndex = storage.size++;
+      siftUp(storage, bucket);
+    }
+
+    slot.bucket = bucket;
+    slot.position = bucket.slots.size();
+    bucket.slots.add(slot);
+  }
+
+  private static <JobRef, TimeRef extends SchedulingInstant>
+  void detach(final Storage<JobRef, TimeRef> storage, final Slot<JobRef, TimeRef> slot) {
+    final var bucket = slot.bucket;
+    final var slots = bucket.slots;
+
+    final var last = slots.removeLast();
+    if (last != slot) {
+      slots.set(slot.position, last);
+      last.position = slot.position;
+    }
+    slot.bucket = null;
+
+    if (slots.isEmpty()) {
+      storage.buckets.remove(bucket.time);
+      removeFromHeap(storage, bucket.heapIndex);
+    }
+  }
+
+  private static <JobRef, TimeRef extends SchedulingInstant>
+  void removeFromHeap(final Storage<JobRef, TimeRef> storage, final int index) {
+    final var last = storage.heap[--storage.size];
+    storage.heap[storage.size] = null;
+    if (index == storage.size) return;
+
+    final var removed = storage.heap[index];
+    last.heapIndex = index;
+    if (last.time.compareTo(removed.time) < 0) siftUp(storage, last);
+    else siftDown(storage, last);
+  }
+
+  private static <JobRef, TimeRef extends SchedulingInstant>
+  void siftUp(final Storage<JobRef, TimeRef> storage, final Bucket<JobRef, TimeRef> bucket) {
+    final var heap = storage.heap;
+    var index = bucket.heapIndex;
+    while (index > 0) {
+      final var parentIndex = (index - 1) >>> 1;
+      final var parent = heap[parentIndex];
+      if (bucket.time.compareTo(parent.time) >= 0) break;
+      heap[index] = parent;
+      parent.heapIndex = index;
+      index = parentIndex;
+    }
+    heap[index] = bucket;
+    bucket.heapIndex = index;
+  }
+
+  private static <JobRef, TimeRef extends SchedulingInstant>
+  void siftDown(final Storage<JobRef, TimeRef> storage, final Bucket<JobRef, TimeRef> bucket) {
+    final var heap = storage.heap;
+    final var size = storage.size;
+    var index = bucket.heapIndex;
+    while (true) {
+      var childIndex = 2 * index + 1;
+      if (childIndex >= size) break;
+      if (childIndex + 1 < size && heap[childIndex + 1].time.compareTo(heap[childIndex].time) < 0) childIndex += 1;
+
+      final var child = heap[childIndex];
+      if (bucket.time.compareTo(child.time) <= 0) break;
+      heap[index] = child;
+      child.heapIndex = index;
+      index = childIndex;
     }
-    jobSchedule.scheduledJobs.putAll(this.scheduledJobs);
-    return jobSchedule;
+    heap[index] = bucket;
+    bucket.heapIndex = index;
   }
 }
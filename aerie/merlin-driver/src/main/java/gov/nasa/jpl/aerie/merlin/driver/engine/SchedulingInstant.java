@@ -2,16 +2,25 @@ package gov.nasa.jpl.aerie.merlin.driver.engine;
 
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
-public record SchedulingInstant(Duration offsetFromStart, SubInstant priority)
+/**
+ * A point in simulation time at which a job is scheduled.
+ *
+ * The offset is kept in raw microseconds so that the scheduler can order and compare instants without allocating.
+ */
+public record SchedulingInstant(long offsetMicros, SubInstant priority)
     implements Comparable<SchedulingInstant>
 {
+  public Duration offsetFromStart() {
+    return Duration.of(this.offsetMicros, Duration.MICROSECONDS);
+  }
+
   public Duration project() {
-    return this.offsetFromStart;
+    return this.offsetFromStart();
   }
 
   @Override
   public int compareTo(final SchedulingInstant o) {
-    final var x = this.offsetFromStart.compareTo(o.offsetFromStart);
+    final var x = Long.compare(this.offsetMicros, o.offsetMicros);
     if (x != 0) return x;
     return this.priority.compareTo(o.priority);
   }
@@ -0,0 +1,88 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel.SerializableTopic;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.Event;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The serializable topics of a mission model, indexed by the topic they serialize.
+ *
+ * Every serializable topic is assigned the id it is reported under in simulation results,
+ * and topics describing activity inputs and outputs are classified up front,
+ * so that an event can be matched against only the serializable topics it was actually emitted on.
+ */
+/*package-local*/ final class SerializableTopicIndex {
+  private static final String INPUT_PREFIX = "ActivityType.Input.";
+  private static final String OUTPUT_PREFIX = "ActivityType.Output.";
+
+  /*package-local*/ enum Kind { ActivityInput, ActivityOutput, Other }
+
+  /*package-local*/ record Entry<T>(int id, SerializableTopic<T> topic, Kind kind, String activityType) {
+    public Optional<SerializedValue> serialize(final Event event) {
+      return event.extract(this.topic.topic(), this.topic.outputType()::serialize);
+    }
+  }
+
+  private final Iterable<SerializableTopic<?>> source;
+  private final List<Triple<Integer, String, ValueSchema>> descriptions;
+  private final Map<Topic<?>, List<Entry<?>>> entriesByTopic;
+
+  private SerializableTopicIndex(
+      final Iterable<SerializableTopic<?>> source,
+      final List<Triple<Integer, String, ValueSchema>> descriptions,
+      final Map<Topic<?>, List<Entry<?>>> entriesByTopic
+  ) {
+    this.source = source;
+    this.descriptions = descriptions;
+    this.entriesByTopic = entriesByTopic;
+  }
+
+  public static SerializableTopicIndex of(final Iterable<SerializableTopic<?>> serializableTopics) {
+    final var descriptions = new ArrayList<Triple<Integer, String, ValueSchema>>();
+    final var entriesByTopic = new HashMap<Topic<?>, List<Entry<?>>>();
+    for (final var serializableTopic : serializableTopics) {
+      final var id = descriptions.size();
+      descriptions.add(Triple.of(id, serializableTopic.name(), serializableTopic.outputType().getSchema()));
+      entriesByTopic
+          .computeIfAbsent(serializableTopic.topic(), $ -> new ArrayList<>(1))
+          .add(entry(id, serializableTopic));
+    }
+    return new SerializableTopicIndex(serializableTopics, Collections.unmodifiableList(descriptions), entriesByTopic);
+  }
+
+  private static <T> Entry<T> entry(final int id, final SerializableTopic<T> topic) {
+    final var name = topic.name();
+    if (name.startsWith(INPUT_PREFIX)) {
+      return new Entry<>(id, topic, Kind.ActivityInput, name.substring(INPUT_PREFIX.length()));
+    } else if (name.startsWith(OUTPUT_PREFIX)) {
+      return new Entry<>(id, topic, Kind.ActivityOutput, name.substring(OUTPUT_PREFIX.length()));
+    } else {
+      return new Entry<>(id, topic, Kind.Other, null);
+    }
+  }
+
+  /** Whether this index was built from the given collection of serializable topics. */
+  public boolean isIndexOf(final Iterable<SerializableTopic<?>> serializableTopics) {
+    return this.source == serializableTopics;
+  }
+
+  /** The serializable topics that events on the given topic should be reported under, in id order. */
+  public List<Entry<?>> lookup(final Topic<?> topic) {
+    return this.entriesByTopic.getOrDefault(topic, List.of());
+  }
+
+  /** The id, name, and schema of every serializable topic, as reported in simulation results. */
+  public List<Triple<Integer, String, ValueSchema>> descriptions() {
+    return this.descriptions;
+  }
+}
@@ -29,7 +29,6 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.types.SerializedActivity;
 import org.apache.commons.lang3.mutable.Mutable;
-import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
@@ -49,9 +48,11 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -64,9 +65,9 @@ public final class SimulationEngine implements AutoCloseable {
   /** The set of all jobs waiting for time to pass. */
   private final JobSchedule<JobId, SchedulingInstant> scheduledJobs;
   /** The set of all jobs waiting on a condition. */
-  private final Map<ConditionId, TaskId> waitingTasks;
+  private final ForkableMap<ConditionId, TaskId> waitingTasks;
   /** The set of all tasks blocked on some number of subtasks. */
-  private final Map<TaskId, MutableInt> blockedTasks;
+  private final ForkableMap<TaskId, Integer> blockedTasks;
   /** The set of conditions depending on a given set of topics. */
   private final Subscriptions<Topic<?>, ConditionId> waitingConditions;
   /** The set of queries depending on a given set of topics. */
@@ -75,44 +76,63 @@ public final class SimulationEngine implements AutoCloseable {
   /** The execution state for every task. */
   private final Map<TaskId, ExecutionState<?>> tasks;
   /** The getter for each tracked condition. */
-  private final Map<ConditionId, Condition> conditions;
+  private final ForkableMap<ConditionId, Condition> conditions;
   /** The profiling state for each tracked resource. */
-  private final Map<ResourceId, Resource<?>> resources;
+  private final ForkableMap<ResourceId, Resource<?>> resources;
 
   /** Tasks that have been scheduled, but not started */
-  private final Map<TaskId, Duration> unstartedTasks;
+  private final ForkableMap<TaskId, Duration> unstartedTasks;
 
   /** The set of all spans of work contributed to by modeled tasks. */
-  private final Map<SpanId, Span> spans;
+  private final ForkableMap<SpanId, Span> spans;
   /** A count of the direct contributors to each span, including child spans and tasks. */
-  private final Map<SpanId, MutableInt> spanContributorCount;
+  private final ForkableMap<SpanId, Integer> spanContributorCount;
 
   /** A thread pool that modeled tasks can use to keep track of their state between steps. */
   private final ExecutorService executor;
 
+  /** The maximum number of jobs from a single batch to perform concurrently. */
+  private final int batchParallelism;
+  /** A pool of workers on which the jobs of a batch are performed, if batches are performed concurrently. */
+  private final Optional<ExecutorService> batchExecutor;
+  /** The journal through which jobs performed sequentially apply their bookkeeping directly. */
+  private final JobJournal directJournal = new JobJournal(false);
+
   /* The top-level simulation timeline. */
   private final TemporalEventSource timeline;
   private final TemporalEventSource referenceTimeline;
   private final LiveCells cells;
   private Duration elapsedTime;
+  /** Span information and serialized events collected from the timeline as commits land, if requested. */
+  private Optional<IncrementalResults> incrementalResults = Optional.empty();
 
   public SimulationEngine(LiveCells initialCells) {
+    this(initialCells, 1);
+  }
+
+  public SimulationEngine(LiveCells initialCells, int batchParallelism) {
+    if (batchParallelism < 1) throw new IllegalArgumentException(
+        "Batch parallelism must be at least 1, but was %d".formatted(batchParallelism));
+
+    this.batchParallelism = batchParallelism;
+    batchExecutor = createBatchExecutor(batchParallelism);
+
     timeline = new TemporalEventSource();
     referenceTimeline = new TemporalEventSource();
-    cells = new LiveCells(timeline, initialCells);
+    cells = new LiveCells(timeline, initialCells, batchExecutor.isPresent());
     elapsedTime = Duration.ZERO;
 
     scheduledJobs = new JobSchedule<>();
-    waitingTasks = new LinkedHashMap<>();
-    blockedTasks = new LinkedHashMap<>();
+    waitingTasks = new ForkableMap<>();
+    blockedTasks = new ForkableMap<>();
     waitingConditions = new Subscriptions<>();
     waitingResources = new Subscriptions<>();
     tasks = new LinkedHashMap<>();
-    conditions = new LinkedHashMap<>();
-    resources = new LinkedHashMap<>();
-    unstartedTasks = new LinkedHashMap<>();
-    spans = new LinkedHashMap<>();
-    spanContributorCount = new LinkedHashMap<>();
+    conditions = new ForkableMap<>();
+    resources = new ForkableMap<>();
+    unstartedTasks = new ForkableMap<>();
+    spans = new ForkableMap<>();
+    spanContributorCount = new ForkableMap<>();
     executor = Executors.newVirtualThreadPerTaskExecutor();
   }
 
@@ -123,32 +143,39 @@ public final class SimulationEngine implements AutoCloseable {
 
     elapsedTime = other.elapsedTime;
 
+    batchParallelism = other.batchParallelism;
+    batchExecutor = createBatchExecutor(batchParallelism);
+
     timeline = new TemporalEventSource();
-    cells = new LiveCells(timeline, other.cells);
+    cells = new LiveCells(timeline, other.cells, batchExecutor.isPresent());
     referenceTimeline = other.combineTimeline();
+    incrementalResults = other.incrementalResults.map(IncrementalResults::duplicate);
 
     // New Executor allows other SimulationEngine to be closed
     executor = Executors.newVirtualThreadPerTaskExecutor();
+    // The engine's tables are forked rather than copied, so that only entries written after this point are copied.
     scheduledJobs = other.scheduledJobs.duplicate();
-    waitingTasks = new LinkedHashMap<>(other.waitingTasks);
-    blockedTasks = new LinkedHashMap<>();
-    for (final var entry : other.blockedTasks.entrySet()) {
-      blockedTasks.put(entry.getKey(), new MutableInt(entry.getValue()));
-    }
+    waitingTasks = other.waitingTasks.fork();
+    blockedTasks = other.blockedTasks.fork();
     waitingConditions = other.waitingConditions.duplicate();
     waitingResources = other.waitingResources.duplicate();
+    // Task states are bound to the executor of the engine running them, so they must be duplicated eagerly.
     tasks = new LinkedHashMap<>();
     for (final var entry : other.tasks.entrySet()) {
       tasks.put(entry.getKey(), entry.getValue().duplicate(executor));
     }
-    conditions = new LinkedHashMap<>(other.conditions);
-    resources = new LinkedHashMap<>(other.resources);
-    unstartedTasks = new LinkedHashMap<>(other.unstartedTasks);
-    spans = new LinkedHashMap<>(other.spans);
-    spanContributorCount = new LinkedHashMap<>();
-    for (final var entry : other.spanContributorCount.entrySet()) {
-      spanContributorCount.put(entry.getKey(), new MutableInt(entry.getValue().getValue()));
-    }
+    conditions = other.conditions.fork();
+    resources = other.resources.fork();
+    unstartedTasks = other.unstartedTasks.fork();
+    spans = other.spans.fork();
+    spanContributorCount = other.spanContributorCount.fork();
+  }
+
+  private static Optional<ExecutorService> createBatchExecutor(final int batchParallelism) {
+    if (batchParallelism == 1) return Optional.empty();
+    return Optional.of(Executors.newFixedThreadPool(
+        batchParallelism,
+        Thread.ofVirtual().name("simulation-batch-", 0).factory()));
   }
 
   /** Initialize the engine by tracking resources and kicking off daemon tasks. **/
@@ -167,7 +194,7 @@ public final class SimulationEngine implements AutoCloseable {
       final var batch = this.extractNextJobs(Duration.MAX_VALUE);
       final var results = this.performJobs(batch.jobs(), cells, elapsedTime, Duration.MAX_VALUE);
       for (final var commit : results.commits()) {
-        timeline.add(commit);
+        this.commit(commit);
       }
       if (results.error.isPresent()) {
         throw results.error.get();
@@ -175,6 +202,39 @@ public final class SimulationEngine implements AutoCloseable {
     }
   }
 
+  private void commit(final EventGraph<Event> commit) {
+    timeline.add(commit);
+    incrementalResults.ifPresent($ -> $.accept(elapsedTime, commit));
+  }
+
+  /**
+   * Collect the information needed for simulation results as commits land in the timeline,
+   * so that {@link #computeResults} need not revisit the whole timeline once simulation ends.
+   *
+   * Results are only collected incrementally for the given activity topic and serializable topics;
+   * computing results for any other topics falls back to scanning the timeline.
+   * Any events already committed are collected immediately.
+   */
+  public void trackResults(
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<SerializableTopic<?>> serializableTopics
+  ) {
+    this.incrementalResults = Optional.of(
+        IncrementalResults.replay(activityTopic, SerializableTopicIndex.of(serializableTopics), combineTimeline()));
+  }
+
+  private IncrementalResults collectResults(
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<SerializableTopic<?>> serializableTopics
+  ) {
+    return this.incrementalResults
+        .filter($ -> $.tracks(activityTopic, serializableTopics))
+        .orElseGet(() -> IncrementalResults.replay(
+            activityTopic,
+            SerializableTopicIndex.of(serializableTopics),
+            combineTimeline()));
+  }
+
   public sealed interface Status {
     record NoJobs() implements Status {}
     record AtDuration() implements Status{}
@@ -191,8 +251,7 @@ public final class SimulationEngine implements AutoCloseable {
 
   /** Step the engine forward one batch. **/
   public Status step(Duration simulationDuration) throws Throwable {
-    final var nextTime = this.peekNextTime().orElse(Duration.MAX_VALUE);
-    if (nextTime.longerThan(simulationDuration)) {
+    if (this.scheduledJobs.peekNextMicros() > simulationDuration.micros()) {
       elapsedTime = Duration.max(elapsedTime, simulationDuration); // avoid lowering elapsed time
       return new Status.AtDuration();
     }
@@ -200,8 +259,8 @@ public final class SimulationEngine implements AutoCloseable {
     final var batch = this.extractNextJobs(simulationDuration);
 
     // Increment real time, if necessary.
-    final var delta = batch.offsetFromStart().minus(elapsedTime);
-    elapsedTime = batch.offsetFromStart();
+    final var delta = batch.offsetMicros() - elapsedTime.micros();
+    if (delta != 0) elapsedTime = batch.offsetFromStart();
     timeline.add(delta);
 
     // TODO: Advance a dense time counter so that future tasks are strictly ordered relative to these,
@@ -211,7 +270,7 @@ public final class SimulationEngine implements AutoCloseable {
     // Run the jobs in this batch.
     final var results = this.performJobs(batch.jobs(), cells, elapsedTime, simulationDuration);
     for (final var commit : results.commits()) {
-      timeline.add(commit);
+      this.commit(commit);
     }
     if (results.error.isPresent()) {
       throw results.error.get();
@@ -263,7 +322,7 @@ public final class SimulationEngine implements AutoCloseable {
     this.spans.put(span, new Span(Optional.empty(), startTime, Optional.empty()));
 
     final var task = TaskId.generate();
-    this.spanContributorCount.put(span, new MutableInt(1));
+    this.spanContributorCount.put(span, 1);
     this.tasks.put(task, new ExecutionState<>(span, Optional.empty(), state.create(this.executor)));
     this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(startTime));
 
@@ -367,13 +426,17 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration maximumTime
   ) throws SpanException {
     if (this.closed) throw new IllegalStateException("Cannot perform jobs on closed simulation engine");
+    if (this.batchExecutor.isPresent() && jobs.size() > 1) {
+      return this.performJobsInParallel(this.batchExecutor.get(), jobs, context, currentTime, maximumTime);
+    }
+
     var tip = EventGraph.<Event>empty();
     Mutable<Optional<Throwable>> exception = new MutableObject<>(Optional.empty());
     final var resourceUpdates = new ResourceUpdates();
     for (final var job$ : jobs) {
       tip = EventGraph.concurrently(tip, TaskFrame.run(job$, context, (job, frame) -> {
         try {
-          this.performJob(job, frame, currentTime, maximumTime, resourceUpdates);
+          this.performJob(job, frame, currentTime, maximumTime, resourceUpdates, this.directJournal);
         } catch (Throwable ex) {
           exception.setValue(Optional.of(ex));
         }
@@ -386,6 +449,66 @@ public final class SimulationEngine implements AutoCloseable {
     return new StepResult(List.of(tip), resourceUpdates, Optional.empty());
   }
 
+  /**
+   * Performs a collection of tasks on the batch worker pool.
+   *
+   * Each job records its engine bookkeeping in its own journal rather than applying it directly.
+   * Once every job has finished, the journals and event graphs are merged in the order the jobs were given,
+   * so the engine ends up in exactly the state that performing the jobs sequentially would have left it in.
+   */
+  private StepResult performJobsInParallel(
+      final ExecutorService batchExecutor,
+      final Collection<JobId> jobs,
+      final LiveCells context,
+      final Duration currentTime,
+      final Duration maximumTime
+  ) {
+    record PendingJob(JobJournal journal, Mutable<Optional<Throwable>> exception, Future<EventGraph<Event>> events) {}
+
+    final var resourceUpdates = new ResourceUpdates();
+    final var pendingJobs = new ArrayList<PendingJob>(jobs.size());
+    for (final var job$ : jobs) {
+      final var journal = new JobJournal(true);
+      final Mutable<Optional<Throwable>> exception = new MutableObject<>(Optional.empty());
+      final var events = batchExecutor.submit(() -> TaskFrame.run(job$, context, (job, frame) -> {
+        try {
+          this.performJob(job, frame, currentTime, maximumTime, resourceUpdates, journal);
+        } catch (Throwable ex) {
+          exception.setValue(Optional.of(ex));
+        }
+      }));
+      pendingJobs.add(new PendingJob(journal, exception, events));
+    }
+
+    // Wait for every job to finish before touching the engine, even if an earlier one failed,
+    //   since the jobs still running may be reading engine state.
+    final var results = new ArrayList<EventGraph<Event>>(pendingJobs.size());
+    for (final var pendingJob : pendingJobs) {
+      try {
+        results.add(pendingJob.events().get());
+      } catch (final ExecutionException ex) {
+        results.add(EventGraph.empty());
+        if (pendingJob.exception().getValue().isEmpty()) pendingJob.exception().setValue(Optional.of(ex.getCause()));
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        results.add(EventGraph.empty());
+        if (pendingJob.exception().getValue().isEmpty()) pendingJob.exception().setValue(Optional.of(ex));
+      }
+    }
+
+    var tip = EventGraph.<Event>empty();
+    for (var i = 0; i < pendingJobs.size(); i += 1) {
+      final var pendingJob = pendingJobs.get(i);
+      pendingJob.journal().replay();
+      tip = EventGraph.concurrently(tip, results.get(i));
+
+      if (pendingJob.exception().getValue().isPresent()) {
+        return new StepResult(List.of(tip), resourceUpdates, pendingJob.exception().getValue());
+      }
+    }
+    return new StepResult(List.of(tip), resourceUpdates, Optional.empty());
+  }
+
   /** Performs a single job. */
   public void performJob(
       final JobId job,
@@ -393,12 +516,23 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime,
       final Duration maximumTime,
       final ResourceUpdates resourceUpdates
+  ) throws SpanException {
+    this.performJob(job, frame, currentTime, maximumTime, resourceUpdates, this.directJournal);
+  }
+
+  private void performJob(
+      final JobId job,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final Duration maximumTime,
+      final ResourceUpdates resourceUpdates,
+      final JobJournal journal
   ) throws SpanException {
     switch (job) {
-      case JobId.TaskJobId j -> this.stepTask(j.id(), frame, currentTime);
-      case JobId.SignalJobId j -> this.stepTask(this.waitingTasks.remove(j.id()), frame, currentTime);
-      case JobId.ConditionJobId j -> this.updateCondition(j.id(), frame, currentTime, maximumTime);
-      case JobId.ResourceJobId j -> this.updateResource(j.id(), frame, currentTime, resourceUpdates);
+      case JobId.TaskJobId j -> this.stepTask(j.id(), frame, currentTime, journal);
+      case JobId.SignalJobId j -> this.stepTask(journal.take(this.waitingTasks, j.id()), frame, currentTime, journal);
+      case JobId.ConditionJobId j -> this.updateCondition(j.id(), frame, currentTime, maximumTime, journal);
+      case JobId.ResourceJobId j -> this.updateResource(j.id(), frame, currentTime, resourceUpdates, journal);
       case null -> throw new IllegalArgumentException("Unexpected null value for JobId");
       default -> throw new IllegalArgumentException("Unexpected subtype of %s: %s".formatted(
           JobId.class,
@@ -409,13 +543,22 @@ public final class SimulationEngine implements AutoCloseable {
   /** Perform the next step of a modeled task. */
   public void stepTask(final TaskId task, final TaskFrame<JobId> frame, final Duration currentTime)
   throws SpanException {
+    this.stepTask(task, frame, currentTime, this.directJournal);
+  }
+
+  private void stepTask(
+      final TaskId task,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final JobJournal journal
+  ) throws SpanException {
     if (this.closed) throw new IllegalStateException("Cannot step task on closed simulation engine");
-    this.unstartedTasks.remove(task);
+    journal.record(() -> this.unstartedTasks.remove(task));
     // The handler for the next status of the task is responsible
     //   for putting an updated state back into the task set.
-    var state = this.tasks.remove(task);
+    var state = journal.takeTask(task);
 
-    stepEffectModel(task, state, frame, currentTime);
+    stepEffectModel(task, state, frame, currentTime, journal);
   }
 
   /** Make progress in a task by stepping its associated effect model forward. */
@@ -423,10 +566,11 @@ public final class SimulationEngine implements AutoCloseable {
       final TaskId task,
       final ExecutionState<Output> progress,
       final TaskFrame<JobId> frame,
-      final Duration currentTime
+      final Duration currentTime,
+      final JobJournal journal
   ) throws SpanException {
     // Step the modeling state forward.
-    final var scheduler = new EngineScheduler(currentTime, progress.span(), progress.caller(), frame);
+    final var scheduler = new EngineScheduler(currentTime, progress.span(), progress.caller(), frame, journal);
     final TaskStatus<Output> status;
     try {
       status = progress.state().step(scheduler);
@@ -438,12 +582,16 @@ public final class SimulationEngine implements AutoCloseable {
 
     // Based on the task's return status, update its execution state and schedule its resumption.
     switch (status) {
-      case TaskStatus.Completed<Output> s -> {
+      case TaskStatus.Completed<Output> s -> journal.record(() -> {
         // Propagate completion up the span hierarchy.
         // TERMINATION: The span hierarchy is a finite tree, so eventually we find a parentless span.
         var span = scheduler.span;
         while (true) {
-          if (this.spanContributorCount.get(span).decrementAndGet() > 0) break;
+          final var contributors = this.spanContributorCount.get(span) - 1;
+          if (contributors > 0) {
+            this.spanContributorCount.put(span, contributors);
+            break;
+          }
           this.spanContributorCount.remove(span);
 
           this.spans.compute(span, (_id, $) -> $.close(currentTime));
@@ -456,18 +604,23 @@ public final class SimulationEngine implements AutoCloseable {
 
         // Notify any blocked caller of our completion.
         progress.caller().ifPresent($ -> {
-          if (this.blockedTasks.get($).decrementAndGet() == 0) {
+          final var blockers = this.blockedTasks.get($) - 1;
+          if (blockers > 0) {
+            this.blockedTasks.put($, blockers);
+          } else {
             this.blockedTasks.remove($);
             this.scheduledJobs.schedule(JobId.forTask($), SubInstant.Tasks.at(currentTime));
           }
         });
-      }
+      });
 
       case TaskStatus.Delayed<Output> s -> {
         if (s.delay().isNegative()) throw new IllegalArgumentException("Cannot schedule a task in the past");
 
-        this.tasks.put(task, progress.continueWith(s.continuation()));
-        this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(currentTime.plus(s.delay())));
+        journal.putTask(task, progress.continueWith(s.continuation()));
+        journal.record(() -> this.scheduledJobs.schedule(
+            JobId.forTask(task),
+            SubInstant.Tasks.at(Math.addExact(currentTime.micros(), s.delay().micros()))));
       }
 
       case TaskStatus.CallingTask<Output> s -> {
@@ -477,18 +630,20 @@ public final class SimulationEngine implements AutoCloseable {
 
           case Fresh -> {
             final var freshSpan = SpanId.generate();
-            SimulationEngine.this.spans.put(
-                freshSpan,
-                new Span(Optional.of(scheduler.span), currentTime, Optional.empty()));
-            SimulationEngine.this.spanContributorCount.put(freshSpan, new MutableInt(1));
+            journal.record(() -> {
+              SimulationEngine.this.spans.put(
+                  freshSpan,
+                  new Span(Optional.of(scheduler.span), currentTime, Optional.empty()));
+              SimulationEngine.this.spanContributorCount.put(freshSpan, 1);
+            });
             yield freshSpan;
           }
         };
 
         // Spawn the child task.
         final var childTask = TaskId.generate();
-        SimulationEngine.this.spanContributorCount.get(scheduler.span).increment();
-        SimulationEngine.this.tasks.put(
+        journal.record(() -> SimulationEngine.this.spanContributorCount.merge(scheduler.span, 1, Integer::sum));
+        journal.putTask(
             childTask,
             new ExecutionState<>(
                 childSpan,
@@ -497,17 +652,19 @@ public final class SimulationEngine implements AutoCloseable {
         frame.signal(JobId.forTask(childTask));
 
         // Arrange for the parent task to resume.... later.
-        SimulationEngine.this.blockedTasks.put(task, new MutableInt(1));
-        this.tasks.put(task, progress.continueWith(s.continuation()));
+        journal.record(() -> SimulationEngine.this.blockedTasks.put(task, 1));
+        journal.putTask(task, progress.continueWith(s.continuation()));
       }
 
       case TaskStatus.AwaitingCondition<Output> s -> {
         final var condition = ConditionId.generate();
-        this.conditions.put(condition, s.condition());
-        this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(currentTime));
+        journal.record(() -> {
+          this.conditions.put(condition, s.condition());
+          this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(currentTime));
+        });
 
-        this.tasks.put(task, progress.continueWith(s.continuation()));
-        this.waitingTasks.put(condition, task);
+        journal.putTask(task, progress.continueWith(s.continuation()));
+        journal.record(() -> this.waitingTasks.put(condition, task));
       }
     }
   }
@@ -518,23 +675,40 @@ public final class SimulationEngine implements AutoCloseable {
       final TaskFrame<JobId> frame,
       final Duration currentTime,
       final Duration horizonTime
+  ) {
+    this.updateCondition(condition, frame, currentTime, horizonTime, this.directJournal);
+  }
+
+  private void updateCondition(
+      final ConditionId condition,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final Duration horizonTime,
+      final JobJournal journal
   ) {
     if (this.closed) throw new IllegalStateException("Cannot update condition on closed simulation engine");
     final var querier = new EngineQuerier(frame);
-    final var prediction = this.conditions
+    final var satisfied = this.conditions
         .get(condition)
-        .nextSatisfied(querier, horizonTime.minus(currentTime))
-        .map(currentTime::plus);
+        .nextSatisfied(querier, horizonTime.minus(currentTime));
 
-    this.waitingConditions.subscribeQuery(condition, querier.referencedTopics);
+    journal.record(() -> this.waitingConditions.subscribeQuery(condition, querier.referencedTopics));
 
-    final var expiry = querier.expiry.map(currentTime::plus);
-    if (prediction.isPresent() && (expiry.isEmpty() || prediction.get().shorterThan(expiry.get()))) {
-      this.scheduledJobs.schedule(JobId.forSignal(condition), SubInstant.Tasks.at(prediction.get()));
+    final var now = currentTime.micros();
+    final var expiry = querier.expiresAt(now);
+    final var prediction = satisfied.isPresent() ? Math.addExact(now, satisfied.get().micros()) : EngineQuerier.NEVER;
+    if (satisfied.isPresent() && (expiry == EngineQuerier.NEVER || prediction < expiry)) {
+      journal.record(() -> this.scheduledJobs.schedule(
+          JobId.forSignal(condition),
+          SubInstant.Tasks.at(prediction)));
     } else {
       // Try checking again later -- where "later" is in some non-zero amount of time!
-      final var nextCheckTime = Duration.max(expiry.orElse(horizonTime), currentTime.plus(Duration.EPSILON));
-      this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(nextCheckTime));
+      final var nextCheckTime = Math.max(
+          (expiry == EngineQuerier.NEVER) ? horizonTime.micros() : expiry,
+          Math.addExact(now, Duration.EPSILON.micros()));
+      journal.record(() -> this.scheduledJobs.schedule(
+          JobId.forCondition(condition),
+          SubInstant.Conditions.at(nextCheckTime)));
     }
   }
 
@@ -544,19 +718,34 @@ public final class SimulationEngine implements AutoCloseable {
       final TaskFrame<JobId> frame,
       final Duration currentTime,
       final ResourceUpdates resourceUpdates) {
+    this.updateResource(resourceId, frame, currentTime, resourceUpdates, this.directJournal);
+  }
+
+  private void updateResource(
+      final ResourceId resourceId,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final ResourceUpdates resourceUpdates,
+      final JobJournal journal
+  ) {
     if (this.closed) throw new IllegalStateException("Cannot update resource on closed simulation engine");
     final var querier = new EngineQuerier(frame);
-    resourceUpdates.add(new ResourceUpdates.ResourceUpdate<>(
+    final var update = new ResourceUpdates.ResourceUpdate<>(
         querier,
         currentTime,
         resourceId,
-        this.resources.get(resourceId)));
+        this.resources.get(resourceId));
 
-    this.waitingResources.subscribeQuery(resourceId, querier.referencedTopics);
+    journal.record(() -> {
+      resourceUpdates.add(update);
+      this.waitingResources.subscribeQuery(resourceId, querier.referencedTopics);
+    });
 
-    final var expiry = querier.expiry.map(currentTime::plus);
-    if (expiry.isPresent()) {
-      this.scheduledJobs.schedule(JobId.forResource(resourceId), SubInstant.Resources.at(expiry.get()));
+    final var expiry = querier.expiresAt(currentTime.micros());
+    if (expiry != EngineQuerier.NEVER) {
+      journal.record(() -> this.scheduledJobs.schedule(
+          JobId.forResource(resourceId),
+          SubInstant.Resources.at(expiry)));
     }
   }
 
@@ -571,6 +760,7 @@ public final class SimulationEngine implements AutoCloseable {
     }
 
     this.executor.shutdownNow();
+    this.batchExecutor.ifPresent(ExecutorService::shutdownNow);
     this.closed = true;
   }
 
@@ -593,6 +783,13 @@ public final class SimulationEngine implements AutoCloseable {
       this(new HashMap<>(), new HashMap<>(), new HashMap<>());
     }
 
+    public SpanInfo duplicate() {
+      return new SpanInfo(
+          new HashMap<>(this.spanToPlannedDirective),
+          new HashMap<>(this.input),
+          new HashMap<>(this.output));
+    }
+
     public boolean isActivity(final SpanId id) {
       return this.input.containsKey(id);
     }
@@ -605,7 +802,7 @@ public final class SimulationEngine implements AutoCloseable {
       return this.spanToPlannedDirective.get(id);
     }
 
-    public record Trait(Iterable<SerializableTopic<?>> topics, Topic<ActivityDirectiveId> activityTopic)
+    public record Trait(SerializableTopicIndex topics, Topic<ActivityDirectiveId> activityTopic)
         implements EffectTrait<Consumer<SpanInfo>>
     {
       @Override
@@ -641,42 +838,113 @@ public final class SimulationEngine implements AutoCloseable {
           ev.extract(this.activityTopic)
             .ifPresent(directiveId -> spanInfo.spanToPlannedDirective.put(ev.provenance(), directiveId));
 
-          for (final var topic : this.topics) {
-            // Identify activity inputs.
-            extractInput(topic, ev, spanInfo);
-
-            // Identify activity outputs.
-            extractOutput(topic, ev, spanInfo);
+          for (final var topic : this.topics.lookup(ev.topic())) {
+            switch (topic.kind()) {
+              // Identify activity inputs.
+              case ActivityInput -> extractInput(topic, ev, spanInfo);
+              // Identify activity outputs.
+              case ActivityOutput -> extractOutput(topic, ev, spanInfo);
+              case Other -> {}
+            }
           }
         };
       }
 
-      private static <T>
-      void extractInput(final SerializableTopic<T> topic, final Event ev, final SpanInfo spanInfo) {
-        if (!topic.name().startsWith("ActivityType.Input.")) return;
-
-        ev.extract(topic.topic()).ifPresent(input -> {
-          final var activityType = topic.name().substring("ActivityType.Input.".length());
-
+      private static void extractInput(final SerializableTopicIndex.Entry<?> topic, final Event ev, final SpanInfo spanInfo) {
+        topic.serialize(ev).ifPresent(input -> {
           spanInfo.input.put(
               ev.provenance(),
-              new SerializedActivity(activityType, topic.outputType().serialize(input).asMap().orElseThrow()));
+              new SerializedActivity(topic.activityType(), input.asMap().orElseThrow()));
         });
       }
 
-      private static <T>
-      void extractOutput(final SerializableTopic<T> topic, final Event ev, final SpanInfo spanInfo) {
-        if (!topic.name().startsWith("ActivityType.Output.")) return;
-
-        ev.extract(topic.topic()).ifPresent(output -> {
-          spanInfo.output.put(
-              ev.provenance(),
-              topic.outputType().serialize(output));
+      private static void extractOutput(final SerializableTopicIndex.Entry<?> topic, final Event ev, final SpanInfo spanInfo) {
+        topic.serialize(ev).ifPresent(output -> {
+          spanInfo.output.put(ev.provenance(), output);
         });
       }
     }
   }
 
+  /** A serialized event whose provenance has not yet been attributed to an activity instance. */
+  private record SerializedEvent(int topicId, SpanId provenance, SerializedValue value) {}
+
+  /** The serialized events of a single commit, and the time at which it was made. */
+  private record SerializedCommit(Duration time, EventGraph<SerializedEvent> events) {}
+
+  /** Span information and serialized events, collected commit by commit from a timeline. */
+  private static final class IncrementalResults {
+    private final Topic<ActivityDirectiveId> activityTopic;
+    private final SerializableTopicIndex topics;
+    private final SpanInfo.Trait trait;
+    private final SpanInfo spanInfo;
+    // Forked rather than copied when an engine is duplicated, so that duplicates share the commits made before.
+    private final ForkableLog<SerializedCommit> serializedTimeline;
+
+    private IncrementalResults(
+        final Topic<ActivityDirectiveId> activityTopic,
+        final SerializableTopicIndex topics,
+        final SpanInfo spanInfo,
+        final ForkableLog<SerializedCommit> serializedTimeline
+    ) {
+      this.activityTopic = activityTopic;
+      this.topics = topics;
+      this.trait = new SpanInfo.Trait(topics, activityTopic);
+      this.spanInfo = spanInfo;
+      this.serializedTimeline = serializedTimeline;
+    }
+
+    public static IncrementalResults replay(
+        final Topic<ActivityDirectiveId> activityTopic,
+        final SerializableTopicIndex topics,
+        final TemporalEventSource timeline
+    ) {
+      final var results = new IncrementalResults(activityTopic, topics, new SpanInfo(), new ForkableLog<>());
+      var micros = 0L;
+      for (final var point : timeline) {
+        if (point instanceof TemporalEventSource.TimePoint.Delta delta) {
+          micros = Math.addExact(micros, delta.micros());
+        } else if (point instanceof TemporalEventSource.TimePoint.Commit commit) {
+          results.accept(Duration.of(micros, Duration.MICROSECONDS), commit.events());
+        }
+      }
+      return results;
+    }
+
+    public boolean tracks(
+        final Topic<ActivityDirectiveId> activityTopic,
+        final Iterable<SerializableTopic<?>> serializableTopics
+    ) {
+      return this.activityTopic == activityTopic && this.topics.isIndexOf(serializableTopics);
+    }
+
+    public void accept(final Duration time, final EventGraph<Event> commit) {
+      commit.evaluate(this.trait, this.trait::atom).accept(this.spanInfo);
+
+      final var serializedEventGraph = commit.substitute(
+          event -> {
+            EventGraph<SerializedEvent> output = EventGraph.empty();
+            for (final var topic : this.topics.lookup(event.topic())) {
+              final var serializedEvent = topic.serialize(event);
+              if (serializedEvent.isPresent()) {
+                output = EventGraph.concurrently(
+                    output,
+                    EventGraph.atom(new SerializedEvent(topic.id(), event.provenance(), serializedEvent.get())));
+              }
+            }
+            return output;
+          }
+      ).evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom);
+      if (!(serializedEventGraph instanceof EventGraph.Empty)) {
+        this.serializedTimeline.append(new SerializedCommit(time, serializedEventGraph));
+      }
+    }
+
+    public IncrementalResults duplicate() {
+      final var serializedTimeline = this.serializedTimeline.fork();
+      return new IncrementalResults(this.activityTopic, this.topics, this.spanInfo.duplicate(), serializedTimeline);
+    }
+  }
 
   /**
    * Get an Activity Directive Id from a SpanId, if the span is a descendent of a directive.
@@ -687,7 +955,7 @@ public final class SimulationEngine implements AutoCloseable {
       final SpanId spanId
   ) {
     // Collect per-span information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, this.timeline);
+    final var spanInfo = computeSpanInfo(activityTopic, SerializableTopicIndex.of(serializableTopics), this.timeline);
 
     // Identify the nearest ancestor directive by walking up the parent
     // span tree. Save the activity trace along the way
@@ -718,16 +986,16 @@ public final class SimulationEngine implements AutoCloseable {
 
   private SpanInfo computeSpanInfo(
       final Topic<ActivityDirectiveId> activityTopic,
-      final Iterable<SerializableTopic<?>> serializableTopics,
+      final SerializableTopicIndex serializableTopics,
       final TemporalEventSource timeline
   ) {
     // Collect per-span information from the event graph.
     final var spanInfo = new SpanInfo();
+    final var trait = new SpanInfo.Trait(serializableTopics, activityTopic);
 
     for (final var point : timeline) {
       if (!(point instanceof TemporalEventSource.TimePoint.Commit p)) continue;
 
-      final var trait = new SpanInfo.Trait(serializableTopics, activityTopic);
       p.events().evaluate(trait, trait::atom).accept(spanInfo);
     }
     return spanInfo;
@@ -738,10 +1006,15 @@ public final class SimulationEngine implements AutoCloseable {
       final Topic<ActivityDirectiveId> activityTopic,
       final Iterable<SerializableTopic<?>> serializableTopics
   ) {
-    return computeActivitySimulationResults(
-        startTime,
-        computeSpanInfo(activityTopic, serializableTopics, combineTimeline())
-    );
+    final var spanInfo = this.incrementalResults
+        .filter($ -> $.tracks(activityTopic, serializableTopics))
+        .map($ -> $.spanInfo)
+        .orElseGet(() -> computeSpanInfo(
+            activityTopic,
+            SerializableTopicIndex.of(serializableTopics),
+            combineTimeline()));
+
+    return computeActivitySimulationResults(startTime, spanInfo);
   }
 
   private HashMap<SpanId, ActivityDirectiveId> spanToActivityDirectiveId(
@@ -851,59 +1124,46 @@ public final class SimulationEngine implements AutoCloseable {
   }
 
   private TreeMap<Duration, List<EventGraph<EventRecord>>> createSerializedTimeline(
-      final TemporalEventSource combinedTimeline,
-      final Iterable<SerializableTopic<?>> serializableTopics,
-      final HashMap<SpanId, ActivityInstanceId> spanToActivities,
-      final HashMap<SerializableTopic<?>, Integer> serializableTopicToId) {
+      final ForkableLog<SerializedCommit> serializedEvents,
+      final HashMap<SpanId, ActivityInstanceId> spanToActivities
+  ) {
     final var serializedTimeline = new TreeMap<Duration, List<EventGraph<EventRecord>>>();
-    var time = Duration.ZERO;
-    for (var point : combinedTimeline.points()) {
-      if (point instanceof TemporalEventSource.TimePoint.Delta delta) {
-        time = time.plus(delta.delta());
-      } else if (point instanceof TemporalEventSource.TimePoint.Commit commit) {
-        final var serializedEventGraph = commit.events().substitute(
-            event -> {
-              // TODO can we do this more efficiently?
-              EventGraph<EventRecord> output = EventGraph.empty();
-              for (final var serializableTopic : serializableTopics) {
-                Optional<SerializedValue> serializedEvent = trySerializeEvent(event, serializableTopic);
-                if (serializedEvent.isPresent()) {
-                  // If the event's `provenance` has no simulated activity id, search its ancestors to find the nearest
-                  // simulated activity id, if one exists
-                  if (!spanToActivities.containsKey(event.provenance())) {
-                    var spanId = Optional.of(event.provenance());
-
-                    while (true) {
-                      if (spanToActivities.containsKey(spanId.get())) {
-                        spanToActivities.put(event.provenance(), spanToActivities.get(spanId.get()));
-                        break;
-                      }
-                      spanId = this.getSpan(spanId.get()).parent();
-                      if (spanId.isEmpty()) {
-                        break;
-                      }
-                    }
-                  }
-                  var activitySpanID = Optional.ofNullable(spanToActivities.get(event.provenance())).map(ActivityInstanceId::id);
-                  output = EventGraph.concurrently(
-                      output,
-                      EventGraph.atom(
-                          new EventRecord(serializableTopicToId.get(serializableTopic),
-                                          activitySpanID,
-                                          serializedEvent.get())));
-                }
-              }
-              return output;
-            }
-        ).evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom);
-        if (!(serializedEventGraph instanceof EventGraph.Empty)) {
-          serializedTimeline
-              .computeIfAbsent(time, x -> new ArrayList<>())
-              .add(serializedEventGraph);
+    for (final var commit : serializedEvents) {
+      serializedTimeline
+          .computeIfAbsent(commit.time(), $ -> new ArrayList<>())
+          .add(commit.events()
+              .map(event -> new EventRecord(
+                  event.topicId(),
+                  findActivity(event.provenance(), spanToActivities).map(ActivityInstanceId::id),
+                  event.value()))
+              .evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom));
+    }
+    return serializedTimeline;
+  }
+
+  /**
+   * If the given span has no simulated activity id, search its ancestors to find the nearest simulated activity id,
+   * if one exists, remembering it for the span's later events.
+   */
+  private Optional<ActivityInstanceId> findActivity(
+      final SpanId provenance,
+      final HashMap<SpanId, ActivityInstanceId> spanToActivities
+  ) {
+    if (!spanToActivities.containsKey(provenance)) {
+      var spanId = Optional.of(provenance);
+
+      while (true) {
+        if (spanToActivities.containsKey(spanId.get())) {
+          spanToActivities.put(provenance, spanToActivities.get(spanId.get()));
+          break;
+        }
+        spanId = this.getSpan(spanId.get()).parent();
+        if (spanId.isEmpty()) {
+          break;
         }
       }
     }
-    return serializedTimeline;
+    return Optional.ofNullable(spanToActivities.get(provenance));
   }
 
 
@@ -920,9 +1180,9 @@ public final class SimulationEngine implements AutoCloseable {
       final Iterable<SerializableTopic<?>> serializableTopics,
       final SimulationResourceManager resourceManager
   ) {
-    final var combinedTimeline = this.combineTimeline();
-    // Collect per-task information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, combinedTimeline);
+    // Collect per-task information and serialized events from the event graph.
+    final var collected = collectResults(activityTopic, serializableTopics);
+    final var spanInfo = collected.spanInfo;
 
     // Extract profiles for every resource.
     final var resourceProfiles = resourceManager.computeProfiles(elapsedTime);
@@ -931,18 +1191,11 @@ public final class SimulationEngine implements AutoCloseable {
 
     final var activityResults = computeActivitySimulationResults(startTime, spanInfo);
 
-    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>();
-    final var serializableTopicToId = new HashMap<SerializableTopic<?>, Integer>();
-    for (final var serializableTopic : serializableTopics) {
-      serializableTopicToId.put(serializableTopic, topics.size());
-      topics.add(Triple.of(topics.size(), serializableTopic.name(), serializableTopic.outputType().getSchema()));
-    }
+    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>(collected.topics.descriptions());
 
     final var serializedTimeline = createSerializedTimeline(
-        combinedTimeline,
-        serializableTopics,
-        spanToSimulatedActivities(spanInfo),
-        serializableTopicToId
+        collected.serializedTimeline,
+        spanToSimulatedActivities(spanInfo)
     );
 
     return new SimulationResults(
@@ -963,9 +1216,9 @@ public final class SimulationEngine implements AutoCloseable {
       final SimulationResourceManager resourceManager,
       final Set<String> resourceNames
   ) {
-    final var combinedTimeline = this.combineTimeline();
-    // Collect per-task information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, combinedTimeline);
+    // Collect per-task information and serialized events from the event graph.
+    final var collected = collectResults(activityTopic, serializableTopics);
+    final var spanInfo = collected.spanInfo;
 
     // Extract profiles for every resource.
     final var resourceProfiles = resourceManager.computeProfiles(elapsedTime, resourceNames);
@@ -974,18 +1227,11 @@ public final class SimulationEngine implements AutoCloseable {
 
     final var activityResults = computeActivitySimulationResults(startTime, spanInfo);
 
-    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>();
-    final var serializableTopicToId = new HashMap<SerializableTopic<?>, Integer>();
-    for (final var serializableTopic : serializableTopics) {
-      serializableTopicToId.put(serializableTopic, topics.size());
-      topics.add(Triple.of(topics.size(), serializableTopic.name(), serializableTopic.outputType().getSchema()));
-    }
+    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>(collected.topics.descriptions());
 
     final var serializedTimeline = createSerializedTimeline(
-        combinedTimeline,
-        serializableTopics,
-        spanToSimulatedActivities(spanInfo),
-        serializableTopicToId
+        collected.serializedTimeline,
+        spanToSimulatedActivities(spanInfo)
     );
 
     return new SimulationResults(
@@ -1004,18 +1250,15 @@ public final class SimulationEngine implements AutoCloseable {
   }
 
 
-  private static <EventType> Optional<SerializedValue> trySerializeEvent(
-      Event event,
-      SerializableTopic<EventType> serializableTopic
-  ) {
-    return event.extract(serializableTopic.topic(), serializableTopic.outputType()::serialize);
-  }
-
   /** A handle for processing requests from a modeled resource or condition. */
   private static final class EngineQuerier implements Querier {
     private final TaskFrame<JobId> frame;
+    /** The expiry of a querier that read no expiring state. */
+    static final long NEVER = Long.MAX_VALUE;
+
     private final Set<Topic<?>> referencedTopics = new HashSet<>();
-    private Optional<Duration> expiry = Optional.empty();
+    // The soonest expiry of any state read, in microseconds from the time of the query.
+    private long expiryMicros = NEVER;
 
     public EngineQuerier(final TaskFrame<JobId> frame) {
       this.frame = Objects.requireNonNull(frame);
@@ -1027,7 +1270,8 @@ public final class SimulationEngine implements AutoCloseable {
       @SuppressWarnings("unchecked")
       final var query = ((EngineCellId<?, State>) token);
 
-      this.expiry = min(this.expiry, this.frame.getExpiry(query.query()));
+      final var expiry = this.frame.getExpiry(query.query());
+      if (expiry.isPresent()) this.expiryMicros = Math.min(this.expiryMicros, expiry.get().micros());
       this.referencedTopics.add(query.topic());
 
       // TODO: Cache the state (until the query returns) to avoid unnecessary copies
@@ -1037,10 +1281,10 @@ public final class SimulationEngine implements AutoCloseable {
       return state$.orElseThrow(IllegalArgumentException::new);
     }
 
-    private static Optional<Duration> min(final Optional<Duration> a, final Optional<Duration> b) {
-      if (a.isEmpty()) return b;
-      if (b.isEmpty()) return a;
-      return Optional.of(Duration.min(a.get(), b.get()));
+    /** The absolute time at which the states read by this querier expire, or {@link #NEVER}. */
+    public long expiresAt(final long currentMicros) {
+      if (this.expiryMicros == NEVER) return NEVER;
+      return Math.addExact(currentMicros, this.expiryMicros);
     }
   }
 
@@ -1050,17 +1294,20 @@ public final class SimulationEngine implements AutoCloseable {
     private final SpanId span;
     private final Optional<TaskId> caller;
     private final TaskFrame<JobId> frame;
+    private final JobJournal journal;
 
     public EngineScheduler(
         final Duration currentTime,
         final SpanId span,
         final Optional<TaskId> caller,
-        final TaskFrame<JobId> frame)
+        final TaskFrame<JobId> frame,
+        final JobJournal journal)
     {
       this.currentTime = Objects.requireNonNull(currentTime);
       this.span = Objects.requireNonNull(span);
       this.caller = Objects.requireNonNull(caller);
       this.frame = Objects.requireNonNull(frame);
+      this.journal = Objects.requireNonNull(journal);
     }
 
     @Override
@@ -1080,7 +1327,7 @@ public final class SimulationEngine implements AutoCloseable {
       // Append this event to the timeline.
       this.frame.emit(Event.create(topic, event, this.span));
 
-      SimulationEngine.this.invalidateTopic(topic, this.currentTime);
+      this.journal.record(() -> SimulationEngine.this.invalidateTopic(topic, this.currentTime));
     }
 
     @Override
@@ -1091,15 +1338,17 @@ public final class SimulationEngine implements AutoCloseable {
 
         case Fresh -> {
           final var freshSpan = SpanId.generate();
-          SimulationEngine.this.spans.put(freshSpan, new Span(Optional.of(this.span), currentTime, Optional.empty()));
-          SimulationEngine.this.spanContributorCount.put(freshSpan, new MutableInt(1));
+          this.journal.record(() -> {
+            SimulationEngine.this.spans.put(freshSpan, new Span(Optional.of(this.span), currentTime, Optional.empty()));
+            SimulationEngine.this.spanContributorCount.put(freshSpan, 1);
+          });
           yield freshSpan;
         }
       };
 
       final var childTask = TaskId.generate();
-      SimulationEngine.this.spanContributorCount.get(this.span).increment();
-      SimulationEngine.this.tasks.put(
+      this.journal.record(() -> SimulationEngine.this.spanContributorCount.merge(this.span, 1, Integer::sum));
+      this.journal.putTask(
           childTask,
           new ExecutionState<>(
               childSpan,
@@ -1107,7 +1356,60 @@ public final class SimulationEngine implements AutoCloseable {
               state.create(SimulationEngine.this.executor)));
       this.frame.signal(JobId.forTask(childTask));
 
-      this.caller.ifPresent($ -> SimulationEngine.this.blockedTasks.get($).increment());
+      this.journal.record(() -> this.caller.ifPresent($ -> SimulationEngine.this.blockedTasks.merge($, 1, Integer::sum)));
+    }
+  }
+
+  /**
+   * The engine bookkeeping performed on behalf of a single job.
+   *
+   * A direct journal applies bookkeeping to the engine immediately, as the sequential engine always has.
+   * A deferred journal instead records it, so that jobs from the same batch can run concurrently without
+   * touching shared engine state; the recorded bookkeeping is then replayed in batch order.
+   * Execution states for tasks spawned by the job are kept locally as well, since the job goes on to step them.
+   */
+  private final class JobJournal {
+    private final boolean deferred;
+    private final List<Runnable> effects = new ArrayList<>();
+    private final Map<TaskId, ExecutionState<?>> localTasks = new HashMap<>();
+
+    public JobJournal(final boolean deferred) {
+      this.deferred = deferred;
+    }
+
+    public void record(final Runnable effect) {
+      if (this.deferred) {
+        this.effects.add(effect);
+      } else {
+        effect.run();
+      }
+    }
+
+    public void putTask(final TaskId task, final ExecutionState<?> state) {
+      if (this.deferred) this.localTasks.put(task, state);
+      this.record(() -> SimulationEngine.this.tasks.put(task, state));
+    }
+
+    public ExecutionState<?> takeTask(final TaskId task) {
+      if (this.deferred && this.localTasks.containsKey(task)) {
+        final var state = this.localTasks.remove(task);
+        this.record(() -> SimulationEngine.this.tasks.remove(task));
+        return state;
+      }
+      return this.take(SimulationEngine.this.tasks, task);
+    }
+
+    public <K, V> V take(final Map<K, V> map, final K key) {
+      if (!this.deferred) return map.remove(key);
+
+      final var value = map.get(key);
+      this.effects.add(() -> map.remove(key));
+      return value;
+    }
+
+    public void replay() {
+      for (final var effect : this.effects) effect.run();
+      this.effects.clear();
     }
   }
 
@@ -1178,6 +1480,24 @@ public final class SimulationEngine implements AutoCloseable {
     return new SimulationEngine(this);
   }
 
+  /**
+   * Counts of the structures retained by this engine, from which its memory footprint may be estimated.
+   *
+   * @param timelinePoints the number of time points in the engine's own and reference timelines
+   * @param cells the number of cells this engine holds its own copies of
+   * @param tasks the number of tasks still in progress
+   * @param spans the number of spans, complete or not
+   */
+  public record Footprint(int timelinePoints, int cells, int tasks, int spans) {}
+
+  public Footprint footprint() {
+    return new Footprint(
+        this.referenceTimeline.points().size() + this.timeline.points().size(),
+        this.cells.size(),
+        this.tasks.size(),
+        this.spans.size());
+  }
+
   public Optional<Duration> peekNextTime() {
     return this.scheduledJobs.peekNextTime();
   }
@@ -1189,7 +1509,7 @@ public final class SimulationEngine implements AutoCloseable {
     final TemporalEventSource combinedTimeline = new TemporalEventSource();
     for (final var timePoint : referenceTimeline.points()) {
       if (timePoint instanceof TemporalEventSource.TimePoint.Delta t) {
-        combinedTimeline.add(t.delta());
+        combinedTimeline.add(t.micros());
       } else if (timePoint instanceof TemporalEventSource.TimePoint.Commit t) {
         combinedTimeline.add(t.events());
       }
@@ -1197,7 +1517,7 @@ public final class SimulationEngine implements AutoCloseable {
 
     for (final var timePoint : timeline) {
       if (timePoint instanceof TemporalEventSource.TimePoint.Delta t) {
-        combinedTimeline.add(t.delta());
+        combinedTimeline.add(t.micros());
       } else if (timePoint instanceof TemporalEventSource.TimePoint.Commit t) {
         combinedTimeline.add(t.events());
       }
@@ -11,6 +11,10 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
   Resources;
 
   public SchedulingInstant at(final Duration offsetFromStart) {
-    return new SchedulingInstant(offsetFromStart, this);
+    return this.at(offsetFromStart.micros());
+  }
+
+  public SchedulingInstant at(final long offsetMicros) {
+    return new SchedulingInstant(offsetMicros, this);
   }
 }
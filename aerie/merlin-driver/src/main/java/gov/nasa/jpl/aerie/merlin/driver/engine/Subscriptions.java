@@ -1,26 +1,44 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 public final class Subscriptions<TopicRef, QueryRef> {
-  /** The set of topics depended upon by a given query. */
-  private final Map<QueryRef, Set<TopicRef>> topicsByQuery = new HashMap<>();
+  /** The set of topics depended upon by a given query. These sets are never modified once subscribed. */
+  private final ForkableMap<QueryRef, Set<TopicRef>> topicsByQuery;
 
   /** An index of queries by subscribed topic. */
   @DerivedFrom("topicsByQuery")
-  private final Map<TopicRef, Set<QueryRef>> queriesByTopic = new HashMap<>();
+  private final ForkableMap<TopicRef, QuerySet<QueryRef>> queriesByTopic;
+
+  /**
+   * Identifies the query sets this instance may modify in place.
+   * Sets created before the latest duplication are shared, and are copied on their first modification.
+   */
+  private Object owner = new Object();
+
+  private record QuerySet<QueryRef>(Object owner, Set<QueryRef> queries) {}
+
+  public Subscriptions() {
+    this(new ForkableMap<>(), new ForkableMap<>());
+  }
+
+  private Subscriptions(
+      final ForkableMap<QueryRef, Set<TopicRef>> topicsByQuery,
+      final ForkableMap<TopicRef, QuerySet<QueryRef>> queriesByTopic
+  ) {
+    this.topicsByQuery = topicsByQuery;
+    this.queriesByTopic = queriesByTopic;
+  }
 
   // This method takes ownership of `topics`; the set should not be referenced after calling this method.
   public void subscribeQuery(final QueryRef query, final Set<TopicRef> topics) {
     this.topicsByQuery.put(query, topics);
 
     for (final var topic : topics) {
-      this.queriesByTopic.computeIfAbsent(topic, $ -> new HashSet<>()).add(query);
+      this.ownedQueries(topic).add(query);
     }
   }
 
@@ -28,9 +46,9 @@ public final class Subscriptions<TopicRef, QueryRef> {
     final var topics = this.topicsByQuery.remove(query);
 
     for (final var topic : topics) {
-      final var queries = this.queriesByTopic.get(topic);
-      if (queries == null) continue;
+      if (!this.queriesByTopic.containsKey(topic)) continue;
 
+      final var queries = this.ownedQueries(topic);
       queries.remove(query);
       if (queries.isEmpty()) this.queriesByTopic.remove(topic);
     }
@@ -39,6 +57,7 @@ public final class Subscriptions<TopicRef, QueryRef> {
   public Set<QueryRef> invalidateTopic(final TopicRef topic) {
     final var queries = Optional
         .ofNullable(this.queriesByTopic.remove(topic))
+        .map(QuerySet::queries)
         .orElseGet(Collections::emptySet);
 
     for (final var query : queries) unsubscribeQuery(query);
@@ -51,13 +70,19 @@ public final class Subscriptions<TopicRef, QueryRef> {
     this.queriesByTopic.clear();
   }
 
+  /** Create an independent copy of these subscriptions, in time independent of the number of subscriptions. */
   public Subscriptions<TopicRef, QueryRef> duplicate() {
-    final Subscriptions<TopicRef, QueryRef> subscriptions = new Subscriptions<>();
-    for (final var entry : this.topicsByQuery.entrySet()) {
-      final var query = entry.getKey();
-      final var topics = entry.getValue();
-      subscriptions.subscribeQuery(query, new HashSet<>(topics));
-    }
-    return subscriptions;
+    // Every existing query set is now shared with the duplicate.
+    this.owner = new Object();
+    return new Subscriptions<>(this.topicsByQuery.fork(), this.queriesByTopic.fork());
+  }
+
+  private Set<QueryRef> ownedQueries(final TopicRef topic) {
+    final var entry = this.queriesByTopic.get(topic);
+    if (entry != null && entry.owner() == this.owner) return entry.queries();
+
+    final var queries = (entry == null) ? new HashSet<QueryRef>() : new HashSet<>(entry.queries());
+    this.queriesByTopic.put(topic, new QuerySet<>(this.owner, queries));
+    return queries;
   }
 }
@@ -19,19 +19,24 @@ import java.util.function.BiConsumer;
  *   branches[0].base |-> branches[1].base  ... |-> branches[n].base   |-> tip
  *                    +-> branches[0].job       +-> branches[n-1].job  +-> branches[n].job
  * </pre>
+ *
+ * All segments share a single log of events, with each branch's base being the range of the log
+ * emitted since the previous branch, and the tip being the range emitted since the last branch.
 */
 public final class TaskFrame<Job> {
-  private record Branch<Job>(CausalEventSource base, LiveCells context, Job job) {}
+  private record Branch<Job>(int baseStart, int baseEnd, LiveCells context, Job job) {}
 
   private final List<Branch<Job>> branches = new ArrayList<>();
-  private CausalEventSource tip = new CausalEventSource();
+  private final CausalEventSource events = new CausalEventSource();
+  /** The position in `events` at which the tip begins. */
+  private int tipStart = 0;
 
   private LiveCells previousCells;
-  private LiveCells cells;
+  private final LiveCells cells;
 
   private TaskFrame(final LiveCells context) {
     this.previousCells = context;
-    this.cells = new LiveCells(this.tip, this.previousCells);
+    this.cells = LiveCells.versioned(this.events, context);
   }
 
   // Perform a job, then recursively perform any jobs it spawned.
@@ -44,12 +49,12 @@ public final class TaskFrame<Job> {
     final var frame = new TaskFrame<Job>(context);
     executor.accept(job, frame);
 
-    var tip = frame.tip.commit(EventGraph.empty());
+    var tip = frame.events.commit(EventGraph.empty(), frame.tipStart, frame.events.size());
     for (var i = frame.branches.size(); i > 0; i -= 1) {
       final var branch = frame.branches.get(i - 1);
 
       final var branchEvents = run(branch.job, branch.context, executor);
-      tip = branch.base.commit(EventGraph.concurrently(tip, branchEvents));
+      tip = frame.events.commit(EventGraph.concurrently(tip, branchEvents), branch.baseStart, branch.baseEnd);
     }
 
     return tip;
@@ -65,20 +70,20 @@ public final class TaskFrame<Job> {
   }
 
   public void emit(final Event event) {
-    this.tip.add(event);
+    this.events.add(event);
   }
 
   public void signal(final Job target) {
-    if (this.tip.isEmpty()) {
+    final var tipEnd = this.events.size();
+    if (tipEnd == this.tipStart) {
       // If we haven't emitted any events, subscribe the target to the previous branch point instead.
-      // This avoids making long chains of LiveCells over segments where no events have actually been accumulated.
-      this.branches.add(new Branch<>(new CausalEventSource(), this.previousCells, target));
+      // This avoids sealing versions of the log where no events have actually been accumulated.
+      this.branches.add(new Branch<>(tipEnd, tipEnd, this.previousCells, target));
     } else {
-      this.branches.add(new Branch<>(this.tip, this.cells, target));
+      this.previousCells = this.cells.snapshot();
+      this.branches.add(new Branch<>(this.tipStart, tipEnd, this.previousCells, target));
 
-      this.tip = new CausalEventSource();
-      this.previousCells = this.cells;
-      this.cells = new LiveCells(this.tip, this.previousCells);
+      this.tipStart = tipEnd;
     }
   }
 }
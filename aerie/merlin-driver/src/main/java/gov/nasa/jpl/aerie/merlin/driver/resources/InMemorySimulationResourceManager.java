@@ -45,6 +45,28 @@ public class InMemorySimulationResourceManager implements SimulationResourceMana
     }
   }
 
+  /*package-local*/ InMemorySimulationResourceManager(
+      final HashMap<String, ResourceSegments<RealDynamics>> realResourceSegments,
+      final HashMap<String, ResourceSegments<SerializedValue>> discreteResourceSegments,
+      final Duration lastReceivedTime
+  ) {
+    this.realResourceSegments = realResourceSegments;
+    this.discreteResourceSegments = discreteResourceSegments;
+    this.lastReceivedTime = lastReceivedTime;
+  }
+
+  /*package-local*/ Map<String, ResourceSegments<RealDynamics>> realResourceSegments() {
+    return this.realResourceSegments;
+  }
+
+  /*package-local*/ Map<String, ResourceSegments<SerializedValue>> discreteResourceSegments() {
+    return this.discreteResourceSegments;
+  }
+
+  /*package-local*/ Duration lastReceivedTime() {
+    return this.lastReceivedTime;
+  }
+
   /**
    * Clear out the Resource Manager's cache of Resource Segments
    */
@@ -0,0 +1,320 @@
+package gov.nasa.jpl.aerie.merlin.driver.resources;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The resource segments of an {@link InMemorySimulationResourceManager}, moved off-heap into memory-mapped files.
+ *
+ * Only the segments are spilled; the value schemas of the resources are few and stay on the heap.
+ * A spilled manager can be loaded back any number of times, each load producing an independent copy.
+ *
+ * Resource segments are only ever appended to, so a manager spilled after another one it extends only writes
+ * the segments added since, and reads the earlier ones back from the files of the managers it extends.
+ * Each spilled manager therefore counts the references to it, and deletes its file once all are released.
+ */
+public final class SpilledSimulationResourceManager {
+  private static final byte NULL = 0;
+  private static final byte NUMERIC = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte STRING = 3;
+  private static final byte MAP = 4;
+  private static final byte LIST = 5;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** What is known of a spilled resource without reading its segments back. */
+  private record Resource<T>(ValueSchema valueSchema, int segmentCount, ResourceSegments.Segment<T> lastSegment) {}
+
+  private final Path file;
+  private final long size;
+  private final SpilledSimulationResourceManager previous;
+  private final Map<String, Resource<RealDynamics>> realResources;
+  private final Map<String, Resource<SerializedValue>> discreteResources;
+  private final Duration lastReceivedTime;
+  private int references = 1;
+
+  private SpilledSimulationResourceManager(
+      final Path file,
+      final long size,
+      final SpilledSimulationResourceManager previous,
+      final Map<String, Resource<RealDynamics>> realResources,
+      final Map<String, Resource<SerializedValue>> discreteResources,
+      final Duration lastReceivedTime
+  ) {
+    this.file = file;
+    this.size = size;
+    this.previous = previous;
+    this.realResources = realResources;
+    this.discreteResources = discreteResources;
+    this.lastReceivedTime = lastReceivedTime;
+  }
+
+  /**
+   * Write the segments of a resource manager to the given file, replacing any previous contents.
+   * The resource manager itself is left untouched.
+   */
+  public static SpilledSimulationResourceManager spill(final InMemorySimulationResourceManager manager, final Path file)
+  throws IOException
+  {
+    return spill(null, manager, file);
+  }
+
+  /**
+   * Write the segments of a resource manager to the given file, replacing any previous contents.
+   * The resource manager itself is left untouched.
+   *
+   * If the manager extends `previous`, only the segments added since are written, and the returned manager holds
+   * a reference to `previous` until it is released. Otherwise, every segment is written, as if `previous` were null.
+   */
+  public static SpilledSimulationResourceManager spill(
+      final SpilledSimulationResourceManager previous,
+      final InMemorySimulationResourceManager manager,
+      final Path file
+  ) throws IOException
+  {
+    final var base = (previous != null && previous.isExtendedBy(manager)) ? previous : null;
+    final var realResources = new HashMap<String, Resource<RealDynamics>>();
+    final var discreteResources = new HashMap<String, Resource<SerializedValue>>();
+    final long size;
+
+    // Segments are streamed to the file through a small buffer, so spilling never holds a second copy on the heap.
+    try (final var channel = FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE))
+    {
+      final var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+
+      out.writeInt(manager.realResourceSegments().size());
+      for (final var resource : manager.realResourceSegments().entrySet()) {
+        final var segments = resource.getValue().segments();
+        final var spilledCount = (base == null) ? 0 : spilledSegmentCount(base.realResources, resource.getKey());
+        realResources.put(resource.getKey(), new Resource<>(resource.getValue().valueSchema(), segments.size(), segments.getLast()));
+        writeString(out, resource.getKey());
+        out.writeInt(segments.size() - spilledCount);
+        for (final var segment : segments.subList(spilledCount, segments.size())) {
+          out.writeLong(segment.startOffset().in(Duration.MICROSECONDS));
+          out.writeDouble(segment.dynamics().initial);
+          out.writeDouble(segment.dynamics().rate);
+        }
+      }
+
+      out.writeInt(manager.discreteResourceSegments().size());
+      for (final var resource : manager.discreteResourceSegments().entrySet()) {
+        final var segments = resource.getValue().segments();
+        final var spilledCount = (base == null) ? 0 : spilledSegmentCount(base.discreteResources, resource.getKey());
+        discreteResources.put(resource.getKey(), new Resource<>(resource.getValue().valueSchema(), segments.size(), segments.getLast()));
+        writeString(out, resource.getKey());
+        out.writeInt(segments.size() - spilledCount);
+        for (final var segment : segments.subList(spilledCount, segments.size())) {
+          out.writeLong(segment.startOffset().in(Duration.MICROSECONDS));
+          writeValue(out, segment.dynamics());
+        }
+      }
+      out.flush();
+      size = channel.position();
+    }
+
+    if (base != null) base.retain();
+    return new SpilledSimulationResourceManager(
+        file,
+        size,
+        base,
+        realResources,
+        discreteResources,
+        manager.lastReceivedTime());
+  }
+
+  /** Read the spilled segments back into a new resource manager. */
+  public InMemorySimulationResourceManager load() throws IOException {
+    final var realResourceSegments = new HashMap<String, ResourceSegments<RealDynamics>>(this.realResources.size());
+    for (final var resource : this.realResources.entrySet()) {
+      realResourceSegments.put(
+          resource.getKey(),
+          new ResourceSegments<>(resource.getValue().valueSchema(), resource.getValue().segmentCount()));
+    }
+    final var discreteResourceSegments = new HashMap<String, ResourceSegments<SerializedValue>>(this.discreteResources.size());
+    for (final var resource : this.discreteResources.entrySet()) {
+      discreteResourceSegments.put(
+          resource.getKey(),
+          new ResourceSegments<>(resource.getValue().valueSchema(), resource.getValue().segmentCount()));
+    }
+
+    // Read the oldest segments first, so that each file appends to the segments of the ones before it.
+    final var spilled = new ArrayList<SpilledSimulationResourceManager>();
+    for (var manager = this; manager != null; manager = manager.previous) spilled.add(manager);
+    for (final var manager : spilled.reversed()) manager.readInto(realResourceSegments, discreteResourceSegments);
+
+    return new InMemorySimulationResourceManager(realResourceSegments, discreteResourceSegments, this.lastReceivedTime);
+  }
+
+  /** The number of bytes written to spill this manager, excluding those of the managers it extends. */
+  public long size() {
+    return this.size;
+  }
+
+  /** Take another reference to this manager, which must be released in turn. */
+  public void retain() {
+    if (this.references == 0) throw new IllegalStateException("The spilled resource manager was already released");
+    this.references += 1;
+  }
+
+  /**
+   * Release a reference to this manager. Once all are released, its file is removed and it can no longer be loaded,
+   * and the manager it extends, if any, is released in turn.
+   */
+  public void release() throws IOException {
+    var manager = this;
+    while (manager != null && --manager.references == 0) {
+      Files.deleteIfExists(manager.file);
+      manager = manager.previous;
+    }
+  }
+
+  /** Whether the segments spilled for this manager are the first segments of the given one. */
+  private boolean isExtendedBy(final InMemorySimulationResourceManager manager) {
+    if (manager.lastReceivedTime().shorterThan(this.lastReceivedTime)) return false;
+    return isPrefixOf(this.realResources, manager.realResourceSegments())
+           && isPrefixOf(this.discreteResources, manager.discreteResourceSegments());
+  }
+
+  private static <T> boolean isPrefixOf(final Map<String, Resource<T>> spilled, final Map<String, ResourceSegments<T>> segments) {
+    for (final var resource : spilled.entrySet()) {
+      final var extension = segments.get(resource.getKey());
+      final var count = resource.getValue().segmentCount();
+      if (extension == null || extension.segments().size() < count) return false;
+      if (!extension.segments().get(count - 1).equals(resource.getValue().lastSegment())) return false;
+    }
+    return true;
+  }
+
+  private static <T> int spilledSegmentCount(final Map<String, Resource<T>> resources, final String name) {
+    final var resource = resources.get(name);
+    return (resource == null) ? 0 : resource.segmentCount();
+  }
+
+  private void readInto(
+      final Map<String, ResourceSegments<RealDynamics>> realResourceSegments,
+      final Map<String, ResourceSegments<SerializedValue>> discreteResourceSegments
+  ) throws IOException
+  {
+    final ByteBuffer in;
+    try (final var channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+      in = channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+    }
+
+    final var realResourceCount = in.getInt();
+    for (var i = 0; i < realResourceCount; i++) {
+      final var segments = realResourceSegments.get(readString(in)).segments();
+      final var segmentCount = in.getInt();
+      for (var j = 0; j < segmentCount; j++) {
+        final var startOffset = Duration.of(in.getLong(), Duration.MICROSECONDS);
+        segments.add(new ResourceSegments.Segment<>(startOffset, RealDynamics.linear(in.getDouble(), in.getDouble())));
+      }
+    }
+
+    final var discreteResourceCount = in.getInt();
+    for (var i = 0; i < discreteResourceCount; i++) {
+      final var segments = discreteResourceSegments.get(readString(in)).segments();
+      final var segmentCount = in.getInt();
+      for (var j = 0; j < segmentCount; j++) {
+        final var startOffset = Duration.of(in.getLong(), Duration.MICROSECONDS);
+        segments.add(new ResourceSegments.Segment<>(startOffset, readValue(in)));
+      }
+    }
+  }
+
+  private static void writeString(final DataOutputStream out, final String value) throws IOException {
+    final var bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(final ByteBuffer in) {
+    final var bytes = new byte[in.getInt()];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeValue(final DataOutputStream out, final SerializedValue value) throws IOException {
+    switch (value) {
+      case SerializedValue.NullValue $ -> out.writeByte(NULL);
+      case SerializedValue.NumericValue(var number) -> {
+        final var unscaled = number.unscaledValue().toByteArray();
+        out.writeByte(NUMERIC);
+        out.writeInt(number.scale());
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+      }
+      case SerializedValue.BooleanValue(var bool) -> {
+        out.writeByte(BOOLEAN);
+        out.writeBoolean(bool);
+      }
+      case SerializedValue.StringValue(var string) -> {
+        out.writeByte(STRING);
+        writeString(out, string);
+      }
+      case SerializedValue.MapValue(var map) -> {
+        out.writeByte(MAP);
+        out.writeInt(map.size());
+        for (final var entry : map.entrySet()) {
+          writeString(out, entry.getKey());
+          writeValue(out, entry.getValue());
+        }
+      }
+      case SerializedValue.ListValue(var list) -> {
+        out.writeByte(LIST);
+        out.writeInt(list.size());
+        for (final var element : list) writeValue(out, element);
+      }
+    }
+  }
+
+  private static SerializedValue readValue(final ByteBuffer in) {
+    final var tag = in.get();
+    return switch (tag) {
+      case NULL -> SerializedValue.NULL;
+      case NUMERIC -> {
+        final var scale = in.getInt();
+        final var unscaled = new byte[in.getInt()];
+        in.get(unscaled);
+        yield SerializedValue.of(new BigDecimal(new BigInteger(unscaled), scale));
+      }
+      case BOOLEAN -> SerializedValue.of(in.get() != 0);
+      case STRING -> SerializedValue.of(readString(in));
+      case MAP -> {
+        final var size = in.getInt();
+        final var map = new HashMap<String, SerializedValue>(size);
+        for (var i = 0; i < size; i++) map.put(readString(in), readValue(in));
+        yield SerializedValue.of(map);
+      }
+      case LIST -> {
+        final var size = in.getInt();
+        final var list = new ArrayList<SerializedValue>(size);
+        for (var i = 0; i < size; i++) list.add(readValue(in));
+        yield SerializedValue.of(list);
+      }
+      default -> throw new IllegalStateException("Unknown serialized value tag " + tag + " in spilled resource segments");
+    };
+  }
+}
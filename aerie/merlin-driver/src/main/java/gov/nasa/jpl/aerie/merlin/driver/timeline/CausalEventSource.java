@@ -1,5 +1,9 @@
 package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
 import java.util.Arrays;
 
 public final class CausalEventSource implements EventSource {
@@ -7,6 +11,10 @@ public final class CausalEventSource implements EventSource {
   private int size = 0;
   private boolean frozen = false;
 
+  /** The positions of the events of each topic, in ascending order. */
+  /*derived*/
+  private final Reference2ObjectOpenHashMap<Topic<?>, IntArrayList> positionsByTopic = new Reference2ObjectOpenHashMap<>(4);
+
   public void add(final Event point) {
     if (this.frozen) {
       throw new IllegalStateException("Cannot add to frozen CausalEventSource");
@@ -15,6 +23,7 @@ public final class CausalEventSource implements EventSource {
       this.points = Arrays.copyOf(this.points, 3 * this.size / 2);
     }
 
+    this.positionsByTopic.computeIfAbsent(point.topic(), $ -> new IntArrayList(4)).add(this.size);
     this.points[this.size++] = point;
   }
 
@@ -22,15 +31,33 @@ public final class CausalEventSource implements EventSource {
     return (this.size == 0);
   }
 
+  public int size() {
+    return this.size;
+  }
+
   // By committing events backward from an endpoint, we can massage the resulting EventGraph
   // into a very linear form that is easy to evaluate: (ev1 ; (ev2 ; (ev3 ; andThen)))
-  public EventGraph<Event> commit(EventGraph<Event> andThen) {
-    for (var i = this.size; i > 0; i -= 1) {
+  public EventGraph<Event> commit(final EventGraph<Event> andThen) {
+    return this.commit(andThen, 0, this.size);
+  }
+
+  /** Commit only the events in the range `[from, to)`, as by {@link #commit(EventGraph)}. */
+  public EventGraph<Event> commit(EventGraph<Event> andThen, final int from, final int to) {
+    for (var i = to; i > from; i -= 1) {
       andThen = EventGraph.sequentially(EventGraph.atom(this.points[i-1]), andThen);
     }
     return andThen;
   }
 
+  /*package-local*/ Event get(final int position) {
+    return this.points[position];
+  }
+
+  /** The positions of the events of a topic, in ascending order, or null if there are none. */
+  /*package-local*/ IntArrayList positionsOf(final Topic<?> topic) {
+    return this.positionsByTopic.get(topic);
+  }
+
   @Override
   public CausalCursor cursor() {
     return new CausalCursor();
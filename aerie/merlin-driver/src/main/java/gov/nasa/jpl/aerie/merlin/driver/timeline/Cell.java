@@ -59,6 +59,10 @@ public final class Cell<State> {
     return this.inner.selector.matchesAny(topics);
   }
 
+  /*package-local*/ Selector<?> selector() {
+    return this.inner.selector;
+  }
+
   @Override
   public String toString() {
     return this.state.toString();
@@ -11,15 +11,61 @@ public final class LiveCells {
   private final Map<Query<?>, LiveCell<?>> cells = new HashMap<>();
   private final EventSource source;
   private final LiveCells parent;
+  /** Whether this layer may be read from several threads at once, such as when a batch of jobs is performed concurrently. */
+  private final boolean concurrent;
+
+  /** The table shared by every version of a causal log, if this layer is one such version. */
+  private final VersionedCells versions;
+  /** The position in the causal log up to which this version sees, or {@link #OPEN} if it sees the whole log. */
+  private final int position;
+  private static final int OPEN = -1;
 
   public LiveCells(final EventSource source) {
-    this.source = source;
-    this.parent = null;
+    this(source, null, false);
   }
 
   public LiveCells(final EventSource source, final LiveCells parent) {
+    this(source, parent, false);
+  }
+
+  public LiveCells(final EventSource source, final LiveCells parent, final boolean concurrent) {
+    this(source, parent, concurrent, null, OPEN);
+  }
+
+  private LiveCells(
+      final EventSource source,
+      final LiveCells parent,
+      final boolean concurrent,
+      final VersionedCells versions,
+      final int position
+  ) {
     this.source = source;
     this.parent = parent;
+    this.concurrent = concurrent;
+    this.versions = versions;
+    this.position = position;
+  }
+
+  /**
+   * Create a layer over a causal log whose earlier versions may be fixed by {@link #snapshot()}.
+   *
+   * Every version shares a single table of cells, so reading from a deep stack of versions
+   *   costs no more than reading from one layer.
+   */
+  public static LiveCells versioned(final CausalEventSource source, final LiveCells parent) {
+    return new LiveCells(source, parent, false, new VersionedCells(source, parent), OPEN);
+  }
+
+  /**
+   * Fix the events of this layer's causal log so far as a version of their own.
+   *
+   * The returned layer continues to observe only those events, even as more are added to this layer.
+   */
+  public LiveCells snapshot() {
+    if (this.versions == null || this.position != OPEN) {
+      throw new IllegalStateException("Only the open version of a versioned layer can be snapshotted");
+    }
+    return new LiveCells(this.source, this.parent, false, this.versions, this.versions.seal());
   }
 
   public <State> Optional<State> getState(final Query<State> query) {
@@ -31,11 +77,28 @@ public final class LiveCells {
   }
 
   public <State> void put(final Query<State> query, final Cell<State> cell) {
+    if (this.versions != null) {
+      this.versions.put(query, cell, this.currentPosition());
+      return;
+    }
+
     // SAFETY: The query and cell share the same State type parameter.
     this.cells.put(query, new LiveCell<>(cell, this.source.cursor()));
   }
 
-  private <State> Optional<Cell<State>> getCell(final Query<State> query) {
+  /*package-local*/ <State> Optional<Cell<State>> getCell(final Query<State> query) {
+    if (this.versions != null) return this.versions.lookup(query, this.currentPosition());
+    if (!this.concurrent) return this.lookupCell(query);
+
+    // Looking up a cell may pull it up from our parent and step it forward, so lookups must not interleave.
+    // Once a cell has been caught up, it is not stepped again until our source grows,
+    //   so callers may safely duplicate the returned cell outside of the lock.
+    synchronized (this) {
+      return this.lookupCell(query);
+    }
+  }
+
+  private <State> Optional<Cell<State>> lookupCell(final Query<State> query) {
     // First, check if we have this cell already.
     {
       // SAFETY: By the invariant, if there is an entry for this query, it is of type Cell<State>.
@@ -58,6 +121,16 @@ public final class LiveCells {
     return Optional.of(cell.get());
   }
 
+  private int currentPosition() {
+    return (this.position == OPEN) ? ((CausalEventSource) this.source).size() : this.position;
+  }
+
+  /** The number of cells held by this layer itself, excluding those only held by its ancestors. */
+  public int size() {
+    if (this.versions != null) return this.versions.size();
+    return this.cells.size();
+  }
+
   public void freeze() {
     if (this.parent != null) this.parent.freeze();
     this.source.freeze();
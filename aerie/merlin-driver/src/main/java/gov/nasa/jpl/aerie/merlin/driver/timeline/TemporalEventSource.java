@@ -3,24 +3,60 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SlabList;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
 
-public record TemporalEventSource(SlabList<TimePoint> points) implements EventSource, Iterable<TemporalEventSource.TimePoint> {
+public final class TemporalEventSource implements EventSource, Iterable<TemporalEventSource.TimePoint> {
+  private final SlabList<TimePoint> points;
+
+  // An index over the commits in `points`, so that a cursor can skip straight to the commits a cell cares about.
+  /*derived*/
+  private final ArrayList<TimePoint.Commit> commits = new ArrayList<>();
+  /** The time, in microseconds since the start of the timeline, at which each commit occurs. */
+  /*derived*/
+  private final LongArrayList commitTimes = new LongArrayList();
+  /** The ordinals into `commits` of the commits that carry events of each topic, in ascending order. */
+  /*derived*/
+  private final Reference2ObjectOpenHashMap<Topic<?>, IntArrayList> commitsByTopic = new Reference2ObjectOpenHashMap<>();
+  /*derived*/
+  private long totalMicros = 0;
+
   public TemporalEventSource() {
-    this(new SlabList<>());
+    this.points = new SlabList<>();
+  }
+
+  public SlabList<TimePoint> points() {
+    return this.points;
   }
 
   public void add(final Duration delta) {
-    if (delta.isZero()) return;
-    this.points.append(new TimePoint.Delta(delta));
+    this.add(delta.micros());
+  }
+
+  public void add(final long deltaMicros) {
+    if (deltaMicros == 0) return;
+    this.points.append(new TimePoint.Delta(deltaMicros));
+    this.totalMicros = Math.addExact(this.totalMicros, deltaMicros);
   }
 
   public void add(final EventGraph<Event> graph) {
     if (graph instanceof EventGraph.Empty) return;
-    this.points.append(new TimePoint.Commit(graph, extractTopics(graph)));
+    final var commit = new TimePoint.Commit(graph, extractTopics(graph));
+    this.points.append(commit);
+
+    final var ordinal = this.commits.size();
+    this.commits.add(commit);
+    this.commitTimes.add(this.totalMicros);
+    for (final var topic : commit.topics()) {
+      this.commitsByTopic.computeIfAbsent(topic, $ -> new IntArrayList()).add(ordinal);
+    }
   }
 
   @Override
@@ -33,25 +69,90 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
     return new TemporalCursor();
   }
 
+  /**
+   * Catches a cell up with the timeline.
+   *
+   * Rather than walking every point since the cell was last read, the cursor visits only the commits
+   * carrying a topic the cell subscribes to, stepping the cell once over all the time elapsed between them.
+   */
   public final class TemporalCursor implements Cursor {
-    private final SlabList<TimePoint>.SlabIterator iterator = TemporalEventSource.this.points.iterator();
+    /** The ordinal of the first commit not yet seen by this cursor. */
+    private int nextCommit = 0;
+    /** The time up to which this cursor has stepped its cell. */
+    private long micros = 0;
 
     private TemporalCursor() {}
 
     @Override
     public void stepUp(final Cell<?> cell) {
-      while (this.iterator.hasNext()) {
-        final var point = this.iterator.next();
-
-        if (point instanceof TimePoint.Delta p) {
-          cell.step(p.delta());
-        } else if (point instanceof TimePoint.Commit p) {
-          if (cell.isInterestedIn(p.topics())) cell.apply(p.events());
+      final var commitCount = TemporalEventSource.this.commits.size();
+      if (this.nextCommit < commitCount) {
+        final var rows = cell.selector().rows();
+        if (rows.length == 1) {
+          this.stepThrough(cell, TemporalEventSource.this.commitsByTopic.get(rows[0].topic()));
         } else {
-          throw new IllegalStateException();
+          this.stepThrough(cell, rows);
+        }
+        this.nextCommit = commitCount;
+      }
+
+      this.stepTo(cell, TemporalEventSource.this.totalMicros);
+    }
+
+    // The trivial (and incredibly common) case of a cell subscribed to a single topic.
+    private void stepThrough(final Cell<?> cell, final IntArrayList ordinals) {
+      if (ordinals == null) return;
+
+      for (var i = lowerBound(ordinals, this.nextCommit); i < ordinals.size(); i += 1) {
+        this.applyCommit(cell, ordinals.getInt(i));
+      }
+    }
+
+    private void stepThrough(final Cell<?> cell, final Selector.SelectorRow<?, ?>[] rows) {
+      // Merge the commits of each topic, visiting commits shared between topics only once.
+      final var lists = new IntArrayList[rows.length];
+      final var heads = new int[rows.length];
+      for (var i = 0; i < rows.length; i += 1) {
+        lists[i] = TemporalEventSource.this.commitsByTopic.get(rows[i].topic());
+        if (lists[i] != null) heads[i] = lowerBound(lists[i], this.nextCommit);
+      }
+
+      while (true) {
+        var next = Integer.MAX_VALUE;
+        for (var i = 0; i < rows.length; i += 1) {
+          if (lists[i] != null && heads[i] < lists[i].size()) next = Math.min(next, lists[i].getInt(heads[i]));
+        }
+        if (next == Integer.MAX_VALUE) return;
+
+        for (var i = 0; i < rows.length; i += 1) {
+          if (lists[i] != null && heads[i] < lists[i].size() && lists[i].getInt(heads[i]) == next) heads[i] += 1;
         }
+        this.applyCommit(cell, next);
       }
     }
+
+    private void applyCommit(final Cell<?> cell, final int ordinal) {
+      this.stepTo(cell, TemporalEventSource.this.commitTimes.getLong(ordinal));
+      cell.apply(TemporalEventSource.this.commits.get(ordinal).events());
+    }
+
+    private void stepTo(final Cell<?> cell, final long micros) {
+      if (micros == this.micros) return;
+      cell.step(Duration.of(micros - this.micros, Duration.MICROSECONDS));
+      this.micros = micros;
+    }
+  }
+
+  /** The index of the first element of an ascending list that is no less than `key`. */
+  private static int lowerBound(final IntArrayList list, final int key) {
+    var low = 0;
+    var high = list.size();
+    while (low < high) {
+      final var mid = (low + high) >>> 1;
+      if (list.getInt(mid) < key) low = mid + 1;
+      else high = mid;
+    }
+    return low;
   }
 
 
@@ -83,11 +184,31 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
   }
 
   public sealed interface TimePoint {
-    record Delta(Duration delta) implements TimePoint {}
+    record Delta(long micros) implements TimePoint {
+      public Duration delta() {
+        return Duration.of(this.micros, Duration.MICROSECONDS);
+      }
+    }
     record Commit(EventGraph<Event> events, Set<Topic<?>> topics) implements TimePoint {}
   }
 
   public void freeze() {
     this.points.freeze();
   }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (!(o instanceof TemporalEventSource other)) return false;
+    return Objects.equals(this.points, other.points);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.points);
+  }
+
+  @Override
+  public String toString() {
+    return TemporalEventSource.class.getSimpleName() + "[points=" + this.points + ']';
+  }
 }
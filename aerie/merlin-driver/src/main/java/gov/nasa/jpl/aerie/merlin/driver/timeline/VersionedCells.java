@@ -0,0 +1,175 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The cells of every version of a single causal event log, in one table.
+ *
+ * Each version of the log is a prefix of it, and is viewed through its own {@link LiveCells}.
+ * For every query, the table holds copies of the cell, each standing for the cell's state over a range
+ * of positions in the log between two events the cell is interested in. A read at any version finds
+ * the copy covering its position and steps it over only the events relevant to it, rather than walking
+ * a chain of layers. A copy is stepped forward in place unless a sealed version still needs its state,
+ * in which case it is duplicated first.
+ */
+/*package-local*/ final class VersionedCells {
+  private final CausalEventSource source;
+  private final LiveCells parent;
+
+  // INVARIANT: Every Query<T> maps to a Versions<T>; that is, the type parameters are correlated.
+  private final Map<Query<?>, Versions<?>> cells = new HashMap<>();
+  /** The positions of the sealed versions of the log, in ascending order. */
+  private final IntArrayList sealed = new IntArrayList();
+
+  public VersionedCells(final CausalEventSource source, final LiveCells parent) {
+    this.source = source;
+    this.parent = parent;
+  }
+
+  /** Fix the current contents of the log as a version, returning the position it ends at. */
+  public int seal() {
+    final var position = this.source.size();
+    if (this.sealed.isEmpty() || this.sealed.getInt(this.sealed.size() - 1) != position) this.sealed.add(position);
+    return position;
+  }
+
+  public <State> void put(final Query<State> query, final Cell<State> cell, final int position) {
+    this.versionsOf(query).insert(position, cell);
+  }
+
+  public <State> Optional<Cell<State>> lookup(final Query<State> query, final int position) {
+    // SAFETY: By the invariant, if there is an entry for this query, it is of type Versions<State>.
+    @SuppressWarnings("unchecked")
+    var versions = (Versions<State>) this.cells.get(query);
+
+    var index = (versions == null) ? -1 : versions.floor(position);
+    if (index < 0) {
+      // If no copy of this cell precedes the position, go ask our parent for the cell.
+      if (this.parent == null) return Optional.empty();
+      final var cell$ = this.parent.getCell(query);
+      if (cell$.isEmpty()) return Optional.empty();
+
+      if (versions == null) versions = this.versionsOf(query);
+      index = versions.insert(0, cell$.get().duplicate());
+    }
+
+    var cell = versions.cells.get(index);
+    final var validTo = versions.validTo.getInt(index);
+    if (position <= validTo) return Optional.of(cell);
+
+    final var relevant = this.relevantPositions(cell, validTo, position);
+    for (var i = 0; i < relevant.size(); i += 1) {
+      final var eventPosition = relevant.getInt(i);
+      final var event = this.source.get(eventPosition);
+
+      if (this.isSealedWithin(versions.positions.getInt(index), eventPosition + 1)) {
+        // A sealed version observes the cell as it is now, so leave this copy be and continue with a new one.
+        versions.validTo.set(index, eventPosition);
+        cell = cell.duplicate();
+        cell.apply(event);
+        index = versions.insert(eventPosition + 1, cell);
+      } else {
+        cell.apply(event);
+        versions.positions.set(index, eventPosition + 1);
+      }
+    }
+    versions.validTo.set(index, position);
+
+    return Optional.of(cell);
+  }
+
+  /** The number of distinct queries held by this table. */
+  public int size() {
+    return this.cells.size();
+  }
+
+  private <State> Versions<State> versionsOf(final Query<State> query) {
+    // SAFETY: By the invariant, if there is an entry for this query, it is of type Versions<State>.
+    @SuppressWarnings("unchecked")
+    final var versions = (Versions<State>) this.cells.computeIfAbsent(query, $ -> new Versions<State>());
+    return versions;
+  }
+
+  /** The positions in `[from, to)` of the events a cell is interested in, in ascending order. */
+  private IntList relevantPositions(final Cell<?> cell, final int from, final int to) {
+    final var rows = cell.selector().rows();
+
+    // Bail out as fast as possible if we're in a trivial (and incredibly common) case.
+    if (rows.length == 1) {
+      final var positions = this.source.positionsOf(rows[0].topic());
+      if (positions == null) return IntList.of();
+      return positions.subList(lowerBound(positions, from), lowerBound(positions, to));
+    }
+
+    final var merged = new IntArrayList();
+    for (final var row : rows) {
+      final var positions = this.source.positionsOf(row.topic());
+      if (positions == null) continue;
+      merged.addAll(positions.subList(lowerBound(positions, from), lowerBound(positions, to)));
+    }
+    merged.sort(null);
+
+    // Several rows may share a topic, but each event should only be applied once.
+    var distinct = 0;
+    for (var i = 0; i < merged.size(); i += 1) {
+      if (distinct == 0 || merged.getInt(distinct - 1) != merged.getInt(i)) merged.set(distinct++, merged.getInt(i));
+    }
+    merged.size(distinct);
+    return merged;
+  }
+
+  /** Whether a version has been sealed at some position in `[from, to)`. */
+  private boolean isSealedWithin(final int from, final int to) {
+    final var index = lowerBound(this.sealed, from);
+    return (index < this.sealed.size() && this.sealed.getInt(index) < to);
+  }
+
+  /** The index of the first element of an ascending list that is no less than `key`. */
+  private static int lowerBound(final IntList list, final int key) {
+    var low = 0;
+    var high = list.size();
+    while (low < high) {
+      final var mid = (low + high) >>> 1;
+      if (list.getInt(mid) < key) low = mid + 1;
+      else high = mid;
+    }
+    return low;
+  }
+
+  /**
+   * The copies of one cell, ordered by position.
+   *
+   * Each copy holds the state of the cell at every position from its own through its `validTo`,
+   * as the cell is interested in no events between them.
+   */
+  private static final class Versions<State> {
+    private final IntArrayList positions = new IntArrayList(2);
+    private final IntArrayList validTo = new IntArrayList(2);
+    private final ArrayList<Cell<State>> cells = new ArrayList<>(2);
+
+    /** The index of the copy at the greatest position no greater than `position`, or -1 if there is none. */
+    int floor(final int position) {
+      return lowerBound(this.positions, position + 1) - 1;
+    }
+
+    int insert(final int position, final Cell<State> cell) {
+      final var index = this.floor(position);
+      if (index >= 0 && this.positions.getInt(index) == position) {
+        this.validTo.set(index, position);
+        this.cells.set(index, cell);
+        return index;
+      }
+
+      this.positions.add(index + 1, position);
+      this.validTo.add(index + 1, position);
+      this.cells.add(index + 1, cell);
+      return index + 1;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOUR;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class BestCachedEngineTest {
+  private static final Duration PLAN_DURATION = Duration.of(10, HOUR);
+
+  @Test
+  public void picksLatestEngineBeforeFirstChange() {
+    final var cached = Map.of(
+        id(1), directive(Duration.of(1, HOUR), 1),
+        id(2), directive(Duration.of(3, HOUR), 2),
+        id(3), directive(Duration.of(5, HOUR), 3));
+
+    // The schedule renumbers every directive, and moves the third one earlier.
+    final var schedule = Map.of(
+        id(11), directive(Duration.of(1, HOUR), 1),
+        id(12), directive(Duration.of(3, HOUR), 2),
+        id(13), directive(Duration.of(4, HOUR), 3));
+
+    final var early = engine(Duration.of(2, HOUR), cached);
+    final var late = engine(Duration.of(210, MINUTE), cached);
+    final var tooLate = engine(Duration.of(6, HOUR), cached);
+
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(tooLate, early, late), PLAN_DURATION);
+
+    assertTrue(best.isPresent());
+    assertSame(late, best.get().getLeft());
+    assertEquals(Map.of(id(11), id(1), id(12), id(2)), best.get().getRight());
+  }
+
+  @Test
+  public void pairsEachCachedDirectiveOnlyOnce() {
+    final var cached = Map.of(
+        id(1), directive(Duration.of(1, HOUR), 1),
+        id(2), directive(Duration.of(1, HOUR), 1));
+
+    // Three copies of the same directive are scheduled, but only two were simulated.
+    final var schedule = Map.of(
+        id(11), directive(Duration.of(1, HOUR), 1),
+        id(12), directive(Duration.of(1, HOUR), 1),
+        id(13), directive(Duration.of(1, HOUR), 1));
+
+    final var engine = engine(Duration.of(30, MINUTE), cached);
+    assertTrue(CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(engine), PLAN_DURATION).isPresent());
+
+    final var lateEngine = engine(Duration.of(2, HOUR), cached);
+    assertTrue(CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(lateEngine), PLAN_DURATION).isEmpty());
+  }
+
+  @Test
+  public void invalidatesAtRemovedAnchoredDirective() {
+    final var cached = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    cached.put(id(1), directive(Duration.of(1, HOUR), 1));
+    cached.put(id(2), new ActivityDirective(Duration.of(2, HOUR), "Activity", Map.of("value", SerializedValue.of(2)), id(1), true));
+    cached.put(id(3), new ActivityDirective(Duration.of(-3, HOUR), "Activity", Map.of("value", SerializedValue.of(3)), null, false));
+
+    // Both anchored directives have been deleted: the one anchored to the first would have started at 3h,
+    //   and the one anchored to plan end at 7h.
+    final var schedule = Map.of(id(1), directive(Duration.of(1, HOUR), 1));
+
+    final var before = engine(Duration.of(150, MINUTE), cached);
+    final var after = engine(Duration.of(210, MINUTE), cached);
+
+    final var best = CheckpointSimulationDriver.bestCachedEngine(schedule, List.of(before, after), PLAN_DURATION);
+    assertTrue(best.isPresent());
+    assertSame(before, best.get().getLeft());
+  }
+
+  private static ActivityDirectiveId id(final long id) {
+    return new ActivityDirectiveId(id);
+  }
+
+  private static ActivityDirective directive(final Duration startOffset, final long value) {
+    return new ActivityDirective(startOffset, "Activity", Map.of("value", SerializedValue.of(value)), null, true);
+  }
+
+  private static CachedSimulationEngine engine(
+      final Duration endsAt,
+      final Map<ActivityDirectiveId, ActivityDirective> directives)
+  {
+    return new CachedSimulationEngine(endsAt, directives, null, null, null, null);
+  }
+}
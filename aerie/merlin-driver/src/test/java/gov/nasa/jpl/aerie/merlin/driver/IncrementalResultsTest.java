@@ -0,0 +1,56 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.SerializedActivity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public final class IncrementalResultsTest {
+  @Test
+  public void incrementalResultsMatchResultsComputedFromTimeline() throws Throwable {
+    final var missionModel = TestMissionModel.missionModel();
+    final var topics = missionModel.getTopics();
+    final var activityTopic = new Topic<ActivityDirectiveId>();
+
+    try (final var engine = new SimulationEngine(missionModel.getInitialCells())) {
+      engine.trackResults(activityTopic, topics);
+      engine.init(missionModel.getResources(), missionModel.getDaemon());
+
+      for (var i = 0; i < 20; i++) {
+        final var type = (i % 2 == 0) ? "DelayActivityDirective" : "DecomposingActivityDirective";
+        engine.scheduleTask(
+            Duration.of(i, Duration.MINUTES),
+            missionModel.getTaskFactory(new SerializedActivity(type, Map.of())));
+      }
+      while (engine.step(Duration.HOUR) instanceof SimulationEngine.Status.Nominal) {}
+
+      final var incremental = engine.computeResults(
+          Instant.EPOCH,
+          activityTopic,
+          topics,
+          new InMemorySimulationResourceManager());
+
+      // A different collection of the same topics is not tracked, so results are recomputed from the timeline.
+      final var untrackedTopics = new ArrayList<MissionModel.SerializableTopic<?>>();
+      topics.forEach(untrackedTopics::add);
+      final var fromTimeline = engine.computeResults(
+          Instant.EPOCH,
+          activityTopic,
+          untrackedTopics,
+          new InMemorySimulationResourceManager());
+
+      assertFalse(incremental.events.isEmpty());
+      assertEquals(fromTimeline, incremental);
+    }
+  }
+}
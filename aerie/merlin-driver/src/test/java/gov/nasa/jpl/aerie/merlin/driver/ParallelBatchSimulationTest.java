@@ -0,0 +1,98 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import gov.nasa.jpl.aerie.types.SerializedActivity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ParallelBatchSimulationTest {
+  private static Map<ActivityDirectiveId, ActivityDirective> concurrentSchedule() {
+    // Many directives share each start time, so every batch holds many independent jobs.
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    for (long i = 0; i < 200; i++) {
+      schedule.put(
+          new ActivityDirectiveId(i),
+          new ActivityDirective(
+              Duration.of(i % 5, Duration.MINUTES),
+              new SerializedActivity("DelayActivityDirective", Map.of()),
+              null,
+              true));
+    }
+    return schedule;
+  }
+
+  private static SimulationResults simulate(final int batchParallelism) {
+    return SimulationDriver.simulate(
+        TestMissionModel.missionModel(),
+        concurrentSchedule(),
+        Instant.EPOCH,
+        Duration.HOUR,
+        Instant.EPOCH,
+        Duration.HOUR,
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(0), batchParallelism));
+  }
+
+  private static int countEvents(final SimulationResults results) {
+    var count = 0;
+    for (final var graphs : results.events.values()) {
+      for (final var graph : graphs) {
+        count += graph.evaluate(new CountingTrait(), $ -> 1);
+      }
+    }
+    return count;
+  }
+
+  private record CountingTrait() implements EffectTrait<Integer> {
+    @Override
+    public Integer empty() {
+      return 0;
+    }
+
+    @Override
+    public Integer sequentially(final Integer prefix, final Integer suffix) {
+      return prefix + suffix;
+    }
+
+    @Override
+    public Integer concurrently(final Integer left, final Integer right) {
+      return left + right;
+    }
+  }
+
+  @Test
+  public void parallelBatchesMatchSequentialBatches() {
+    final var expected = simulate(1);
+    final var actual = simulate(8);
+
+    assertEquals(200, expected.simulatedActivities.size());
+    assertEquals(expected.simulatedActivities, actual.simulatedActivities);
+    assertEquals(expected.unfinishedActivities, actual.unfinishedActivities);
+    assertEquals(expected.realProfiles, actual.realProfiles);
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+    assertEquals(expected.duration, actual.duration);
+    assertEquals(expected.topics, actual.topics);
+    assertEquals(expected.events.keySet(), actual.events.keySet());
+    assertEquals(countEvents(expected), countEvents(actual));
+  }
+
+  @Test
+  public void rejectsNonPositiveBatchParallelism() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(0), 0));
+  }
+}
@@ -0,0 +1,76 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ForkableLogTest {
+  private sealed interface Operation {
+    record Append(int value) implements Operation {}
+    record Fork() implements Operation {}
+    record AppendToFork(int fork, int value) implements Operation {}
+  }
+
+  @Property
+  public void behavesLikeAList(@ForAll("operations") final List<Operation> operations) {
+    var log = new ForkableLog<Integer>();
+    var model = new ArrayList<Integer>();
+    // Keep every fork around, and go on appending to them, to check that one side never affects the others.
+    final var forks = new ArrayList<ForkableLog<Integer>>();
+    final var forkModels = new ArrayList<ArrayList<Integer>>();
+
+    for (final var operation : operations) {
+      switch (operation) {
+        case Operation.Append a -> {
+          log.append(a.value());
+          model.add(a.value());
+        }
+        case Operation.Fork f -> {
+          forks.add(log);
+          forkModels.add(model);
+          log = log.fork();
+          model = new ArrayList<>(model);
+        }
+        case Operation.AppendToFork a -> {
+          if (forks.isEmpty()) continue;
+          final var index = a.fork() % forks.size();
+          forks.get(index).append(a.value());
+          forkModels.get(index).add(a.value());
+        }
+      }
+      assertEquals(model, toList(log));
+      assertEquals(model.size(), log.size());
+    }
+
+    for (var i = 0; i < forks.size(); i++) {
+      assertEquals(forkModels.get(i), toList(forks.get(i)));
+      assertEquals(forkModels.get(i).size(), forks.get(i).size());
+    }
+  }
+
+  @Provide
+  Arbitrary<List<Operation>> operations() {
+    final var values = Arbitraries.integers().between(0, 1000);
+    final var forks = Arbitraries.integers().between(0, 100);
+    final Arbitrary<Operation> operation = Arbitraries.frequencyOf(
+        Tuple.of(6, values.map(Operation.Append::new)),
+        Tuple.of(1, Arbitraries.just(new Operation.Fork())),
+        Tuple.of(2, Combinators.combine(forks, values).as(Operation.AppendToFork::new)));
+    return operation.list().ofMaxSize(200);
+  }
+
+  private static <T> List<T> toList(final ForkableLog<T> log) {
+    final var list = new ArrayList<T>();
+    log.forEach(list::add);
+    return list;
+  }
+}
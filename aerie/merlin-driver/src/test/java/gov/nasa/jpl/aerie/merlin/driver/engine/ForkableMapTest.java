@@ -0,0 +1,85 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ForkableMapTest {
+  private sealed interface Operation {
+    record Put(int key, int value) implements Operation {}
+    record Remove(int key) implements Operation {}
+    record Clear() implements Operation {}
+    record Fork() implements Operation {}
+  }
+
+  @Property
+  public void behavesLikeAMap(@ForAll("operations") final List<Operation> operations) {
+    var map = new ForkableMap<Integer, Integer>();
+    var model = new LinkedHashMap<Integer, Integer>();
+    // Keep every fork around, to check that modifying one side does not affect the others.
+    final var forks = new ArrayList<ForkableMap<Integer, Integer>>();
+    final var forkModels = new ArrayList<LinkedHashMap<Integer, Integer>>();
+
+    for (final var operation : operations) {
+      switch (operation) {
+        case Operation.Put p -> assertEquals(model.put(p.key(), p.value()), map.put(p.key(), p.value()));
+        case Operation.Remove r -> assertEquals(model.remove(r.key()), map.remove(r.key()));
+        case Operation.Clear c -> {
+          model.clear();
+          map.clear();
+        }
+        case Operation.Fork f -> {
+          forks.add(map);
+          forkModels.add(model);
+          map = map.fork();
+          model = new LinkedHashMap<>(model);
+        }
+      }
+      assertEquals(model, map);
+      assertEquals(model.size(), map.size());
+    }
+
+    for (var i = 0; i < forks.size(); i++) {
+      assertEquals(forkModels.get(i), forks.get(i));
+      assertEquals(forkModels.get(i).size(), forks.get(i).size());
+    }
+  }
+
+  @Property
+  public void iteratesInInsertionOrderWithoutForks(@ForAll("keys") final List<Integer> keys) {
+    final var map = new ForkableMap<Integer, Integer>();
+    final var model = new LinkedHashMap<Integer, Integer>();
+    for (final var key : keys) {
+      map.put(key, key);
+      model.put(key, key);
+    }
+    assertEquals(List.copyOf(model.keySet()), List.copyOf(map.keySet()));
+  }
+
+  @Provide
+  Arbitrary<List<Integer>> keys() {
+    return Arbitraries.integers().between(0, 30).list().ofMaxSize(60);
+  }
+
+  @Provide
+  Arbitrary<List<Operation>> operations() {
+    final var keys = Arbitraries.integers().between(0, 20);
+    final var values = Arbitraries.integers().between(0, 5);
+    final Arbitrary<Operation> operation = Arbitraries.frequencyOf(
+        Tuple.of(6, Combinators.combine(keys, values).as(Operation.Put::new)),
+        Tuple.of(3, keys.map(Operation.Remove::new)),
+        Tuple.of(1, Arbitraries.just(new Operation.Clear())),
+        Tuple.of(2, Arbitraries.just(new Operation.Fork())));
+    return operation.list().ofMaxSize(80);
+  }
+}
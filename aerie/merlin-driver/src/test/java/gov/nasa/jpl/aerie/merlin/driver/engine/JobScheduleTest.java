@@ -0,0 +1,111 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class JobScheduleTest {
+  private sealed interface Operation {
+    record Schedule(int job, int time, SubInstant priority) implements Operation {}
+    record Unschedule(int job) implements Operation {}
+    record Extract(int maximumTime) implements Operation {}
+    record Duplicate() implements Operation {}
+  }
+
+  /** The schedule as a plain map of jobs to times, against which the schedule under test is compared. */
+  private static final class Model {
+    final Map<Integer, SchedulingInstant> times = new HashMap<>();
+
+    Model duplicate() {
+      final var copy = new Model();
+      copy.times.putAll(this.times);
+      return copy;
+    }
+
+    Set<Integer> extractNextJobs(final long maximumMicros) {
+      final var byTime = new TreeMap<SchedulingInstant, Set<Integer>>();
+      this.times.forEach((job, time) -> byTime.computeIfAbsent(time, $ -> new HashSet<>()).add(job));
+      if (byTime.isEmpty() || byTime.firstKey().offsetMicros() > maximumMicros) return Set.of();
+
+      final var jobs = byTime.firstEntry().getValue();
+      jobs.forEach(this.times::remove);
+      return jobs;
+    }
+  }
+
+  @Property
+  public void behavesLikeAMapOfJobsToTimes(@ForAll("operations") final List<Operation> operations) {
+    var schedule = new JobSchedule<Integer, SchedulingInstant>();
+    var model = new Model();
+    // Keep an untouched duplicate around, to check that modifying one side does not affect the other.
+    var original = schedule;
+    var originalModel = model;
+
+    for (final var operation : operations) {
+      switch (operation) {
+        case Operation.Schedule s -> {
+          final var time = s.priority().at(Duration.of(s.time(), Duration.SECONDS));
+          schedule.schedule(s.job(), time);
+          model.times.put(s.job(), time);
+        }
+        case Operation.Unschedule u -> {
+          schedule.unschedule(u.job());
+          model.times.remove(u.job());
+        }
+        case Operation.Extract e -> {
+          final var maximumMicros = Duration.of(e.maximumTime(), Duration.SECONDS).micros();
+          final var batch = schedule.extractNextJobs(maximumMicros);
+          final var expected = model.extractNextJobs(maximumMicros);
+          assertEquals(expected, new HashSet<>(batch.jobs()));
+          assertEquals(batch.jobs().size(), expected.size());
+        }
+        case Operation.Duplicate d -> {
+          original = schedule;
+          originalModel = model;
+          schedule = schedule.duplicate();
+          model = model.duplicate();
+        }
+      }
+      assertEquals(peek(model), schedule.peekNextMicros());
+    }
+
+    assertEquals(peek(originalModel), original.peekNextMicros());
+    while (true) {
+      final var batch = original.extractNextJobs(Long.MAX_VALUE);
+      assertEquals(originalModel.extractNextJobs(Long.MAX_VALUE), new HashSet<>(batch.jobs()));
+      if (batch.jobs().isEmpty()) break;
+    }
+  }
+
+  private static long peek(final Model model) {
+    return model.times.values().stream().mapToLong(SchedulingInstant::offsetMicros).min().orElse(Duration.MAX_VALUE.micros());
+  }
+
+  @Provide
+  Arbitrary<List<Operation>> operations() {
+    final var jobs = Arbitraries.integers().between(0, 20);
+    final var times = Arbitraries.integers().between(0, 10);
+    final Arbitrary<Operation> operation = Arbitraries.frequencyOf(
+        Tuple.of(6, Combinators
+            .combine(jobs, times, Arbitraries.of(SubInstant.class))
+            .as(Operation.Schedule::new)),
+        Tuple.of(2, jobs.map(Operation.Unschedule::new)),
+        Tuple.of(2, times.map(Operation.Extract::new)),
+        Tuple.of(1, Arbitraries.just(new Operation.Duplicate())));
+    return operation.list().ofMaxSize(60);
+  }
+}
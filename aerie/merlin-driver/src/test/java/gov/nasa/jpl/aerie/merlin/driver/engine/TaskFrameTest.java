@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class TaskFrameTest {
   private static final SpanId ORIGIN = SpanId.generate();
@@ -48,6 +49,37 @@ public final class TaskFrameTest {
   }
 
 
+  @Test
+  public void deepFanoutDuplicatesCellsLinearly() {
+    final var children = 500;
+    final var topic = new Topic<Long>();
+    final var otherTopic = new Topic<Long>();
+    final var query = new Query<long[]>();
+    final var otherQuery = new Query<long[]>();
+    final var cellType = new CountingCellType();
+
+    final var cells = new LiveCells(new CausalEventSource());
+    cells.put(query, new Cell<>(cellType, new Selector<>(topic, $ -> $), new RecursiveEventGraphEvaluator(), new long[] {0}));
+    cells.put(otherQuery, new Cell<>(cellType, new Selector<>(otherTopic, $ -> $), new RecursiveEventGraphEvaluator(), new long[] {0}));
+
+    // The parent emits and spawns over and over without reading, so that each child reads from deep in the stack.
+    TaskFrame.<Integer>run(-1, cells, (job, frame) -> {
+      if (job < 0) {
+        for (var i = 0; i < children; i += 1) {
+          frame.emit(Event.create(topic, 1L, ORIGIN));
+          frame.signal(i);
+        }
+      } else {
+        assertEquals(job + 1, frame.getState(query).orElseThrow()[0]);
+        assertEquals(0, frame.getState(otherQuery).orElseThrow()[0]);
+      }
+    });
+
+    // Each child copies each cell into its own frame once and again for every read of its state,
+    //   and the parent's stack needs one copy per version in which the cell changed.
+    assertTrue(cellType.duplicates <= 6 * children, "duplicated cells " + cellType.duplicates + " times");
+  }
+
 	@Property
   @Label("TaskFrame should faithfully reassemble event graphs")
   public void producedGraphIsCorrect(@ForAll("fanout") EventGraph<Integer> graph) {
@@ -241,6 +273,42 @@ public final class TaskFrameTest {
     }
   }
 
+  /** A counter that tallies how many times any of its cells have been duplicated. */
+  private static final class CountingCellType implements CellType<Long, long[]> {
+    private int duplicates = 0;
+
+    @Override
+    public EffectTrait<Long> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Long empty() {
+          return 0L;
+        }
+
+        @Override
+        public Long sequentially(final Long prefix, final Long suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Long concurrently(final Long left, final Long right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public long[] duplicate(final long[] self) {
+      this.duplicates += 1;
+      return self.clone();
+    }
+
+    @Override
+    public void apply(final long[] self, final Long effect) {
+      self[0] += effect;
+    }
+  }
+
   /** A cell applicator that sequentially appends graphs to an accumulator graph. */
   private static final class MutableGraphCellType<T> implements CellType<EventGraph<T>, MutableObject<EventGraph<T>>> {
     @Override
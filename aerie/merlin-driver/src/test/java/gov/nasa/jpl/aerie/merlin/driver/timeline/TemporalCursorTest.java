@@ -0,0 +1,132 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Checks that a cursor skipping to relevant commits leaves cells as walking every time point would. */
+public final class TemporalCursorTest {
+  private final List<Topic<Long>> topics = List.of(new Topic<>(), new Topic<>(), new Topic<>());
+  private final SpanId provenance = SpanId.generate();
+
+  @Test
+  public void agreesWithWalkingEveryPoint() {
+    final var random = new Random(0);
+    final var timeline = new TemporalEventSource();
+
+    final var cells = List.of(
+        cell(new Selector<>(this.topics.get(0), $ -> $)),
+        cell(new Selector<>(new Selector.SelectorRow<>(this.topics.get(0), $ -> $), new Selector.SelectorRow<>(this.topics.get(2), $ -> -$))),
+        cell(new Selector<Long>()));
+    final var cursors = new ArrayList<TemporalEventSource.TemporalCursor>();
+    for (final var ignored : cells) cursors.add(timeline.cursor());
+
+    for (var i = 0; i < 2_000; i += 1) {
+      if (random.nextBoolean()) timeline.add(random.nextInt(0, 5));
+
+      final var events = new ArrayList<EventGraph<Event>>();
+      for (var j = random.nextInt(0, 3); j > 0; j -= 1) {
+        final var topic = this.topics.get(random.nextInt(this.topics.size()));
+        events.add(EventGraph.atom(Event.create(topic, (long) random.nextInt(1, 10), this.provenance)));
+      }
+      timeline.add(random.nextBoolean() ? EventGraph.sequentially(events) : EventGraph.concurrently(events));
+
+      // Read cells at irregular intervals, so that cursors resume from the middle of the timeline.
+      final var reader = random.nextInt(cells.size() * 8);
+      if (reader < cells.size()) cursors.get(reader).stepUp(cells.get(reader));
+    }
+    timeline.add(Duration.SECOND);
+
+    for (var i = 0; i < cells.size(); i += 1) {
+      cursors.get(i).stepUp(cells.get(i));
+      assertArrayEquals(walk(timeline, cells.get(i).selector()), cells.get(i).getState());
+    }
+  }
+
+  @Test
+  public void catchesUpOnTimeWithoutRelevantCommits() {
+    final var timeline = new TemporalEventSource();
+    final var cell = cell(new Selector<>(this.topics.get(0), $ -> $));
+    final var cursor = timeline.cursor();
+
+    timeline.add(Duration.of(3, Duration.MICROSECONDS));
+    timeline.add(EventGraph.atom(Event.create(this.topics.get(1), 1L, this.provenance)));
+    timeline.add(Duration.of(4, Duration.MICROSECONDS));
+    cursor.stepUp(cell);
+
+    assertEquals(7, cell.getState()[0]);
+    assertEquals(0, cell.getState()[1]);
+  }
+
+  /** The reference behavior: step over every delta and offer every commit to the cell. */
+  private static long[] walk(final TemporalEventSource timeline, final Selector<?> selector) {
+    final var fresh = cell(selector);
+    for (final var point : timeline) {
+      if (point instanceof TemporalEventSource.TimePoint.Delta p) {
+        fresh.step(p.delta());
+      } else if (point instanceof TemporalEventSource.TimePoint.Commit p) {
+        if (fresh.isInterestedIn(p.topics())) fresh.apply(p.events());
+      }
+    }
+    return fresh.getState();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Cell<long[]> cell(final Selector<?> selector) {
+    return new Cell<>(TraceCellType.INSTANCE, (Selector<Long>) selector, new RecursiveEventGraphEvaluator(), initial());
+  }
+
+  private static long[] initial() {
+    return new long[] {0, 0};
+  }
+
+  /** Tracks elapsed time, and a checksum over every effect together with the time it was applied. */
+  private enum TraceCellType implements CellType<Long, long[]> {
+    INSTANCE;
+
+    @Override
+    public EffectTrait<Long> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Long empty() {
+          return 0L;
+        }
+
+        @Override
+        public Long sequentially(final Long prefix, final Long suffix) {
+          return prefix * 3 + suffix;
+        }
+
+        @Override
+        public Long concurrently(final Long left, final Long right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public long[] duplicate(final long[] state) {
+      return state.clone();
+    }
+
+    @Override
+    public void apply(final long[] state, final Long effect) {
+      state[1] = state[1] * 31 + state[0] * 7 + effect;
+    }
+
+    @Override
+    public void step(final long[] state, final Duration duration) {
+      state[0] += duration.in(Duration.MICROSECONDS);
+    }
+  }
+}
@@ -90,7 +90,8 @@ public final class AerieAppDriver {
       constraintsDSLCompilationService,
       constraintService,
       planController,
-      simulationController
+      simulationController,
+      configuration.constraintEvaluationParallelism()
     );
     final var generateConstraintsLibAction = new GenerateConstraintsLibAction(typescriptCodeGenerationService);
     final var permissionsService = new PermissionsService(
@@ -181,7 +182,10 @@ public final class AerieAppDriver {
         URI.create(getEnv("HASURA_GRAPHQL_URL", "http://localhost:8080/v1/graphql")),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
         Boolean.parseBoolean(getEnv("ENABLE_CONTINUOUS_VALIDATION_THREAD", "true")),
-        Integer.parseInt(getEnv("VALIDATION_THREAD_POLLING_PERIOD", "500"))
+        Integer.parseInt(getEnv("VALIDATION_THREAD_POLLING_PERIOD", "500")),
+        Integer.parseInt(getEnv(
+            "CONSTRAINT_EVALUATION_PARALLELISM",
+            String.valueOf(Runtime.getRuntime().availableProcessors())))
     );
   }
 }
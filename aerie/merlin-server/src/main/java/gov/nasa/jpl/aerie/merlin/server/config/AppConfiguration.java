@@ -14,7 +14,8 @@ public record AppConfiguration (
     URI hasuraGraphqlURI,
     String hasuraGraphQlAdminSecret,
     boolean enableContinuousValidationThread,
-    int validationThreadPollingPeriod
+    int validationThreadPollingPeriod,
+    int constraintEvaluationParallelism
 ) {
   public AppConfiguration {
     Objects.requireNonNull(merlinFileStore);
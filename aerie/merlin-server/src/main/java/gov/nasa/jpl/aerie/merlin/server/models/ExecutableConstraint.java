@@ -12,6 +12,7 @@ import gov.nasa.ammos.aerie.procedural.constraints.ProcedureMapper;
 
 import java.util.List;
 import java.util.HashSet;
+import java.util.Set;
 
 public sealed interface ExecutableConstraint extends Comparable<ExecutableConstraint>{
   long order();
@@ -41,13 +42,19 @@ public sealed interface ExecutableConstraint extends Comparable<ExecutableConstr
       return Long.compare(order(), o.order());
     }
 
+    /** The names of the resources this constraint reads. */
+    public Set<String> resources() {
+      final var resources = new HashSet<String>();
+      expression.extractResources(resources);
+      return resources;
+    }
+
     public EDSLConstraintResult run(
         SimulationResults preparedResults,
         EvaluationEnvironment environment
     ) {
       // get the list of resources that this constraint needs to run
-      final var resources = new HashSet<String>();
-      expression.extractResources(resources);
+      final var resources = resources();
 
       // evaluate the constraint
       final var result = expression.evaluate(preparedResults, environment);
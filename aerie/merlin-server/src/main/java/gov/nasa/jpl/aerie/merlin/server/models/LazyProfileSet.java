@@ -0,0 +1,166 @@
+package gov.nasa.jpl.aerie.merlin.server.models;
+
+import gov.nasa.jpl.aerie.constraints.model.DiscreteProfile;
+import gov.nasa.jpl.aerie.constraints.model.LinearProfile;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The resource profiles of a single simulation dataset, each loaded on its first access and remembered afterward.
+ *
+ * The maps handed out by this class look like fully-loaded maps of profiles by resource name.
+ * Looking up a name loads just that profile; iterating over a map loads every remaining profile at once.
+ * Profiles needed by a known set of resources can be loaded together ahead of time with {@link #prefetch}.
+ *
+ * All methods are safe to call concurrently.
+ */
+public final class LazyProfileSet {
+  private final Function<List<String>, ProfileSet> loadByName;
+  private final Supplier<ProfileSet> loadAll;
+
+  private final ConcurrentHashMap<String, ResourceProfile<RealDynamics>> realProfiles = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, ResourceProfile<SerializedValue>> discreteProfiles = new ConcurrentHashMap<>();
+
+  /** The names already looked up, including those which turned out not to name any profile. */
+  private final Set<String> resolvedNames = ConcurrentHashMap.newKeySet();
+  private volatile boolean complete = false;
+
+  /**
+   * @param loadByName Loads the profiles with the given names, silently omitting names without a profile.
+   * @param loadAll Loads every profile in the dataset.
+   */
+  public LazyProfileSet(final Function<List<String>, ProfileSet> loadByName, final Supplier<ProfileSet> loadAll) {
+    this.loadByName = loadByName;
+    this.loadAll = loadAll;
+  }
+
+  /**
+   * Load every named profile that has not been loaded yet, in a single request.
+   *
+   * The request is made without holding the lock, so that threads loading different profiles do not wait on each other.
+   * Threads racing to load the same profile may each load it; the copies are equal, and whichever is stored last is kept.
+   */
+  public void prefetch(final Collection<String> names) {
+    if (this.complete) return;
+
+    final var missingNames = names.stream().distinct().filter($ -> !this.resolvedNames.contains($)).toList();
+    if (missingNames.isEmpty()) return;
+
+    final var profiles = this.loadByName.apply(missingNames);
+    synchronized (this) {
+      this.store(profiles);
+      // Only publish the names once their profiles are visible.
+      this.resolvedNames.addAll(missingNames);
+    }
+  }
+
+  private void prefetchAll() {
+    if (this.complete) return;
+
+    final var profiles = this.loadAll.get();
+    synchronized (this) {
+      this.store(profiles);
+      this.complete = true;
+    }
+  }
+
+  private void store(final ProfileSet profiles) {
+    this.realProfiles.putAll(ProfileSet.unwrapOptional(profiles.realProfiles()));
+    this.discreteProfiles.putAll(ProfileSet.unwrapOptional(profiles.discreteProfiles()));
+  }
+
+  public Map<String, ResourceProfile<RealDynamics>> realProfiles() {
+    return new LazyMap<>(this.realProfiles, Function.identity());
+  }
+
+  public Map<String, ResourceProfile<SerializedValue>> discreteProfiles() {
+    return new LazyMap<>(this.discreteProfiles, Function.identity());
+  }
+
+  /** The real profiles as seen by constraints, each converted on its first access. */
+  public Map<String, LinearProfile> linearProfiles() {
+    return new LazyMap<>(this.realProfiles, $ -> LinearProfile.fromSimulatedProfile($.segments()));
+  }
+
+  /** The discrete profiles as seen by constraints, each converted on its first access. */
+  public Map<String, DiscreteProfile> discreteConstraintProfiles() {
+    return new LazyMap<>(this.discreteProfiles, $ -> DiscreteProfile.fromSimulatedProfile($.segments()));
+  }
+
+  private final class LazyMap<Source, Target> extends AbstractMap<String, Target> {
+    private final Map<String, Source> source;
+    private final Function<Source, Target> convert;
+    private final ConcurrentHashMap<String, Target> converted = new ConcurrentHashMap<>();
+
+    LazyMap(final Map<String, Source> source, final Function<Source, Target> convert) {
+      this.source = source;
+      this.convert = convert;
+    }
+
+    @Override
+    public Target get(final Object key) {
+      if (!(key instanceof String name)) return null;
+
+      LazyProfileSet.this.prefetch(List.of(name));
+      final var profile = this.source.get(name);
+      if (profile == null) return null;
+
+      return this.converted.computeIfAbsent(name, $ -> this.convert.apply(profile));
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      if (!(key instanceof String name)) return false;
+
+      LazyProfileSet.this.prefetch(List.of(name));
+      return this.source.containsKey(name);
+    }
+
+    @Override
+    public int size() {
+      LazyProfileSet.this.prefetchAll();
+      return this.source.size();
+    }
+
+    @Override
+    public Set<Entry<String, Target>> entrySet() {
+      LazyProfileSet.this.prefetchAll();
+
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Target>> iterator() {
+          final var names = LazyMap.this.source.keySet().iterator();
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return names.hasNext();
+            }
+
+            @Override
+            public Entry<String, Target> next() {
+              final var name = names.next();
+              return new SimpleImmutableEntry<>(name, LazyMap.this.get(name));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return LazyMap.this.source.size();
+        }
+      };
+    }
+  }
+}
@@ -132,7 +132,7 @@ public final class ReadonlyPlan implements Plan {
     if(environment.realExternalProfiles().containsKey(name)) {
       segments = environment.realExternalProfiles()
                             .get(name)
-                            .profilePieces
+                            .profilePieces()
                             .stream()
                             .map(s -> new Segment<>(
                                 s.interval().toProceduralInterval(),
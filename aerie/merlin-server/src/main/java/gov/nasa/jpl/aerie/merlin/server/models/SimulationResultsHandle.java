@@ -1,11 +1,16 @@
 package gov.nasa.jpl.aerie.merlin.server.models;
 
+import gov.nasa.jpl.aerie.constraints.model.DiscreteProfile;
+import gov.nasa.jpl.aerie.constraints.model.LinearProfile;
 import gov.nasa.jpl.aerie.types.ActivityInstance;
 import gov.nasa.jpl.aerie.types.ActivityInstanceId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +23,27 @@ public interface SimulationResultsHandle {
 
   SimulationResults getSimulationResults();
 
+  /**
+   * Get the simulation results, loading each resource profile only when it is first accessed.
+   * Profiles loaded through this handle are remembered for the lifetime of the handle.
+   */
+  default SimulationResults getSimulationResultsWithLazyProfiles() {
+    return this.getSimulationResults();
+  }
+
+  /** Load the named profiles ahead of their first access through {@link #getSimulationResultsWithLazyProfiles()}. */
+  default void prefetchProfiles(final Collection<String> profileNames) {}
+
+  /** The profiles of {@link #getSimulationResultsWithLazyProfiles()}, as seen by constraints. */
+  default Pair<Map<String, LinearProfile>, Map<String, DiscreteProfile>> getConstraintProfiles() {
+    final var results = this.getSimulationResultsWithLazyProfiles();
+    final var realProfiles = new HashMap<String, LinearProfile>();
+    final var discreteProfiles = new HashMap<String, DiscreteProfile>();
+    results.realProfiles.forEach((name, profile) -> realProfiles.put(name, LinearProfile.fromSimulatedProfile(profile.segments())));
+    results.discreteProfiles.forEach((name, profile) -> discreteProfiles.put(name, DiscreteProfile.fromSimulatedProfile(profile.segments())));
+    return Pair.of(realProfiles, discreteProfiles);
+  }
+
   ProfileSet getProfiles(final List<String> profileNames);
 
   Map<ActivityInstanceId, ActivityInstance> getSimulatedActivities();
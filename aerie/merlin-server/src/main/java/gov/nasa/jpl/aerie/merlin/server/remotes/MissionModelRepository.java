@@ -11,6 +11,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface MissionModelRepository {
     // Queries
@@ -23,7 +24,22 @@ public interface MissionModelRepository {
     void updateActivityTypes(MissionModelId missionModelId, final Map<String, ActivityType> activityTypes, final List<String> subsystems) throws NoSuchMissionModelException;
     void updateResourceTypes(MissionModelId missionModelId, final Map<String, Resource<?>> resourceTypes) throws NoSuchMissionModelException;
     Map<MissionModelId, List<ActivityDirectiveForValidation>> getUnvalidatedDirectives();
+    Map<MissionModelId, List<ActivityDirectiveForValidation>> getUnvalidatedDirectives(Set<MissionModelId> missionModelIds);
+    PendingValidations listenForPendingValidations();
     void updateDirectiveValidations(List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> updates);
 
+    /** A subscription to the mission models that have directives awaiting validation. */
+    interface PendingValidations extends AutoCloseable {
+      /**
+       * Wait up to `timeoutMillis` for directives to be marked as awaiting validation.
+       *
+       * @return The mission models notified of during the wait, which is empty if none were.
+       */
+      Set<MissionModelId> await(int timeoutMillis);
+
+      @Override
+      void close();
+    }
+
     final class NoSuchMissionModelException extends Exception {}
 }
@@ -0,0 +1,154 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import org.intellij.lang.annotations.Language;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGeneratorFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Streams rows into a table using Postgres's binary COPY format.
+ *
+ * Rows are written field by field: call {@link #startRow(int)} with the number of columns,
+ * then one write method per column in the column order given in the COPY statement.
+ * Each field must be encoded exactly as the server's binary receive function for its column type expects.
+ * The rows only reach the table once {@link #finish()} is called; closing an unfinished writer cancels the copy.
+ *
+ * @see <a href="https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9.4">COPY binary format</a>
+ */
+public final class BinaryCopyWriter implements AutoCloseable {
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+  private static final byte JSONB_VERSION = 1;
+  private static final long MICROS_PER_DAY = 24L * 60 * 60 * 1_000_000;
+  private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+  private static final JsonGeneratorFactory jsonGeneratorFactory = Json.createGeneratorFactory(Map.of());
+
+  private final DataOutputStream out;
+  private final PGCopyOutputStream copy;
+  private final ByteArrayOutputStream scratch = new ByteArrayOutputStream();
+  private boolean finished = false;
+
+  /*package-local*/ BinaryCopyWriter(final OutputStream out) throws IOException {
+    this(out, null);
+  }
+
+  private BinaryCopyWriter(final OutputStream out, final PGCopyOutputStream copy) throws IOException {
+    this.out = new DataOutputStream(out);
+    this.copy = copy;
+    this.out.write(SIGNATURE);
+    this.out.writeInt(0); // Flags: no OIDs.
+    this.out.writeInt(0); // Header extension length.
+  }
+
+  /** Begin a {@code COPY ... FROM STDIN (FORMAT binary)} on the given connection. */
+  public static BinaryCopyWriter open(final Connection connection, final @Language("SQL") String copySql)
+  throws SQLException
+  {
+    final var pgConnection = connection.unwrap(PGConnection.class);
+    final var copy = new PGCopyOutputStream(pgConnection, copySql, COPY_BUFFER_SIZE);
+    try {
+      return new BinaryCopyWriter(copy, copy);
+    } catch (final IOException ex) {
+      throw new SQLException("Failed to start binary copy", ex);
+    }
+  }
+
+  public void startRow(final int fieldCount) throws IOException {
+    this.out.writeShort(fieldCount);
+  }
+
+  public void writeNull() throws IOException {
+    this.out.writeInt(-1);
+  }
+
+  /** Write an {@code integer} field. */
+  public void writeInt(final int value) throws IOException {
+    this.out.writeInt(Integer.BYTES);
+    this.out.writeInt(value);
+  }
+
+  /** Write a {@code text} field. */
+  public void writeText(final String value) throws IOException {
+    final var bytes = value.getBytes(StandardCharsets.UTF_8);
+    this.out.writeInt(bytes.length);
+    this.out.write(bytes);
+  }
+
+  /** Write a {@code bool} field. */
+  public void writeBoolean(final boolean value) throws IOException {
+    this.out.writeInt(1);
+    this.out.writeBoolean(value);
+  }
+
+  /**
+   * Write an {@code interval} field spanning the given number of microseconds, with no day or month component.
+   *
+   * This is the interval produced by casting a duration such as {@code 'PT1.5S'} to {@code interval}.
+   */
+  public void writeInterval(final long micros) throws IOException {
+    writeInterval(0, micros);
+  }
+
+  /**
+   * Write an {@code interval} field spanning the given number of microseconds, split into days and microseconds.
+   *
+   * The interval is normalized the same way Postgres normalizes the difference of two {@code timestamptz}s,
+   * so that rows match those produced by {@code ?::timestamptz - ?::timestamptz}.
+   */
+  public void writeJustifiedInterval(final long micros) throws IOException {
+    final var days = micros / MICROS_PER_DAY;
+    writeInterval(Math.toIntExact(days), micros - days * MICROS_PER_DAY);
+  }
+
+  private void writeInterval(final int days, final long micros) throws IOException {
+    this.out.writeInt(Long.BYTES + Integer.BYTES + Integer.BYTES);
+    this.out.writeLong(micros);
+    this.out.writeInt(days);
+    this.out.writeInt(0); // Months.
+  }
+
+  /** Write a {@code jsonb} field, serializing the value directly into the copy stream. */
+  public void writeJsonb(final JsonValue value) throws IOException {
+    this.scratch.reset();
+    try (final var generator = jsonGeneratorFactory.createGenerator(this.scratch, StandardCharsets.UTF_8)) {
+      generator.write(value);
+    }
+    this.out.writeInt(1 + this.scratch.size());
+    this.out.writeByte(JSONB_VERSION);
+    this.scratch.writeTo(this.out);
+  }
+
+  /** Finish the copy, inserting every row written so far into the table. */
+  public void finish() throws SQLException {
+    try {
+      this.out.writeShort(-1); // File trailer.
+      this.out.close();
+      this.finished = true;
+    } catch (final IOException ex) {
+      throw unwrap(ex);
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (this.finished) return;
+    if (this.copy != null && this.copy.isActive()) this.copy.cancelCopy();
+  }
+
+  /** Rethrow an I/O failure from the copy stream as the {@link SQLException} it stands for. */
+  public static SQLException unwrap(final IOException ex) {
+    if (ex.getCause() instanceof SQLException sqlEx) return sqlEx;
+    return new SQLException("Failed to write to binary copy", ex);
+  }
+}
@@ -0,0 +1,153 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP;
+import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.getJsonColumn;
+
+/**
+ * Fetches the segments of many profiles of a dataset in a single query.
+ *
+ * Segments are streamed through a server-side cursor in order of profile and start offset,
+ * and demultiplexed into one profile per record as they arrive.
+ */
+/*package-local*/ final class GetProfileSegmentsInBulkAction implements AutoCloseable {
+  /** The number of rows to hold in memory at a time while streaming segments. */
+  private static final int FETCH_SIZE = 10_000;
+
+  private final @Language("SQL") String sql = """
+      select
+        seg.profile_id,
+        round(extract(epoch from seg.start_offset) * 1000*1000)::bigint as start_offset_in_micros,
+        seg.dynamics,
+        seg.is_gap
+      from merlin.profile_segment as seg
+      where
+        seg.dataset_id = ? and
+        seg.profile_id = any(?)
+      order by seg.profile_id asc, seg.start_offset asc
+    """;
+  private final PreparedStatement statement;
+
+  public GetProfileSegmentsInBulkAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+    this.statement.setFetchSize(FETCH_SIZE);
+  }
+
+  public ProfileSet get(final long datasetId, final List<ProfileRecord> records) throws SQLException {
+    final var realProfiles = new HashMap<String, ResourceProfile<Optional<RealDynamics>>>();
+    final var discreteProfiles = new HashMap<String, ResourceProfile<Optional<SerializedValue>>>();
+    if (records.isEmpty()) return new ProfileSet(realProfiles, discreteProfiles);
+
+    final var recordsById = new HashMap<Long, ProfileRecord>(records.size());
+    for (final var record : records) recordsById.put(record.id(), record);
+
+    final var connection = this.statement.getConnection();
+    this.statement.setLong(1, datasetId);
+    this.statement.setArray(2, connection.createArrayOf("bigint", recordsById.keySet().toArray()));
+
+    // The driver only streams through a cursor inside of a transaction.
+    final var autoCommit = connection.getAutoCommit();
+    if (autoCommit) connection.setAutoCommit(false);
+    try (final var resultSet = this.statement.executeQuery()) {
+      SegmentBuilder<?> builder = null;
+      while (resultSet.next()) {
+        final var profileId = resultSet.getLong(1);
+        if (builder == null || builder.record.id() != profileId) {
+          if (builder != null) builder.finish();
+
+          final var record = recordsById.remove(profileId);
+          if (record == null) throw new Error("Unexpected segments for `profile_id` (%d)".formatted(profileId));
+          builder = switch (record.type().getLeft()) {
+            case "real" -> new SegmentBuilder<>(record, realDynamicsP, $ -> realProfiles.put(record.name(), $));
+            case "discrete" -> new SegmentBuilder<>(record, serializedValueP, $ -> discreteProfiles.put(record.name(), $));
+            default -> throw new Error("Unrecognized profile type " + record.type().getLeft());
+          };
+        }
+
+        builder.append(resultSet);
+      }
+      if (builder != null) builder.finish();
+    } finally {
+      if (autoCommit) connection.setAutoCommit(true);
+    }
+
+    if (!recordsById.isEmpty()) {
+      final var profileId = recordsById.keySet().iterator().next();
+      throw new Error("No profile segments found for `dataset_id` (%d) and `profile_id` (%d)".formatted(datasetId, profileId));
+    }
+
+    return new ProfileSet(realProfiles, discreteProfiles);
+  }
+
+  /** Accumulates the rows of a single profile into segments. */
+  private static final class SegmentBuilder<Dynamics> {
+    private final ProfileRecord record;
+    private final JsonParser<Dynamics> dynamicsP;
+    private final Consumer<ResourceProfile<Optional<Dynamics>>> sink;
+    private final List<ProfileSegment<Optional<Dynamics>>> segments = new ArrayList<>();
+
+    private boolean started = false;
+    private long offsetMicros = 0;
+    private Optional<Dynamics> dynamics = Optional.empty();
+
+    SegmentBuilder(
+        final ProfileRecord record,
+        final JsonParser<Dynamics> dynamicsP,
+        final Consumer<ResourceProfile<Optional<Dynamics>>> sink
+    ) {
+      this.record = record;
+      this.dynamicsP = dynamicsP;
+      this.sink = sink;
+    }
+
+    void append(final ResultSet resultSet) throws SQLException {
+      // Profile segments are stored with their start offset relative to simulation start
+      // We must convert these to durations describing how long each segment lasts
+      final var nextOffsetMicros = resultSet.getLong(2);
+      if (this.started) {
+        this.segments.add(new ProfileSegment<>(
+            Duration.of(nextOffsetMicros - this.offsetMicros, Duration.MICROSECONDS),
+            this.dynamics));
+      }
+      this.started = true;
+      this.offsetMicros = nextOffsetMicros;
+
+      if (!resultSet.getBoolean("is_gap")) {
+        this.dynamics = Optional.of(getJsonColumn(resultSet, "dynamics", this.dynamicsP)
+            .getSuccessOrThrow(failureReason -> new Error("Corrupt profile dynamics: " + failureReason.reason())));
+      } else {
+        this.dynamics = Optional.empty();
+      }
+    }
+
+    void finish() {
+      final var duration = this.record.duration().minus(Duration.of(this.offsetMicros, Duration.MICROSECONDS));
+      this.segments.add(new ProfileSegment<>(duration, this.dynamics));
+      this.sink.accept(ResourceProfile.of(this.record.type().getRight(), this.segments));
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
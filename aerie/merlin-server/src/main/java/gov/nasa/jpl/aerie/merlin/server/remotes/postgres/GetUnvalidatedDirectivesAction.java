@@ -8,11 +8,13 @@ import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.activityArgumentsP;
 import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.getJsonColumn;
@@ -25,17 +27,37 @@ public class GetUnvalidatedDirectivesAction implements AutoCloseable {
           on ad.id = adv.directive_id and ad.plan_id = adv.plan_id
         join merlin.plan p
           on ad.plan_id = p.id
-        where adv.status = 'pending';
+        where adv.status = 'pending'
+      """;
+
+  private static final String sqlForModels = sql + """
+          and p.model_id = any(?)
       """;
 
   private final PreparedStatement statement;
+  private final PreparedStatement statementForModels;
 
   public GetUnvalidatedDirectivesAction(Connection connection) throws SQLException {
     this.statement = connection.prepareStatement(sql);
+    this.statementForModels = connection.prepareStatement(sqlForModels);
   }
 
   public Map<MissionModelId, List<ActivityDirectiveForValidation>> get() throws SQLException {
-    final var results = this.statement.executeQuery();
+    return collect(this.statement.executeQuery());
+  }
+
+  /** Get the unvalidated directives of only the given mission models. */
+  public Map<MissionModelId, List<ActivityDirectiveForValidation>> get(final Set<MissionModelId> missionModelIds)
+  throws SQLException
+  {
+    final var ids = missionModelIds.stream().map(MissionModelId::id).toArray();
+    this.statementForModels.setArray(1, this.statementForModels.getConnection().createArrayOf("bigint", ids));
+    return collect(this.statementForModels.executeQuery());
+  }
+
+  private static Map<MissionModelId, List<ActivityDirectiveForValidation>> collect(final ResultSet results)
+  throws SQLException
+  {
     final var map = new HashMap<MissionModelId, List<ActivityDirectiveForValidation>>();
 
     while (results.next()) {
@@ -62,5 +84,6 @@ public class GetUnvalidatedDirectivesAction implements AutoCloseable {
   @Override
   public void close() throws SQLException {
     this.statement.close();
+    this.statementForModels.close();
   }
 }
@@ -3,76 +3,83 @@ package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
 import gov.nasa.jpl.aerie.merlin.driver.engine.EventRecord;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
-import gov.nasa.jpl.aerie.types.Timestamp;
 import org.apache.commons.lang3.tuple.Pair;
 import org.intellij.lang.annotations.Language;
 
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Types;
 import java.util.List;
 import java.util.Map;
 
 import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
-import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatements.setTimestamp;
 
+/**
+ * Streams simulation events into {@code merlin.event} through a binary COPY,
+ * writing each event as soon as its transaction's event graph is flattened.
+ */
 /*package-local*/ final class InsertSimulationEventsAction implements AutoCloseable {
   @Language("SQL") private static final String sql = """
-      insert into merlin.event (dataset_id, real_time, transaction_index, causal_time, topic_index, value, span_id)
-      values (?, ?::timestamptz - ?::timestamptz, ?, ?, ?, ?::jsonb,?)
+      copy merlin.event (dataset_id, real_time, transaction_index, causal_time, topic_index, value, span_id)
+      from stdin (format binary)
     """;
+  private static final int FIELD_COUNT = 7;
 
-  private final PreparedStatement statement;
+  private final BinaryCopyWriter writer;
 
   public InsertSimulationEventsAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql);
+    this.writer = BinaryCopyWriter.open(connection, sql);
   }
 
   public void apply(
       final long datasetId,
-      final Map<Duration, List<EventGraph<EventRecord>>> eventPoints,
-      final Timestamp simulationStart
+      final Map<Duration, List<EventGraph<EventRecord>>> eventPoints
   ) throws SQLException {
-    for (final var eventPoint : eventPoints.entrySet()) {
-      final var time = eventPoint.getKey();
-      final var transactions = eventPoint.getValue();
-      for (int transactionIndex = 0; transactionIndex < transactions.size(); transactionIndex++) {
-        final var eventGraph = transactions.get(transactionIndex);
-        final var flattenedEventGraph = EventGraphFlattener.flatten(eventGraph);
-        batchInsertEventGraph(datasetId, time, transactionIndex, simulationStart, flattenedEventGraph, this.statement);
+    try {
+      for (final var eventPoint : eventPoints.entrySet()) {
+        final var realTime = eventPoint.getKey().in(MICROSECONDS);
+        final var transactions = eventPoint.getValue();
+        for (int transactionIndex = 0; transactionIndex < transactions.size(); transactionIndex++) {
+          final var eventGraph = transactions.get(transactionIndex);
+          final var flattenedEventGraph = EventGraphFlattener.flatten(eventGraph);
+          writeEventGraph(datasetId, realTime, transactionIndex, flattenedEventGraph, this.writer);
+        }
       }
+      this.writer.finish();
+    } catch (final IOException ex) {
+      throw BinaryCopyWriter.unwrap(ex);
     }
-    this.statement.executeBatch();
   }
 
-  private static void batchInsertEventGraph(
+  private static void writeEventGraph(
       final long datasetId,
-      final Duration duration,
+      final long realTime,
       final int transactionIndex,
-      final Timestamp simulationStart,
       final List<Pair<String, EventRecord>> flattenedEventGraph,
-      final PreparedStatement statement
-  ) throws SQLException {
+      final BinaryCopyWriter writer
+  ) throws IOException {
     for (final Pair<String, EventRecord> entry : flattenedEventGraph) {
       final var causalTime = entry.getLeft();
       final EventRecord event = entry.getRight();
 
-      statement.setLong(1, datasetId);
-      setTimestamp(statement, 2, simulationStart.plusMicros(duration.in(MICROSECONDS)));
-      setTimestamp(statement, 3, simulationStart);
-      statement.setInt(4, transactionIndex);
-      statement.setString(5, causalTime);
-      statement.setInt(6, event.topicId());
-      statement.setString(7, serializedValueP.unparse(event.value()).toString());
-      statement.setObject(8, event.spanId().orElse(null), Types.INTEGER);
-      statement.addBatch();
+      writer.startRow(FIELD_COUNT);
+      writer.writeInt(Math.toIntExact(datasetId));
+      writer.writeJustifiedInterval(realTime);
+      writer.writeInt(transactionIndex);
+      writer.writeText(causalTime);
+      writer.writeInt(event.topicId());
+      writer.writeJsonb(serializedValueP.unparse(event.value()));
+      if (event.spanId().isPresent()) {
+        writer.writeInt(Math.toIntExact(event.spanId().get()));
+      } else {
+        writer.writeNull();
+      }
     }
   }
 
   @Override
   public void close() throws SQLException {
-    this.statement.close();
+    this.writer.close();
   }
 }
@@ -4,8 +4,8 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import org.apache.commons.lang3.tuple.Triple;
 import org.intellij.lang.annotations.Language;
 
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -13,32 +13,37 @@ import static gov.nasa.jpl.aerie.merlin.driver.json.ValueSchemaJsonParser.valueS
 
 /*package-local*/ final class InsertSimulationTopicsAction implements AutoCloseable {
   @Language("SQL") private static final String sql = """
-      insert into merlin.topic (dataset_id, topic_index, name, value_schema)
-      values (?, ?, ?, ?::jsonb)
+      copy merlin.topic (dataset_id, topic_index, name, value_schema)
+      from stdin (format binary)
     """;
+  private static final int FIELD_COUNT = 4;
 
-  private final PreparedStatement statement;
+  private final BinaryCopyWriter writer;
 
   public InsertSimulationTopicsAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql);
+    this.writer = BinaryCopyWriter.open(connection, sql);
   }
 
   public void apply(
       final long datasetId,
       final List<Triple<Integer, String, ValueSchema>> topics
   ) throws SQLException {
-    for (final var topic : topics) {
-      this.statement.setLong(1, datasetId);
-      this.statement.setInt(2, topic.getLeft());
-      this.statement.setString(3, topic.getMiddle());
-      this.statement.setString(4, valueSchemaP.unparse(topic.getRight()).toString());
-      this.statement.addBatch();
+    try {
+      for (final var topic : topics) {
+        this.writer.startRow(FIELD_COUNT);
+        this.writer.writeInt(Math.toIntExact(datasetId));
+        this.writer.writeInt(topic.getLeft());
+        this.writer.writeText(topic.getMiddle());
+        this.writer.writeJsonb(valueSchemaP.unparse(topic.getRight()));
+      }
+      this.writer.finish();
+    } catch (final IOException ex) {
+      throw BinaryCopyWriter.unwrap(ex);
     }
-    this.statement.executeBatch();
   }
 
   @Override
   public void close() throws SQLException {
-    this.statement.close();
+    this.writer.close();
   }
 }
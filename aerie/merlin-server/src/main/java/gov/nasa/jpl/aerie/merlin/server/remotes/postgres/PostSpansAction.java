@@ -5,28 +5,27 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.types.Timestamp;
 import org.intellij.lang.annotations.Language;
 
+import javax.json.JsonValue;
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Types;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.Optional;
 
 import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.activityAttributesP;
-import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatements.setTimestamp;
 
 /*package-local*/ final class PostSpansAction implements AutoCloseable {
   private static final @Language("SQL") String sql = """
-      insert into merlin.span (span_id,dataset_id,parent_id, start_offset, duration, type, attributes)
-      values (?,?,?, ?::timestamptz - ?::timestamptz, ?::timestamptz - ?::timestamptz, ?, ?::jsonb)
+      copy merlin.span (span_id, dataset_id, parent_id, start_offset, duration, type, attributes)
+      from stdin (format binary)
     """;
+  private static final int FIELD_COUNT = 7;
 
-  private final PreparedStatement statement;
+  private final BinaryCopyWriter writer;
 
   public PostSpansAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    this.writer = BinaryCopyWriter.open(connection, sql);
   }
 
   public void apply(
@@ -34,49 +33,46 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
       final Map<Long, SpanRecord> spans,
       final Timestamp simulationStart
   ) throws SQLException {
-
-    final var ids = spans.keySet().stream().toList();
-    for (final var id : ids) {
-      final var act = spans.get(id);
-      final var startTimestamp = new Timestamp(act.start());
-
-      final var endTimestamp = act.duration().map(duration -> {
-        final var actEnd = act.start().plus(duration.dividedBy(Duration.MICROSECOND), ChronoUnit.MICROS);
-        return new Timestamp(actEnd);
-      });
-
-      statement.setLong(1, id);
-      statement.setLong(2, datasetId);
-      if (act.parentId().isPresent()){
-        statement.setLong(3,act.parentId().get());
-      }else{
-        statement.setNull(3,Types.BIGINT);
-      }
-      setTimestamp(statement, 4, startTimestamp);
-      setTimestamp(statement, 5, simulationStart);
-
-      if (endTimestamp.isPresent()) {
-        setTimestamp(statement, 6, endTimestamp.get());
-      } else {
-        statement.setNull(6, Types.TIMESTAMP_WITH_TIMEZONE);
+    // Postgres stores times to the microsecond, so offsets are measured between truncated instants.
+    final var start = simulationStart.toInstant().truncatedTo(ChronoUnit.MICROS);
+
+    try {
+      for (final var entry : spans.entrySet()) {
+        final var act = entry.getValue();
+        final var startOffset = ChronoUnit.MICROS.between(start, act.start().truncatedTo(ChronoUnit.MICROS));
+
+        this.writer.startRow(FIELD_COUNT);
+        this.writer.writeInt(Math.toIntExact(entry.getKey()));
+        this.writer.writeInt(Math.toIntExact(datasetId));
+        if (act.parentId().isPresent()) {
+          this.writer.writeInt(Math.toIntExact(act.parentId().get()));
+        } else {
+          this.writer.writeNull();
+        }
+        this.writer.writeJustifiedInterval(startOffset);
+        if (act.duration().isPresent()) {
+          this.writer.writeJustifiedInterval(act.duration().get().dividedBy(Duration.MICROSECOND));
+        } else {
+          this.writer.writeNull();
+        }
+        this.writer.writeText(act.type());
+        this.writer.writeJsonb(buildAttributes(
+            act.attributes().directiveId(),
+            act.attributes().arguments(),
+            act.attributes().computedAttributes()));
       }
-
-      setTimestamp(statement, 7, startTimestamp);
-      statement.setString(8, act.type());
-      statement.setString(9, buildAttributes(act.attributes().directiveId(), act.attributes().arguments(), act.attributes().computedAttributes()));
-
-      statement.addBatch();
+      this.writer.finish();
+    } catch (final IOException ex) {
+      throw BinaryCopyWriter.unwrap(ex);
     }
-
-    statement.executeBatch();
   }
 
-  private String buildAttributes(final Optional<Long> directiveId, final Map<String, SerializedValue> arguments, final Optional<SerializedValue> returnValue) {
-    return activityAttributesP.unparse(new ActivityAttributesRecord(directiveId, arguments, returnValue)).toString();
+  private JsonValue buildAttributes(final Optional<Long> directiveId, final Map<String, SerializedValue> arguments, final Optional<SerializedValue> returnValue) {
+    return activityAttributesP.unparse(new ActivityAttributesRecord(directiveId, arguments, returnValue));
   }
 
   @Override
   public void close() throws SQLException {
-    this.statement.close();
+    this.writer.close();
   }
 }
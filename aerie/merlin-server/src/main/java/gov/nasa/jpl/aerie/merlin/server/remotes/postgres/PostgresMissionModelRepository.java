@@ -10,11 +10,16 @@ import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.apache.commons.lang3.tuple.Pair;
 
+import org.postgresql.PGConnection;
+
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public final class PostgresMissionModelRepository implements MissionModelRepository {
@@ -138,6 +143,69 @@ public final class PostgresMissionModelRepository implements MissionModelReposit
     }
   }
 
+  @Override
+  public Map<MissionModelId, List<ActivityDirectiveForValidation>> getUnvalidatedDirectives(
+      final Set<MissionModelId> missionModelIds)
+  {
+    try (final var connection = this.dataSource.getConnection();
+         final var unvalidatedDirectivesAction = new GetUnvalidatedDirectivesAction(connection)) {
+      return unvalidatedDirectivesAction.get(missionModelIds);
+    } catch (SQLException ex) {
+      throw new DatabaseException("Failed to get unvalidated activity directives", ex);
+    }
+  }
+
+  @Override
+  public PendingValidations listenForPendingValidations() {
+    try {
+      final var connection = this.dataSource.getConnection();
+      try (final var listenAction = new ListenDirectiveValidationsAction(connection)) {
+        listenAction.apply();
+        return new PostgresPendingValidations(connection);
+      } catch (final SQLException ex) {
+        connection.close();
+        throw ex;
+      }
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to listen for pending activity directive validations", ex);
+    }
+  }
+
+  /** Holds a connection open on which the pending-validation notifications are delivered. */
+  private record PostgresPendingValidations(Connection connection) implements PendingValidations {
+    @Override
+    public Set<MissionModelId> await(final int timeoutMillis) {
+      try {
+        final var notifications = this.connection.unwrap(PGConnection.class).getNotifications(timeoutMillis);
+        final var missionModelIds = new HashSet<MissionModelId>();
+        if (notifications == null) return missionModelIds;
+
+        for (final var notification : notifications) {
+          if (!notification.getName().equals(ListenDirectiveValidationsAction.CHANNEL)) continue;
+          missionModelIds.add(new MissionModelId(Long.parseLong(notification.getParameter())));
+        }
+        return missionModelIds;
+      } catch (final SQLException ex) {
+        throw new DatabaseException("Failed to receive pending activity directive validations", ex);
+      }
+    }
+
+    /**
+     * Stop listening before returning the connection to the pool, which would otherwise hand it out still subscribed,
+     * and drop the notifications already received on it.
+     */
+    @Override
+    public void close() {
+      try (this.connection;
+           final var unlistenAction = new UnlistenDirectiveValidationsAction(this.connection)) {
+        unlistenAction.apply();
+        this.connection.unwrap(PGConnection.class).getNotifications();
+      } catch (final SQLException ex) {
+        throw new DatabaseException("Failed to stop listening for pending activity directive validations", ex);
+      }
+    }
+  }
+
   @Override
   public void updateDirectiveValidations(List<Pair<ActivityDirectiveForValidation, MissionModelService.BulkArgumentValidationResponse>> updates) {
     try (final var connection = this.dataSource.getConnection();
@@ -1,5 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
 
+import gov.nasa.jpl.aerie.constraints.model.DiscreteProfile;
+import gov.nasa.jpl.aerie.constraints.model.LinearProfile;
 import gov.nasa.jpl.aerie.types.ActivityInstance;
 import gov.nasa.jpl.aerie.types.ActivityInstanceId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
@@ -8,12 +10,15 @@ import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
 import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.engine.EventRecord;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
 import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol.State;
 import gov.nasa.jpl.aerie.merlin.server.exceptions.SimulationDatasetMismatchException;
+import gov.nasa.jpl.aerie.merlin.server.models.LazyProfileSet;
 import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
 import gov.nasa.jpl.aerie.merlin.server.models.SimulationDatasetId;
@@ -32,6 +37,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -368,7 +374,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     final var simulationStart = new Timestamp(results.startTime);
     postActivities(connection, datasetId, results.simulatedActivities, results.unfinishedActivities, simulationStart);
     insertSimulationTopics(connection, datasetId, results.topics);
-    insertSimulationEvents(connection, datasetId, results.events, simulationStart);
+    insertSimulationEvents(connection, datasetId, results.events);
 
     try (final var setSimulationStateAction = new SetSimulationStateAction(connection)) {
       setSimulationStateAction.apply(datasetId, state);
@@ -390,13 +396,12 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
   private static void insertSimulationEvents(
       Connection connection,
       long datasetId,
-      Map<Duration, List<EventGraph<EventRecord>>> events,
-      Timestamp simulationStart) throws SQLException
+      Map<Duration, List<EventGraph<EventRecord>>> events) throws SQLException
   {
     try (
         final var insertSimulationEventsAction = new InsertSimulationEventsAction(connection)
     ) {
-        insertSimulationEventsAction.apply(datasetId, events, simulationStart);
+        insertSimulationEventsAction.apply(datasetId, events);
     }
   }
 
@@ -634,9 +639,13 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     SimulationDatasetRecord record;
     DataSource dataSource;
 
+    /** The profiles loaded so far through this handle. */
+    private final LazyProfileSet lazyProfiles;
+
     public PostgresSimulationResultsHandle(DataSource dataSource, SimulationDatasetRecord record) {
       this.dataSource = dataSource;
       this.record = record;
+      this.lazyProfiles = new LazyProfileSet(this::getProfiles, this::getAllProfiles);
     }
 
     @Override
@@ -647,32 +656,62 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     @Override
     public SimulationResults getSimulationResults() {
       try (final var connection = this.dataSource.getConnection()) {
-        final var startTimestamp = record.simulationStartTime();
-        final var simulationStart = startTimestamp.toInstant();
-        final var simulationDuration = Duration.of(
-            startTimestamp.microsUntil(record.simulationEndTime()),
-            Duration.MICROSECONDS);
-
         final var profiles = ProfileRepository.getProfiles(connection, record.datasetId());
-        final var activities = getActivities(connection, record.datasetId(), startTimestamp);
-        final var topics = getSimulationTopics(connection, record.datasetId());
-        final var events = getSimulationEvents(connection, record.datasetId());
-
-        return new SimulationResults(
+        return getSimulationResults(
+            connection,
             ProfileSet.unwrapOptional(profiles.realProfiles()),
-            ProfileSet.unwrapOptional(profiles.discreteProfiles()),
-            activities.getLeft(),
-            activities.getRight(),
-            simulationStart,
-            simulationDuration,
-            topics,
-            events
-        );
+            ProfileSet.unwrapOptional(profiles.discreteProfiles()));
       } catch (SQLException e) {
         throw new RuntimeException(e);
       }
     }
 
+    @Override
+    public SimulationResults getSimulationResultsWithLazyProfiles() {
+      try (final var connection = this.dataSource.getConnection()) {
+        return getSimulationResults(connection, this.lazyProfiles.realProfiles(), this.lazyProfiles.discreteProfiles());
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    private SimulationResults getSimulationResults(
+        final Connection connection,
+        final Map<String, ResourceProfile<RealDynamics>> realProfiles,
+        final Map<String, ResourceProfile<SerializedValue>> discreteProfiles
+    ) throws SQLException {
+      final var startTimestamp = record.simulationStartTime();
+      final var simulationStart = startTimestamp.toInstant();
+      final var simulationDuration = Duration.of(
+          startTimestamp.microsUntil(record.simulationEndTime()),
+          Duration.MICROSECONDS);
+
+      final var activities = getActivities(connection, record.datasetId(), startTimestamp);
+      final var topics = getSimulationTopics(connection, record.datasetId());
+      final var events = getSimulationEvents(connection, record.datasetId());
+
+      return new SimulationResults(
+          realProfiles,
+          discreteProfiles,
+          activities.getLeft(),
+          activities.getRight(),
+          simulationStart,
+          simulationDuration,
+          topics,
+          events
+      );
+    }
+
+    @Override
+    public void prefetchProfiles(final Collection<String> profileNames) {
+      this.lazyProfiles.prefetch(profileNames);
+    }
+
+    @Override
+    public Pair<Map<String, LinearProfile>, Map<String, DiscreteProfile>> getConstraintProfiles() {
+      return Pair.of(this.lazyProfiles.linearProfiles(), this.lazyProfiles.discreteConstraintProfiles());
+    }
+
     @Override
     public ProfileSet getProfiles(final List<String> profileNames) {
       try (final var connection = this.dataSource.getConnection()) {
@@ -682,6 +721,14 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       }
     }
 
+    private ProfileSet getAllProfiles() {
+      try (final var connection = this.dataSource.getConnection()) {
+        return ProfileRepository.getProfiles(connection, record.datasetId());
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     @Override
     public Map<ActivityInstanceId, ActivityInstance> getSimulatedActivities() {
       try (final var connection = this.dataSource.getConnection()) {
@@ -1,8 +1,6 @@
 package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
-import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
-import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
@@ -26,31 +24,7 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
       final Connection connection,
       final long datasetId
   ) throws SQLException {
-    final var realProfiles = new HashMap<String, ResourceProfile<Optional<RealDynamics>>> ();
-    final var discreteProfiles = new HashMap<String, ResourceProfile<Optional<SerializedValue>>>();
-
-    final var profileRecords = getProfileRecords(connection, datasetId);
-    for (final var record : profileRecords) {
-      switch (record.type().getLeft()) {
-        case "real" -> realProfiles.put(
-          record.name(),
-          ResourceProfile.of(
-              record.type().getRight(),
-              getRealProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-          )
-        );
-        case "discrete" -> discreteProfiles.put(
-            record.name(),
-            ResourceProfile.of(
-                record.type().getRight(),
-                getDiscreteProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-            )
-        );
-        default -> throw new Error("Unrecognized profile type");
-      }
-    }
-
-    return new ProfileSet(realProfiles, discreteProfiles);
+    return getProfileSegments(connection, datasetId, getProfileRecords(connection, datasetId));
   }
 
   static ProfileSet getProfiles(
@@ -58,31 +32,7 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
       final long datasetId,
       final List<String> names
   ) throws SQLException {
-    final var realProfiles = new HashMap<String, ResourceProfile<Optional<RealDynamics>>>();
-    final var discreteProfiles = new HashMap<String, ResourceProfile<Optional<SerializedValue>>>();
-
-    final var profileRecords = getProfileRecords(connection, datasetId, names);
-    for (final var record : profileRecords) {
-      switch (record.type().getLeft()) {
-        case "real" -> realProfiles.put(
-            record.name(),
-            ResourceProfile.of(
-                record.type().getRight(),
-                getRealProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-            )
-        );
-        case "discrete" -> discreteProfiles.put(
-            record.name(),
-            ResourceProfile.of(
-                record.type().getRight(),
-                getDiscreteProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-            )
-        );
-        default -> throw new Error("Unrecognized profile type");
-      }
-    }
-
-    return new ProfileSet(realProfiles, discreteProfiles);
+    return getProfileSegments(connection, datasetId, getProfileRecords(connection, datasetId, names));
   }
 
   static Map<String, ValueSchema> getProfileSchemas(
@@ -127,25 +77,13 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
     }
   }
 
-  static List<ProfileSegment<Optional<RealDynamics>>> getRealProfileSegments(
-      final Connection connection,
-      final long datasetId,
-      final long profileId,
-      final Duration profileDuration
-  ) throws SQLException {
-    try (final var getProfileSegmentsAction = new GetProfileSegmentsAction(connection)) {
-      return getProfileSegmentsAction.get(datasetId, profileId, profileDuration, realDynamicsP);
-    }
-  }
-
-  static List<ProfileSegment<Optional<SerializedValue>>> getDiscreteProfileSegments(
+  static ProfileSet getProfileSegments(
       final Connection connection,
       final long datasetId,
-      final long profileId,
-      final Duration profileDuration
+      final List<ProfileRecord> records
   ) throws SQLException {
-    try (final var getProfileSegmentsAction = new GetProfileSegmentsAction(connection)) {
-      return getProfileSegmentsAction.get(datasetId, profileId, profileDuration, serializedValueP);
+    try (final var getProfileSegmentsAction = new GetProfileSegmentsInBulkAction(connection)) {
+      return getProfileSegmentsAction.get(datasetId, records);
     }
   }
 
@@ -0,0 +1,28 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/*package-local*/ final class UnlistenDirectiveValidationsAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+    UNLISTEN *;
+  """;
+
+  private final PreparedStatement statement;
+
+  public UnlistenDirectiveValidationsAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+  }
+
+  public void apply() throws SQLException {
+    this.statement.executeUpdate();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
@@ -10,25 +10,50 @@ import gov.nasa.jpl.aerie.merlin.server.http.Fallible;
 import gov.nasa.jpl.aerie.merlin.server.models.*;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 public class ConstraintAction {
+  private static final Logger logger = LoggerFactory.getLogger(ConstraintAction.class);
+
   private final ConstraintsDSLCompilationService constraintsDSLCompilationService;
   private final ConstraintService constraintService;
   private final PlanService planService;
   private final SimulationService simulationService;
 
+  /** Checks constraints concurrently, with at most a configured number of checks running at once across all requests. */
+  private final ExecutorService constraintExecutor;
+
   public ConstraintAction(
       final ConstraintsDSLCompilationService constraintsDSLCompilationService,
       final ConstraintService constraintService,
       final PlanService planService,
-      final SimulationService simulationService
+      final SimulationService simulationService,
+      final int constraintEvaluationParallelism
   ) {
+    if (constraintEvaluationParallelism < 1) {
+      throw new IllegalArgumentException("constraint evaluation parallelism must be positive, but was " + constraintEvaluationParallelism);
+    }
+
     this.constraintsDSLCompilationService = constraintsDSLCompilationService;
     this.constraintService = constraintService;
     this.planService = planService;
     this.simulationService = simulationService;
+
+    final var threadCount = new AtomicInteger();
+    this.constraintExecutor = Executors.newFixedThreadPool(constraintEvaluationParallelism, runnable -> {
+      final var thread = new Thread(runnable, "constraint-evaluation-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   /**
@@ -121,64 +146,48 @@ public class ConstraintAction {
         }
       }
 
-      // try to compile and run the constraint that were not
-      // successful and cached in the past
-
-
-      //compile
-      final var compiledConstraints = new ArrayList<ExecutableConstraint>();
-      for (final var constraint : constraints) {
-        switch (constraint.type()) {
-          case ConstraintType.EDSL e -> {
-            final var compilationResult = tryCompileEDSLConstraint(
-                plan.missionModelId(),
-                planId,
-                simDatasetId,
-                constraint);
-
-            if (compilationResult.isFailure()) {
-              final Fallible<ConstraintResult, List<? extends Exception>> r = Fallible.failure(compilationResult.getFailure().errors(), compilationResult.getMessage());
-              constraintResultMap.put(constraint, r);
-              continue;
-            }
-
-            compiledConstraints.add(new ExecutableConstraint.EDSLConstraint(constraint, compilationResult.get()));
-          }
-          case ConstraintType.JAR j -> compiledConstraints.add(new ExecutableConstraint.JARConstraint(constraint));
-        }
-      }
-
-      // sort constraints
-      Collections.sort(compiledConstraints);
-
-      // prepare simulation results -- all resources need to be fetched ahead of time as it is unknown what profiles
-      //    a procedural constraint will access
-      final var merlinSimResults = resultsHandle.getSimulationResults();
-      final var edslSimResults = new SimulationResults(merlinSimResults);
+      // prepare simulation results -- it is unknown what profiles a procedural constraint will access,
+      //    so each profile is loaded from the handle on its first access
+      final var merlinSimResults = resultsHandle.getSimulationResultsWithLazyProfiles();
+      final var constraintProfiles = resultsHandle.getConstraintProfiles();
+      final var edslSimResults = new SimulationResults(
+          merlinSimResults,
+          constraintProfiles.getLeft(),
+          constraintProfiles.getRight());
       final var environment = new EvaluationEnvironment(realExternalProfiles, discreteExternalProfiles);
 
       final var timelinePlan = new ReadonlyPlan(plan, environment);
       final var timelineSimResults = new ReadonlyProceduralSimResults(merlinSimResults, timelinePlan);
 
+      // try to compile and run the constraints that were not successful and cached in the past.
+      // The constraints all read one set of results, whose lazily loaded profiles and indexes
+      //   are safe to fill in from several threads, so they are checked concurrently.
+      final var beginTime = System.nanoTime();
+      final var checks = checkConstraints(
+          constraints,
+          constraint -> compileConstraint(constraint, plan.missionModelId(), planId, simDatasetId),
+          executable -> runConstraint(
+              executable,
+              resultsHandle,
+              edslSimResults,
+              environment,
+              timelinePlan,
+              timelineSimResults,
+              merlinSimResults));
 
-      // run constraints
-      for(final var constraint : compiledConstraints) {
-        final var record = constraint.record();
-        try {
-          switch (constraint) {
-            case ExecutableConstraint.EDSLConstraint edsl: {
-              constraintResultMap.put(record, Fallible.of(edsl.run(edslSimResults, environment)));
-              break;
-            }
-            case ExecutableConstraint.JARConstraint jar: {
-              constraintResultMap.put(record, Fallible.of(jar.run(timelinePlan, timelineSimResults, merlinSimResults)));
-              break;
-            }
-          }
-        } catch (Exception e) {
-          constraintResultMap.put(record, Fallible.failure(List.of(e), e.getMessage()));
-        }
+      for (final var check : checks.entrySet()) {
+        final var constraint = check.getKey();
+        logger.debug(
+            "checked constraint {} (revision {}): compiled in {} ms, evaluated in {} ms",
+            constraint.constraintId(),
+            constraint.revision(),
+            check.getValue().compileNanos() / 1_000_000.0,
+            check.getValue().evaluationNanos() / 1_000_000.0);
+        constraintResultMap.put(constraint, check.getValue().result());
       }
+
+      final var duration = (System.nanoTime() - beginTime) / 1_000_000.0;
+      logger.debug("checked {} constraints for plan {} in {} ms", constraints.size(), planId.id(), duration);
     }
 
     // Store the outcome of the constraint run
@@ -189,6 +198,109 @@ public class ConstraintAction {
     return Pair.of(requestId, constraintResultMap);
   }
 
+  /**
+   * The outcome of checking a single constraint, and how long it took to compile and to evaluate.
+   * A constraint that fails to compile is never evaluated, and reports an evaluation time of zero.
+   */
+  /*package-private*/ record ConstraintCheck(
+      Fallible<ConstraintResult, List<? extends Exception>> result,
+      long compileNanos,
+      long evaluationNanos
+  ) {}
+
+  /**
+   * Compile and evaluate each constraint as its own task on the constraint executor, starting in priority order.
+   * Any failure is reported in the constraint's result, rather than thrown.
+   *
+   * @return The check of each constraint, in priority order.
+   */
+  /*package-private*/ Map<ConstraintRecord, ConstraintCheck> checkConstraints(
+      final List<ConstraintRecord> constraints,
+      final Function<ConstraintRecord, Fallible<ExecutableConstraint, List<? extends Exception>>> compile,
+      final Function<ExecutableConstraint, Fallible<ConstraintResult, List<? extends Exception>>> evaluate
+  ) {
+    final var sortedConstraints = new ArrayList<>(constraints);
+    sortedConstraints.sort(Comparator.comparingLong(ConstraintRecord::priority));
+
+    final var tasks = new LinkedHashMap<ConstraintRecord, Future<ConstraintCheck>>();
+    for (final var constraint : sortedConstraints) {
+      tasks.put(constraint, this.constraintExecutor.submit(() -> {
+        final var compileBeginTime = System.nanoTime();
+        final var executable = compile.apply(constraint);
+        final var runBeginTime = System.nanoTime();
+        if (executable.isFailure()) {
+          return new ConstraintCheck(
+              Fallible.failure(executable.getFailure(), executable.getMessage()),
+              runBeginTime - compileBeginTime,
+              0);
+        }
+
+        final var result = evaluate.apply(executable.get());
+        return new ConstraintCheck(result, runBeginTime - compileBeginTime, System.nanoTime() - runBeginTime);
+      }));
+    }
+
+    final var checks = new LinkedHashMap<ConstraintRecord, ConstraintCheck>();
+    for (final var task : tasks.entrySet()) {
+      try {
+        checks.put(task.getKey(), task.getValue().get());
+      } catch (InterruptedException e) {
+        // Abandon the remaining checks, reporting them as failed.
+        Thread.currentThread().interrupt();
+        task.getValue().cancel(true);
+        checks.put(task.getKey(), new ConstraintCheck(Fallible.failure(List.of(e), "Constraint check was interrupted"), 0, 0));
+      } catch (ExecutionException e) {
+        // `compile` and `evaluate` report their own failures, so this only happens if a check could not be carried out.
+        final var cause = (e.getCause() instanceof Exception ex) ? ex : e;
+        checks.put(task.getKey(), new ConstraintCheck(Fallible.failure(List.of(cause), cause.getMessage()), 0, 0));
+      }
+    }
+    return checks;
+  }
+
+  /** Compile a constraint if needed, reporting any failure in the returned {@code Fallible}. */
+  private Fallible<ExecutableConstraint, List<? extends Exception>> compileConstraint(
+      final ConstraintRecord constraint,
+      final MissionModelId modelId,
+      final PlanId planId,
+      final SimulationDatasetId simDatasetId
+  ) {
+    return switch (constraint.type()) {
+      case ConstraintType.EDSL e -> {
+        final var compilationResult = tryCompileEDSLConstraint(modelId, planId, simDatasetId, constraint);
+        if (compilationResult.isFailure()) {
+          yield Fallible.failure(compilationResult.getFailure().errors(), compilationResult.getMessage());
+        }
+        yield Fallible.of(new ExecutableConstraint.EDSLConstraint(constraint, compilationResult.get()));
+      }
+      case ConstraintType.JAR j -> Fallible.of(new ExecutableConstraint.JARConstraint(constraint));
+    };
+  }
+
+  /** Check a compiled constraint against simulation results, reporting any failure in the returned {@code Fallible}. */
+  private Fallible<ConstraintResult, List<? extends Exception>> runConstraint(
+      final ExecutableConstraint executable,
+      final SimulationResultsHandle resultsHandle,
+      final SimulationResults edslSimResults,
+      final EvaluationEnvironment environment,
+      final ReadonlyPlan timelinePlan,
+      final ReadonlyProceduralSimResults timelineSimResults,
+      final gov.nasa.jpl.aerie.merlin.driver.SimulationResults merlinSimResults
+  ) {
+    try {
+      return switch (executable) {
+        case ExecutableConstraint.EDSLConstraint edsl -> {
+          // The resources of an EDSL constraint are known up front, so load them together.
+          resultsHandle.prefetchProfiles(edsl.resources());
+          yield Fallible.of(edsl.run(edslSimResults, environment));
+        }
+        case ExecutableConstraint.JARConstraint jar -> Fallible.of(jar.run(timelinePlan, timelineSimResults, merlinSimResults));
+      };
+    } catch (Exception e) {
+      return Fallible.failure(List.of(e), e.getMessage());
+    }
+  }
+
   /**
    * Attempt to compile an EDSL Constraint.
    * @param modelId The mission model id to get activity and resource types from.
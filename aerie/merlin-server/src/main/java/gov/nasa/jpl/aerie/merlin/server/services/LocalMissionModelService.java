@@ -25,6 +25,8 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -32,6 +34,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -46,9 +49,13 @@ import java.util.stream.Collectors;
 public final class LocalMissionModelService implements MissionModelService {
   private static final Logger log = LoggerFactory.getLogger(LocalMissionModelService.class);
 
+  /** The number of mission model types to keep loaded between requests. */
+  private static final int MODEL_TYPE_CACHE_CAPACITY = 8;
+
   private final Path missionModelDataPath;
   private final MissionModelRepository missionModelRepository;
   private final Instant untruePlanStart;
+  private final MissionModelTypeCache modelTypes = new MissionModelTypeCache(MODEL_TYPE_CACHE_CAPACITY);
 
   public LocalMissionModelService(
       final Path missionModelDataPath,
@@ -123,20 +130,21 @@ public final class LocalMissionModelService implements MissionModelService {
   throws NoSuchMissionModelException, MissionModelLoadException, InstantiationException
   {
     // TODO: [AERIE-1516] Teardown the missionModel after use to release any system resources (e.g. threads).
-    final var modelType = this.loadMissionModelType(missionModelId);
-    final var registry = DirectiveTypeRegistry.extract(modelType);
-    final var directiveType = registry.directiveTypes().get(activity.getTypeName());
-    if (directiveType == null) return List.of(new ValidationNotice(List.of(), "unknown activity type"));
-    return directiveType.getInputType().validateArguments(activity.getArguments());
+    try (final var modelType = this.leaseMissionModelType(missionModelId)) {
+      final var registry = DirectiveTypeRegistry.extract(modelType.modelType());
+      final var directiveType = registry.directiveTypes().get(activity.getTypeName());
+      if (directiveType == null) return List.of(new ValidationNotice(List.of(), "unknown activity type"));
+      return directiveType.getInputType().validateArguments(activity.getArguments());
+    }
   }
 
   public List<BulkArgumentValidationResponse> validateActivityArgumentsBulk(
       final MissionModelId missionModelId,
       final List<ActivityDirectiveForValidation> activities) {
     // load mission model once for all activities
-    ModelType<?, ?> modelType;
+    final MissionModelTypeCache.Lease modelType;
     try {
-      modelType = this.loadMissionModelType(missionModelId);
+      modelType = this.leaseMissionModelType(missionModelId);
       // try and catch NoSuchMissionModel here, so we can serialize it out to each activity validation
       // rather than catching it at a higher level in the workerLoop itself
     } catch (NoSuchMissionModelException e) {
@@ -148,8 +156,14 @@ public final class LocalMissionModelService implements MissionModelService {
       log.error(e.toString());
       return List.of();
     }
-    final var registry = DirectiveTypeRegistry.extract(modelType);
+    try (modelType) {
+      return validateActivityArgumentsBulk(DirectiveTypeRegistry.extract(modelType.modelType()), activities);
+    }
+  }
 
+  private static List<BulkArgumentValidationResponse> validateActivityArgumentsBulk(
+      final DirectiveTypeRegistry<?> registry,
+      final List<ActivityDirectiveForValidation> activities) {
     // map all directives to validation response
     return activities.stream().map((directive) -> {
       final var typeName = directive.activity().getTypeName();
@@ -175,6 +189,14 @@ public final class LocalMissionModelService implements MissionModelService {
     return missionModelRepository.getUnvalidatedDirectives();
   }
 
+  public Map<MissionModelId, List<ActivityDirectiveForValidation>> getUnvalidatedDirectives(final Set<MissionModelId> missionModelIds) {
+    return missionModelRepository.getUnvalidatedDirectives(missionModelIds);
+  }
+
+  public MissionModelRepository.PendingValidations listenForPendingValidations() {
+    return missionModelRepository.listenForPendingValidations();
+  }
+
   public void updateDirectiveValidations(List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> updates) {
     missionModelRepository.updateDirectiveValidations(updates);
   }
@@ -192,28 +214,29 @@ public final class LocalMissionModelService implements MissionModelService {
                                  final Map<ActivityDirectiveId, SerializedActivity> activities)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
-    final var factory = this.loadMissionModelType(missionModelId);
-    final var registry = DirectiveTypeRegistry.extract(factory);
+    try (final var factory = this.leaseMissionModelType(missionModelId)) {
+      final var registry = DirectiveTypeRegistry.extract(factory.modelType());
 
-    final var failures = new HashMap<ActivityDirectiveId, ActivityInstantiationFailure>();
+      final var failures = new HashMap<ActivityDirectiveId, ActivityInstantiationFailure>();
 
-    for (final var entry : activities.entrySet()) {
-      final var id = entry.getKey();
-      final var act = entry.getValue();
-      try {
-        // The return value is intentionally ignored - we are only interested in failures
-        final var specType = Optional
-        .ofNullable(registry.directiveTypes().get(act.getTypeName()))
-        .orElseThrow(() -> new MissionModelService.NoSuchActivityTypeException(act.getTypeName()));
-        specType.getInputType().getEffectiveArguments(act.getArguments());
-      } catch (final NoSuchActivityTypeException ex) {
-        failures.put(id, new ActivityInstantiationFailure.NoSuchActivityType(ex));
-      } catch (final InstantiationException ex) {
-        failures.put(id, new ActivityInstantiationFailure.InstantiationFailure(ex));
+      for (final var entry : activities.entrySet()) {
+        final var id = entry.getKey();
+        final var act = entry.getValue();
+        try {
+          // The return value is intentionally ignored - we are only interested in failures
+          final var specType = Optional
+          .ofNullable(registry.directiveTypes().get(act.getTypeName()))
+          .orElseThrow(() -> new MissionModelService.NoSuchActivityTypeException(act.getTypeName()));
+          specType.getInputType().getEffectiveArguments(act.getArguments());
+        } catch (final NoSuchActivityTypeException ex) {
+          failures.put(id, new ActivityInstantiationFailure.NoSuchActivityType(ex));
+        } catch (final InstantiationException ex) {
+          failures.put(id, new ActivityInstantiationFailure.InstantiationFailure(ex));
+        }
       }
-    }
 
-    return failures;
+      return failures;
+    }
   }
 
   @Override
@@ -221,8 +244,8 @@ public final class LocalMissionModelService implements MissionModelService {
       final MissionModelId missionModelId,
       final List<SerializedActivity> serializedActivities)
   throws NoSuchMissionModelException, MissionModelLoadException {
-      final var modelType = this.loadMissionModelType(missionModelId);
-      final var registry = DirectiveTypeRegistry.extract(modelType);
+    try (final var modelType = this.leaseMissionModelType(missionModelId)) {
+      final var registry = DirectiveTypeRegistry.extract(modelType.modelType());
       final var response = new ArrayList<BulkEffectiveArgumentResponse>();
 
       for (final var activity : serializedActivities) {
@@ -246,6 +269,7 @@ public final class LocalMissionModelService implements MissionModelService {
       }
 
       return response;
+    }
   }
 
   @Override
@@ -254,16 +278,20 @@ public final class LocalMissionModelService implements MissionModelService {
          MissionModelLoadException,
          InstantiationException
   {
-    return this.loadMissionModelType(missionModelId)
-        .getConfigurationType()
-        .validateArguments(arguments);
+    try (final var modelType = this.leaseMissionModelType(missionModelId)) {
+      return modelType.modelType()
+          .getConfigurationType()
+          .validateArguments(arguments);
+    }
   }
 
   @Override
   public List<Parameter> getModelParameters(final MissionModelId missionModelId)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
-    return this.loadMissionModelType(missionModelId).getConfigurationType().getParameters();
+    try (final var modelType = this.leaseMissionModelType(missionModelId)) {
+      return modelType.modelType().getConfigurationType().getParameters();
+    }
   }
 
   @Override
@@ -272,9 +300,11 @@ public final class LocalMissionModelService implements MissionModelService {
          MissionModelLoadException,
          InstantiationException
   {
-    return this.loadMissionModelType(missionModelId)
-        .getConfigurationType()
-        .getEffectiveArguments(arguments);
+    try (final var modelType = this.leaseMissionModelType(missionModelId)) {
+      return modelType.modelType()
+          .getConfigurationType()
+          .getEffectiveArguments(arguments);
+    }
   }
 
   /**
@@ -318,6 +348,7 @@ public final class LocalMissionModelService implements MissionModelService {
   public void refreshModelParameters(final MissionModelId missionModelId)
   throws NoSuchMissionModelException
   {
+    this.modelTypes.invalidate(missionModelId);
     try {
       this.missionModelRepository.updateModelParameters(missionModelId, getModelParameters(missionModelId));
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
@@ -329,8 +360,9 @@ public final class LocalMissionModelService implements MissionModelService {
   public void refreshActivityTypes(final MissionModelId missionModelId)
   throws NoSuchMissionModelException
   {
-    try {
-      final var modelType = this.loadMissionModelType(missionModelId);
+    this.modelTypes.invalidate(missionModelId);
+    try (final var lease = this.leaseMissionModelType(missionModelId)) {
+      final var modelType = lease.modelType();
       final var registry = DirectiveTypeRegistry.extract(modelType);
       final var activityTypes = new HashMap<String, ActivityType>();
       registry.directiveTypes().forEach((name, directiveType) -> {
@@ -362,12 +394,22 @@ public final class LocalMissionModelService implements MissionModelService {
     }
   }
 
-  private ModelType<?, ?> loadMissionModelType(final MissionModelId missionModelId)
+  /**
+   * Lease the {@link ModelType} of a mission model, loading it from its JAR only if no current revision of it is cached.
+   *
+   * The returned lease must be closed once the model type is no longer in use, so that its class loader can be
+   * released if the model type is evicted.
+   */
+  private MissionModelTypeCache.Lease leaseMissionModelType(final MissionModelId missionModelId)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
     try {
       final var missionModelJar = this.missionModelRepository.getMissionModel(missionModelId);
-      return MissionModelLoader.loadModelType(missionModelDataPath.resolve(missionModelJar.path), missionModelJar.name, missionModelJar.version);
+      final var jarPath = missionModelDataPath.resolve(missionModelJar.path);
+      final var key = new MissionModelTypeCache.Key(missionModelId, jarPath, jarRevision(jarPath));
+      return this.modelTypes.acquire(
+          key,
+          () -> MissionModelLoader.openModelType(jarPath, missionModelJar.name, missionModelJar.version));
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
       throw new NoSuchMissionModelException(missionModelId, ex);
     } catch (final MissionModelLoader.MissionModelLoadException ex) {
@@ -375,6 +417,15 @@ public final class LocalMissionModelService implements MissionModelService {
     }
   }
 
+  private static long jarRevision(final Path jarPath) {
+    try {
+      return Files.getLastModifiedTime(jarPath).toMillis();
+    } catch (final IOException ex) {
+      // Let the loader report the unreadable JAR.
+      return -1;
+    }
+  }
+
   /**
    * Load a {@link MissionModel} from the mission model repository using the mission model's default mission model configuration
    *
@@ -0,0 +1,162 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader.LoadedModelType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A bounded, least-recently-used cache of loaded mission model types.
+ *
+ * Each cached model type holds open the class loader over its JAR. Model types are handed out
+ * through {@link Lease}s, and the class loader of an evicted or invalidated model type is closed
+ * once its last lease is released.
+ */
+/*package-local*/ final class MissionModelTypeCache {
+  private static final Logger log = LoggerFactory.getLogger(MissionModelTypeCache.class);
+
+  /**
+   * Identifies one revision of a mission model JAR.
+   *
+   * @param revision The last-modified time of the JAR, so that a JAR replaced in place is loaded afresh.
+   */
+  public record Key(MissionModelId missionModelId, Path jarPath, long revision) {}
+
+  @FunctionalInterface
+  public interface Loader {
+    LoadedModelType load() throws MissionModelLoader.MissionModelLoadException;
+  }
+
+  private final int capacity;
+  // Guarded by `this`, as are the `leases` and `evicted` fields of each entry.
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  public MissionModelTypeCache(final int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException("capacity must be positive, got " + capacity);
+    this.capacity = capacity;
+  }
+
+  /**
+   * Lease the model type identified by `key`, loading it with `loader` if it is not already cached.
+   *
+   * The lease must be closed once the caller is done with the model type.
+   */
+  public Lease acquire(final Key key, final Loader loader) throws MissionModelLoader.MissionModelLoadException {
+    final Entry entry;
+    final var evicted = new ArrayList<Entry>();
+    synchronized (this) {
+      final var existing = this.entries.get(key);
+      if (existing != null) {
+        entry = existing;
+      } else {
+        entry = new Entry();
+        this.entries.put(key, entry);
+
+        final var iterator = this.entries.values().iterator();
+        while (this.entries.size() > this.capacity) {
+          final var eldest = iterator.next();
+          iterator.remove();
+          eldest.evicted = true;
+          if (eldest.leases == 0) evicted.add(eldest);
+        }
+      }
+      entry.leases += 1;
+    }
+    closeAll(evicted);
+
+    // Load outside of the cache's lock, so that a slow load does not hold up leases of other models.
+    try {
+      return new Lease(entry, entry.load(loader));
+    } catch (final MissionModelLoader.MissionModelLoadException | RuntimeException ex) {
+      synchronized (this) {
+        this.entries.remove(key, entry);
+        entry.evicted = true;
+      }
+      release(entry);
+      throw ex;
+    }
+  }
+
+  /** Drop every cached revision of a mission model, closing each class loader once it is no longer leased. */
+  public void invalidate(final MissionModelId missionModelId) {
+    final var evicted = new ArrayList<Entry>();
+    synchronized (this) {
+      final var iterator = this.entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        final var entry = iterator.next();
+        if (!entry.getKey().missionModelId().equals(missionModelId)) continue;
+
+        iterator.remove();
+        entry.getValue().evicted = true;
+        if (entry.getValue().leases == 0) evicted.add(entry.getValue());
+      }
+    }
+    closeAll(evicted);
+  }
+
+  private void release(final Entry entry) {
+    synchronized (this) {
+      entry.leases -= 1;
+      if (!entry.evicted || entry.leases > 0) return;
+    }
+    entry.close();
+  }
+
+  private static void closeAll(final List<Entry> entries) {
+    for (final var entry : entries) entry.close();
+  }
+
+  /** A hold on a cached model type, keeping its class loader open until closed. */
+  public final class Lease implements AutoCloseable {
+    private final Entry entry;
+    private final ModelType<?, ?> modelType;
+    private boolean closed = false;
+
+    private Lease(final Entry entry, final ModelType<?, ?> modelType) {
+      this.entry = entry;
+      this.modelType = modelType;
+    }
+
+    public ModelType<?, ?> modelType() {
+      return this.modelType;
+    }
+
+    @Override
+    public void close() {
+      if (this.closed) return;
+      this.closed = true;
+      release(this.entry);
+    }
+  }
+
+  private static final class Entry {
+    private int leases = 0;
+    private boolean evicted = false;
+
+    // Guarded by the entry itself, so that concurrent leases of the same model share one load.
+    private LoadedModelType loaded = null;
+
+    synchronized ModelType<?, ?> load(final Loader loader) throws MissionModelLoader.MissionModelLoadException {
+      if (this.loaded == null) this.loaded = loader.load();
+      return this.loaded.modelType();
+    }
+
+    synchronized void close() {
+      if (this.loaded == null) return;
+      try {
+        this.loaded.close();
+      } catch (final IOException ex) {
+        log.warn("Failed to close the class loader of an evicted mission model", ex);
+      }
+      this.loaded = null;
+    }
+  }
+}
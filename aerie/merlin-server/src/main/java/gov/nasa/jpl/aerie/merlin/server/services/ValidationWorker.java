@@ -2,59 +2,91 @@ package gov.nasa.jpl.aerie.merlin.server.services;
 
 import gov.nasa.jpl.aerie.merlin.server.models.ActivityDirectiveForValidation;
 import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService.BulkArgumentValidationResponse;
+import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
+import java.util.Map;
 import java.util.stream.IntStream;
 import java.util.List;
 
+/**
+ * Validates activity directive arguments as Postgres notifies us that they are pending.
+ *
+ * @param pollingPeriod How long, in milliseconds, to wait on the database before checking for interruption,
+ *   and to back off after an error before listening again.
+ */
 public record ValidationWorker(LocalMissionModelService missionModelService, int pollingPeriod) {
 
   private static final Logger logger = LoggerFactory.getLogger(ValidationWorker.class);
 
+  /** How long to keep collecting notifications once one arrives, so that bursts of edits are validated together. */
+  private static final int BATCH_WINDOW_MILLIS = 10;
+
   public void workerLoop() {
     logger.info("validation worker starting...");
     while (!Thread.interrupted()) {
-      try {
-        Thread.sleep(pollingPeriod);
-
-        // get unvalidated directives, batched by mission model id
-        final var validationRequests = missionModelService.getUnvalidatedDirectives();
-        if (!validationRequests.isEmpty()) {
-          logger.debug(
-              "queried {} directives that need validations, across {} models",
-              validationRequests.size(),
-              validationRequests.keySet().size());
-        }
-
-        // spin up each mission model once and process all corresponding directive validations
-        for (final var entry : validationRequests.entrySet()) {
-          final var beginTime = System.nanoTime();
-
-          final var modelId = entry.getKey();
-          logger.debug("processing batch for mission model: {}", modelId.toString());
+      try (final var pendingValidations = missionModelService.listenForPendingValidations()) {
+        // anything that became pending while we weren't listening won't be notified, so catch up first
+        processBatches(missionModelService.getUnvalidatedDirectives());
 
-          final var unvalidatedDirectives = entry.getValue();
-          final var responses = missionModelService.validateActivityArgumentsBulk(modelId, unvalidatedDirectives);
+        while (!Thread.interrupted()) {
+          final var modelIds = new HashSet<>(pendingValidations.await(pollingPeriod));
+          if (modelIds.isEmpty()) continue;
 
-          // zip together directives and validations, since DB action needs to insert validations for a given directive
-          final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> zippedList = zip(unvalidatedDirectives, responses);
+          final var deadline = System.nanoTime() + BATCH_WINDOW_MILLIS * 1_000_000L;
+          for (var remaining = BATCH_WINDOW_MILLIS; remaining > 0; ) {
+            modelIds.addAll(pendingValidations.await(remaining));
+            remaining = (int) ((deadline - System.nanoTime()) / 1_000_000L);
+          }
 
-          // write validations out to DB
-          missionModelService.updateDirectiveValidations(zippedList);
-
-          final var endTime = System.nanoTime();
-          final var duration = (endTime - beginTime) / 1_000_000.0;
-          logger.debug("processed model batch of size {} in {} ms", unvalidatedDirectives.size(), duration);
+          logger.debug("notified of pending validations across {} models", modelIds.size());
+          processBatches(missionModelService.getUnvalidatedDirectives(modelIds));
         }
-      } catch (InterruptedException ex) {
-        // we were interrupted, so exit gracefully
         return;
       } catch (Throwable t) {
         // catch all to keep validation thread from dying, which would require a merlin-server restart
         logger.error("Recovering from unexpected error encountered in validation thread: ", t);
       }
+
+      try {
+        Thread.sleep(pollingPeriod);
+      } catch (InterruptedException ex) {
+        // we were interrupted, so exit gracefully
+        return;
+      }
+    }
+  }
+
+  private void processBatches(final Map<MissionModelId, List<ActivityDirectiveForValidation>> validationRequests) {
+    if (!validationRequests.isEmpty()) {
+      logger.debug(
+          "queried {} directives that need validations, across {} models",
+          validationRequests.values().stream().mapToInt(List::size).sum(),
+          validationRequests.keySet().size());
+    }
+
+    // spin up each mission model once and process all corresponding directive validations
+    for (final var entry : validationRequests.entrySet()) {
+      final var beginTime = System.nanoTime();
+
+      final var modelId = entry.getKey();
+      logger.debug("processing batch for mission model: {}", modelId.toString());
+
+      final var unvalidatedDirectives = entry.getValue();
+      final var responses = missionModelService.validateActivityArgumentsBulk(modelId, unvalidatedDirectives);
+
+      // zip together directives and validations, since DB action needs to insert validations for a given directive
+      final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> zippedList = zip(unvalidatedDirectives, responses);
+
+      // write validations out to DB
+      missionModelService.updateDirectiveValidations(zippedList);
+
+      final var endTime = System.nanoTime();
+      final var duration = (endTime - beginTime) / 1_000_000.0;
+      logger.debug("processed model batch of size {} in {} ms", unvalidatedDirectives.size(), duration);
     }
   }
 
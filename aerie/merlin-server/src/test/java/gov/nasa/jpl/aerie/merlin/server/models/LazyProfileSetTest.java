@@ -0,0 +1,133 @@
+package gov.nasa.jpl.aerie.merlin.server.models;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LazyProfileSetTest {
+  private static final ProfileSet ALL_PROFILES = ProfileSet.of(
+      Map.of(
+          "a", ResourceProfile.of(ValueSchema.REAL, List.of(new ProfileSegment<>(Duration.SECOND, RealDynamics.constant(1)))),
+          "b", ResourceProfile.of(ValueSchema.REAL, List.of(new ProfileSegment<>(Duration.SECOND, RealDynamics.linear(0, 1))))),
+      Map.of(
+          "c", ResourceProfile.of(ValueSchema.BOOLEAN, List.of(new ProfileSegment<>(Duration.SECOND, SerializedValue.of(true))))));
+
+  private final List<List<String>> requestedNames = new ArrayList<>();
+  private int fullLoads = 0;
+
+  private final LazyProfileSet profiles = new LazyProfileSet(
+      names -> {
+        this.requestedNames.add(names);
+        return new ProfileSet(
+            filter(ALL_PROFILES.realProfiles(), names),
+            filter(ALL_PROFILES.discreteProfiles(), names));
+      },
+      () -> {
+        this.fullLoads += 1;
+        return ALL_PROFILES;
+      });
+
+  @Test
+  public void loadsEachProfileOnFirstAccessOnly() {
+    final var realProfiles = this.profiles.realProfiles();
+
+    assertEquals(ProfileSet.unwrapOptional(ALL_PROFILES.realProfiles()).get("a"), realProfiles.get("a"));
+    assertTrue(realProfiles.containsKey("a"));
+    assertNull(realProfiles.get("c"));
+    assertTrue(this.profiles.discreteProfiles().containsKey("c"));
+
+    assertEquals(List.of(List.of("a"), List.of("c")), this.requestedNames);
+    assertEquals(0, this.fullLoads);
+  }
+
+  @Test
+  public void remembersMissingProfiles() {
+    assertFalse(this.profiles.realProfiles().containsKey("missing"));
+    assertFalse(this.profiles.discreteProfiles().containsKey("missing"));
+
+    assertEquals(List.of(List.of("missing")), this.requestedNames);
+  }
+
+  @Test
+  public void prefetchesOnlyProfilesNotYetLoaded() {
+    this.profiles.prefetch(List.of("a"));
+    this.profiles.prefetch(Set.of("a", "b", "c"));
+    this.profiles.linearProfiles().get("b");
+
+    assertEquals(2, this.requestedNames.size());
+    assertEquals(Set.of("b", "c"), Set.copyOf(this.requestedNames.get(1)));
+  }
+
+  @Test
+  public void loadsEverythingOnceWhenIterated() {
+    assertEquals(Set.of("a", "b"), this.profiles.linearProfiles().keySet());
+    assertEquals(1, this.profiles.discreteConstraintProfiles().size());
+    assertTrue(this.profiles.realProfiles().containsKey("b"));
+
+    assertEquals(1, this.fullLoads);
+    assertEquals(List.of(), this.requestedNames);
+  }
+
+  @Test
+  public void loadsDifferentProfilesConcurrently() throws Exception {
+    final var loadingA = new CountDownLatch(1);
+    final var releaseA = new CountDownLatch(1);
+    final var profiles = new LazyProfileSet(
+        names -> {
+          if (names.contains("a")) {
+            loadingA.countDown();
+            try {
+              releaseA.await();
+            } catch (final InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+          return new ProfileSet(
+              filter(ALL_PROFILES.realProfiles(), names),
+              filter(ALL_PROFILES.discreteProfiles(), names));
+        },
+        () -> ALL_PROFILES);
+
+    final var executor = Executors.newFixedThreadPool(2);
+    try {
+      final var a = executor.submit(() -> profiles.realProfiles().get("a"));
+      assertTrue(loadingA.await(10, TimeUnit.SECONDS));
+
+      // While "a" is still loading, another thread can load "b".
+      final var b = executor.submit(() -> profiles.realProfiles().get("b"));
+      assertEquals(ProfileSet.unwrapOptional(ALL_PROFILES.realProfiles()).get("b"), b.get(10, TimeUnit.SECONDS));
+
+      releaseA.countDown();
+      assertEquals(ProfileSet.unwrapOptional(ALL_PROFILES.realProfiles()).get("a"), a.get(10, TimeUnit.SECONDS));
+    } finally {
+      releaseA.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T> Map<String, T> filter(final Map<String, T> profiles, final List<String> names) {
+    final var result = new HashMap<String, T>();
+    for (final var name : names) {
+      if (profiles.containsKey(name)) result.put(name, profiles.get(name));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,88 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class BinaryCopyWriterTest {
+  private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+  @Test
+  void testRowEncoding() throws IOException, SQLException {
+    final var buffer = new ByteArrayOutputStream();
+    try (final var writer = new BinaryCopyWriter(buffer)) {
+      writer.startRow(7);
+      writer.writeInt(42);
+      writer.writeNull();
+      writer.writeText("é");
+      writer.writeJustifiedInterval(MICROS_PER_DAY + 5);
+      writer.writeInterval(MICROS_PER_DAY + 5);
+      writer.writeBoolean(true);
+      writer.writeJsonb(Json.createObjectBuilder().add("a", 1).build());
+      writer.finish();
+    }
+
+    final var in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+    final var signature = new byte[11];
+    in.readFully(signature);
+    assertArrayEquals(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+    assertEquals(0, in.readInt());
+    assertEquals(0, in.readInt());
+
+    assertEquals(7, in.readShort());
+
+    assertEquals(4, in.readInt());
+    assertEquals(42, in.readInt());
+
+    assertEquals(-1, in.readInt());
+
+    assertEquals(2, in.readInt());
+    assertEquals("é", new String(in.readNBytes(2), StandardCharsets.UTF_8));
+
+    assertEquals(16, in.readInt());
+    assertEquals(5, in.readLong());
+    assertEquals(1, in.readInt());
+    assertEquals(0, in.readInt());
+
+    assertEquals(16, in.readInt());
+    assertEquals(MICROS_PER_DAY + 5, in.readLong());
+    assertEquals(0, in.readInt());
+    assertEquals(0, in.readInt());
+
+    assertEquals(1, in.readInt());
+    assertEquals(true, in.readBoolean());
+
+    final var json = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+    assertEquals(1 + json.length, in.readInt());
+    assertEquals(1, in.readByte());
+    assertArrayEquals(json, in.readNBytes(json.length));
+
+    assertEquals(-1, in.readShort());
+    assertEquals(-1, in.read());
+  }
+
+  @Test
+  void testNegativeIntervalsKeepConsistentSigns() throws IOException, SQLException {
+    final var buffer = new ByteArrayOutputStream();
+    try (final var writer = new BinaryCopyWriter(buffer)) {
+      writer.writeJustifiedInterval(-(2 * MICROS_PER_DAY + 7));
+      writer.finish();
+    }
+
+    final var in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+    in.skipNBytes(19);
+    assertEquals(16, in.readInt());
+    assertEquals(-7, in.readLong());
+    assertEquals(-2, in.readInt());
+    assertEquals(0, in.readInt());
+  }
+}
@@ -0,0 +1,86 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.constraints.model.ConstraintResult;
+import gov.nasa.jpl.aerie.constraints.model.EDSLConstraintResult;
+import gov.nasa.jpl.aerie.merlin.server.http.Fallible;
+import gov.nasa.jpl.aerie.merlin.server.models.ConstraintRecord;
+import gov.nasa.jpl.aerie.merlin.server.models.ConstraintType;
+import gov.nasa.jpl.aerie.merlin.server.models.ExecutableConstraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ConstraintActionTest {
+  private static final long DELAY_MILLIS = 50;
+
+  private static ConstraintRecord constraint(final long id, final long priority) {
+    return new ConstraintRecord(priority, id, id, 0, "constraint " + id, "", new ConstraintType.JAR("constraint.jar"), Map.of());
+  }
+
+  @Test
+  public void checksConstraintsConcurrently() {
+    // Only the checker sees the services, so none are needed here.
+    final var action = new ConstraintAction(null, null, null, null, 3);
+
+    final var slowToCompile = constraint(1, 2);
+    final var uncompilable = constraint(2, 0);
+    final var slowToEvaluate = constraint(3, 1);
+    final var results = Map.<ConstraintRecord, ConstraintResult>of(
+        slowToCompile, new EDSLConstraintResult(),
+        slowToEvaluate, new EDSLConstraintResult());
+
+    // Each evaluation waits for the other to start, so they only both succeed if they run at the same time.
+    final var evaluating = new CountDownLatch(2);
+
+    final var checks = action.checkConstraints(
+        List.of(slowToCompile, uncompilable, slowToEvaluate),
+        constraint -> {
+          if (constraint == uncompilable) return Fallible.failure(List.of(new Exception("bad syntax")), "bad syntax");
+          if (constraint == slowToCompile) sleep(DELAY_MILLIS);
+          return Fallible.of(new ExecutableConstraint.JARConstraint(constraint));
+        },
+        executable -> {
+          evaluating.countDown();
+          try {
+            if (!evaluating.await(10, TimeUnit.SECONDS)) return Fallible.failure(List.of(), "evaluated alone");
+          } catch (final InterruptedException e) {
+            return Fallible.failure(List.of(e), "interrupted");
+          }
+          if (executable.record() == slowToEvaluate) sleep(DELAY_MILLIS);
+          return Fallible.of(results.get(executable.record()));
+        });
+
+    assertEquals(List.of(uncompilable, slowToEvaluate, slowToCompile), List.copyOf(checks.keySet()));
+
+    final var failed = checks.get(uncompilable);
+    assertTrue(failed.result().isFailure());
+    assertEquals("bad syntax", failed.result().getMessage());
+    assertEquals(0, failed.evaluationNanos());
+
+    for (final var constraint : List.of(slowToCompile, slowToEvaluate)) {
+      final var check = checks.get(constraint);
+      assertFalse(check.result().isFailure(), check.result().getMessage());
+      assertSame(results.get(constraint), check.result().get());
+    }
+
+    final var delayNanos = TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS);
+    assertTrue(checks.get(slowToCompile).compileNanos() >= delayNanos);
+    assertTrue(checks.get(slowToEvaluate).evaluationNanos() >= delayNanos);
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (final InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
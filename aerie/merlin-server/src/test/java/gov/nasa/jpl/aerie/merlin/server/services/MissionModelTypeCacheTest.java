@@ -0,0 +1,113 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader.LoadedModelType;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MissionModelTypeCacheTest {
+  private final List<TrackedClassLoader> loaded = new ArrayList<>();
+
+  @Test
+  public void loadsEachRevisionOnce() throws MissionModelLoader.MissionModelLoadException {
+    final var cache = new MissionModelTypeCache(2);
+
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+    try (final var lease = cache.acquire(key(1, 1), this::load)) {}
+
+    assertEquals(2, this.loaded.size());
+  }
+
+  @Test
+  public void closesLeastRecentlyUsedOnEviction() throws MissionModelLoader.MissionModelLoadException {
+    final var cache = new MissionModelTypeCache(2);
+
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+    try (final var lease = cache.acquire(key(2, 0), this::load)) {}
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+    try (final var lease = cache.acquire(key(3, 0), this::load)) {}
+
+    assertEquals(3, this.loaded.size());
+    assertFalse(this.loaded.get(0).closed);
+    assertTrue(this.loaded.get(1).closed);
+    assertFalse(this.loaded.get(2).closed);
+  }
+
+  @Test
+  public void defersClosingUntilLastLeaseIsReleased() throws MissionModelLoader.MissionModelLoadException {
+    final var cache = new MissionModelTypeCache(1);
+
+    final var lease = cache.acquire(key(1, 0), this::load);
+    try (final var other = cache.acquire(key(2, 0), this::load)) {}
+    assertFalse(this.loaded.get(0).closed);
+
+    lease.close();
+    assertTrue(this.loaded.get(0).closed);
+  }
+
+  @Test
+  public void invalidatesEveryRevisionOfAModel() throws MissionModelLoader.MissionModelLoadException {
+    final var cache = new MissionModelTypeCache(4);
+
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+    try (final var lease = cache.acquire(key(1, 1), this::load)) {}
+    try (final var lease = cache.acquire(key(2, 0), this::load)) {}
+    cache.invalidate(new MissionModelId(1));
+
+    assertTrue(this.loaded.get(0).closed);
+    assertTrue(this.loaded.get(1).closed);
+    assertFalse(this.loaded.get(2).closed);
+
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+    assertEquals(4, this.loaded.size());
+  }
+
+  @Test
+  public void doesNotCacheFailedLoads() throws MissionModelLoader.MissionModelLoadException {
+    final var cache = new MissionModelTypeCache(2);
+
+    assertThrows(IllegalStateException.class, () -> cache.acquire(key(1, 0), () -> {
+      throw new IllegalStateException();
+    }));
+    try (final var lease = cache.acquire(key(1, 0), this::load)) {}
+
+    assertEquals(1, this.loaded.size());
+  }
+
+  private static MissionModelTypeCache.Key key(final long id, final long revision) {
+    return new MissionModelTypeCache.Key(new MissionModelId(id), Path.of("model-" + id + ".jar"), revision);
+  }
+
+  private LoadedModelType load() {
+    final var classLoader = new TrackedClassLoader();
+    this.loaded.add(classLoader);
+    return new LoadedModelType(null, classLoader);
+  }
+
+  private static final class TrackedClassLoader extends URLClassLoader {
+    private boolean closed = false;
+
+    TrackedClassLoader() {
+      super(new URL[0]);
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.closed = true;
+      super.close();
+    }
+  }
+}
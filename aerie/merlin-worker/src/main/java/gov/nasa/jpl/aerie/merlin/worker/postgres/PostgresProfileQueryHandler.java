@@ -6,6 +6,7 @@ import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfiles;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.BinaryCopyWriter;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.DatabaseException;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.FailedInsertException;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.FailedUpdateException;
@@ -13,6 +14,7 @@ import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatements;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -28,16 +30,20 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.
  * Utility class to handle upload of resource profiles to the database.
  * */
 public class PostgresProfileQueryHandler implements AutoCloseable {
+  private static final int SEGMENT_FIELD_COUNT = 5;
+
   private final Connection connection;
+  private final int datasetId;
   private final HashMap<String, Integer> profileIds;
   private final HashMap<String, Duration> profileDurations;
 
+  private final String postSegmentsSql;
   private final PreparedStatement postProfileStatement;
-  private final PreparedStatement postSegmentsStatement;
   private final PreparedStatement updateDurationStatement;
 
   public PostgresProfileQueryHandler(DataSource dataSource, long datasetId) throws SQLException {
     connection = dataSource.getConnection();
+    this.datasetId = Math.toIntExact(datasetId);
     profileIds = new HashMap<>();
     profileDurations = new HashMap<>();
 
@@ -48,12 +54,14 @@ public class PostgresProfileQueryHandler implements AutoCloseable {
         values (%d, ?, ?::jsonb, ?::interval)
         on conflict (dataset_id, name) do nothing
         """.formatted(datasetId);
-    final String postSegmentsSql =
+    // Segments are streamed with the binary COPY protocol, so that start offsets are sent as microseconds
+    //   and dynamics are serialized straight into the stream instead of being parsed from strings by the server.
+    postSegmentsSql =
         //language=sql
         """
-        insert into merlin.profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
-         values (%d, ?, ?::interval, ?::jsonb, false)
-        """.formatted(datasetId);
+        copy merlin.profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
+        from stdin (format binary)
+        """;
     final String updateDurationSql =
         //language=SQL
         """
@@ -63,7 +71,6 @@ public class PostgresProfileQueryHandler implements AutoCloseable {
         """.formatted(datasetId);
 
     postProfileStatement = connection.prepareStatement(postProfilesSql, PreparedStatement.RETURN_GENERATED_KEYS);
-    postSegmentsStatement = connection.prepareStatement(postSegmentsSql, PreparedStatement.NO_GENERATED_KEYS);
     updateDurationStatement = connection.prepareStatement(updateDurationSql, PreparedStatement.NO_GENERATED_KEYS);
   }
 
@@ -86,14 +93,18 @@ public class PostgresProfileQueryHandler implements AutoCloseable {
       postProfiles();
 
       // Post Segments
-      for (final var realEntry : resourceProfiles.realProfiles().entrySet()) {
-        addProfileSegmentsToBatch(realEntry.getKey(), realEntry.getValue(), realDynamicsP);
-      }
-      for (final var discreteEntry : resourceProfiles.discreteProfiles().entrySet()) {
-        addProfileSegmentsToBatch(discreteEntry.getKey(), discreteEntry.getValue(), serializedValueP);
+      try (final var segmentWriter = BinaryCopyWriter.open(connection, postSegmentsSql)) {
+        for (final var realEntry : resourceProfiles.realProfiles().entrySet()) {
+          writeProfileSegments(segmentWriter, realEntry.getKey(), realEntry.getValue(), realDynamicsP);
+        }
+        for (final var discreteEntry : resourceProfiles.discreteProfiles().entrySet()) {
+          writeProfileSegments(segmentWriter, discreteEntry.getKey(), discreteEntry.getValue(), serializedValueP);
+        }
+        segmentWriter.finish();
+      } catch (IOException ex) {
+        throw BinaryCopyWriter.unwrap(ex);
       }
 
-      postProfileSegments();
       updateProfileDurations();
     } catch (SQLException ex) {
       throw new DatabaseException("Exception occurred while posting profiles.", ex);
@@ -138,13 +149,6 @@ public class PostgresProfileQueryHandler implements AutoCloseable {
     }
   }
 
-  private void postProfileSegments() throws SQLException {
-    final var results = this.postSegmentsStatement.executeBatch();
-    for (final var result : results) {
-      if (result == Statement.EXECUTE_FAILED) throw new FailedInsertException("merlin.profile_segment");
-    }
-  }
-
   private void updateProfileDurations() throws SQLException {
     final var results = this.updateDurationStatement.executeBatch();
     for (final var result : results) {
@@ -152,16 +156,22 @@ public class PostgresProfileQueryHandler implements AutoCloseable {
     }
   }
 
-  private <T> void addProfileSegmentsToBatch(final String name, ResourceProfile<T> profile, JsonParser<T> dynamicsP) throws SQLException {
+  private <T> void writeProfileSegments(
+      final BinaryCopyWriter writer,
+      final String name,
+      final ResourceProfile<T> profile,
+      final JsonParser<T> dynamicsP
+  ) throws SQLException, IOException {
     final var id = profileIds.get(name);
-    this.postSegmentsStatement.setLong(1, id);
 
     var newDuration = profileDurations.get(name);
     for (final var segment : profile.segments()) {
-      PreparedStatements.setDuration(this.postSegmentsStatement, 2, newDuration);
-      final var dynamics = dynamicsP.unparse(segment.dynamics()).toString();
-      this.postSegmentsStatement.setString(3, dynamics);
-      this.postSegmentsStatement.addBatch();
+      writer.startRow(SEGMENT_FIELD_COUNT);
+      writer.writeInt(this.datasetId);
+      writer.writeInt(id);
+      writer.writeInterval(newDuration.in(Duration.MICROSECONDS));
+      writer.writeJsonb(dynamicsP.unparse(segment.dynamics()));
+      writer.writeBoolean(false);
 
       newDuration = newDuration.plus(segment.extent());
     }
@@ -176,7 +186,6 @@ public class PostgresProfileQueryHandler implements AutoCloseable {
   @Override
   public void close() throws SQLException {
     this.postProfileStatement.close();
-    this.postSegmentsStatement.close();
     this.updateDurationStatement.close();
     this.connection.close();
   }
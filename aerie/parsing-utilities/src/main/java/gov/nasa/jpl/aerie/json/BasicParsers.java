@@ -8,6 +8,8 @@ import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonString;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser.Event;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -214,10 +216,26 @@ public abstract class BasicParsers {
         return parser.parse(json).mapSuccess(Optional::of);
       }
 
+      @Override
+      public JsonParseResult<Optional<T>> parse(final javax.json.stream.JsonParser stream, final Event event) {
+        if (event == Event.VALUE_NULL) return JsonParseResult.success(Optional.empty());
+
+        return parser.parse(stream, event).mapSuccess(Optional::of);
+      }
+
       @Override
       public JsonValue unparse(final Optional<T> value) {
         return value.map(parser::unparse).orElse(JsonValue.NULL);
       }
+
+      @Override
+      public void unparse(final Optional<T> value, final JsonGenerator generator) {
+        if (value.isPresent()) {
+          parser.unparse(value.get(), generator);
+        } else {
+          generator.writeNull();
+        }
+      }
     };
   }
 
@@ -415,12 +433,37 @@ public abstract class BasicParsers {
         return JsonParseResult.success(list);
       }
 
+      @Override
+      public JsonParseResult<List<T>> parse(final javax.json.stream.JsonParser stream, final Event event) {
+        if (event != Event.START_ARRAY) return JsonParseResult.failure("expected list");
+
+        final var list = new ArrayList<T>();
+        for (var next = stream.next(); next != Event.END_ARRAY; next = stream.next()) {
+          final var result = elementParser.parse(stream, next).prependBreadcrumb(Breadcrumb.ofInteger(list.size()));
+
+          if (result instanceof JsonParseResult.Failure<?> f) {
+            return f.cast();
+          }
+
+          list.add(result.getSuccessOrThrow());
+        }
+
+        return JsonParseResult.success(list);
+      }
+
       @Override
       public JsonValue unparse(final List<T> values) {
         final var builder = Json.createArrayBuilder();
         for (final var value : values) builder.add(elementParser.unparse(value));
         return builder.build();
       }
+
+      @Override
+      public void unparse(final List<T> values, final JsonGenerator generator) {
+        generator.writeStartArray();
+        for (final var value : values) elementParser.unparse(value, generator);
+        generator.writeEnd();
+      }
     };
   }
 
@@ -453,12 +496,42 @@ public abstract class BasicParsers {
         return JsonParseResult.success(map);
       }
 
+      @Override
+      public JsonParseResult<Map<String, S>> parse(final javax.json.stream.JsonParser stream, final Event event) {
+        if (event != Event.START_OBJECT) return JsonParseResult.failure("expected object");
+
+        final var map = new HashMap<String, S>();
+        for (var next = stream.next(); next != Event.END_OBJECT; next = stream.next()) {
+          // Every member of an object begins with its key.
+          final var key = stream.getString();
+          final var result = fieldParser.parse(stream, stream.next()).prependBreadcrumb(Breadcrumb.ofString(key));
+
+          if (result instanceof JsonParseResult.Failure<?> f) {
+            return f.cast();
+          }
+
+          map.put(key, result.getSuccessOrThrow());
+        }
+
+        return JsonParseResult.success(map);
+      }
+
       @Override
       public JsonValue unparse(final Map<String, S> values) {
         final var builder = Json.createObjectBuilder();
         for (final var entry : values.entrySet()) builder.add(entry.getKey(), fieldParser.unparse(entry.getValue()));
         return builder.build();
       }
+
+      @Override
+      public void unparse(final Map<String, S> values, final JsonGenerator generator) {
+        generator.writeStartObject();
+        for (final var entry : values.entrySet()) {
+          generator.writeKey(entry.getKey());
+          fieldParser.unparse(entry.getValue(), generator);
+        }
+        generator.writeEnd();
+      }
     };
   }
 
@@ -476,10 +549,20 @@ public abstract class BasicParsers {
         return this.target.parse(json);
       }
 
+      @Override
+      public JsonParseResult<S> parse(final javax.json.stream.JsonParser stream, final Event event) {
+        return this.target.parse(stream, event);
+      }
+
       @Override
       public JsonValue unparse(final S value) {
         return this.target.unparse(value);
       }
+
+      @Override
+      public void unparse(final S value, final JsonGenerator generator) {
+        this.target.unparse(value, generator);
+      }
     };
   }
 
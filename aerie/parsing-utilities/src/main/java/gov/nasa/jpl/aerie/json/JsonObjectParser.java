@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.json;
 
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -26,10 +27,20 @@ public interface JsonObjectParser<T> extends JsonParser<T> {
         return self.parse(json).mapSuccess(transform::from);
       }
 
+      @Override
+      public JsonParseResult<S> parse(final javax.json.stream.JsonParser stream, final javax.json.stream.JsonParser.Event event) {
+        return self.parse(stream, event).mapSuccess(transform::from);
+      }
+
       @Override
       public JsonObject unparse(final S value) {
         return self.unparse(transform.to(value));
       }
+
+      @Override
+      public void unparse(final S value, final JsonGenerator generator) {
+        self.unparse(transform.to(value), generator);
+      }
     };
   }
 
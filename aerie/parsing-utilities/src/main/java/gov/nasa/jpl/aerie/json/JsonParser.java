@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.json;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -77,6 +78,61 @@ public interface JsonParser<T> {
    */
   JsonValue unparse(T value);
 
+  /**
+   * Attempts to parse the next JSON document from a stream of parse events into the domain type {@code T}.
+   *
+   * <p> This method accepts and produces exactly what {@link #parse(JsonValue)} does on the same document,
+   * but parsers built from the streaming-capable combinators consume the document event by event
+   * without first materializing it as a {@link JsonValue}. When a document has more than one problem,
+   * the failure reported may differ from the one {@link #parse(JsonValue)} would report. </p>
+   *
+   * <p> On success, the stream is left positioned at the last event of the document.
+   * On failure, the position of the stream is unspecified. </p>
+   *
+   * @param stream
+   *   a stream of JSON parse events, positioned just before the document to parse
+   * @return
+   *   a wrapped domain value if parsing succeeds, or failure information otherwise
+   */
+  default JsonParseResult<T> parse(final javax.json.stream.JsonParser stream) {
+    return this.parse(stream, stream.next());
+  }
+
+  /**
+   * Attempts to parse a JSON document whose first event has just been read from a stream of parse events.
+   *
+   * <p> This is the method streaming-capable parsers override, and is primarily meant for use from other parsers.
+   * Parsers that cannot work from a stream of events read the document into a {@link JsonValue}
+   * and defer to {@link #parse(JsonValue)}, which is what this default implementation does. </p>
+   *
+   * @param stream
+   *   a stream of JSON parse events, positioned at the first event of the document to parse
+   * @param event
+   *   the event at which the stream is positioned
+   * @return
+   *   a wrapped domain value if parsing succeeds, or failure information otherwise
+   * @see #parse(javax.json.stream.JsonParser)
+   */
+  default JsonParseResult<T> parse(final javax.json.stream.JsonParser stream, final javax.json.stream.JsonParser.Event event) {
+    return this.parse(stream.getValue());
+  }
+
+  /**
+   * Writes a JSON document representing the given value to a stream of generator events.
+   *
+   * <p> This method writes exactly the document {@link #unparse(T)} returns, but parsers built from the
+   * streaming-capable combinators write it piece by piece without first materializing it as a {@link JsonValue}.
+   * If the generator is in the middle of an object, the caller must have written the document's key already. </p>
+   *
+   * @param value
+   *   a domain value to encode in JSON
+   * @param generator
+   *   the generator to write the JSON document to
+   */
+  default void unparse(final T value, final JsonGenerator generator) {
+    generator.write(this.unparse(value));
+  }
+
   /**
    * Produces a JSON Schema document describing the format of JSON documents produced by {@link #unparse(T)}.
    *
@@ -135,10 +191,20 @@ public interface JsonParser<T> {
         return self.parse(json).mapSuccess(transform::from);
       }
 
+      @Override
+      public JsonParseResult<S> parse(final javax.json.stream.JsonParser stream, final javax.json.stream.JsonParser.Event event) {
+        return self.parse(stream, event).mapSuccess(transform::from);
+      }
+
       @Override
       public JsonValue unparse(final S value) {
         return self.unparse(transform.to(value));
       }
+
+      @Override
+      public void unparse(final S value, final JsonGenerator generator) {
+        self.unparse(transform.to(value), generator);
+      }
     };
   }
 
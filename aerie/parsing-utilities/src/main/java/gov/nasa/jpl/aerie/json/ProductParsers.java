@@ -6,6 +6,8 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser.Event;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
@@ -132,6 +134,68 @@ public abstract class ProductParsers {
       });
     }
 
+    @Override
+    public JsonParseResult<T> parse(final javax.json.stream.JsonParser stream, final Event event) {
+      if (event != Event.START_OBJECT) return JsonParseResult.failure("expected object");
+
+      // The members of the object may come in any order, so hold each field's result until all have been seen.
+      final var results = new JsonParseResult<?>[this.fields.size()];
+      for (var next = stream.next(); next != Event.END_OBJECT; next = stream.next()) {
+        // Every member of an object begins with its key.
+        final var name = stream.getString();
+        final var index = getFieldIndex(name);
+
+        if (index < 0) {
+          if (!this.acceptUnspecified) {
+            return JsonParseResult
+                .<T>failure("Unexpected field present")
+                .prependBreadcrumb(
+                    Breadcrumb.ofString(name)
+                );
+          }
+
+          skipValue(stream, stream.next());
+          continue;
+        }
+
+        final var field = this.fields.get(index);
+        final var result = field.valueParser.parse(stream, stream.next());
+        if (result instanceof JsonParseResult.Failure<?> f) {
+          return f.<T>cast().prependBreadcrumb(Breadcrumb.ofString(name));
+        }
+
+        results[index] = (field.isOptional) ? result.mapSuccess(Optional::of) : result;
+      }
+
+      // Combine the fields in order, exactly as when parsing from a tree.
+      var accumulator = fieldResult(this.fields.get(0), results[0]);
+      for (var i = 1; i < this.fields.size(); i++) {
+        accumulator = accumulator.parWith(fieldResult(this.fields.get(i), results[i])).mapSuccess(x -> x);
+      }
+
+      return accumulator.mapSuccess(result -> {
+        // SAFETY: established by loop invariant.
+        @SuppressWarnings("unchecked")
+        final var tmp = (T) result;
+        return tmp;
+      });
+    }
+
+    private static JsonParseResult<?> fieldResult(final FieldSpec<?> field, final JsonParseResult<?> result) {
+      if (result != null) return result;
+
+      if (field.isOptional) return JsonParseResult.success(Optional.empty());
+      return JsonParseResult.failure("required field not present").prependBreadcrumb(Breadcrumb.ofString(field.name));
+    }
+
+    private static void skipValue(final javax.json.stream.JsonParser stream, final Event event) {
+      switch (event) {
+        case START_OBJECT -> stream.skipObject();
+        case START_ARRAY -> stream.skipArray();
+        default -> {}
+      }
+    }
+
     @Override
     public JsonObject unparse(final T value) {
       final var builder = Json.createObjectBuilder();
@@ -141,6 +205,29 @@ public abstract class ProductParsers {
       return builder.build();
     }
 
+    @Override
+    public void unparse(final T value, final JsonGenerator generator) {
+      generator.writeStartObject();
+      unparse(generator, value, fields.size());
+      generator.writeEnd();
+    }
+
+    private void unparse(final JsonGenerator generator, final Object value, final int i) {
+      if (i <= 0) return; // This shouldn't happen, but doing nothing is a safe behavior.
+
+      final Object element;
+      if (i == 1) { // type(value) = Ti
+        element = value;
+      } else { // type(value) = Pair<..., Ti>
+        final var pair = (Pair<?, ?>) value;
+
+        element = pair.getRight();
+        unparse(generator, pair.getLeft(), i - 1);
+      }
+
+      unparseField(generator, this.fields.get(i - 1), element);
+    }
+
     private JsonObjectBuilder unparse(final JsonObjectBuilder builder, Object value, int i) {
       if (i <= 0) return builder; // This shouldn't happen, but doing nothing is a safe behavior.
 
@@ -183,6 +270,13 @@ public abstract class ProductParsers {
           .build();
     }
 
+    private int getFieldIndex(final String name) {
+      for (var i = 0; i < this.fields.size(); i++) {
+        if (this.fields.get(i).name.equals(name)) return i;
+      }
+      return -1;
+    }
+
     private Optional<FieldSpec<?>> getFieldSpec(final String name) {
       for (final var field : this.fields) {
         if (field.name.equals(name)) return Optional.of(field);
@@ -228,6 +322,28 @@ public abstract class ProductParsers {
       }
     }
 
+    // PRECONDITION: `value` is of type `Ti` or `Optional<Ti>` (depending on `field.isOptional`).
+    private static <Ti>
+    void unparseField(final JsonGenerator generator, final FieldSpec<Ti> field, final Object value) {
+      if (field.isOptional) { // type(value) = Optional<Ti>
+        // SAFETY: By precondition.
+        @SuppressWarnings("unchecked")
+        final var result = (Optional<Ti>) value;
+
+        if (result.isPresent()) {
+          generator.writeKey(field.name);
+          field.valueParser.unparse(result.get(), generator);
+        }
+      } else { // type(value) = Ti
+        // SAFETY: By precondition.
+        @SuppressWarnings("unchecked")
+        final var result = (Ti) value;
+
+        generator.writeKey(field.name);
+        field.valueParser.unparse(result, generator);
+      }
+    }
+
     public <S>
     VariadicProductParser<Pair<T, S>> field(final String key, final JsonParser<S> valueParser) {
       throwIfKeyExists(key);
@@ -0,0 +1,122 @@
+package gov.nasa.jpl.aerie.json;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.json.BasicParsers.chooseP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.doubleP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.listP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.longP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.mapP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.nullableP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.productP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.recursiveP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.stringP;
+import static gov.nasa.jpl.aerie.json.SumParsers.sumP;
+import static gov.nasa.jpl.aerie.json.SumParsers.variant;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class StreamingParsersTest {
+  private sealed interface Shape {}
+  private record Circle(double radius) implements Shape {}
+  private record Label(String text) implements Shape {}
+
+  private record Tree(List<Tree> children) {}
+
+  private static final JsonParser<Shape> shapeP = sumP("type", Shape.class, List.of(
+      variant("circle", Circle.class, productP.field("radius", doubleP).map(Circle::new, Circle::radius)),
+      variant("label", Label.class, productP.field("text", stringP).map(Label::new, Label::text))));
+
+  private static final JsonParser<Tree> treeP = recursiveP(self -> productP
+      .field("children", listP(self))
+      .map(Tree::new, Tree::children));
+
+  private static final JsonParser<Pair<Pair<Pair<Pair<String, Optional<List<Long>>>, Map<String, Optional<Double>>>, List<Shape>>, Tree>>
+      documentP = productP
+      .field("name", stringP)
+      .optionalField("values", listP(longP))
+      .field("weights", mapP(nullableP(doubleP)))
+      .field("shapes", listP(shapeP))
+      .field("tree", treeP);
+
+  private static final Pair<Pair<Pair<Pair<String, Optional<List<Long>>>, Map<String, Optional<Double>>>, List<Shape>>, Tree>
+      document = Pair.of(
+          Pair.of(
+              Pair.of(
+                  Pair.of("example", Optional.of(List.of(1L, 2L, 3L))),
+                  Map.of("a", Optional.of(0.5), "b", Optional.empty())),
+              List.of(new Circle(2.0), new Label("hi"))),
+          new Tree(List.of(new Tree(List.of()), new Tree(List.of(new Tree(List.of()))))));
+
+  @Test
+  public void streamingUnparseWritesTheSameDocument() {
+    assertEquals(documentP.unparse(document), read(write(documentP, document)));
+  }
+
+  @Test
+  public void streamingParseAgreesWithTreeParse() {
+    final var json = documentP.unparse(document).toString();
+
+    assertEquals(JsonParseResult.success(document), parse(documentP, json));
+    assertEquals(documentP.parse(Json.createReader(new StringReader(json)).readValue()), parse(documentP, json));
+  }
+
+  @Test
+  public void streamingParseFallsBackForChoices() {
+    final JsonParser<Object> parser = chooseP(longP, stringP);
+
+    assertEquals(JsonParseResult.success("x"), parse(listP(parser), "[\"x\"]").mapSuccess(List::getFirst));
+    assertEquals(JsonParseResult.success(1L), parse(listP(parser), "[1]").mapSuccess(List::getFirst));
+  }
+
+  @Test
+  public void streamingParseReportsMissingAndUnexpectedFields() {
+    final var parser = productP.field("x", longP).optionalField("y", longP);
+
+    assertEquals(JsonParseResult.success(Pair.of(1L, Optional.empty())), parse(parser, "{\"x\": 1}"));
+    assertEquals(JsonParseResult.success(Pair.of(1L, Optional.of(2L))), parse(parser, "{\"y\": 2, \"x\": 1}"));
+
+    final var missing = parse(parser, "{\"y\": 2}");
+    // Breadcrumbs have no notion of equality, so compare failures by their descriptions.
+    assertEquals(parser.parse(Json.createObjectBuilder().add("y", 2).build()).toString(), missing.toString());
+    assertTrue(missing.isFailure());
+
+    final var unexpected = parse(parser, "{\"x\": 1, \"z\": {\"w\": []}}");
+    assertEquals(parser.parse(Json.createObjectBuilder().add("x", 1).add("z", 3).build()).toString(), unexpected.toString());
+    assertTrue(unexpected.isFailure());
+  }
+
+  @Test
+  public void streamingParseSkipsUnspecifiedFields() {
+    final var parser = productP.field("x", longP).rest();
+
+    assertEquals(JsonParseResult.success(1L), parse(parser, "{\"z\": {\"w\": [1, {}]}, \"x\": 1, \"v\": [[]]}"));
+  }
+
+  private static <T> JsonParseResult<T> parse(final JsonParser<T> parser, final String json) {
+    try (final var stream = Json.createParser(new StringReader(json))) {
+      return parser.parse(stream);
+    }
+  }
+
+  private static <T> String write(final JsonParser<T> parser, final T value) {
+    final var writer = new StringWriter();
+    try (final var generator = Json.createGenerator(writer)) {
+      parser.unparse(value, generator);
+    }
+    return writer.toString();
+  }
+
+  private static JsonValue read(final String json) {
+    return Json.createReader(new StringReader(json)).readValue();
+  }
+}
@@ -22,7 +22,6 @@ import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.scheduler.solver.ScheduleAt;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Objects;
 import java.util.List;
 import java.util.Optional;
@@ -342,26 +341,10 @@ public class CoexistenceGoal extends ActivityTemplateGoal {
   private EvaluationEnvironment createEvaluationEnvironmentFromAnchor(EvaluationEnvironment existingEnvironment, Segment<Optional<Spans.Metadata>> span){
     if(span.value().isPresent()){
       final var metadata = span.value().get();
-      final var activityInstances = new HashMap<>(existingEnvironment.activityInstances());
-      activityInstances.put(this.alias, metadata.activityInstance());
-      return new EvaluationEnvironment(
-          activityInstances,
-          existingEnvironment.spansInstances(),
-          existingEnvironment.intervals(),
-          existingEnvironment.realExternalProfiles(),
-          existingEnvironment.discreteExternalProfiles()
-      );
+      return existingEnvironment.withActivityInstance(this.alias, metadata.activityInstance());
     } else{
       assert this.alias != null;
-      final var intervals = new HashMap<>(existingEnvironment.intervals());
-      intervals.put(this.alias, span.interval());
-      return new EvaluationEnvironment(
-          existingEnvironment.activityInstances(),
-          existingEnvironment.spansInstances(),
-          intervals,
-          existingEnvironment.realExternalProfiles(),
-          existingEnvironment.discreteExternalProfiles()
-      );
+      return existingEnvironment.withInterval(this.alias, span.interval());
     }
   }
 
@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.scheduler.model;
 
 import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
 import gov.nasa.jpl.aerie.constraints.model.SimulationResults;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
 import gov.nasa.jpl.aerie.scheduler.solver.Evaluation;
@@ -12,11 +13,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -37,22 +38,56 @@ public class PlanInMemory implements Plan {
   /**
    * container of all activity instances in plan, indexed by start time
    */
-  private final TreeMap<Duration, List<SchedulingActivity>> actsByTime;
+  private final TimeIndex actsByTime;
+
+  /**
+   * the activity instances of each type, indexed by start time
+   *
+   * keyed by type name, as that is what activity expressions match types by
+   */
+  private final Map<String, TimeIndex> actsByTypeName;
+
+  /**
+   * the activity instances anchored to another activity, indexed by start offset from their anchor
+   *
+   * the absolute start time of these is only known by walking their anchor chain, so they are
+   * kept apart to be checked individually by time-based queries
+   */
+  private final TimeIndex anchoredActs;
+
+  /**
+   * the activity instances in plan, indexed by id
+   */
+  private final Map<ActivityDirectiveId, SchedulingActivity> actsById;
+
+  /**
+   * snapshots handed out by the getters, discarded whenever the plan changes
+   */
+  private List<SchedulingActivity> actsByTimeView = null;
+  private Map<ActivityType, List<SchedulingActivity>> actsByTypeView = null;
+  private Map<ActivityDirectiveId, SchedulingActivity> actsByIdView = null;
+  private Set<SchedulingActivity> actsView = null;
 
   /**
    * ctor creates a new empty solution plan
    *
    */
   public PlanInMemory() {
-    this.actsByTime = new TreeMap<>();
+    this.actsByTime = new TimeIndex();
+    this.actsByTypeName = new HashMap<>();
+    this.anchoredActs = new TimeIndex();
+    this.actsById = new HashMap<>();
   }
 
   public PlanInMemory(final PlanInMemory other){
     if(other.evaluation != null) this.evaluation = other.evaluation.duplicate();
-    this.actsByTime = new TreeMap<>();
-    for(final var entry: other.actsByTime.entrySet()){
-      this.actsByTime.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    this.actsByTime = new TimeIndex(other.actsByTime);
+    this.actsByTypeName = new HashMap<>();
+    for(final var entry: other.actsByTypeName.entrySet()){
+      this.actsByTypeName.put(entry.getKey(), new TimeIndex(entry.getValue()));
     }
+    this.anchoredActs = new TimeIndex(other.anchoredActs);
+    this.actsById = new HashMap<>(other.actsById);
   }
 
   @Override
@@ -71,11 +106,7 @@ public class PlanInMemory implements Plan {
   }
 
   public int size(){
-    int size = 0;
-    for(final var entry: this.actsByTime.entrySet()){
-      size += entry.getValue().size();
-    }
-    return size;
+    return this.actsByTime.size();
   }
 
   /**
@@ -92,8 +123,11 @@ public class PlanInMemory implements Plan {
       throw new IllegalArgumentException(
           "adding activity with null start time to plan");
     }
-    actsByTime.computeIfAbsent(startT, k -> new LinkedList<>())
-              .add(act);
+    actsByTime.add(act);
+    actsByTypeName.computeIfAbsent(act.type().getName(), k -> new TimeIndex()).add(act);
+    if (act.anchorId() != null) anchoredActs.add(act);
+    actsById.put(act.id(), act);
+    invalidateViews();
   }
 
   @Override
@@ -105,8 +139,21 @@ public class PlanInMemory implements Plan {
 
   @Override
   public void remove(SchedulingActivity act) {
-    var acts = actsByTime.get(act.startOffset());
-    if (acts != null) acts.remove(act);
+    if (!actsByTime.remove(act)) return;
+
+    final var ofType = actsByTypeName.get(act.type().getName());
+    ofType.remove(act);
+    if (ofType.size() == 0) actsByTypeName.remove(act.type().getName());
+    if (act.anchorId() != null) anchoredActs.remove(act);
+    actsById.remove(act.id(), act);
+    invalidateViews();
+  }
+
+  private void invalidateViews() {
+    this.actsByTimeView = null;
+    this.actsByTypeView = null;
+    this.actsByIdView = null;
+    this.actsView = null;
   }
 
   /**
@@ -114,16 +161,12 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public List<SchedulingActivity> getActivitiesByTime() {
-    //REVIEW: could probably do something tricky with streams to avoid new
-    final var orderedActs = new LinkedList<SchedulingActivity>();
-
-    //NB: tree map ensures that values are in key order, but still need to flatten
-    for (final var actsAtT : actsByTime.values()) {
-      assert actsAtT != null;
-      orderedActs.addAll(actsAtT);
+    if (this.actsByTimeView == null) {
+      final var orderedActs = new ArrayList<SchedulingActivity>(actsByTime.size());
+      actsByTime.forEach(orderedActs::add);
+      this.actsByTimeView = Collections.unmodifiableList(orderedActs);
     }
-
-    return Collections.unmodifiableList(orderedActs);
+    return this.actsByTimeView;
   }
 
   public void replaceActivity(SchedulingActivity oldAct, SchedulingActivity newAct){
@@ -137,24 +180,21 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Map<ActivityType, List<SchedulingActivity>> getActivitiesByType() {
-    final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.computeIfAbsent(activity.type(), t -> new ArrayList<>()).add(activity);
-      }
+    if (this.actsByTypeView == null) {
+      final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
+      actsByTime.forEach(activity -> map.computeIfAbsent(activity.type(), t -> new ArrayList<>()).add(activity));
+      map.replaceAll((type, acts) -> Collections.unmodifiableList(acts));
+      this.actsByTypeView = Collections.unmodifiableMap(map);
     }
-    return Collections.unmodifiableMap(map);
+    return this.actsByTypeView;
   }
 
   @Override
   public Map<ActivityDirectiveId, SchedulingActivity> getActivitiesById() {
-    final var map = new HashMap<ActivityDirectiveId, SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.put(activity.id(), activity);
-      }
+    if (this.actsByIdView == null) {
+      this.actsByIdView = Collections.unmodifiableMap(new HashMap<>(actsById));
     }
-    return Collections.unmodifiableMap(map);
+    return this.actsByIdView;
   }
 
 @Override
@@ -169,30 +209,62 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Set<SchedulingActivity> getActivities() {
-    final var set = new HashSet<SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      set.addAll(entry.getValue());
+    if (this.actsView == null) {
+      final var set = new HashSet<SchedulingActivity>();
+      actsByTime.forEach(set::add);
+      this.actsView = Collections.unmodifiableSet(set);
     }
-    return Collections.unmodifiableSet(set);
+    return this.actsView;
   }
 
   /**
    * {@inheritDoc}
+   *
+   * narrows down the candidates using the plan's indices before checking each against the template:
+   * by type if the template has one, and by start time if it constrains start or end times.
+   * candidates are visited in start time order, so matches are returned in the same order as a full scan would.
    */
   @Override
   public Collection<SchedulingActivity> find(
       ActivityExpression template, SimulationResults simulationResults,
       EvaluationEnvironment evaluationEnvironment)
   {
-    //REVIEW: could do something clever with returning streams to prevent wasted work
-    //REVIEW: something more clever for time-based queries using time index
-    LinkedList<SchedulingActivity> matched = new LinkedList<>();
-    for (final var actsAtTime : actsByTime.values()) {
-      for (final var act : actsAtTime) {
-        if (template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
-          matched.add(act);
-        }
+    final TimeIndex candidates;
+    if (template.type() != null) {
+      candidates = actsByTypeName.get(template.type().getName());
+      if (candidates == null) return new ArrayList<>();
+    } else {
+      candidates = actsByTime;
+    }
+
+    final var matched = new ArrayList<SchedulingActivity>();
+    final Consumer<SchedulingActivity> check = act -> {
+      if (template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
+        matched.add(act);
       }
+    };
+
+    if (template.startRange() != null) {
+      // unanchored activities start at their start offset, so only those starting in range need checking,
+      // but anchored ones may start anywhere and must all be checked
+      if (template.startRange().isEmpty()) return matched;
+      final var anchored = new ArrayList<SchedulingActivity>();
+      anchoredActs.forEach(act -> {
+        if (template.type() == null || template.type().getName().equals(act.type().getName())) anchored.add(act);
+      });
+      if (anchored.isEmpty()) {
+        candidates.forEachIn(template.startRange(), check);
+      } else {
+        candidates.forEachIn(template.startRange(), act -> { if (act.anchorId() == null) check.accept(act); });
+        anchored.forEach(check);
+        return candidates.inPlanOrder(matched);
+      }
+    } else if (template.endRange() != null) {
+      // activities end no earlier than their start offset, so those starting after the range can't end in it
+      if (template.endRange().isEmpty()) return matched;
+      candidates.forEachUntil(template.endRange().end, template.endRange().includesEnd(), check);
+    } else {
+      candidates.forEach(check);
     }
     return matched;
   }
@@ -218,7 +290,7 @@ public class PlanInMemory implements Plan {
     if(act == null)
       return null;
     if(act.anchorId() != null){
-      SchedulingActivity parent = this.getActivitiesById().get(act.anchorId());
+      SchedulingActivity parent = this.actsById.get(act.anchorId());
       if(!act.anchoredToStart() && parent.duration() == null)
         throw new IllegalArgumentException("Cannot calculate the absolute duration for an activity that is not anchored to the start while the parent doesn't have duration");
       return calculateAbsoluteStartOffsetAnchoredActivity(parent).plus(act.anchoredToStart() ? act.startOffset() : act.startOffset().plus(parent.duration()));
@@ -228,30 +300,103 @@ public class PlanInMemory implements Plan {
 
   @Override
   public PlanInMemory replaceIds(Map<ActivityDirectiveId, ActivityDirectiveId> map) {
-    final var result = duplicate();
-
-    for (final var entry : result.actsByTime.entrySet()) {
-      final var actList = entry.getValue()
-          .stream()
-          .map($ -> {
-            if (($.id() != null && map.containsKey($.id())) || ($.anchorId() != null && map.containsKey($.anchorId()))) {
-              return new SchedulingActivity(
-                  $.id() != null ? map.getOrDefault($.id(), $.id()) : null,
-                  $.type(),
-                  $.startOffset(),
-                  $.duration(),
-                  $.arguments(),
-                  $.topParent(),
-                  $.anchorId() != null ? map.getOrDefault($.anchorId(), $.anchorId()) : null,
-                  $.anchoredToStart(),
-                  $.name()
-              );
-            } else return $;
-          })
-          .toList();
-      entry.setValue(actList);
-    }
+    final var result = new PlanInMemory();
+    if(evaluation != null) result.evaluation = evaluation.duplicate();
+
+    actsByTime.forEach($ -> {
+      if (($.id() != null && map.containsKey($.id())) || ($.anchorId() != null && map.containsKey($.anchorId()))) {
+        result.add(new SchedulingActivity(
+            $.id() != null ? map.getOrDefault($.id(), $.id()) : null,
+            $.type(),
+            $.startOffset(),
+            $.duration(),
+            $.arguments(),
+            $.topParent(),
+            $.anchorId() != null ? map.getOrDefault($.anchorId(), $.anchorId()) : null,
+            $.anchoredToStart(),
+            $.name()
+        ));
+      } else result.add($);
+    });
 
     return result;
   }
+
+  /**
+   * activity instances indexed by start offset, kept in insertion order among those with the same start offset
+   */
+  private static final class TimeIndex {
+    private final TreeMap<Duration, List<SchedulingActivity>> acts;
+    private int size;
+
+    TimeIndex() {
+      this.acts = new TreeMap<>();
+      this.size = 0;
+    }
+
+    TimeIndex(final TimeIndex other) {
+      this.acts = new TreeMap<>();
+      for(final var entry: other.acts.entrySet()){
+        this.acts.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+      }
+      this.size = other.size;
+    }
+
+    void add(final SchedulingActivity act) {
+      acts.computeIfAbsent(act.startOffset(), k -> new ArrayList<>(1)).add(act);
+      size += 1;
+    }
+
+    boolean remove(final SchedulingActivity act) {
+      final var actsAtT = acts.get(act.startOffset());
+      if (actsAtT == null || !actsAtT.remove(act)) return false;
+      if (actsAtT.isEmpty()) acts.remove(act.startOffset());
+      size -= 1;
+      return true;
+    }
+
+    int size() {
+      return size;
+    }
+
+    void forEach(final Consumer<SchedulingActivity> action) {
+      for (final var actsAtT : acts.values()) actsAtT.forEach(action);
+    }
+
+    /** reorders some of the activities in this index to the order in which the index visits them */
+    List<SchedulingActivity> inPlanOrder(final List<SchedulingActivity> subset) {
+      final var byStart = new TreeMap<Duration, List<SchedulingActivity>>();
+      for (final var act : subset) byStart.computeIfAbsent(act.startOffset(), k -> new ArrayList<>(1)).add(act);
+
+      final var ordered = new ArrayList<SchedulingActivity>(subset.size());
+      for (final var entry : byStart.entrySet()) {
+        final var pending = entry.getValue();
+        if (pending.size() == 1) {
+          ordered.addAll(pending);
+          continue;
+        }
+        // several activities share a start offset, so walk them in insertion order
+        for (final var act : acts.get(entry.getKey())) {
+          for (var i = 0; i < pending.size(); i++) {
+            if (pending.get(i) == act) {
+              ordered.add(pending.remove(i));
+              break;
+            }
+          }
+        }
+      }
+      return ordered;
+    }
+
+    /** visits the activities whose start offset lies in the given non-empty interval */
+    void forEachIn(final Interval interval, final Consumer<SchedulingActivity> action) {
+      final var inRange = acts.subMap(interval.start, interval.includesStart(), interval.end, interval.includesEnd());
+      for (final var actsAtT : inRange.values()) actsAtT.forEach(action);
+    }
+
+    /** visits the activities whose start offset is no later than (or strictly before) the given bound */
+    void forEachUntil(final Duration bound, final boolean inclusive, final Consumer<SchedulingActivity> action) {
+      for (final var actsAtT : acts.headMap(bound, inclusive).values()) actsAtT.forEach(action);
+    }
+  }
 }
@@ -1,5 +1,6 @@
 package gov.nasa.jpl.aerie.scheduler.simulation;
 
+import gov.nasa.jpl.aerie.merlin.driver.CachedEngineStore;
 import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
 import gov.nasa.jpl.aerie.merlin.driver.CheckpointSimulationDriver;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
@@ -36,7 +37,7 @@ import static gov.nasa.jpl.aerie.scheduler.simulation.SimulationFacadeUtils.upda
 public class CheckpointSimulationFacade implements SimulationFacade {
   private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointSimulationFacade.class);
   private final MissionModel<?> missionModel;
-  private final InMemoryCachedEngineStore cachedEngines;
+  private final CachedEngineStore cachedEngines;
   private final PlanningHorizon planningHorizon;
   private final Map<String, ActivityType> activityTypes;
   private final SimulationEngineConfiguration configuration;
@@ -60,7 +61,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
   public CheckpointSimulationFacade(
       final MissionModel<?> missionModel,
       final SchedulerModel schedulerModel,
-      final InMemoryCachedEngineStore cachedEngines,
+      final CachedEngineStore cachedEngines,
       final PlanningHorizon planningHorizon,
       final SimulationEngineConfiguration simulationEngineConfiguration,
       final Supplier<Boolean> canceledListener)
@@ -187,7 +188,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
     CachedSimulationEngine engine = null;
     Duration from = Duration.ZERO;
     if (best.isPresent()) {
-      engine = best.get().getKey();
+      engine = cachedEngines.rehydrate(best.get().getKey());
       replaceIds(planSimCorrespondence, best.get().getRight());
       from = engine.endsAt();
     }
@@ -219,7 +220,10 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       throw new SimulationException("Bad configuration", null);
     }
 
-    if (engine == null) engine = CachedSimulationEngine.empty(missionModel, planningHorizon.getStartInstant());
+    if (engine == null) engine = CachedSimulationEngine.empty(
+        missionModel,
+        planningHorizon.getStartInstant(),
+        configuration.batchParallelism());
 
     Function<CheckpointSimulationDriver.SimulationState, Boolean> checkpointPolicy =
         new ResourceAwareSpreadCheckpointPolicy(
@@ -235,7 +239,8 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       checkpointPolicy = or(checkpointPolicy, onceAllActivitiesAreFinished());
     }
 
-    if (best.isPresent()) cachedEngines.registerUsed(engine);
+    if (best.isPresent()) cachedEngines.registerUsed(best.get().getKey());
+    else cachedEngines.registerMiss();
     try {
       final var simulation = CheckpointSimulationDriver.simulateWithCheckpoints(
           missionModel,
@@ -47,6 +47,7 @@ public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineSto
    * Register a re-use for a saved cached simulation engine. Will decrease likelihood of this engine being deleted.
    * @param cachedSimulationEngine the simulation engine
    */
+  @Override
   public void registerUsed(final CachedSimulationEngine cachedSimulationEngine){
     final var engineMetadata = this.cachedEngines.remove(cachedSimulationEngine);
     if(engineMetadata != null){
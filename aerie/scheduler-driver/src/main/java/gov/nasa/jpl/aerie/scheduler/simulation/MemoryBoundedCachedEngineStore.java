@@ -0,0 +1,391 @@
+package gov.nasa.jpl.aerie.scheduler.simulation;
+
+import gov.nasa.jpl.aerie.merlin.driver.CachedEngineStore;
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.driver.resources.SpilledSimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cached engine store bounded by the estimated memory retained by its engines, rather than only by their number.
+ *
+ * When an engine does not fit, the engines offering the least saved simulation time per byte are evicted first.
+ * An engine is only admitted if it is worth more per byte than every engine it would displace.
+ *
+ * The store owns the engines it keeps, and closes them as they are evicted or declined.
+ *
+ * Given a spill directory, the store also moves the resource profiles of the engines it keeps into memory-mapped files,
+ * since the profiles accumulated up to a checkpoint grow with its time and make up most of the memory held by late
+ * checkpoints. Engines handed out by {@link #getCachedEngines} then carry no profiles until passed to {@link #rehydrate}.
+ * A checkpoint only spills the segments added since the checkpoint it extends: the previous one saved by the same
+ * simulation, or the one that simulation resumed from.
+ *
+ * A capacity of one is handled differently. The checkpoint driver then hands over the engine it goes on simulating
+ * with, rather than a frozen copy, so the engine of the stored entry is stepped by the next simulation resumed from it.
+ * Each new engine therefore replaces the stored one without being scored, like {@link InMemoryCachedEngineStore},
+ * and the store closes nothing, since the driver may still be using any engine it has handed over. For the same
+ * reason, an engine resumed from is handed back to the driver and leaves the store: a simulation that stops without
+ * saving a checkpoint would otherwise leave behind an entry whose engine it has stepped past its end.
+ */
+public class MemoryBoundedCachedEngineStore implements AutoCloseable, CachedEngineStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MemoryBoundedCachedEngineStore.class);
+
+  // Rough guesses at per-structure costs, not measurements; pass a size estimator to the constructor to override them.
+  // A task in progress is assumed to be by far the most expensive, since a threaded task retains its thread's stack.
+  private static final long BYTES_PER_TIMELINE_POINT = 256;
+  private static final long BYTES_PER_CELL = 512;
+  private static final long BYTES_PER_TASK = 16 * 1024;
+  private static final long BYTES_PER_SPAN = 128;
+  private static final long BYTES_PER_DIRECTIVE = 512;
+
+  /**
+   * Counters describing the behavior of the store so far.
+   *
+   * @param engines the number of engines currently stored
+   * @param retainedBytes the estimated memory retained by the stored engines
+   * @param hits the number of simulations resumed from a stored engine
+   * @param misses the number of simulations for which no stored engine could be used
+   * @param evictions the number of engines removed to make room for others
+   * @param rejections the number of engines not stored because they were not worth their memory
+   */
+  public record Statistics(int engines, long retainedBytes, long hits, long misses, long evictions, long rejections) {}
+
+  private static final class Entry {
+    final SimulationEngineConfiguration configuration;
+    final long bytes;
+    long uses = 0;
+    // Null while the profiles of the engine are kept on the heap.
+    SpilledSimulationResourceManager profiles = null;
+
+    Entry(final SimulationEngineConfiguration configuration, final long bytes) {
+      this.configuration = configuration;
+      this.bytes = bytes;
+    }
+  }
+
+  private final Map<CachedSimulationEngine, Entry> cachedEngines = new LinkedHashMap<>();
+  private final int capacity;
+  private final long byteBudget;
+  private final ToLongFunction<CachedSimulationEngine> sizeEstimator;
+  // Null if profiles are kept on the heap.
+  private final Path spillDirectory;
+  // The spilled profiles that the next checkpoint saved is expected to extend.
+  private SpilledSimulationResourceManager lineage = null;
+
+  private long retainedBytes = 0;
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private long rejections = 0;
+  private Duration savedSimulationTime = Duration.ZERO;
+
+  /**
+   * @param capacity the maximum number of engines that can be stored in memory
+   * @param byteBudget the maximum estimated memory, in bytes, that stored engines may retain
+   */
+  public MemoryBoundedCachedEngineStore(final int capacity, final long byteBudget) {
+    this(capacity, byteBudget, MemoryBoundedCachedEngineStore::estimateRetainedBytes, null);
+  }
+
+  /**
+   * @param capacity the maximum number of engines that can be stored in memory
+   * @param byteBudget the maximum estimated memory, in bytes, that stored engines may retain
+   * @param spillDirectory the directory in which to write the resource profiles of stored engines
+   */
+  public MemoryBoundedCachedEngineStore(final int capacity, final long byteBudget, final Path spillDirectory) {
+    this(capacity, byteBudget, MemoryBoundedCachedEngineStore::estimateRetainedBytes, spillDirectory);
+  }
+
+  /**
+   * @param capacity the maximum number of engines that can be stored in memory
+   * @param byteBudget the maximum estimated memory, in bytes, that stored engines may retain
+   * @param sizeEstimator an estimate of the memory, in bytes, retained by an engine
+   */
+  public MemoryBoundedCachedEngineStore(
+      final int capacity,
+      final long byteBudget,
+      final ToLongFunction<CachedSimulationEngine> sizeEstimator
+  ) {
+    this(capacity, byteBudget, sizeEstimator, null);
+  }
+
+  /**
+   * @param capacity the maximum number of engines that can be stored in memory
+   * @param byteBudget the maximum estimated memory, in bytes, that stored engines may retain
+   * @param sizeEstimator an estimate of the memory, in bytes, retained by an engine
+   * @param spillDirectory the directory in which to write the resource profiles of stored engines,
+   *     or null to keep them on the heap
+   */
+  public MemoryBoundedCachedEngineStore(
+      final int capacity,
+      final long byteBudget,
+      final ToLongFunction<CachedSimulationEngine> sizeEstimator,
+      final Path spillDirectory
+  ) {
+    if (capacity <= 0) throw new IllegalArgumentException("Capacity of the cached engine store must be greater than 0");
+    if (byteBudget <= 0) throw new IllegalArgumentException("Byte budget of the cached engine store must be greater than 0");
+    this.capacity = capacity;
+    this.byteBudget = byteBudget;
+    this.sizeEstimator = sizeEstimator;
+    this.spillDirectory = spillDirectory;
+  }
+
+  /** Estimate the memory retained by an engine from the sizes of its timeline, cells, tasks, and plan. */
+  public static long estimateRetainedBytes(final CachedSimulationEngine cachedEngine) {
+    final var footprint = cachedEngine.simulationEngine().footprint();
+    return footprint.timelinePoints() * BYTES_PER_TIMELINE_POINT
+           + footprint.cells() * BYTES_PER_CELL
+           + footprint.tasks() * BYTES_PER_TASK
+           + footprint.spans() * BYTES_PER_SPAN
+           + cachedEngine.activityDirectives().size() * BYTES_PER_DIRECTIVE;
+  }
+
+  public Duration getTotalSavedSimulationTime() {
+    return this.savedSimulationTime;
+  }
+
+  public Statistics statistics() {
+    return new Statistics(
+        this.cachedEngines.size(),
+        this.retainedBytes,
+        this.hits,
+        this.misses,
+        this.evictions,
+        this.rejections);
+  }
+
+  @Override
+  public void close() {
+    this.cachedEngines.forEach((cachedEngine, entry) -> {
+      cachedEngine.simulationEngine().close();
+      release(entry.profiles);
+    });
+    this.cachedEngines.clear();
+    this.retainedBytes = 0;
+    follow(null);
+  }
+
+  @Override
+  public void registerUsed(final CachedSimulationEngine cachedSimulationEngine) {
+    final var entry = this.cachedEngines.get(cachedSimulationEngine);
+    follow(entry == null ? null : entry.profiles);
+    if (entry != null) {
+      entry.uses += 1;
+      this.hits += 1;
+      this.savedSimulationTime = this.savedSimulationTime.plus(cachedSimulationEngine.endsAt());
+      if (this.capacity == 1) {
+        this.cachedEngines.remove(cachedSimulationEngine);
+        this.retainedBytes -= entry.bytes;
+        release(entry.profiles);
+      }
+    }
+  }
+
+  @Override
+  public void registerMiss() {
+    this.misses += 1;
+    follow(null);
+  }
+
+  @Override
+  public CachedSimulationEngine rehydrate(final CachedSimulationEngine cachedSimulationEngine) {
+    final var entry = this.cachedEngines.get(cachedSimulationEngine);
+    if (entry == null || entry.profiles == null) return cachedSimulationEngine;
+    try {
+      return withProfiles(cachedSimulationEngine, entry.profiles.load());
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Could not load the spilled profiles of a cached simulation engine", ex);
+    }
+  }
+
+  @Override
+  public void save(final CachedSimulationEngine engine, final SimulationEngineConfiguration configuration) {
+    if (isDuplicate(engine, configuration)) {
+      discard(engine);
+      return;
+    }
+
+    final var entry = new Entry(configuration, Math.max(1, this.sizeEstimator.applyAsLong(engine)));
+    if (this.capacity == 1) {
+      replace(engine, entry);
+      return;
+    }
+
+    if (entry.bytes > this.byteBudget) {
+      this.rejections += 1;
+      LOGGER.info("Not caching a simulation engine of estimated size " + entry.bytes + " bytes, which exceeds the budget of " + this.byteBudget + " bytes");
+      discard(engine);
+      return;
+    }
+
+    // Choose the least valuable engines to evict, but only if each of them is worth less than the new one.
+    final var victims = new ArrayList<CachedSimulationEngine>();
+    var freedBytes = 0L;
+    final var candidates = this.cachedEngines.entrySet().stream()
+        .sorted(Comparator.comparingDouble(e -> score(e.getKey(), e.getValue())))
+        .iterator();
+    while (this.cachedEngines.size() - victims.size() + 1 > this.capacity
+           || this.retainedBytes - freedBytes + entry.bytes > this.byteBudget)
+    {
+      final var candidate = candidates.next();
+      if (score(candidate.getKey(), candidate.getValue()) > score(engine, entry)) {
+        this.rejections += 1;
+        LOGGER.info("Not caching a simulation engine ending at " + engine.endsAt() + ", which is worth less than the engines it would displace");
+        discard(engine);
+        return;
+      }
+      victims.add(candidate.getKey());
+      freedBytes += candidate.getValue().bytes;
+    }
+
+    for (final var victim : victims) {
+      final var evicted = this.cachedEngines.remove(victim);
+      this.retainedBytes -= evicted.bytes;
+      this.evictions += 1;
+      victim.simulationEngine().close();
+      release(evicted.profiles);
+      LOGGER.info("Evicted cached simulation engine ending at " + victim.endsAt() + " from the store");
+    }
+
+    this.cachedEngines.put(spill(engine, entry), entry);
+    this.retainedBytes += entry.bytes;
+    LOGGER.info("Added a cached simulation engine to the store. Current occupation: "
+                + this.cachedEngines.size() + "/" + this.capacity + " engines, "
+                + this.retainedBytes + "/" + this.byteBudget + " bytes");
+  }
+
+  @Override
+  public int capacity() {
+    return this.capacity;
+  }
+
+  @Override
+  public List<CachedSimulationEngine> getCachedEngines(final SimulationEngineConfiguration configuration) {
+    return this.cachedEngines
+        .entrySet()
+        .stream()
+        .filter(ce -> configuration.equals(ce.getValue().configuration))
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  /**
+   * Replace the stored engine with a new one, when the capacity is one.
+   * The stored engine may have been stepped past its checkpoint since, so it is dropped even if the new one is not kept.
+   */
+  private void replace(final CachedSimulationEngine engine, final Entry entry) {
+    for (final var stored : this.cachedEngines.entrySet()) {
+      this.evictions += 1;
+      release(stored.getValue().profiles);
+      LOGGER.info("Evicted cached simulation engine ending at " + stored.getKey().endsAt() + " from the store");
+    }
+    this.cachedEngines.clear();
+    this.retainedBytes = 0;
+
+    if (entry.bytes > this.byteBudget) {
+      this.rejections += 1;
+      LOGGER.info("Not caching a simulation engine of estimated size " + entry.bytes + " bytes, which exceeds the budget of " + this.byteBudget + " bytes");
+      return;
+    }
+    this.cachedEngines.put(spill(engine, entry), entry);
+    this.retainedBytes = entry.bytes;
+  }
+
+  /**
+   * Move the profiles of an engine about to be stored into the spill directory, if there is one.
+   * The engine to store in its place is returned, and the engine passed in is left untouched.
+   */
+  private CachedSimulationEngine spill(final CachedSimulationEngine engine, final Entry entry) {
+    if (this.spillDirectory == null) return engine;
+    Path file = null;
+    try {
+      file = Files.createTempFile(this.spillDirectory, "engine-", ".profiles");
+      entry.profiles = SpilledSimulationResourceManager.spill(this.lineage, engine.resourceManager(), file);
+    } catch (final IOException ex) {
+      LOGGER.warn("Could not spill the profiles of a simulation engine, keeping them in memory", ex);
+      deleteQuietly(file);
+      return engine;
+    }
+    follow(entry.profiles);
+    LOGGER.info("Spilled " + entry.profiles.size() + " bytes of profiles of the simulation engine ending at " + engine.endsAt());
+    return withProfiles(engine, new InMemorySimulationResourceManager());
+  }
+
+  /** Expect the next checkpoint saved to extend the given profiles. */
+  private void follow(final SpilledSimulationResourceManager profiles) {
+    if (profiles != null) profiles.retain();
+    release(this.lineage);
+    this.lineage = profiles;
+  }
+
+  private static CachedSimulationEngine withProfiles(
+      final CachedSimulationEngine engine,
+      final InMemorySimulationResourceManager profiles
+  ) {
+    return new CachedSimulationEngine(
+        engine.endsAt(),
+        engine.activityDirectives(),
+        engine.simulationEngine(),
+        engine.activityTopic(),
+        engine.missionModel(),
+        profiles);
+  }
+
+  private static void release(final SpilledSimulationResourceManager profiles) {
+    if (profiles == null) return;
+    try {
+      profiles.release();
+    } catch (final IOException ex) {
+      LOGGER.warn("Could not delete spilled profiles of a cached simulation engine", ex);
+    }
+  }
+
+  private static void deleteQuietly(final Path file) {
+    if (file == null) return;
+    try {
+      Files.deleteIfExists(file);
+    } catch (final IOException ex) {
+      LOGGER.warn("Could not delete " + file, ex);
+    }
+  }
+
+  /** Close an engine the store declines to keep, unless the driver is still simulating with it. */
+  private void discard(final CachedSimulationEngine engine) {
+    if (this.capacity > 1) engine.simulationEngine().close();
+  }
+
+  /**
+   * The simulation time an engine is expected to save per byte it retains.
+   * Every reuse of an engine counts as another simulation it could save time for.
+   */
+  private static double score(final CachedSimulationEngine engine, final Entry entry) {
+    final var savedMicros = Math.max(0, engine.endsAt().in(Duration.MICROSECONDS)) + 1;
+    return (double) savedMicros * (1 + entry.uses) / entry.bytes;
+  }
+
+  private boolean isDuplicate(final CachedSimulationEngine engine, final SimulationEngineConfiguration configuration) {
+    for (final var cached : this.cachedEngines.entrySet()) {
+      final var savedEngine = cached.getKey();
+      if (engine.endsAt().equals(savedEngine.endsAt()) &&
+          engine.activityDirectives().equals(savedEngine.activityDirectives()) &&
+          cached.getValue().configuration.equals(configuration)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,91 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PlanInMemoryTest {
+  private final List<ActivityType> types = List.of(new ActivityType("A"), new ActivityType("B"), new ActivityType("C"));
+
+  @Test
+  public void findAgreesWithFullScan() {
+    final var random = new Random(0);
+    final var plan = new PlanInMemory();
+    final var added = new ArrayList<SchedulingActivity>();
+
+    for (var i = 0; i < 500; i++) {
+      // Anchor some activities to earlier ones, and remove some along the way.
+      final ActivityDirectiveId anchor = (!added.isEmpty() && random.nextInt(4) == 0)
+          ? added.get(random.nextInt(added.size())).id()
+          : null;
+      final var act = SchedulingActivity.of(
+          new ActivityDirectiveId(i),
+          this.types.get(random.nextInt(this.types.size())),
+          Duration.of(random.nextInt(100), SECONDS),
+          Duration.of(random.nextInt(20), SECONDS),
+          anchor,
+          true);
+      plan.add(act);
+      added.add(act);
+      if (random.nextInt(10) == 0) {
+        final var removed = added.remove(random.nextInt(added.size()));
+        if (added.stream().noneMatch($ -> removed.id().equals($.anchorId()))) plan.remove(removed);
+        else added.add(removed);
+      }
+    }
+
+    for (var i = 0; i < 200; i++) {
+      final var builder = new ActivityExpression.Builder();
+      if (random.nextBoolean()) builder.ofType(this.types.get(random.nextInt(this.types.size())));
+      final var from = random.nextInt(150);
+      final var range = Interval.between(
+          Duration.of(from, SECONDS),
+          random.nextBoolean() ? Interval.Inclusivity.Inclusive : Interval.Inclusivity.Exclusive,
+          Duration.of(from + random.nextInt(40), SECONDS),
+          random.nextBoolean() ? Interval.Inclusivity.Inclusive : Interval.Inclusivity.Exclusive);
+      switch (random.nextInt(3)) {
+        case 0 -> builder.startsIn(range);
+        case 1 -> builder.endsIn(range);
+        default -> {}
+      }
+      final var template = builder.build();
+
+      final var expected = new ArrayList<SchedulingActivity>();
+      for (final var act : plan.getActivitiesByTime()) {
+        if (template.matches(act, null, null, true, plan)) expected.add(act);
+      }
+      assertEquals(expected, List.copyOf(plan.find(template, null, null)));
+    }
+  }
+
+  @Test
+  public void indicesFollowReplacements() {
+    final var plan = new PlanInMemory();
+    final var original = SchedulingActivity.of(new ActivityDirectiveId(1), this.types.get(0), Duration.of(1, SECONDS), Duration.of(1, SECONDS), null, true);
+    plan.add(original);
+    assertEquals(List.of(original), plan.getActivitiesByType().get(this.types.get(0)));
+
+    final var moved = SchedulingActivity.of(new ActivityDirectiveId(2), this.types.get(1), Duration.of(5, SECONDS), Duration.of(1, SECONDS), null, true);
+    plan.replaceActivity(original, moved);
+
+    assertEquals(1, plan.size());
+    assertEquals(List.of(moved), plan.getActivitiesByTime());
+    assertNull(plan.getActivitiesByType().get(this.types.get(0)));
+    assertEquals(List.of(moved), plan.getActivitiesByType().get(this.types.get(1)));
+    assertEquals(moved, plan.getActivitiesById().get(new ActivityDirectiveId(2)));
+    assertNull(plan.getActivitiesById().get(new ActivityDirectiveId(1)));
+  }
+}
@@ -1,5 +1,6 @@
 package gov.nasa.jpl.aerie.scheduler.simulation;
 
+import gov.nasa.jpl.aerie.merlin.driver.CachedEngineStore;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.merlin.framework.ThreadedTask;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
@@ -14,14 +15,18 @@ import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOUR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CheckpointSimulationFacadeTest {
   private static final DirectiveIdGenerator idGenerator = new DirectiveIdGenerator(0);
@@ -48,14 +53,19 @@ public class CheckpointSimulationFacadeTest {
     for(var taskType : fooMissionModel.getDirectiveTypes().directiveTypes().entrySet()){
       activityTypes.put(taskType.getKey(), new ActivityType(taskType.getKey(), taskType.getValue(), SimulationUtility.getFooSchedulerModel().getDurationTypes().get(taskType.getKey())));
     }
-    newSimulationFacade = new CheckpointSimulationFacade(
-        fooMissionModel,
+    newSimulationFacade = facade(new InMemoryCachedEngineStore(10));
+  }
+
+  private SimulationFacade facade(final CachedEngineStore store) {
+    final var facade = new CheckpointSimulationFacade(
+        SimulationUtility.getFooMissionModel(),
         SimulationUtility.getFooSchedulerModel(),
-        new InMemoryCachedEngineStore(10),
+        store,
         H,
         new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(1)),
         () -> false);
-    newSimulationFacade.addActivityTypes(activityTypes.values());
+    facade.addActivityTypes(activityTypes.values());
+    return facade;
   }
 
   /**
@@ -109,4 +119,72 @@ public class CheckpointSimulationFacadeTest {
     assert(results.unfinishedActivities.size() == 1);
   }
 
+  /**
+   * With a capacity of one, the store is handed the engine the driver goes on simulating with. Simulating another plan
+   * from it, then rolling back to the first plan, must neither resume from a closed engine nor from a stepped one.
+   */
+  @Test
+  public void memoryBoundedStoreOfCapacityOneSurvivesRollback()
+  throws SchedulingInterruptedException, SimulationFacade.SimulationException
+  {
+    final var planA = makePlanA012(activityTypes);
+    final var planB = planA.duplicate();
+    planB.add(SchedulingActivity.of(idGenerator.next(), activityTypes.get("BasicActivity"), t2hr.plus(d1hr), null, null, true));
+
+    try (final var store = new MemoryBoundedCachedEngineStore(1, Long.MAX_VALUE)) {
+      final var facade = facade(store);
+      for (final var plan : List.of(planA, planB, planA, planB)) {
+        final var results = facade.simulateNoResultsAllActivities(plan).computeResults();
+        final var expected = facade(new InMemoryCachedEngineStore(1)).simulateNoResultsAllActivities(plan).computeResults();
+        SimulationResultsComparisonUtils.assertEqualsSimulationResults(expected, results);
+      }
+      // The later plan resumes from the checkpoint of the earlier one.
+      assertTrue(store.statistics().hits() > 0);
+    }
+  }
+
+  /**
+   * A simulation until a given time saves no checkpoint at the end, so with a capacity of one it must not leave behind
+   * the checkpoint it resumed from, whose engine it has stepped.
+   */
+  @Test
+  public void spillingStoreMatchesInMemoryStore(@TempDir final Path directory)
+  throws SchedulingInterruptedException, SimulationFacade.SimulationException
+  {
+    final var planA = makePlanA012(activityTypes);
+    final var planB = planA.duplicate();
+    planB.add(SchedulingActivity.of(idGenerator.next(), activityTypes.get("BasicActivity"), t2hr.plus(d1hr), null, null, true));
+
+    for (final var capacity : List.of(1, 10)) {
+      try (final var store = new MemoryBoundedCachedEngineStore(capacity, Long.MAX_VALUE, directory)) {
+        final var facade = facade(store);
+        for (final var plan : List.of(planA, planB, planA, planB)) {
+          final var results = facade.simulateNoResultsAllActivities(plan).computeResults();
+          final var expected = facade(new InMemoryCachedEngineStore(capacity)).simulateNoResultsAllActivities(plan).computeResults();
+          SimulationResultsComparisonUtils.assertEqualsSimulationResults(expected, results);
+        }
+        assertTrue(store.statistics().hits() > 0);
+      }
+    }
+  }
+
+  @Test
+  public void memoryBoundedStoreOfCapacityOneSurvivesSimulationUntilTime()
+  throws SchedulingInterruptedException, SimulationFacade.SimulationException
+  {
+    final var planA = makePlanA012(activityTypes);
+    final var planB = planA.duplicate();
+    planB.add(SchedulingActivity.of(idGenerator.next(), activityTypes.get("BasicActivity"), t2hr.plus(d1hr), null, null, true));
+
+    try (final var store = new MemoryBoundedCachedEngineStore(1, Long.MAX_VALUE)) {
+      final var facade = facade(store);
+      facade.simulateNoResultsAllActivities(planA);
+      facade.simulateWithResults(planB, t2hr.plus(d1hr.times(2)));
+      assertEquals(1, store.statistics().hits());
+
+      final var results = facade.simulateNoResultsAllActivities(planA).computeResults();
+      final var expected = facade(new InMemoryCachedEngineStore(1)).simulateNoResultsAllActivities(planA).computeResults();
+      SimulationResultsComparisonUtils.assertEqualsSimulationResults(expected, results);
+    }
+  }
 }
@@ -0,0 +1,339 @@
+package gov.nasa.jpl.aerie.scheduler.simulation;
+
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.driver.resources.SpilledSimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.scheduler.SimulationUtility;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryBoundedCachedEngineStoreTest {
+  SimulationEngineConfiguration simulationEngineConfiguration;
+  Map<CachedSimulationEngine, Long> sizes;
+
+  @TempDir
+  Path directory;
+
+  @BeforeEach
+  void beforeEach(){
+    this.simulationEngineConfiguration = new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(1));
+    this.sizes = new HashMap<>();
+  }
+
+  private CachedSimulationEngine cachedEngine(final long id, final Duration endsAt, final long bytes){
+    return cachedEngine(id, endsAt, bytes, new InMemorySimulationResourceManager());
+  }
+
+  private CachedSimulationEngine cachedEngine(
+      final long id,
+      final Duration endsAt,
+      final long bytes,
+      final InMemorySimulationResourceManager resourceManager
+  ){
+    final var engine = new CachedSimulationEngine(
+        endsAt,
+        Map.of(new ActivityDirectiveId(id), new ActivityDirective(Duration.HOUR, "ActivityType" + id, Map.of(), null, true)),
+        new SimulationEngine(SimulationUtility.getFooMissionModel().getInitialCells()),
+        null,
+        SimulationUtility.getFooMissionModel(),
+        resourceManager
+    );
+    this.sizes.put(engine, bytes);
+    return engine;
+  }
+
+  private MemoryBoundedCachedEngineStore store(final int capacity, final long byteBudget){
+    return new MemoryBoundedCachedEngineStore(capacity, byteBudget, this.sizes::get);
+  }
+
+  private MemoryBoundedCachedEngineStore spillingStore(final int capacity, final long byteBudget){
+    return new MemoryBoundedCachedEngineStore(capacity, byteBudget, this.sizes::get, this.directory);
+  }
+
+  /** Append a second of updates to every resource of a manager, starting at the given second. */
+  private static void simulateSecond(final InMemorySimulationResourceManager manager, final long second){
+    final var struct = ValueSchema.ofStruct(Map.of("name", ValueSchema.STRING, "values", ValueSchema.ofSeries(ValueSchema.REAL)));
+    manager.acceptUpdates(
+        Duration.of(second, Duration.SECONDS),
+        Map.of("/rate", Pair.of(ValueSchema.REAL, RealDynamics.linear(1.5 * second, -0.25))),
+        Map.of(
+            "/mode", Pair.of(ValueSchema.STRING, SerializedValue.of("ïdle " + second)),
+            "/state", Pair.of(struct, SerializedValue.of(Map.of(
+                "name", SerializedValue.of("a"),
+                "values", SerializedValue.of(List.of(SerializedValue.of(new BigDecimal("12345678901234567890.5")), SerializedValue.NULL)))))));
+  }
+
+  private static InMemorySimulationResourceManager resourceManager(final long seconds){
+    final var manager = new InMemorySimulationResourceManager();
+    for (var second = 0; second < seconds; second++) simulateSecond(manager, second);
+    return manager;
+  }
+
+  private long spilledFiles() throws IOException {
+    try (final var files = Files.list(this.directory)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  public void duplicateTest(){
+    try (final var store = store(10, 1000)) {
+      store.save(cachedEngine(1, Duration.SECOND, 100), this.simulationEngineConfiguration);
+      store.save(cachedEngine(1, Duration.SECOND, 100), this.simulationEngineConfiguration);
+      assertEquals(1, store.getCachedEngines(this.simulationEngineConfiguration).size());
+      assertEquals(100, store.statistics().retainedBytes());
+    }
+  }
+
+  @Test
+  public void evictsLeastSavedTimePerByte(){
+    try (final var store = store(10, 300)) {
+      final var cheapAndLate = cachedEngine(1, Duration.of(10, Duration.SECONDS), 100);
+      final var expensiveAndEarly = cachedEngine(2, Duration.of(1, Duration.SECONDS), 200);
+      final var incoming = cachedEngine(3, Duration.of(5, Duration.SECONDS), 100);
+      store.save(cheapAndLate, this.simulationEngineConfiguration);
+      store.save(expensiveAndEarly, this.simulationEngineConfiguration);
+      store.save(incoming, this.simulationEngineConfiguration);
+
+      final var cached = store.getCachedEngines(this.simulationEngineConfiguration);
+      assertTrue(cached.contains(cheapAndLate));
+      assertTrue(cached.contains(incoming));
+      assertFalse(cached.contains(expensiveAndEarly));
+      assertEquals(200, store.statistics().retainedBytes());
+      assertEquals(1, store.statistics().evictions());
+    }
+  }
+
+  @Test
+  public void rejectsEngineWorthLessThanThoseItDisplaces(){
+    try (final var store = store(10, 200)) {
+      final var kept = cachedEngine(1, Duration.of(10, Duration.SECONDS), 100);
+      store.save(kept, this.simulationEngineConfiguration);
+      store.save(cachedEngine(2, Duration.of(1, Duration.SECONDS), 150), this.simulationEngineConfiguration);
+      store.save(cachedEngine(3, Duration.of(1, Duration.HOURS), 500), this.simulationEngineConfiguration);
+
+      assertEquals(List.of(kept), store.getCachedEngines(this.simulationEngineConfiguration));
+      assertEquals(2, store.statistics().rejections());
+      assertEquals(0, store.statistics().evictions());
+    }
+  }
+
+  @Test
+  public void reuseProtectsFromEviction(){
+    try (final var store = store(2, 1000)) {
+      final var used = cachedEngine(1, Duration.of(2, Duration.SECONDS), 100);
+      final var unused = cachedEngine(2, Duration.of(3, Duration.SECONDS), 100);
+      store.save(used, this.simulationEngineConfiguration);
+      store.save(unused, this.simulationEngineConfiguration);
+      store.registerUsed(used);
+      store.registerMiss();
+      store.save(cachedEngine(3, Duration.of(4, Duration.SECONDS), 100), this.simulationEngineConfiguration);
+
+      final var cached = store.getCachedEngines(this.simulationEngineConfiguration);
+      assertTrue(cached.contains(used));
+      assertFalse(cached.contains(unused));
+
+      final var statistics = store.statistics();
+      assertEquals(2, statistics.engines());
+      assertEquals(1, statistics.hits());
+      assertEquals(1, statistics.misses());
+      assertEquals(1, statistics.evictions());
+      assertEquals(Duration.of(2, Duration.SECONDS), store.getTotalSavedSimulationTime());
+    }
+  }
+
+  @Test
+  public void closesEvictedAndRejectedEngines(){
+    try (final var store = store(2, 1000)) {
+      final var evicted = cachedEngine(1, Duration.of(1, Duration.SECONDS), 100);
+      final var kept = cachedEngine(2, Duration.of(10, Duration.SECONDS), 100);
+      store.save(evicted, this.simulationEngineConfiguration);
+      store.save(kept, this.simulationEngineConfiguration);
+      store.save(cachedEngine(3, Duration.of(5, Duration.SECONDS), 100), this.simulationEngineConfiguration);
+      final var rejected = cachedEngine(4, Duration.of(1, Duration.SECONDS), 900);
+      store.save(rejected, this.simulationEngineConfiguration);
+
+      assertTrue(isClosed(evicted));
+      assertTrue(isClosed(rejected));
+      assertFalse(isClosed(kept));
+    }
+  }
+
+  @Test
+  public void replacesWithoutClosingAtCapacityOne(){
+    try (final var store = store(1, 1000)) {
+      // With a capacity of one, the driver goes on simulating with the engines it saves, so none may be closed,
+      // and a newer engine always replaces the stored one, however little it is worth.
+      final var replaced = cachedEngine(1, Duration.of(10, Duration.SECONDS), 100);
+      store.save(replaced, this.simulationEngineConfiguration);
+      final var latest = cachedEngine(2, Duration.of(1, Duration.SECONDS), 100);
+      store.save(latest, this.simulationEngineConfiguration);
+
+      assertEquals(List.of(latest), store.getCachedEngines(this.simulationEngineConfiguration));
+      assertEquals(1, store.statistics().evictions());
+      assertEquals(0, store.statistics().rejections());
+      assertFalse(isClosed(replaced));
+      assertFalse(isClosed(latest));
+
+      // An engine over budget is not kept, but still displaces the stored one, which may have been stepped since.
+      final var oversized = cachedEngine(3, Duration.of(1, Duration.SECONDS), 2000);
+      store.save(oversized, this.simulationEngineConfiguration);
+      assertEquals(List.of(), store.getCachedEngines(this.simulationEngineConfiguration));
+      assertEquals(1, store.statistics().rejections());
+      assertFalse(isClosed(oversized));
+    }
+  }
+
+  @Test
+  public void handsEngineOverWhenUsedAtCapacityOne(){
+    try (final var store = store(1, 1000)) {
+      // The driver steps the engine it resumes from, whether or not it saves a checkpoint afterward.
+      final var used = cachedEngine(1, Duration.of(10, Duration.SECONDS), 100);
+      store.save(used, this.simulationEngineConfiguration);
+      store.registerUsed(used);
+
+      assertEquals(List.of(), store.getCachedEngines(this.simulationEngineConfiguration));
+      assertEquals(0, store.statistics().retainedBytes());
+      assertEquals(1, store.statistics().hits());
+      assertFalse(isClosed(used));
+    }
+  }
+
+  private static boolean isClosed(final CachedSimulationEngine engine) {
+    try {
+      engine.simulationEngine().unscheduleAfter(Duration.ZERO);
+      return false;
+    } catch (final IllegalStateException e) {
+      return true;
+    }
+  }
+
+  @Test
+  public void profilesSurviveSpilling(){
+    try (final var store = spillingStore(2, 1000)) {
+      final var original = resourceManager(3);
+      store.save(cachedEngine(1, Duration.SECOND, 100, original), this.simulationEngineConfiguration);
+
+      final var cached = store.getCachedEngines(this.simulationEngineConfiguration);
+      assertEquals(1, cached.size());
+      assertTrue(cached.getFirst().resourceManager().computeProfiles(Duration.SECOND).realProfiles().isEmpty());
+
+      final var elapsed = Duration.of(5, Duration.SECONDS);
+      final var rehydrated = store.rehydrate(cached.getFirst());
+      assertEquals(original.computeProfiles(elapsed), rehydrated.resourceManager().computeProfiles(elapsed));
+      // Each rehydration is independent of the others
+      rehydrated.resourceManager().acceptUpdates(elapsed, Map.of(), Map.of("/mode", Pair.of(ValueSchema.BOOLEAN, SerializedValue.of(true))));
+      assertEquals(original.computeProfiles(elapsed), store.rehydrate(cached.getFirst()).resourceManager().computeProfiles(elapsed));
+    }
+  }
+
+  @Test
+  public void spillsOnlySegmentsAddedSinceExtendedCheckpoint() throws IOException {
+    try (final var store = spillingStore(10, 1000)) {
+      final var manager = resourceManager(100);
+      store.registerMiss();
+      store.save(cachedEngine(1, Duration.of(100, Duration.SECONDS), 100, new InMemorySimulationResourceManager(manager)), this.simulationEngineConfiguration);
+      simulateSecond(manager, 100);
+      store.save(cachedEngine(2, Duration.of(101, Duration.SECONDS), 100, new InMemorySimulationResourceManager(manager)), this.simulationEngineConfiguration);
+
+      final var full = SpilledSimulationResourceManager.spill(manager, this.directory.resolve("full.profiles"));
+      final var late = store.getCachedEngines(this.simulationEngineConfiguration).stream()
+          .filter($ -> $.endsAt().equals(Duration.of(101, Duration.SECONDS)))
+          .findFirst()
+          .orElseThrow();
+      final var fileSizes = new ArrayList<Long>();
+      try (final var files = Files.list(this.directory)) {
+        for (final var file : files.toList()) fileSizes.add(Files.size(file));
+      }
+      // The later checkpoint only writes its last second, a hundredth of the full profiles.
+      assertTrue(fileSizes.stream().anyMatch($ -> $ * 10 < full.size()));
+      final var elapsed = Duration.of(101, Duration.SECONDS);
+      assertEquals(full.load().computeProfiles(elapsed), store.rehydrate(late).resourceManager().computeProfiles(elapsed));
+      full.release();
+    }
+  }
+
+  @Test
+  public void spillsEverySegmentOfUnrelatedCheckpoint() throws IOException {
+    try (final var store = spillingStore(10, 1000)) {
+      store.registerMiss();
+      store.save(cachedEngine(1, Duration.of(10, Duration.SECONDS), 100, resourceManager(10)), this.simulationEngineConfiguration);
+      // A manager of another simulation, with as many segments but different values
+      final var other = new InMemorySimulationResourceManager();
+      for (var second = 1; second <= 11; second++) simulateSecond(other, second);
+      store.save(cachedEngine(2, Duration.of(11, Duration.SECONDS), 100, other), this.simulationEngineConfiguration);
+
+      final var cached = store.getCachedEngines(this.simulationEngineConfiguration).stream()
+          .filter($ -> $.endsAt().equals(Duration.of(11, Duration.SECONDS)))
+          .findFirst()
+          .orElseThrow();
+      final var elapsed = Duration.of(12, Duration.SECONDS);
+      assertEquals(other.computeProfiles(elapsed), store.rehydrate(cached).resourceManager().computeProfiles(elapsed));
+    }
+  }
+
+  @Test
+  public void evictionDeletesSpilledProfiles() throws IOException {
+    try (final var store = spillingStore(2, 1000)) {
+      store.registerMiss();
+      store.save(cachedEngine(1, Duration.SECOND, 100, resourceManager(1)), this.simulationEngineConfiguration);
+      store.registerMiss();
+      store.save(cachedEngine(2, Duration.SECOND, 100, resourceManager(1)), this.simulationEngineConfiguration);
+      store.registerMiss();
+      store.save(cachedEngine(3, Duration.of(10, Duration.SECONDS), 100, resourceManager(1)), this.simulationEngineConfiguration);
+
+      assertEquals(2, store.getCachedEngines(this.simulationEngineConfiguration).size());
+      assertEquals(1, store.statistics().evictions());
+      assertEquals(2, spilledFiles());
+    }
+    assertEquals(0, spilledFiles());
+  }
+
+  @Test
+  public void keepsSpilledProfilesExtendedByStoredCheckpoint() throws IOException {
+    try (final var store = spillingStore(1, 1000)) {
+      final var manager = resourceManager(1);
+      store.registerMiss();
+      store.save(cachedEngine(1, Duration.SECOND, 100, new InMemorySimulationResourceManager(manager)), this.simulationEngineConfiguration);
+      final var first = store.getCachedEngines(this.simulationEngineConfiguration).getFirst();
+      final var resumed = store.rehydrate(first);
+      store.registerUsed(first);
+      simulateSecond(resumed.resourceManager(), 1);
+      store.save(cachedEngine(2, Duration.of(2, Duration.SECONDS), 100, resumed.resourceManager()), this.simulationEngineConfiguration);
+
+      // The first checkpoint left the store, but the second one reads its segments back from its file.
+      assertEquals(2, spilledFiles());
+      final var elapsed = Duration.of(3, Duration.SECONDS);
+      simulateSecond(manager, 1);
+      assertEquals(
+          manager.computeProfiles(elapsed),
+          store.rehydrate(store.getCachedEngines(this.simulationEngineConfiguration).getFirst()).resourceManager().computeProfiles(elapsed));
+    }
+    assertEquals(0, spilledFiles());
+  }
+}
@@ -48,7 +48,10 @@ public final class SchedulerAppDriver {
     //load the service configuration options
     final var config = loadConfiguration();
 
-    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret());
+    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(
+        config.merlinGraphqlURI(),
+        config.hasuraGraphQlAdminSecret(),
+        config.maxConcurrentMerlinRequests());
     final var permissionsService = new PermissionsService(new GraphQLPermissionsService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret()));
 
     final var stores = loadStores(config);
@@ -149,7 +152,8 @@ public final class SchedulerAppDriver {
                           getEnv("SCHEDULER_DB_PASSWORD", ""),
                           "aerie"),
         URI.create(getEnv("MERLIN_GRAPHQL_URL", "http://localhost:8080/v1/graphql")),
-        getEnv("HASURA_GRAPHQL_ADMIN_SECRET", "")
+        getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
+        Integer.parseInt(getEnv("MERLIN_GRAPHQL_MAX_CONCURRENT_REQUESTS", "16"))
     );
   }
 }
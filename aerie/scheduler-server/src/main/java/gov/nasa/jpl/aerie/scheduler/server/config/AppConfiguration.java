@@ -8,6 +8,7 @@ import java.util.Objects;
  * @param httpPort the network port on which the scheduler should listen for http requests
  * @param enableJavalinDevLogging controls the level of http access logging from javalin endpoints
  * @param merlinGraphqlURI endpoint of the merlin graphql service that should be used to fetch/store plan data
+ * @param maxConcurrentMerlinRequests the largest number of requests to have in flight to the merlin graphql service
  */
 //TODO: remove backdoor access to directly mounted merlinFileStore (eg via merlin endpoint for downloading mission jars)
 public record AppConfiguration(
@@ -15,7 +16,8 @@ public record AppConfiguration(
     boolean enableJavalinDevLogging,
     Store store,
     URI merlinGraphqlURI,
-    String hasuraGraphQlAdminSecret
+    String hasuraGraphQlAdminSecret,
+    int maxConcurrentMerlinRequests
 )
 {
   public AppConfiguration {
@@ -72,6 +72,7 @@ import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -96,14 +97,53 @@ import static java.util.Map.entry;
  * {@inheritDoc}
  *
  * @param merlinGraphqlURI endpoint of the merlin graphql service that should be used to access all plan data
+ * @param requestPermits bound on the number of graphql requests in flight at once, counting each until its response
+ *     has been read in full
  */
-public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGraphQlAdminSecret) implements MerlinDatabaseService.OwnerRole {
+public record GraphQLMerlinDatabaseService(
+    URI merlinGraphqlURI,
+    String hasuraGraphQlAdminSecret,
+    Semaphore requestPermits
+) implements MerlinDatabaseService.OwnerRole {
 
   /**
    * timeout for http graphql requests issued to aerie
    */
   private static final java.time.Duration httpTimeout = java.time.Duration.ofSeconds(60);
 
+  /**
+   * client shared by all requests, so that connections to aerie are kept alive and reused rather than
+   * re-established for every request
+   */
+  private static final HttpClient httpClient = HttpClient
+      .newBuilder()
+      .version(HttpClient.Version.HTTP_2)
+      .connectTimeout(httpTimeout)
+      .build();
+
+  /**
+   * largest number of profile segments inserted by a single graphql request
+   */
+  private static final int maxProfileSegmentsPerRequest = 10_000;
+
+  /**
+   * @param maxConcurrentRequests the largest number of graphql requests to have in flight at once
+   */
+  public GraphQLMerlinDatabaseService(
+      final URI merlinGraphqlURI,
+      final String hasuraGraphQlAdminSecret,
+      final int maxConcurrentRequests
+  ) {
+    this(merlinGraphqlURI, hasuraGraphQlAdminSecret, new Semaphore(requirePositive(maxConcurrentRequests)));
+  }
+
+  private static int requirePositive(final int maxConcurrentRequests) {
+    if (maxConcurrentRequests < 1) {
+      throw new IllegalArgumentException("max concurrent graphql requests must be positive, but was " + maxConcurrentRequests);
+    }
+    return maxConcurrentRequests;
+  }
+
   public record DatasetMetadata(DatasetId datasetId, Duration offsetFromPlanStart){}
 
   private record SimulationId(long id){}
@@ -139,46 +179,21 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
    * @return the json response returned by aerie, or an empty optional in case of io errors
    */
   private Optional<JsonObject> postRequest(final String gqlStr) throws IOException, MerlinServiceException {
-    try {
-      //TODO: (mem optimization) use streams here to avoid several copies of strings
-      final var reqBody = Json.createObjectBuilder().add("query", gqlStr).build();
-      final var httpReq = HttpRequest
-          .newBuilder().uri(merlinGraphqlURI).timeout(httpTimeout)
-          .header("Content-Type", "application/json")
-          .header("Accept", "application/json")
-          .header("Origin", merlinGraphqlURI.toString())
-          .header("x-hasura-admin-secret", hasuraGraphQlAdminSecret)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
-          .build();
-      //TODO: (net optimization) gzip compress the request body if large enough (eg for createAllActs)
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
-      if (httpResp.statusCode() != 200) {
-        //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
-        return Optional.empty();
-      }
-      final var respBody = Json.createReader(httpResp.body()).readObject();
-      if (respBody.containsKey("errors")) {
-        throw new MerlinServiceException(respBody.toString());
-      }
-      return Optional.of(respBody);
-    } catch (final InterruptedException e) {
-      //TODO: maybe retry if interrupted? but depends on semantics (eg don't duplicate mutation if not idempotent)
-      return Optional.empty();
-    } catch (final JsonException e) { // or also JsonParsingException
-      throw new IOException("json parse error on graphql response:" + e.getMessage(), e);
-    }
+    return postRequestBody(Json.createObjectBuilder().add("query", gqlStr).build());
   }
 
   protected Optional<JsonObject> postRequest(final String query, final JsonObject variables)
   throws IOException, MerlinServiceException {
+    return postRequestBody(Json
+        .createObjectBuilder()
+        .add("query", query)
+        .add("variables", variables)
+        .build());
+  }
+
+  private Optional<JsonObject> postRequestBody(final JsonObject reqBody) throws IOException, MerlinServiceException {
     try {
       //TODO: (mem optimization) use streams here to avoid several copies of strings
-      final var reqBody = Json
-          .createObjectBuilder()
-          .add("query", query)
-          .add("variables", variables)
-          .build();
       final var httpReq = HttpRequest
           .newBuilder().uri(merlinGraphqlURI).timeout(httpTimeout)
           .header("Content-Type", "application/json")
@@ -188,17 +203,24 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
           .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
           .build();
       //TODO: (net optimization) gzip compress the request body if large enough (eg for createAllActs)
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
-      if (httpResp.statusCode() != 200) {
-        //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
-        return Optional.empty();
-      }
-      final var respBody = Json.createReader(httpResp.body()).readObject();
-      if (respBody.containsKey("errors")) {
-        throw new MerlinServiceException(respBody.toString());
+      // hold the permit until the response body is read and closed, since the body streams in after the headers
+      requestPermits.acquire();
+      try {
+        final var httpResp = httpClient.send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
+        try (final var body = httpResp.body()) {
+          if (httpResp.statusCode() != 200) {
+            //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
+            return Optional.empty();
+          }
+          final var respBody = Json.createReader(body).readObject();
+          if (respBody.containsKey("errors")) {
+            throw new MerlinServiceException(respBody.toString());
+          }
+          return Optional.of(respBody);
+        }
+      } finally {
+        requestPermits.release();
       }
-      return Optional.of(respBody);
     } catch (final InterruptedException e) {
       //TODO: maybe retry if interrupted? but depends on semantics (eg don't duplicate mutation if not idempotent)
       return Optional.empty();
@@ -1603,40 +1625,48 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
       final ProfileSet profileSet
   ) throws MerlinServiceException, IOException
   {
+    // segments of many profiles share each request, so that uploading a simulation with many resources
+    // costs a handful of requests rather than one per resource
     final var realProfiles = profileSet.realProfiles();
     final var discreteProfiles = profileSet.discreteProfiles();
+    var batch = Json.createArrayBuilder();
+    var batchSize = 0;
     for (final var entry : records.entrySet()) {
       final ProfileRecord record =  entry.getValue();
       final var resource =  entry.getKey();
-      switch (record.type().getLeft()) {
-        case "real" -> postRealProfileSegments(
+      final var rows = switch (record.type().getLeft()) {
+        case "real" -> profileSegmentRows(
             datasetId,
             record,
-            realProfiles.get(resource).segments());
-        case "discrete" -> postDiscreteProfileSegments(
+            realProfiles.get(resource).segments(),
+            realDynamicsP);
+        case "discrete" -> profileSegmentRows(
             datasetId,
             record,
-            discreteProfiles.get(resource).segments());
+            discreteProfiles.get(resource).segments(),
+            serializedValueP);
         default -> throw new Error("Unrecognized profile type " + record.type().getLeft());
+      };
+      for (final var row : rows) {
+        batch.add(row);
+        batchSize++;
+        if (batchSize == maxProfileSegmentsPerRequest) {
+          insertProfileSegments(batch, batchSize);
+          batch = Json.createArrayBuilder();
+          batchSize = 0;
+        }
       }
     }
+    if (batchSize > 0) insertProfileSegments(batch, batchSize);
   }
 
-  private <Dynamics> void postProfileSegment(
+  private static <Dynamics> List<JsonObject> profileSegmentRows(
       final DatasetId datasetId,
       final ProfileRecord profileRecord,
       final List<ProfileSegment<Optional<Dynamics>>> segments,
       final JsonParser<Dynamics> dynamicsP
-  ) throws MerlinServiceException, IOException
-  {
-    final var req = """
-        mutation($profileSegments:[profile_segment_insert_input!]!) {
-          insert_profile_segment(objects: $profileSegments) {
-            affected_rows
-          }
-        }
-        """;
-    final var profiles = Json.createArrayBuilder();
+  ) {
+    final var rows = new ArrayList<JsonObject>(segments.size());
     var accumulatedOffset = Duration.ZERO;
     for (final var pair : segments) {
       final var duration = pair.extent();
@@ -1651,7 +1681,7 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
         serializedDynamics = null;
         stringIsGap = true;
       }
-      profiles.add(Json.createObjectBuilder()
+      rows.add(Json.createObjectBuilder()
           .add("dataset_id", datasetId.id())
           .add("profile_id", profileRecord.id())
           .add("start_offset", graphQLIntervalFromDuration(accumulatedOffset).toString())
@@ -1660,9 +1690,21 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
           .build());
       accumulatedOffset = Duration.add(accumulatedOffset, duration);
     }
+    return rows;
+  }
 
+  private void insertProfileSegments(final JsonArrayBuilder profileSegments, final int count)
+  throws MerlinServiceException, IOException
+  {
+    final var req = """
+        mutation($profileSegments:[profile_segment_insert_input!]!) {
+          insert_profile_segment(objects: $profileSegments) {
+            affected_rows
+          }
+        }
+        """;
     final var arguments = Json.createObjectBuilder()
-                              .add("profileSegments", profiles)
+                              .add("profileSegments", profileSegments)
                               .build();
 
     final JsonObject response;
@@ -1672,27 +1714,11 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
       throw new MerlinServiceException(e.toString());
     }
     final var affected_rows = response.getJsonObject("data").getJsonObject("insert_profile_segment").getInt("affected_rows");
-    if(affected_rows!=segments.size()) {
+    if(affected_rows!=count) {
       throw new MerlinServiceException("not the same size");
     }
   }
 
-  private void postRealProfileSegments(final DatasetId datasetId,
-                                              final ProfileRecord profileRecord,
-                                              final List<ProfileSegment<Optional<RealDynamics>>> segments)
-  throws MerlinServiceException, IOException
-  {
-    postProfileSegment(datasetId, profileRecord, segments, realDynamicsP);
-  }
-
-  private void postDiscreteProfileSegments(final DatasetId datasetId,
-                                                  final ProfileRecord profileRecord,
-                                                  final List<ProfileSegment<Optional<SerializedValue>>> segments)
-  throws MerlinServiceException, IOException
-  {
-    postProfileSegment(datasetId, profileRecord, segments, serializedValueP);
-  }
-
   private void insertSimulationTopics(
       DatasetId datasetId,
       final List<Triple<Integer, String, ValueSchema>> topics) throws MerlinServiceException, IOException
@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.scheduler.worker;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -23,6 +24,7 @@ import gov.nasa.jpl.aerie.scheduler.server.services.SpecificationService;
 import gov.nasa.jpl.aerie.scheduler.server.services.UnexpectedSubtypeError;
 import gov.nasa.jpl.aerie.scheduler.worker.postgres.PostgresSchedulingRequestNotificationPayload;
 import gov.nasa.jpl.aerie.scheduler.worker.services.SchedulingDSLCompilationService;
+import gov.nasa.jpl.aerie.scheduler.worker.services.SimulationCheckpointCache;
 import gov.nasa.jpl.aerie.scheduler.worker.services.SynchronousSchedulerAgent;
 import io.javalin.Javalin;
 import org.slf4j.Logger;
@@ -33,8 +35,14 @@ public final class SchedulerWorkerAppDriver {
 
   public static void main(String[] args) throws Exception {
     final var config = loadConfiguration();
+    if (config.cachedSimulationEnginesSpillDirectory().isPresent()) {
+      Files.createDirectories(config.cachedSimulationEnginesSpillDirectory().get());
+    }
 
-    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret());
+    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(
+        config.merlinGraphqlURI(),
+        config.hasuraGraphQlAdminSecret(),
+        config.maxConcurrentMerlinRequests());
 
     final SchedulingDSLCompilationService schedulingDSLCompilationService;
     try {
@@ -72,7 +80,10 @@ public final class SchedulerWorkerAppDriver {
         merlinDatabaseService,
         config.merlinFileStore(),
         config.outputMode(),
-        schedulingDSLCompilationService);
+        schedulingDSLCompilationService,
+        new SimulationCheckpointCache(
+            config.cachedSimulationEnginesByteBudget(),
+            config.cachedSimulationEnginesSpillDirectory()));
 
     final var notificationQueue = new LinkedBlockingQueue<PostgresSchedulingRequestNotificationPayload>();
     final var listenAction = new ListenSchedulerCapability(hikariDataSource, notificationQueue);
@@ -135,6 +146,8 @@ public final class SchedulerWorkerAppDriver {
       logger.warn("MAX_NB_CACHED_SIMULATION_ENGINES is " + maxNbCachedSimulationEngine + " but minimum is 1. Setting to 1.");
       maxNbCachedSimulationEngine = 1;
     }
+    final long cachedSimulationEnginesByteBudget = Long.parseLong(getEnv("CACHED_SIMULATION_ENGINES_BYTE_BUDGET", "1073741824"));
+    final var cachedSimulationEnginesSpillDirectory = getEnv("CACHED_SIMULATION_ENGINES_SPILL_DIRECTORY", "");
     return new WorkerAppConfiguration(
         new PostgresStore(getEnv("AERIE_DB_HOST", "postgres"),
                           getEnv("SCHEDULER_DB_USER", ""),
@@ -145,7 +158,12 @@ public final class SchedulerWorkerAppDriver {
         Path.of(getEnv("MERLIN_LOCAL_STORE", "/usr/src/app/merlin_file_store")),
         PlanOutputMode.valueOf((getEnv("SCHEDULER_OUTPUT_MODE", "CreateNewOutputPlan"))),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
-        maxNbCachedSimulationEngine
+        maxNbCachedSimulationEngine,
+        cachedSimulationEnginesByteBudget,
+        cachedSimulationEnginesSpillDirectory.isEmpty()
+            ? Optional.empty()
+            : Optional.of(Path.of(cachedSimulationEnginesSpillDirectory)),
+        Integer.parseInt(getEnv("MERLIN_GRAPHQL_MAX_CONCURRENT_REQUESTS", "16"))
     );
   }
 }
@@ -0,0 +1,205 @@
+package gov.nasa.jpl.aerie.scheduler.worker.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.simulation.MemoryBoundedCachedEngineStore;
+import gov.nasa.jpl.aerie.scheduler.worker.services.SynchronousSchedulerAgent.SchedulerMissionModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Simulation checkpoints kept by a scheduler worker from one scheduling request to the next.
+ *
+ * A cached simulation engine can only be resumed with the very mission model instance that produced it,
+ * so each {@link Session} pairs a loaded mission model with the store of engines simulated with it.
+ * Re-running a specification against an unchanged model and configuration then resumes from the latest
+ * checkpoint that the previous run left behind, instead of simulating from the start of the horizon.
+ *
+ * Sessions are checked out for the duration of a scheduling run, so that no two runs share a store.
+ * The byte budget is divided evenly between sessions, and the least recently used session is dropped
+ * when there are too many. Checking out a session for a new revision or configuration of a mission model
+ * drops every session for the old ones.
+ *
+ * Given a spill directory, the stores of every session keep the resource profiles of their engines there,
+ * rather than on the heap.
+ */
+public final class SimulationCheckpointCache implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SimulationCheckpointCache.class);
+
+  public static final int DEFAULT_MAX_SESSIONS = 4;
+
+  /**
+   * Identifies the simulations whose checkpoints can be shared.
+   *
+   * @param configuration the mission model, its configuration, and the start of the plan
+   * @param modelRevision the last-modified time of the mission model JAR, so that a JAR replaced in place is reloaded
+   * @param horizonStart the start of the scheduling horizon, from which every simulation starts
+   * @param horizonEnd the end of the scheduling horizon, against which end-anchored directives are placed
+   */
+  public record Key(
+      SimulationEngineConfiguration configuration,
+      long modelRevision,
+      Instant horizonStart,
+      Instant horizonEnd
+  ) {
+    /** Whether both keys refer to the same mission model, but to different revisions or configurations of it. */
+    boolean supersedes(final Key other) {
+      return this.configuration.missionModelId().equals(other.configuration.missionModelId())
+             && (this.modelRevision != other.modelRevision
+                 || !this.configuration.simulationConfiguration().equals(other.configuration.simulationConfiguration()));
+    }
+  }
+
+  /** A loaded mission model, together with the engines simulated with it so far. */
+  public static final class Session implements AutoCloseable {
+    private final Key key;
+    private final SchedulerMissionModel model;
+    private final MemoryBoundedCachedEngineStore engines;
+    private final Duration savedAtCheckOut;
+
+    private Session(final Key key, final SchedulerMissionModel model, final MemoryBoundedCachedEngineStore engines) {
+      this.key = key;
+      this.model = model;
+      this.engines = engines;
+      this.savedAtCheckOut = engines.getTotalSavedSimulationTime();
+    }
+
+    public Key key() {
+      return this.key;
+    }
+
+    public SchedulerMissionModel model() {
+      return this.model;
+    }
+
+    public MemoryBoundedCachedEngineStore engines() {
+      return this.engines;
+    }
+
+    /** The simulation time saved by resuming from cached engines since this session was checked out. */
+    public Duration savedSimulationTime() {
+      return this.engines.getTotalSavedSimulationTime().minus(this.savedAtCheckOut);
+    }
+
+    @Override
+    public void close() {
+      this.engines.close();
+    }
+  }
+
+  private final int maxSessions;
+  private final long byteBudget;
+  private final Optional<Path> spillDirectory;
+  // Sessions that are not checked out, from least to most recently used.
+  private final LinkedHashMap<Key, Session> idle = new LinkedHashMap<>();
+
+  /**
+   * @param maxSessions the maximum number of distinct keys to keep checkpoints for
+   * @param byteBudget the maximum estimated memory, in bytes, that cached engines may retain across all sessions
+   * @param spillDirectory the directory in which to write the resource profiles of cached engines, if any
+   */
+  public SimulationCheckpointCache(final int maxSessions, final long byteBudget, final Optional<Path> spillDirectory) {
+    if (maxSessions < 1) throw new IllegalArgumentException("The checkpoint cache must allow at least one session");
+    if (byteBudget < maxSessions) throw new IllegalArgumentException("The checkpoint cache byte budget is too small");
+    this.maxSessions = maxSessions;
+    this.byteBudget = byteBudget;
+    this.spillDirectory = spillDirectory;
+  }
+
+  public SimulationCheckpointCache(final int maxSessions, final long byteBudget) {
+    this(maxSessions, byteBudget, Optional.empty());
+  }
+
+  public SimulationCheckpointCache(final long byteBudget, final Optional<Path> spillDirectory) {
+    this(DEFAULT_MAX_SESSIONS, byteBudget, spillDirectory);
+  }
+
+  public SimulationCheckpointCache(final long byteBudget) {
+    this(byteBudget, Optional.empty());
+  }
+
+  /**
+   * Take the session for a key, loading its mission model with `loader` if there is no idle session for it.
+   *
+   * The session must be returned with {@link #checkIn} once the scheduling run is over.
+   */
+  public Session checkOut(final Key key, final int engineCapacity, final Supplier<SchedulerMissionModel> loader) {
+    final var dropped = new ArrayList<Session>();
+    final Session reusable;
+    synchronized (this) {
+      final var iterator = this.idle.entrySet().iterator();
+      while (iterator.hasNext()) {
+        final var entry = iterator.next();
+        if (!key.supersedes(entry.getKey())) continue;
+        iterator.remove();
+        dropped.add(entry.getValue());
+      }
+
+      final var existing = this.idle.remove(key);
+      if (existing != null && existing.engines.capacity() != engineCapacity) {
+        dropped.add(existing);
+        reusable = null;
+      } else {
+        reusable = existing;
+      }
+    }
+    closeAll(dropped, "the mission model or its configuration changed");
+
+    if (reusable != null) {
+      LOGGER.info("Reusing {} cached simulation engines from a previous scheduling run",
+                  reusable.engines.statistics().engines());
+      return reusable;
+    }
+
+    return new Session(
+        key,
+        loader.get(),
+        new MemoryBoundedCachedEngineStore(
+            engineCapacity,
+            this.byteBudget / this.maxSessions,
+            this.spillDirectory.orElse(null)));
+  }
+
+  /** Return a session, keeping its engines for later runs with the same key. */
+  public void checkIn(final Session session) {
+    final var dropped = new ArrayList<Session>();
+    synchronized (this) {
+      // If another run checked out a session for the same key in the meantime, keep only the latest one.
+      final var replaced = this.idle.put(session.key, session);
+      if (replaced != null) dropped.add(replaced);
+
+      final var iterator = this.idle.values().iterator();
+      while (this.idle.size() > this.maxSessions) {
+        dropped.add(iterator.next());
+        iterator.remove();
+      }
+    }
+    closeAll(dropped, "the checkpoint cache is full");
+  }
+
+  @Override
+  public void close() {
+    final List<Session> dropped;
+    synchronized (this) {
+      dropped = new ArrayList<>(this.idle.values());
+      this.idle.clear();
+    }
+    closeAll(dropped, "the checkpoint cache is closing");
+  }
+
+  private static void closeAll(final List<Session> sessions, final String reason) {
+    for (final var session : sessions) {
+      LOGGER.info("Dropping the cached simulation engines of mission model {}, as {}",
+                  session.key.configuration().missionModelId().id(), reason);
+      session.close();
+    }
+  }
+}
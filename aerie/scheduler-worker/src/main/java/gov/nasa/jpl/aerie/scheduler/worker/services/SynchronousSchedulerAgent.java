@@ -8,6 +8,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -70,7 +71,6 @@ import gov.nasa.jpl.aerie.scheduler.server.services.ScheduleResults;
 import gov.nasa.jpl.aerie.scheduler.server.services.SchedulerAgent;
 import gov.nasa.jpl.aerie.scheduler.server.services.SpecificationService;
 import gov.nasa.jpl.aerie.scheduler.simulation.CheckpointSimulationFacade;
-import gov.nasa.jpl.aerie.scheduler.simulation.InMemoryCachedEngineStore;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationData;
 import gov.nasa.jpl.aerie.scheduler.solver.PrioritySolver;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
@@ -85,6 +85,7 @@ import org.slf4j.LoggerFactory;
  * @param merlinDatabaseService interface for querying plan and mission model details from merlin
  * @param modelJarsDir path to parent directory for mission model jars (interim backdoor jar file access)
  * @param outputMode how the scheduling output should be returned to aerie (eg overwrite or new container)
+ * @param checkpointCache simulation checkpoints kept from one scheduling request to the next
  */
 //TODO: will eventually need scheduling goal service arg to pull goals from scheduler's own data store
 public record SynchronousSchedulerAgent(
@@ -92,7 +93,8 @@ public record SynchronousSchedulerAgent(
     MerlinDatabaseService.OwnerRole merlinDatabaseService,
     Path modelJarsDir,
     PlanOutputMode outputMode,
-    SchedulingDSLCompilationService schedulingDSLCompilationService
+    SchedulingDSLCompilationService schedulingDSLCompilationService,
+    SimulationCheckpointCache checkpointCache
 )
     implements SchedulerAgent
 {
@@ -102,6 +104,7 @@ public record SynchronousSchedulerAgent(
     Objects.requireNonNull(merlinDatabaseService);
     Objects.requireNonNull(modelJarsDir);
     Objects.requireNonNull(schedulingDSLCompilationService);
+    Objects.requireNonNull(checkpointCache);
   }
 
   /**
@@ -119,7 +122,8 @@ public record SynchronousSchedulerAgent(
       final Supplier<Boolean> canceledListener,
       final int sizeCachedEngineStore
   ) {
-    try(final var cachedEngineStore = new InMemoryCachedEngineStore(sizeCachedEngineStore)) {
+    SimulationCheckpointCache.Session checkpoints = null;
+    try {
       //confirm requested plan to schedule from/into still exists at targeted version (request could be stale)
       //TODO: maybe some kind of high level db transaction wrapping entire read/update of target plan revision
 
@@ -127,21 +131,32 @@ public record SynchronousSchedulerAgent(
       final var planMetadata = merlinDatabaseService.getPlanMetadata(specification.planId());
       ensurePlanRevisionMatch(specification, planMetadata.planRev());
       ensureRequestIsCurrent(specification, request);
-      //create scheduler problem seeded with initial plan
-      final var schedulerMissionModel = loadMissionModel(planMetadata);
       final var planningHorizon = new PlanningHorizon(
           specification.horizonStartTimestamp().toInstant(),
           specification.horizonEndTimestamp().toInstant()
       );
+      final var simulationConfiguration = new SimulationEngineConfiguration(
+          planMetadata.modelConfiguration(),
+          planMetadata.horizon().getStartInstant(),
+          new MissionModelId(planMetadata.modelId()));
+      //resume from the checkpoints of earlier runs on the same model and horizon, reusing the model they were taken with
+      checkpoints = checkpointCache.checkOut(
+          new SimulationCheckpointCache.Key(
+              simulationConfiguration,
+              modelRevision(planMetadata),
+              planningHorizon.getStartInstant(),
+              planningHorizon.getEndInstant()),
+          sizeCachedEngineStore,
+          () -> loadMissionModel(planMetadata));
+      final var cachedEngineStore = checkpoints.engines();
+      //create scheduler problem seeded with initial plan
+      final var schedulerMissionModel = checkpoints.model();
       final var simulationFacade = new CheckpointSimulationFacade(
           schedulerMissionModel.missionModel(),
           schedulerMissionModel.schedulerModel(),
           cachedEngineStore,
           planningHorizon,
-          new SimulationEngineConfiguration(
-              planMetadata.modelConfiguration(),
-              planMetadata.horizon().getStartInstant(),
-              new MissionModelId(planMetadata.modelId())),
+          simulationConfiguration,
           canceledListener
       );
       final var oldActivityIdToGoalId = merlinDatabaseService.getActivityIdToGoalIdMap(specification.planId());
@@ -288,7 +303,7 @@ public record SynchronousSchedulerAgent(
 
       //collect results and notify subscribers of success
       final var results = collectResults(solutionPlan, uploadIdMap, goals);
-      LOGGER.info("Simulation cache saved " + cachedEngineStore.getTotalSavedSimulationTime() + " in simulation time");
+      LOGGER.info("Simulation cache saved " + checkpoints.savedSimulationTime() + " in simulation time");
       writer.succeedWith(results, datasetId);
     } catch (final SpecificationLoadException e) {
       writer.failWith(b -> b
@@ -330,6 +345,10 @@ public record SynchronousSchedulerAgent(
           .type("OTHER_EXCEPTION")
           .message(e.toString())
           .trace(e));
+    } finally {
+      // Checkpoints are consistent snapshots of the simulations that produced them, so they remain reusable
+      // even if this run failed or was canceled.
+      if (checkpoints != null) checkpointCache.checkIn(checkpoints);
     }
   }
 
@@ -476,7 +495,17 @@ public record SynchronousSchedulerAgent(
   }
 
   record PlanComponents(Plan schedulerPlan, MerlinPlan merlinPlan) {}
-  record SchedulerMissionModel(MissionModel<?> missionModel, SchedulerModel schedulerModel) {}
+  public record SchedulerMissionModel(MissionModel<?> missionModel, SchedulerModel schedulerModel) {}
+
+  /** The last-modified time of the mission model JAR of a plan, or -1 if it cannot be read. */
+  private long modelRevision(final PlanMetadata plan) {
+    try {
+      return Files.getLastModifiedTime(modelJarsDir.resolve(plan.modelPath())).toMillis();
+    } catch (final IOException e) {
+      // Loading the model will report the problem with the JAR.
+      return -1;
+    }
+  }
 
   /**
    * creates an instance of the mission model referenced by the specified plan
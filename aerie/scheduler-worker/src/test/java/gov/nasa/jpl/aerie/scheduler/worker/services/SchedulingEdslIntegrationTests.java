@@ -491,6 +491,54 @@ public class SchedulingEdslIntegrationTests {
     assertEquals(new SerializedValue.StringValue("Company"), activityCreated.iterator().next().serializedActivity().getArguments().get("producer"));
   }
 
+  /**
+   * Scheduling requests run back to back on one checkpoint cache of capacity one resume from each other's checkpoints.
+   * Going back to an earlier plan must give the same outcome as scheduling it with a fresh cache.
+   */
+  @Test
+  void testBackToBackRequestsOnCheckpointCacheOfCapacityOne() {
+    final var growBanana = new ActivityDirective(
+        Duration.HOUR,
+        "GrowBanana",
+        Map.of(
+            "quantity", SerializedValue.of(3),
+            "growingDuration", SerializedValue.of(Duration.MINUTE.in(Duration.MICROSECONDS))),
+        null,
+        true);
+    final var biteBanana = new ActivityDirective(
+        Duration.HOUR.times(3),
+        "BiteBanana",
+        Map.of("biteSize", SerializedValue.of(2)),
+        null,
+        true);
+    final var planA = Map.of(new ActivityDirectiveId(1L), growBanana);
+    final var planB = Map.of(new ActivityDirectiveId(1L), growBanana, new ActivityDirectiveId(2L), biteBanana);
+    final var goals = List.of(new EdslGoal(new GoalId(0L, 0L), """
+          export default () => Goal.CoexistenceGoal({
+            forEach: Real.Resource("/fruit").greaterThan(4.0),
+            activityTemplate: ActivityTemplates.PeelBanana({peelDirection: "fromStem"}),
+            startsAt: TimingConstraint.singleton(WindowProperty.END)
+          })
+          """, true));
+
+    final var expectedA = runScheduler(BANANANATION, planA, goals, List.of(), PLANNING_HORIZON, Optional.empty(), 1);
+    final var expectedB = runScheduler(BANANANATION, planB, goals, List.of(), PLANNING_HORIZON, Optional.empty(), 1);
+
+    try (final var checkpointCache = new SimulationCheckpointCache(Long.MAX_VALUE)) {
+      for (final var plan : List.of(planA, planB, planA, planB)) {
+        final var expected = (plan == planA) ? expectedA : expectedB;
+        final var results = runScheduler(
+            BANANANATION, plan, goals, List.of(), PLANNING_HORIZON, Optional.empty(), 1, checkpointCache);
+        assertEquals(
+            expected.updatedPlan().stream().map(ActivityDirective::toString).sorted().toList(),
+            results.updatedPlan().stream().map(ActivityDirective::toString).sorted().toList());
+        assertEquals(
+            expected.scheduleResults.goalResults().get(new GoalId(0L, 0L)).createdActivities().size(),
+            results.scheduleResults.goalResults().get(new GoalId(0L, 0L)).createdActivities().size());
+      }
+    }
+  }
+
   @Test
   void testCoexistenceGoalWithAnchors() {
     final var results = runScheduler(
@@ -2188,6 +2236,29 @@ public class SchedulingEdslIntegrationTests {
       final PlanningHorizon planningHorizon,
       final Optional<ExternalProfiles> externalProfiles,
       final int cachedEngineStoreCapacity
+  ) {
+    try (final var checkpointCache = new SimulationCheckpointCache(Long.MAX_VALUE)) {
+      return runScheduler(
+          desc,
+          plannedActivities,
+          goals,
+          globalSchedulingConditions,
+          planningHorizon,
+          externalProfiles,
+          cachedEngineStoreCapacity,
+          checkpointCache);
+    }
+  }
+
+  private SchedulingRunResults runScheduler(
+      final MissionModelDescription desc,
+      final Map<ActivityDirectiveId, ActivityDirective> plannedActivities,
+      final Iterable<EdslGoal> goals,
+      final List<SchedulingConditionRecord> globalSchedulingConditions,
+      final PlanningHorizon planningHorizon,
+      final Optional<ExternalProfiles> externalProfiles,
+      final int cachedEngineStoreCapacity,
+      final SimulationCheckpointCache checkpointCache
   ) {
     final var mockMerlinService = new MockMerlinDatabaseService();
     mockMerlinService.setMissionModel(getMissionModelInfo(desc));
@@ -2216,7 +2287,8 @@ public class SchedulingEdslIntegrationTests {
         mockMerlinService,
         desc.libPath(),
         PlanOutputMode.UpdateInputPlanWithNewActivities,
-        schedulingDSLCompiler);
+        schedulingDSLCompiler,
+        checkpointCache);
     // Scheduling Goals -> Scheduling Specification
     final var writer = new MockResultsProtocolWriter();
     agent.schedule(new ScheduleRequest(new SpecificationId(1L), new SpecificationRevisionData(1L, 1L)), writer, () -> false, cachedEngineStoreCapacity);
@@ -0,0 +1,115 @@
+package gov.nasa.jpl.aerie.scheduler.worker.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.scheduler.worker.services.SynchronousSchedulerAgent.SchedulerMissionModel;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class SimulationCheckpointCacheTest {
+  private final List<SchedulerMissionModel> loaded = new ArrayList<>();
+  private final Supplier<SchedulerMissionModel> loader = () -> {
+    final var model = new SchedulerMissionModel(null, null);
+    this.loaded.add(model);
+    return model;
+  };
+
+  @Test
+  public void reusesSessionAcrossRuns() {
+    try (final var cache = new SimulationCheckpointCache(2, 1024)) {
+      final var first = cache.checkOut(key(1, 0, Map.of()), 4, this.loader);
+      cache.checkIn(first);
+      final var second = cache.checkOut(key(1, 0, Map.of()), 4, this.loader);
+
+      assertSame(first, second);
+      assertEquals(1, this.loaded.size());
+    }
+  }
+
+  @Test
+  public void reloadsOnModelRevisionOrConfigurationChange() {
+    try (final var cache = new SimulationCheckpointCache(4, 1024)) {
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(1, 1, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(1, 1, Map.of("mode", SerializedValue.of("fast"))), 4, this.loader));
+
+      // Every change dropped the sessions of earlier revisions and configurations, so going back reloads too.
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      assertEquals(4, this.loaded.size());
+    }
+  }
+
+  @Test
+  public void keepsSessionsOfOtherModelsAndPlans() {
+    try (final var cache = new SimulationCheckpointCache(4, 1024)) {
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(2, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(new SimulationCheckpointCache.Key(
+          configuration(1, Map.of(), Instant.EPOCH.plusSeconds(60)), 0, Instant.EPOCH, Instant.EPOCH.plusSeconds(3600)),
+          4,
+          this.loader));
+
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(2, 0, Map.of()), 4, this.loader));
+      assertEquals(3, this.loaded.size());
+    }
+  }
+
+  @Test
+  public void dropsLeastRecentlyUsedSession() {
+    try (final var cache = new SimulationCheckpointCache(2, 1024)) {
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(2, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      cache.checkIn(cache.checkOut(key(3, 0, Map.of()), 4, this.loader));
+
+      cache.checkIn(cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+      assertEquals(3, this.loaded.size());
+      cache.checkIn(cache.checkOut(key(2, 0, Map.of()), 4, this.loader));
+      assertEquals(4, this.loaded.size());
+    }
+  }
+
+  @Test
+  public void concurrentRunsDoNotShareASession() {
+    try (final var cache = new SimulationCheckpointCache(2, 1024)) {
+      final var first = cache.checkOut(key(1, 0, Map.of()), 4, this.loader);
+      final var second = cache.checkOut(key(1, 0, Map.of()), 4, this.loader);
+      assertNotSame(first, second);
+
+      cache.checkIn(first);
+      cache.checkIn(second);
+      assertSame(second, cache.checkOut(key(1, 0, Map.of()), 4, this.loader));
+    }
+  }
+
+  private static SimulationCheckpointCache.Key key(
+      final long modelId,
+      final long revision,
+      final Map<String, SerializedValue> configuration)
+  {
+    return new SimulationCheckpointCache.Key(
+        configuration(modelId, configuration, Instant.EPOCH),
+        revision,
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(3600));
+  }
+
+  private static SimulationEngineConfiguration configuration(
+      final long modelId,
+      final Map<String, SerializedValue> configuration,
+      final Instant planStart)
+  {
+    return new SimulationEngineConfiguration(configuration, planStart, new MissionModelId(modelId));
+  }
+}